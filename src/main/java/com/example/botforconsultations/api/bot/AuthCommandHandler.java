@@ -1,5 +1,7 @@
 package com.example.botforconsultations.api.bot;
 
+import com.example.botforconsultations.api.bot.service.TeacherDirectory;
+import com.example.botforconsultations.api.bot.service.TelegramUserCache;
 import com.example.botforconsultations.api.bot.utils.DeaneryKeyboardBuilder;
 import com.example.botforconsultations.api.bot.utils.KeyboardConstants;
 import com.example.botforconsultations.api.bot.utils.TeacherKeyboardBuilder;
@@ -26,6 +28,8 @@ public class AuthCommandHandler {
 
     private final BotMessenger botMessenger;
     private final TelegramUserRepository telegramUserRepository;
+    private final TelegramUserCache telegramUserCache;
+    private final TeacherDirectory teacherDirectory;
     private final StudentCommandHandler studentCommands;
     private final TeacherCommandHandler teacherCommands;
     private final DeaneryCommandHandler deaneryCommands;
@@ -33,7 +37,7 @@ public class AuthCommandHandler {
     private final DeaneryKeyboardBuilder deaneryKeyboardBuilder;
 
     public void handleStart(Long chatId) {
-        Optional<TelegramUser> existingUser = telegramUserRepository.findByTelegramId(chatId);
+        Optional<TelegramUser> existingUser = telegramUserCache.findByTelegramId(chatId);
         if (existingUser.isEmpty()) {
             requestContact(chatId);
         } else if (existingUser.get().getRole() == null) {
@@ -44,7 +48,7 @@ public class AuthCommandHandler {
     }
 
     public void handleContact(Contact contact, Long chatId) {
-        Optional<TelegramUser> existingUser = telegramUserRepository.findByTelegramId(chatId);
+        Optional<TelegramUser> existingUser = telegramUserCache.findByTelegramId(chatId);
 
         if (existingUser.isPresent()) {
             botMessenger.sendText("Вы уже зарегистрированы", chatId);
@@ -62,6 +66,7 @@ public class AuthCommandHandler {
 
         try {
             telegramUserRepository.save(user);
+            telegramUserCache.invalidate(chatId);
             sendRoleSelectionMenu(chatId);
         } catch (Exception e) {
             if (e.getMessage().contains("uk_telegram_users_name")) {
@@ -77,7 +82,7 @@ public class AuthCommandHandler {
     }
 
     public void handleRoleSelection(Long chatId, Role role) {
-        Optional<TelegramUser> userOptional = telegramUserRepository.findByTelegramId(chatId);
+        Optional<TelegramUser> userOptional = telegramUserCache.findByTelegramId(chatId);
 
         if (userOptional.isPresent()) {
             TelegramUser user = userOptional.get();
@@ -96,6 +101,7 @@ public class AuthCommandHandler {
                 case ADMIN -> user.setHasConfirmed(false); // Администраторы должны быть подтверждены
             }
             telegramUserRepository.save(user);
+            telegramUserCache.invalidate(chatId);
 
             switch (role) {
                 case STUDENT -> {
@@ -194,7 +200,7 @@ public class AuthCommandHandler {
 
 
     public void handleRoleChange(Long chatId, Role role) {
-        Optional<TelegramUser> userOptional = telegramUserRepository.findByTelegramId(chatId);
+        Optional<TelegramUser> userOptional = telegramUserCache.findByTelegramId(chatId);
         if (userOptional.isEmpty()) {
             botMessenger.sendText("Пользователь не найден. Отправьте /start.", chatId);
             return;
@@ -221,6 +227,9 @@ public class AuthCommandHandler {
         }
 
         telegramUserRepository.save(user);
+        telegramUserCache.invalidate(chatId);
+        // Подтверждённый преподаватель при смене роли уходит из справочника
+        teacherDirectory.changed();
 
         switch (role) {
             case STUDENT -> botMessenger.sendText(
@@ -1,47 +1,103 @@
 package com.example.botforconsultations.api.bot;
 
+import com.example.botforconsultations.api.bot.messaging.OutboundMessageQueue;
+import com.example.botforconsultations.api.bot.utils.MessageChunks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.meta.generics.TelegramClient;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
 
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Отправка сообщений пользователям.
+ * Сообщения ставятся в OutboundMessageQueue и отправляются асинхронно с учётом лимитов Telegram.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BotMessenger {
 
-    private final TelegramClient telegramClient;
+    private final OutboundMessageQueue outboundQueue;
 
     // Отправка простого текстового сообщения
-    public void sendText(String text, Long chatId) {
+    public CompletableFuture<Message> sendText(String text, Long chatId) {
         SendMessage message = SendMessage.builder()
                 .text(text)
                 .chatId(chatId)
                 .build();
-        execute(message);
+        return execute(message);
     }
 
     // Отправка сообщения с inline-клавиатурой
-    public void sendTextWithInlineKeyboard(String text, Long chatId, InlineKeyboardMarkup keyboard) {
+    public CompletableFuture<Message> sendTextWithInlineKeyboard(String text, Long chatId, InlineKeyboardMarkup keyboard) {
         SendMessage message = SendMessage.builder()
                 .text(text)
                 .chatId(chatId)
                 .replyMarkup(keyboard)
                 .build();
-        execute(message);
+        return execute(message);
+    }
+
+    // Отправка длинного текста несколькими сообщениями по порядку (лимит Telegram - 4096 символов).
+    // Текст пишет writer; каждое заполненное сообщение сразу ставится в очередь, клавиатура - у последнего
+    public void sendLongText(Long chatId, ReplyKeyboard keyboard, Consumer<MessageChunks> writer) {
+        MessageChunks chunks = new MessageChunks((text, last) -> execute(SendMessage.builder()
+                .text(text)
+                .chatId(chatId)
+                .replyMarkup(last ? keyboard : null)
+                .build()));
+        writer.accept(chunks);
+        chunks.finish();
     }
 
-    // Унифицированное выполнение отправки сообщения
-    public void execute(SendMessage message) {
+    // Замена текста и inline-клавиатуры отправленного сообщения (перелистывание списков без новых сообщений)
+    public CompletableFuture<Serializable> editTextWithInlineKeyboard(String text, Long chatId, Integer messageId,
+                                                                      InlineKeyboardMarkup keyboard) {
+        EditMessageText edit = EditMessageText.builder()
+                .text(text)
+                .chatId(chatId)
+                .messageId(messageId)
+                .replyMarkup(keyboard)
+                .build();
+        return outboundQueue.enqueue(chatId, edit)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.error("Error editing message {} in chat {}: {}", messageId, chatId, error.getMessage());
+                    }
+                });
+    }
+
+    // Ответ на нажатие inline-кнопки (Telegram показывает индикатор загрузки на кнопке до ответа)
+    public CompletableFuture<Boolean> answerCallback(String callbackQueryId, Long chatId) {
+        return outboundQueue.enqueue(chatId, AnswerCallbackQuery.builder()
+                .callbackQueryId(callbackQueryId)
+                .build());
+    }
+
+    // Унифицированное выполнение отправки сообщения (асинхронно, через очередь)
+    public CompletableFuture<Message> execute(SendMessage message) {
+        return outboundQueue.enqueue(parseChatId(message.getChatId()), message)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.error("Error sending message to chat {}: {}", message.getChatId(), error.getMessage());
+                    }
+                });
+    }
+
+    private long parseChatId(String chatId) {
         try {
-            telegramClient.execute(message);
-        } catch (TelegramApiException e) {
-            log.error("Error sending message: {}", e.getMessage());
+            return Long.parseLong(chatId);
+        } catch (NumberFormatException e) {
+            // @username каналов не используются ботом, но не должны ломать отправку
+            return chatId.hashCode();
         }
     }
 }
-
-
@@ -1,8 +1,15 @@
 package com.example.botforconsultations.api.bot;
 
+import com.example.botforconsultations.api.bot.command.TextCommandRegistry;
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.ListCallback;
+import com.example.botforconsultations.api.bot.paging.ListCodes;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.api.bot.service.ConsultationService;
 import com.example.botforconsultations.api.bot.service.TeacherSearchService;
+import com.example.botforconsultations.api.bot.service.TelegramUserCache;
 import com.example.botforconsultations.api.bot.service.TodoTaskService;
+import com.example.botforconsultations.api.bot.service.TodoTaskService.TaskFilter;
 import com.example.botforconsultations.api.bot.state.DeaneryStateManager;
 import com.example.botforconsultations.api.bot.state.DeaneryStateManager.DeaneryState;
 import com.example.botforconsultations.api.bot.utils.ConsultationMessageFormatter;
@@ -12,9 +19,10 @@ import com.example.botforconsultations.api.bot.utils.TeacherNameFormatter;
 import com.example.botforconsultations.api.bot.utils.TodoMessageFormatter;
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.Role;
+import com.example.botforconsultations.core.model.TeacherSummary;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.model.TodoTask;
-import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,10 +46,8 @@ import static com.example.botforconsultations.core.util.TimeUtils.parseDateTime;
 @RequiredArgsConstructor
 public class DeaneryCommandHandler {
 
-    // Репозитории
-    private final TelegramUserRepository telegramUserRepository;
-
     // Сервисы
+    private final TelegramUserCache telegramUserCache;
     private final TeacherSearchService teacherSearchService;
     private final ConsultationService consultationService;
     private final TodoTaskService todoTaskService;
@@ -58,6 +64,63 @@ public class DeaneryCommandHandler {
     @Lazy
     private AuthCommandHandler authCommandHandler;
 
+    // Кнопки главного меню и экранов деканата
+    private final TextCommandRegistry textCommands = new TextCommandRegistry("deanery");
+
+    /**
+     * Текстовые команды деканата
+     */
+    @PostConstruct
+    void registerTextCommands() {
+        textCommands.register(KeyboardConstants.HELP, this::sendHelp);
+
+        // Меню преподавателей
+        textCommands.register(KeyboardConstants.TEACHERS_MENU, this::sendTeachersMenu);
+        textCommands.register(KeyboardConstants.ALL_TEACHERS, this::showAllTeachers);
+        textCommands.register(KeyboardConstants.SEARCH_TEACHER, this::startTeacherSearch);
+
+        // TODO: Управление задачами
+        textCommands.register(KeyboardConstants.ALL_TASKS, chatId -> {
+            stateManager.setListCursor(chatId, null);
+            showAllTasks(chatId);
+        });
+        textCommands.register(KeyboardConstants.CREATE_TASK, this::startTaskCreation);
+        textCommands.register(KeyboardConstants.TEACHER_TASKS, chatId -> {
+            stateManager.setListCursor(chatId, null);
+            showTeacherTasks(chatId);
+        });
+        textCommands.register(KeyboardConstants.TEACHER_CONSULTATIONS, this::showTeacherConsultationsFromMenu);
+
+        // Просмотр консультации
+        textCommands.register(KeyboardConstants.STUDENT_LIST, this::showStudentList);
+
+        // TODO: Управление задачей
+        textCommands.register(KeyboardConstants.MARK_COMPLETED, this::markTaskCompleted);
+        textCommands.register(KeyboardConstants.MARK_PENDING, this::markTaskPending);
+        textCommands.register(KeyboardConstants.EDIT_TASK, this::startEditTask);
+        textCommands.register(KeyboardConstants.EDIT_TASK_TITLE, this::startEditTaskTitle);
+        textCommands.register(KeyboardConstants.EDIT_TASK_DESCRIPTION, this::startEditTaskDescription);
+        textCommands.register(KeyboardConstants.EDIT_TASK_DEADLINE, this::startEditTaskDeadline);
+        textCommands.register(KeyboardConstants.DELETE_TASK, this::startDeleteTask);
+        textCommands.register(KeyboardConstants.CONFIRM_DELETE, this::confirmDeleteTask);
+
+        // Навигация
+        textCommands.register(KeyboardConstants.MAIN_MENU, this::sendMainMenu);
+        textCommands.register(KeyboardConstants.BACK_TO_TEACHERS, this::sendTeachersMenu);
+        textCommands.register(KeyboardConstants.BACK_TO_LIST, this::backToList);
+        textCommands.register(KeyboardConstants.BACK, this::handleBackButton);
+
+        // Фильтры по времени (используются и для консультаций, и для задач)
+        textCommands.register(KeyboardConstants.FILTER_PAST, chatId -> applyTimeFilter(chatId, "past"));
+        textCommands.register(KeyboardConstants.FILTER_ALL, chatId -> applyTimeFilter(chatId, "all"));
+        textCommands.register(KeyboardConstants.FILTER_FUTURE, chatId -> applyTimeFilter(chatId, "future"));
+
+        // Фильтры задач по статусу
+        textCommands.register(KeyboardConstants.FILTER_TASK_INCOMPLETE, chatId -> applyTaskStatusFilter(chatId, "incomplete"));
+        textCommands.register(KeyboardConstants.FILTER_TASK_ALL, chatId -> applyTaskStatusFilter(chatId, "all"));
+        textCommands.register(KeyboardConstants.FILTER_TASK_COMPLETED, chatId -> applyTaskStatusFilter(chatId, "completed"));
+    }
+
     /**
      * Главный обработчик команд деканата
      */
@@ -125,62 +188,19 @@ public class DeaneryCommandHandler {
         }
 
         // Основные команды
-        switch (text) {
-            case KeyboardConstants.HELP -> sendHelp(chatId);
-
-            // Меню преподавателей
-            case KeyboardConstants.TEACHERS_MENU -> sendTeachersMenu(chatId);
-            case KeyboardConstants.ALL_TEACHERS -> showAllTeachers(chatId);
-            case KeyboardConstants.SEARCH_TEACHER -> startTeacherSearch(chatId);
-
-            // TODO: Управление задачами
-            case KeyboardConstants.ALL_TASKS -> showAllTasks(chatId);
-            case KeyboardConstants.CREATE_TASK -> startTaskCreation(chatId);
-            case KeyboardConstants.TEACHER_TASKS -> showTeacherTasks(chatId);
-            case KeyboardConstants.TEACHER_CONSULTATIONS -> showTeacherConsultationsFromMenu(chatId);
-
-            // Просмотр консультации
-            case KeyboardConstants.STUDENT_LIST -> showStudentList(chatId);
-
-            // TODO: Управление задачей
-            case KeyboardConstants.MARK_COMPLETED -> markTaskCompleted(chatId);
-            case KeyboardConstants.MARK_PENDING -> markTaskPending(chatId);
-            case KeyboardConstants.EDIT_TASK -> startEditTask(chatId);
-            case KeyboardConstants.EDIT_TASK_TITLE -> startEditTaskTitle(chatId);
-            case KeyboardConstants.EDIT_TASK_DESCRIPTION -> startEditTaskDescription(chatId);
-            case KeyboardConstants.EDIT_TASK_DEADLINE -> startEditTaskDeadline(chatId);
-            case KeyboardConstants.DELETE_TASK -> startDeleteTask(chatId);
-            case KeyboardConstants.CONFIRM_DELETE -> confirmDeleteTask(chatId);
-
-
-            // Навигация
-            case KeyboardConstants.MAIN_MENU -> sendMainMenu(chatId);
-            case KeyboardConstants.BACK_TO_TEACHERS -> sendTeachersMenu(chatId);
-            case KeyboardConstants.BACK_TO_LIST -> backToList(chatId);
-            case KeyboardConstants.BACK -> handleBackButton(chatId);
-
-            // Фильтры по времени (используются и для консультаций, и для задач)
-            case KeyboardConstants.FILTER_PAST -> applyTimeFilter(chatId, "past");
-            case KeyboardConstants.FILTER_ALL -> applyTimeFilter(chatId, "all");
-            case KeyboardConstants.FILTER_FUTURE -> applyTimeFilter(chatId, "future");
-
-            // Фильтры задач по статусу
-            case KeyboardConstants.FILTER_TASK_INCOMPLETE -> applyTaskStatusFilter(chatId, "incomplete");
-            case KeyboardConstants.FILTER_TASK_ALL -> applyTaskStatusFilter(chatId, "all");
-            case KeyboardConstants.FILTER_TASK_COMPLETED -> applyTaskStatusFilter(chatId, "completed");
-
-            default ->{
-                // Обработка состояний ввода
-                if (currentState == DeaneryState.WAITING_FOR_TEACHER_NAME) {
-                    processTeacherSearch(text, chatId);
-                    return;
-                }
-                botMessenger.sendText(
-                    "Извините, я не понимаю эту команду. Отправьте 'Помощь' для получения списка доступных команд.",
-                    chatId
-                );
-            } 
+        if (textCommands.dispatch(text, chatId)) {
+            return;
+        }
+
+        // Обработка состояний ввода
+        if (currentState == DeaneryState.WAITING_FOR_TEACHER_NAME) {
+            processTeacherSearch(text, chatId);
+            return;
         }
+        botMessenger.sendText(
+                "Извините, я не понимаю эту команду. Отправьте 'Помощь' для получения списка доступных команд.",
+                chatId
+        );
     }
 
     /**
@@ -308,24 +328,20 @@ public class DeaneryCommandHandler {
     }
 
     /**
-     * Показать всех преподавателей (первые 5 в кнопках)
+     * Показать всех преподавателей (постранично, inline-кнопками)
      */
     private void showAllTeachers(Long chatId) {
-        List<TelegramUser> teachers = teacherSearchService.getAllTeachers();
+        KeysetPage<TeacherSummary> page = teacherSearchService.getTeachersPage(PageCursor.first());
 
-        if (teachers.isEmpty()) {
+        if (page.isEmpty()) {
             botMessenger.sendText("Преподаватели не найдены.", chatId);
             return;
         }
 
         stateManager.setState(chatId, DeaneryState.DEFAULT);
 
-        String message = formatTeachersList(teachers);
-        botMessenger.execute(SendMessage.builder()
-                .text(message)
-                .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildTeacherListKeyboard(teachers))
-                .build());
+        botMessenger.sendTextWithInlineKeyboard(formatTeachersList(page.items()), chatId,
+                keyboardBuilder.buildTeachersPage(ListCodes.TEACHERS, page));
     }
 
     /**
@@ -343,7 +359,7 @@ public class DeaneryCommandHandler {
      * Обработать поиск преподавателя
      */
     private void processTeacherSearch(String searchQuery, Long chatId) {
-        List<TelegramUser> teachers = teacherSearchService.searchTeachers(searchQuery);
+        List<TeacherSummary> teachers = teacherSearchService.searchTeachers(searchQuery);
 
         if (teachers.isEmpty()) {
             botMessenger.sendText(
@@ -355,19 +371,24 @@ public class DeaneryCommandHandler {
 
         stateManager.resetState(chatId);
 
+        // Результаты поиска ограничены bot.teacher-search.limit и умещаются на одной странице
         String message = "Найдено преподавателей: " + teachers.size() + "\n\n" + formatTeachersList(teachers);
-        botMessenger.execute(SendMessage.builder()
-                .text(message)
-                .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildTeacherListKeyboard(teachers))
-                .build());
+        KeysetPage<TeacherSummary> page = new KeysetPage<>(teachers, null, null, PageCursor.first());
+        botMessenger.sendTextWithInlineKeyboard(message, chatId,
+                keyboardBuilder.buildTeachersPage(ListCodes.TEACHERS, page));
     }
 
     /**
      * Обработать выбор преподавателя
      */
     private void handleTeacherSelection(String buttonText, Long chatId) {
-        TelegramUser teacher = teacherSearchService.findByIdFromButton(buttonText);
+        selectTeacher(chatId, teacherSearchService.findByIdFromButton(buttonText));
+    }
+
+    /**
+     * Выбрать преподавателя и показать меню действий с ним
+     */
+    private void selectTeacher(Long chatId, TelegramUser teacher) {
         if (teacher == null) {
             botMessenger.sendText("Преподаватель не найден.", chatId);
             return;
@@ -418,23 +439,33 @@ public class DeaneryCommandHandler {
     }
 
     /**
-     * Показать консультации выбранного преподавателя
+     * Показать консультации выбранного преподавателя: меню фильтров, затем список
      */
     private void showTeacherConsultations(Long chatId, TelegramUser teacher) {
-        String filter = stateManager.getFilter(chatId);
-        List<Consultation> consultations = consultationService.getTeacherConsultations(teacher, filter);
-
-        String messageText = messageFormatter.formatConsultationsList(teacher, consultations, filter);
-
         // Просмотр списка консультаций: очищаем ID конкретной консультации
         stateManager.clearCurrentConsultation(chatId);
         stateManager.setState(chatId, DeaneryState.VIEWING_TEACHER_CONSULTATIONS);
 
         botMessenger.execute(SendMessage.builder()
-                .text(messageText)
+                .text(String.format("Консультации преподавателя %s", TeacherNameFormatter.formatFullName(teacher)))
                 .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildTeacherConsultations(consultations))
+                .replyMarkup(keyboardBuilder.buildTeacherConsultationsMenu())
                 .build());
+        sendConsultationsList(chatId, teacher);
+    }
+
+    /**
+     * Отправить список консультаций преподавателя с текущим фильтром, начиная с сохранённой страницы
+     */
+    private void sendConsultationsList(Long chatId, TelegramUser teacher) {
+        String filter = stateManager.getFilter(chatId);
+        KeysetPage<Consultation> page = consultationService.getTeacherConsultationsPage(
+                teacher, filter, stateManager.getListCursor(chatId));
+        stateManager.setListCursor(chatId, page.current());
+
+        botMessenger.sendTextWithInlineKeyboard(
+                messageFormatter.formatConsultationsList(teacher, page.items(), filter), chatId,
+                keyboardBuilder.buildConsultationsPage(ListCodes.consultations(filter, teacher.getId()), page));
     }
 
     /**
@@ -487,7 +518,72 @@ public class DeaneryCommandHandler {
         }
 
         stateManager.setFilter(chatId, filter);
-        showTeacherConsultations(chatId, teacher);
+        sendConsultationsList(chatId, teacher);
+    }
+
+    /**
+     * Обработчик inline-кнопок постраничных списков
+     */
+    public void handleListCallback(ListCallback callback, Long chatId, Integer messageId) {
+        switch (callback.type()) {
+            case ListCodes.TEACHERS -> {
+                if (callback.isPage()) {
+                    KeysetPage<TeacherSummary> page = teacherSearchService.getTeachersPage(callback.cursor());
+                    botMessenger.editTextWithInlineKeyboard(formatTeachersList(page.items()), chatId, messageId,
+                            keyboardBuilder.buildTeachersPage(ListCodes.TEACHERS, page));
+                } else if (callback.id() != null) {
+                    selectTeacher(chatId, teacherSearchService.findById(callback.id()));
+                }
+            }
+            case ListCodes.CONSULTATIONS -> {
+                if (callback.isPage()) {
+                    changeConsultationsPage(callback, chatId, messageId);
+                } else if (callback.id() != null) {
+                    Long teacherId = ListCodes.teacherId(callback);
+                    if (teacherId != null) {
+                        stateManager.setCurrentTeacher(chatId, teacherId);
+                    }
+                    showConsultationDetails(chatId, callback.id());
+                }
+            }
+            case ListCodes.TASKS -> {
+                if (callback.isPage()) {
+                    changeTasksPage(callback, chatId, messageId);
+                } else if (callback.id() != null) {
+                    Long teacherId = ListCodes.teacherId(callback);
+                    if (teacherId != null) {
+                        stateManager.setCurrentTeacher(chatId, teacherId);
+                    }
+                    showTaskDetails(chatId, callback.id());
+                }
+            }
+            default -> log.warn("Unknown deanery list: {}", callback.list());
+        }
+    }
+
+    /**
+     * Перелистнуть список консультаций: сообщение со списком редактируется на месте
+     */
+    private void changeConsultationsPage(ListCallback callback, Long chatId, Integer messageId) {
+        Long teacherId = ListCodes.teacherId(callback);
+        TelegramUser teacher = teacherId != null ? teacherSearchService.findById(teacherId) : null;
+        if (teacher == null) {
+            botMessenger.sendText("❌ Преподаватель не найден.", chatId);
+            return;
+        }
+
+        String filter = ListCodes.filter(callback);
+        KeysetPage<Consultation> page = consultationService.getTeacherConsultationsPage(
+                teacher, filter, callback.cursor());
+
+        // Страницу запоминаем, только если это список, открытый сейчас, - к нему вернёт "Назад к списку"
+        if (teacherId.equals(stateManager.getCurrentTeacher(chatId)) && filter.equals(stateManager.getFilter(chatId))) {
+            stateManager.setListCursor(chatId, page.current());
+        }
+
+        botMessenger.editTextWithInlineKeyboard(
+                messageFormatter.formatConsultationsList(teacher, page.items(), filter), chatId, messageId,
+                keyboardBuilder.buildConsultationsPage(callback.list(), page));
     }
 
     /**
@@ -562,9 +658,7 @@ public class DeaneryCommandHandler {
      * Получить количество зарегистрированных студентов на консультацию
      */
     private long getRegisteredCount(Consultation consultation) {
-        return consultation.getRegUsers() != null
-                ? consultation.getRegUsers().size()
-                : 0;
+        return consultation.getRegisteredCount();
     }
 
     /**
@@ -602,19 +696,19 @@ public class DeaneryCommandHandler {
                 consultation.getDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy")),
                 consultation.getStartTime().format(DateTimeFormatter.ofPattern("HH:mm"))));
 
-        var regUsers = consultation.getRegUsers();
-        if (regUsers == null || regUsers.isEmpty()) {
+        var registrations = consultationService.getRegistrations(consultation.getId());
+        if (registrations.isEmpty()) {
             message.append("❌ Нет записавшихся студентов");
         } else {
             Integer capacity = consultation.getCapacity();
             if (capacity != null) {
-                message.append(String.format("Записано: %d/%d\n\n", regUsers.size(), capacity));
+                message.append(String.format("Записано: %d/%d\n\n", registrations.size(), capacity));
             } else {
-                message.append(String.format("Записано: %d\n\n", regUsers.size()));
+                message.append(String.format("Записано: %d\n\n", registrations.size()));
             }
 
             int counter = 1;
-            for (var registration : regUsers) {
+            for (var registration : registrations) {
                 TelegramUser student = registration.getStudent();
                 message.append(String.format("%d. %s %s",
                         counter++,
@@ -791,30 +885,90 @@ public class DeaneryCommandHandler {
     // ========== Управление задачами ==========
 
     /**
-     * Показать все задачи в системе
+     * Показать все задачи в системе: меню фильтров, затем список
      */
     private void showAllTasks(Long chatId) {
-        // Получить фильтры из состояния
-        String statusFilter = stateManager.getTaskStatusFilter(chatId);
-        String deadlineFilter = stateManager.getTaskDeadlineFilter(chatId);
-
-        // Получить все активные задачи
-        List<TodoTask> allTasks = todoTaskService.getAllActiveTasks();
-
-        // Применить фильтры
-        List<TodoTask> filteredTasks = applyTaskFilters(allTasks, statusFilter, deadlineFilter);
-
-        String messageText = todoMessageFormatter.formatAllTasksList(filteredTasks, statusFilter, deadlineFilter);
-
         // Очищаем текущую задачу при просмотре списка
         stateManager.clearCurrentTask(chatId);
         stateManager.setState(chatId, DeaneryState.VIEWING_ALL_TASKS);
 
         botMessenger.execute(SendMessage.builder()
-                .text(messageText)
+                .text("📋 Все задачи в системе")
                 .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildAllTasksList(filteredTasks))
+                .replyMarkup(keyboardBuilder.buildAllTasksMenu())
                 .build());
+        sendTasksList(chatId, null);
+    }
+
+    /**
+     * Отправить список задач с текущими фильтрами, начиная с сохранённой страницы
+     *
+     * @param teacher преподаватель (null - задачи всех преподавателей)
+     */
+    private void sendTasksList(Long chatId, TelegramUser teacher) {
+        String statusFilter = stateManager.getTaskStatusFilter(chatId);
+        String deadlineFilter = stateManager.getTaskDeadlineFilter(chatId);
+        Long teacherId = teacher != null ? teacher.getId() : null;
+
+        TaskFilter filter = new TaskFilter(teacherId, statusFilter, deadlineFilter);
+        KeysetPage<TodoTask> page = todoTaskService.getTasksPage(filter, stateManager.getListCursor(chatId));
+        stateManager.setListCursor(chatId, page.current());
+
+        botMessenger.sendTextWithInlineKeyboard(
+                formatTasksList(teacher, page, todoTaskService.countTasks(filter), statusFilter, deadlineFilter),
+                chatId,
+                keyboardBuilder.buildTasksPage(ListCodes.tasks(statusFilter, deadlineFilter, teacherId), page));
+    }
+
+    /**
+     * Перелистнуть список задач: сообщение со списком редактируется на месте
+     */
+    private void changeTasksPage(ListCallback callback, Long chatId, Integer messageId) {
+        Long teacherId = ListCodes.teacherId(callback);
+        TelegramUser teacher = null;
+        if (teacherId != null) {
+            teacher = teacherSearchService.findById(teacherId);
+            if (teacher == null) {
+                botMessenger.sendText("❌ Преподаватель не найден.", chatId);
+                return;
+            }
+        }
+
+        String statusFilter = ListCodes.taskStatus(callback);
+        String deadlineFilter = ListCodes.taskDeadline(callback);
+        TaskFilter filter = new TaskFilter(teacherId, statusFilter, deadlineFilter);
+        KeysetPage<TodoTask> page = todoTaskService.getTasksPage(filter, callback.cursor());
+
+        // Страницу запоминаем, только если это список, открытый сейчас, - к нему вернёт "Назад к списку"
+        if (callback.list().equals(currentTasksList(chatId))) {
+            stateManager.setListCursor(chatId, page.current());
+        }
+
+        botMessenger.editTextWithInlineKeyboard(
+                formatTasksList(teacher, page, todoTaskService.countTasks(filter), statusFilter, deadlineFilter),
+                chatId, messageId,
+                keyboardBuilder.buildTasksPage(callback.list(), page));
+    }
+
+    /**
+     * Код списка задач, открытого сейчас (null - пользователь не в списке задач)
+     */
+    private String currentTasksList(Long chatId) {
+        String statusFilter = stateManager.getTaskStatusFilter(chatId);
+        String deadlineFilter = stateManager.getTaskDeadlineFilter(chatId);
+        return switch (stateManager.getState(chatId)) {
+            case VIEWING_ALL_TASKS -> ListCodes.tasks(statusFilter, deadlineFilter, null);
+            case VIEWING_TEACHER_TASKS -> ListCodes.tasks(statusFilter, deadlineFilter,
+                    stateManager.getCurrentTeacher(chatId));
+            default -> null;
+        };
+    }
+
+    private String formatTasksList(TelegramUser teacher, KeysetPage<TodoTask> page, long total,
+                                   String statusFilter, String deadlineFilter) {
+        return teacher != null
+                ? todoMessageFormatter.formatTeacherTasksList(teacher, page.items(), total, statusFilter, deadlineFilter)
+                : todoMessageFormatter.formatAllTasksList(page.items(), total, statusFilter, deadlineFilter);
     }
 
     /**
@@ -832,33 +986,6 @@ public class DeaneryCommandHandler {
         }
     }
 
-    /**
-     * Применить фильтры к списку задач
-     */
-    private List<TodoTask> applyTaskFilters(List<TodoTask> tasks, String statusFilter, String deadlineFilter) {
-        LocalDateTime currentTime = now();
-
-        return tasks.stream()
-                .filter(task -> {
-                    // Фильтр по статусу
-                    boolean statusMatch = switch (statusFilter) {
-                        case "incomplete" -> !task.getIsCompleted();
-                        case "completed" -> task.getIsCompleted();
-                        default -> true; // "all"
-                    };
-
-                    // Фильтр по дедлайну
-                    boolean deadlineMatch = switch (deadlineFilter) {
-                        case "past" -> task.getDeadline().isBefore(currentTime);
-                        case "future" -> task.getDeadline().isAfter(currentTime);
-                        default -> true; // "all"
-                    };
-
-                    return statusMatch && deadlineMatch;
-                })
-                .toList();
-    }
-
     private void startTaskCreation(Long chatId) {
         stateManager.setState(chatId, DeaneryState.CREATING_TODO_TITLE);
         botMessenger.execute(SendMessage.builder()
@@ -986,7 +1113,8 @@ public class DeaneryCommandHandler {
         stateManager.resetState(chatId);
         stateManager.clearTempData(chatId);
 
-        // Показываем обновлённый список задач преподавателя
+        // Показываем обновлённый список задач преподавателя с первой страницы
+        stateManager.setListCursor(chatId, null);
         showTeacherTasks(chatId);
     }
 
@@ -1008,27 +1136,16 @@ public class DeaneryCommandHandler {
             return;
         }
 
-        // Получить фильтры из состояния
-        String statusFilter = stateManager.getTaskStatusFilter(chatId);
-        String deadlineFilter = stateManager.getTaskDeadlineFilter(chatId);
-
-        // Получить все задачи преподавателя
-        List<TodoTask> allTasks = todoTaskService.getTeacherTasks(teacher);
-
-        // Применить фильтры
-        List<TodoTask> filteredTasks = applyTaskFilters(allTasks, statusFilter, deadlineFilter);
-
-        String messageText = todoMessageFormatter.formatTeacherTasksList(teacher, filteredTasks, statusFilter, deadlineFilter);
-
         // Очищаем текущую задачу при просмотре списка
         stateManager.clearCurrentTask(chatId);
         stateManager.setState(chatId, DeaneryState.VIEWING_TEACHER_TASKS);
 
         botMessenger.execute(SendMessage.builder()
-                .text(messageText)
+                .text(String.format("📋 Задачи преподавателя %s", TeacherNameFormatter.formatFullName(teacher)))
                 .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildTeacherTasksList(filteredTasks))
+                .replyMarkup(keyboardBuilder.buildTeacherTasksMenu())
                 .build());
+        sendTasksList(chatId, teacher);
     }
 
     /**
@@ -1053,13 +1170,8 @@ public class DeaneryCommandHandler {
         stateManager.setCurrentTask(chatId, taskId);
         stateManager.setState(chatId, DeaneryState.VIEWING_TASK_DETAILS);
 
-        String messageText = todoMessageFormatter.formatTaskDetails(task);
-
-        botMessenger.execute(SendMessage.builder()
-                .text(messageText)
-                .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildTaskDetails(task))
-                .build());
+        botMessenger.sendLongText(chatId, keyboardBuilder.buildTaskDetails(task),
+                out -> todoMessageFormatter.writeTaskDetails(task, out));
     }
 
     private void markTaskCompleted(Long chatId) {
@@ -1417,15 +1529,10 @@ public class DeaneryCommandHandler {
     /**
      * Форматировать список преподавателей для отображения
      */
-    private String formatTeachersList(List<TelegramUser> teachers) {
+    private String formatTeachersList(List<TeacherSummary> teachers) {
         StringBuilder message = new StringBuilder();
         int count = 1;
-        for (TelegramUser teacher : teachers) {
-            if (count > 5) {
-                message.append("\n... и ещё ").append(teachers.size() - 5).append(" преподавателей");
-                message.append("\nВведите имя или фамилию для поиска конкретного преподавателя.");
-                break;
-            }
+        for (TeacherSummary teacher : teachers) {
             message.append(count++).append(". ")
                     .append(TeacherNameFormatter.formatFullName(teacher))
                     .append("\n");
@@ -1437,7 +1544,7 @@ public class DeaneryCommandHandler {
      * Получить текущего пользователя деканата
      */
     private TelegramUser getCurrentDeanery(Long chatId) {
-        return telegramUserRepository.findByTelegramId(chatId)
+        return telegramUserCache.findByTelegramId(chatId)
                 .orElseThrow(() -> new IllegalStateException("Пользователь деканата не найден"));
     }
 }
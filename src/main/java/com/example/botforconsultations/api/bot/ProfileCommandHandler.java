@@ -1,6 +1,7 @@
 package com.example.botforconsultations.api.bot;
 
 import com.example.botforconsultations.api.bot.service.ProfileService;
+import com.example.botforconsultations.api.bot.service.TelegramUserCache;
 import com.example.botforconsultations.api.bot.state.DeaneryStateManager;
 import com.example.botforconsultations.api.bot.state.DeaneryStateManager.DeaneryState;
 import com.example.botforconsultations.api.bot.state.StudentStateManager;
@@ -13,7 +14,6 @@ import com.example.botforconsultations.api.bot.utils.TeacherKeyboardBuilder;
 import com.example.botforconsultations.core.model.ReminderTime;
 import com.example.botforconsultations.core.model.Role;
 import com.example.botforconsultations.core.model.TelegramUser;
-import com.example.botforconsultations.core.repository.TelegramUserRepository;
 import com.example.botforconsultations.core.service.GoogleOAuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -30,7 +30,7 @@ import java.util.stream.Collectors;
 public class ProfileCommandHandler {
 
     private final BotMessenger botMessenger;
-    private final TelegramUserRepository telegramUserRepository;
+    private final TelegramUserCache telegramUserCache;
     private final ProfileService profileService;
     private final StudentKeyboardBuilder keyboardBuilder;
     private final TeacherKeyboardBuilder teacherKeyboardBuilder;
@@ -278,7 +278,7 @@ public class ProfileCommandHandler {
      * Получить текущего пользователя
      */
     private TelegramUser getCurrentUser(Long chatId) {
-        return telegramUserRepository.findByTelegramId(chatId)
+        return telegramUserCache.findByTelegramId(chatId)
                 .orElseThrow(() -> new IllegalStateException("Пользователь не найден"));
     }
 
@@ -341,7 +341,7 @@ public class ProfileCommandHandler {
 
     private void performAccountDeletion(TelegramUser user, Long chatId) {
         // Удаляем аккаунт (каскадное удаление связанных данных)
-        telegramUserRepository.delete(user);
+        profileService.deleteAccount(user);
         // Очищаем состояния
         studentStateManager.clearUserData(chatId);
         teacherStateManager.clearUserData(chatId);
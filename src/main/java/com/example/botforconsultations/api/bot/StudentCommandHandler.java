@@ -1,11 +1,15 @@
 package com.example.botforconsultations.api.bot;
 
+import com.example.botforconsultations.api.bot.command.TextCommandRegistry;
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.ListCallback;
+import com.example.botforconsultations.api.bot.paging.ListCodes;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.api.bot.service.ConsultationRequestService;
 import com.example.botforconsultations.api.bot.service.ConsultationService;
-import com.example.botforconsultations.api.bot.service.NotificationService;
 import com.example.botforconsultations.api.bot.service.StudentServiceBot;
-import com.example.botforconsultations.api.bot.service.TeacherConsultationService;
 import com.example.botforconsultations.api.bot.service.TeacherSearchService;
+import com.example.botforconsultations.api.bot.service.TelegramUserCache;
 import com.example.botforconsultations.api.bot.state.StudentStateManager;
 import com.example.botforconsultations.api.bot.state.StudentStateManager.UserState;
 import com.example.botforconsultations.api.bot.utils.ConsultationMessageFormatter;
@@ -14,8 +18,9 @@ import com.example.botforconsultations.api.bot.utils.TeacherNameFormatter;
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.Subscription;
+import com.example.botforconsultations.core.model.TeacherSummary;
 import com.example.botforconsultations.core.model.TelegramUser;
-import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,16 +37,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StudentCommandHandler {
 
-    // Репозитории
-    private final TelegramUserRepository telegramUserRepository;
-
     // Сервисы
+    private final TelegramUserCache telegramUserCache;
     private final TeacherSearchService teacherSearchService;
     private final ConsultationService consultationService;
     private final ConsultationRequestService consultationRequestService;
     private final StudentServiceBot studentServiceBot;
-    private final TeacherConsultationService teacherConsultationService;
-    private final NotificationService notificationService;
     private final ProfileCommandHandler profileCommandHandler;
     private final BotMessenger botMessenger;
 
@@ -50,6 +51,49 @@ public class StudentCommandHandler {
     private final StudentKeyboardBuilder keyboardBuilder;
     private final ConsultationMessageFormatter messageFormatter;
 
+    // Кнопки главного меню и экранов студента
+    private final TextCommandRegistry textCommands = new TextCommandRegistry("student");
+
+    /**
+     * Текстовые команды студента
+     */
+    @PostConstruct
+    void registerTextCommands() {
+        textCommands.register("Помощь", this::sendHelp);
+        textCommands.register("🔍 Преподаватели", this::sendTeachersMenu);
+        textCommands.register("📝 Мои записи", this::showMyRegistrations);
+        textCommands.register("🔔 Подписки на обновления", this::showMySubscriptions);
+
+        // Запросы консультаций
+        textCommands.register("❓ Запросить консультацию", this::startRequestCreation);
+        textCommands.register("📋 Просмотреть запросы", this::showMyRequests);
+
+        // Меню преподавателей
+        textCommands.register("👥 Все преподаватели", this::showAllTeachers);
+        textCommands.register("🔍 Поиск преподавателя", this::startTeacherSearch);
+
+        // Фильтры консультаций
+        textCommands.register("📅 Все", chatId -> applyConsultationFilter(chatId, "all"));
+        textCommands.register("⏭️ Будущие", chatId -> applyConsultationFilter(chatId, "future"));
+        textCommands.register("⏮️ Прошедшие", chatId -> applyConsultationFilter(chatId, "past"));
+
+        // Подписки
+        textCommands.register("🔔 Подписаться", this::handleSubscribe);
+        textCommands.register("🔕 Отписаться", this::handleUnsubscribe);
+
+        // Действия с консультацией
+        textCommands.register("✅ Записаться", this::startConsultationRegistration);
+        textCommands.register("❌ Отменить запись", this::handleCancelRegistration);
+
+        // Действия с запросами консультаций
+        textCommands.register("✅ Записаться на запрос", this::startRequestRegistration);
+        textCommands.register("❌ Отписаться от запроса", this::handleRequestUnregistration);
+
+        // Навигация
+        textCommands.register("🔙 К преподавателям", this::sendTeachersMenu);
+        textCommands.register("◀️ Назад к списку", this::backToConsultationsList);
+    }
+
     /**
      * Главный обработчик команд студента
      */
@@ -114,52 +158,58 @@ public class StudentCommandHandler {
         if (profileCommandHandler.handleProfileCommand(text, chatId)) {
             return;
         }
-        switch (text) {
-            case "Помощь" -> sendHelp(chatId);
-            case "🔍 Преподаватели" -> sendTeachersMenu(chatId);
-            case "📝 Мои записи" -> showMyRegistrations(chatId);
-            case "🔔 Подписки на обновления" -> showMySubscriptions(chatId);
-
-            // Запросы консультаций
-            case "❓ Запросить консультацию" -> startRequestCreation(chatId);
-            case "📋 Просмотреть запросы" -> showMyRequests(chatId);
-
-            // Меню преподавателей
-            case "👥 Все преподаватели" -> showAllTeachers(chatId);
-            case "🔍 Поиск преподавателя" -> startTeacherSearch(chatId);
-
-            // Фильтры консультаций
-            case "📅 Все" -> applyConsultationFilter(chatId, "all");
-            case "⏭️ Будущие" -> applyConsultationFilter(chatId, "future");
-            case "⏮️ Прошедшие" -> applyConsultationFilter(chatId, "past");
-
-            // Подписки
-            case "🔔 Подписаться" -> handleSubscribe(chatId);
-            case "🔕 Отписаться" -> handleUnsubscribe(chatId);
-
-            // Действия с консультацией
-            case "✅ Записаться" -> startConsultationRegistration(chatId);
-            case "❌ Отменить запись" -> handleCancelRegistration(chatId);
-
-            // Действия с запросами консультаций
-            case "✅ Записаться на запрос" -> startRequestRegistration(chatId);
-            case "❌ Отписаться от запроса" -> handleRequestUnregistration(chatId);
-
-            // Навигация
-            case "🔙 К преподавателям" -> sendTeachersMenu(chatId);
-            case "◀️ Назад к списку" -> backToConsultationsList(chatId);
-
-            default ->{
-                // Обработка состояний ввода
-                if (currentState == UserState.WAITING_FOR_TEACHER_NAME) {
-                    processTeacherSearch(text, chatId);
-                    return;
+        if (textCommands.dispatch(text, chatId)) {
+            return;
+        }
+
+        // Обработка состояний ввода
+        if (currentState == UserState.WAITING_FOR_TEACHER_NAME) {
+            processTeacherSearch(text, chatId);
+            return;
+        }
+        botMessenger.sendText(
+                "Извините, я не понимаю эту команду. Отправьте 'Помощь' для получения списка доступных команд.",
+                chatId
+        );
+    }
+
+    /**
+     * Обработчик inline-кнопок постраничных списков
+     */
+    public void handleListCallback(ListCallback callback, Long chatId, Integer messageId) {
+        switch (callback.type()) {
+            case ListCodes.TEACHERS -> {
+                if (callback.isPage()) {
+                    KeysetPage<TeacherSummary> page = teacherSearchService.getTeachersPage(callback.cursor());
+                    botMessenger.editTextWithInlineKeyboard(formatTeachersList(page), chatId, messageId,
+                            keyboardBuilder.buildTeachersPage(ListCodes.TEACHERS, page));
+                } else if (callback.id() != null) {
+                    selectTeacher(chatId, callback.id());
                 }
-                botMessenger.sendText(
-                    "Извините, я не понимаю эту команду. Отправьте 'Помощь' для получения списка доступных команд.",
-                    chatId
-                );
-            } 
+            }
+            case ListCodes.CONSULTATIONS -> {
+                if (callback.isPage()) {
+                    changeConsultationsPage(callback, chatId, messageId);
+                } else if (callback.id() != null) {
+                    Long teacherId = ListCodes.teacherId(callback);
+                    if (teacherId != null) {
+                        stateManager.setCurrentTeacher(chatId, teacherId);
+                    }
+                    showConsultationDetails(chatId, callback.id());
+                }
+            }
+            case ListCodes.REQUESTS -> {
+                if (callback.isPage()) {
+                    KeysetPage<Consultation> page = consultationRequestService.getRequestsPage(callback.cursor());
+                    botMessenger.editTextWithInlineKeyboard(messageFormatter.formatRequestsList(page.items()),
+                            chatId, messageId, keyboardBuilder.buildConsultationsPage(ListCodes.REQUESTS, page));
+                } else if (callback.id() != null) {
+                    // Запрос выбирается вне контекста преподавателя
+                    stateManager.clearCurrentTeacher(chatId);
+                    showRequestDetails(chatId, callback.id());
+                }
+            }
+            default -> log.warn("Unknown student list: {}", callback.list());
         }
     }
 
@@ -187,7 +237,7 @@ public class StudentCommandHandler {
                 👤 Профиль - редактирование имени и фамилии
                 
                 В разделе "🔍 Преподаватели":
-                • 👥 Все преподаватели - список всех преподавателей (первые 5 в кнопках, можно искать по имени/фамилии)
+                • 👥 Все преподаватели - список всех преподавателей (по 10 на странице, ⬅️/➡️ под списком)
                 • 🔍 Поиск преподавателя - поиск по имени или фамилии
                 • После выбора преподавателя: просмотр консультаций, подписка на обновления
                 • Фильтры консультаций: 📅 Все / ⏭️ Будущие / ⏮️ Прошедшие
@@ -197,7 +247,7 @@ public class StudentCommandHandler {
                  * Отмена записи
                 
                 В разделе "📋 Просмотреть запросы":
-                • Просмотр всех запросов студентов (введите №... для выбора)
+                • Просмотр всех запросов студентов (нажмите на запрос или введите №... для выбора)
                 • Поддержка запроса - укажите тему и запишитесь
                 • После выбора конкретного запроса, можно записать/отписаться, так же как и на консультацию
                 • После принятия преподавателем все заинтересованные автоматически переносятся в консультацию
@@ -226,9 +276,9 @@ public class StudentCommandHandler {
     }
 
     private void showAllTeachers(Long chatId) {
-        List<TelegramUser> teachers = teacherSearchService.getAllTeachers();
+        KeysetPage<TeacherSummary> page = teacherSearchService.getTeachersPage(PageCursor.first());
 
-        if (teachers.isEmpty()) {
+        if (page.isEmpty()) {
             botMessenger.execute(SendMessage.builder()
                     .chatId(chatId)
                     .text("В данный момент нет доступных преподавателей")
@@ -237,29 +287,17 @@ public class StudentCommandHandler {
             return;
         }
 
-        StringBuilder message = new StringBuilder("Список преподавателей:\n\n");
+        botMessenger.sendTextWithInlineKeyboard(formatTeachersList(page), chatId,
+                keyboardBuilder.buildTeachersPage(ListCodes.TEACHERS, page));
+    }
 
-        // Показываем первых 5 преподавателей в кнопках
-        int count = 0;
-        for (TelegramUser teacher : teachers) {
-            if (count >= 5) break;
+    private String formatTeachersList(KeysetPage<TeacherSummary> page) {
+        StringBuilder message = new StringBuilder("Список преподавателей:\n\n");
+        for (TeacherSummary teacher : page.items()) {
             message.append(TeacherNameFormatter.formatFullName(teacher)).append("\n");
-            count++;
-        }
-
-        // Если преподавателей больше 5, сообщаем об этом
-        if (teachers.size() > 5) {
-            message.append("\n... и ещё ").append(teachers.size() - 5).append(" преподавателей\n");
-            message.append("\nИспользуйте поиск или выберите из первых 5:");
-        } else {
-            message.append("\nВыберите преподавателя из списка или используйте поиск:");
         }
-
-        botMessenger.execute(SendMessage.builder()
-                .chatId(chatId)
-                .text(message.toString())
-                .replyMarkup(keyboardBuilder.buildTeacherSearchResults(teachers))
-                .build());
+        message.append("\nВыберите преподавателя из списка или используйте поиск:");
+        return message.toString();
     }
 
     private void startTeacherSearch(Long chatId) {
@@ -273,7 +311,7 @@ public class StudentCommandHandler {
     private void processTeacherSearch(String searchQuery, Long chatId) {
         stateManager.resetState(chatId);
 
-        List<TelegramUser> teachers = teacherSearchService.searchTeachers(searchQuery);
+        List<TeacherSummary> teachers = teacherSearchService.searchTeachers(searchQuery);
 
         if (teachers.isEmpty()) {
             botMessenger.sendText(
@@ -284,16 +322,15 @@ public class StudentCommandHandler {
         }
 
         StringBuilder message = new StringBuilder("Найденные преподаватели:\n\n");
-        for (TelegramUser teacher : teachers) {
+        for (TeacherSummary teacher : teachers) {
             message.append(TeacherNameFormatter.formatFullName(teacher)).append("\n");
         }
         message.append("\nВыберите преподавателя, чтобы увидеть его консультации.");
 
-        botMessenger.execute(SendMessage.builder()
-                .text(message.toString())
-                .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildTeacherSearchResults(teachers))
-                .build());
+        // Результаты поиска ограничены bot.teacher-search.limit и умещаются на одной странице
+        KeysetPage<TeacherSummary> page = new KeysetPage<>(teachers, null, null, PageCursor.first());
+        botMessenger.sendTextWithInlineKeyboard(message.toString(), chatId,
+                keyboardBuilder.buildTeachersPage(ListCodes.TEACHERS, page));
     }
 
     private void handleTeacherSelection(String teacherButton, Long chatId) {
@@ -304,27 +341,56 @@ public class StudentCommandHandler {
             return;
         }
 
+        selectTeacher(chatId, teacher);
+    }
+
+    private void selectTeacher(Long chatId, Long teacherId) {
+        TelegramUser teacher = teacherSearchService.findById(teacherId);
+
+        if (teacher == null) {
+            botMessenger.sendText("Преподаватель не найден", chatId);
+            return;
+        }
+
+        selectTeacher(chatId, teacher);
+    }
+
+    private void selectTeacher(Long chatId, TelegramUser teacher) {
         stateManager.setCurrentTeacher(chatId, teacher.getId());
         stateManager.setFilter(chatId, "future");
         showTeacherConsultations(chatId, teacher);
     }
 
+    /**
+     * Показать консультации преподавателя: меню фильтров и подписки, затем список
+     */
     private void showTeacherConsultations(Long chatId, TelegramUser teacher) {
-        String filter = stateManager.getFilter(chatId);
-        List<Consultation> consultations = consultationService.getTeacherConsultations(teacher, filter);
         boolean isSubscribed = checkSubscription(chatId, teacher);
 
-        String messageText = messageFormatter.formatConsultationsList(teacher, consultations, filter);
-
         // Просмотр списка консультаций: устанавливаем состояние, очищаем ID конкретной консультации
         stateManager.clearCurrentConsultation(chatId);
         stateManager.setState(chatId, UserState.VIEWING_CONSULTATION_DETAILS);
 
         botMessenger.execute(SendMessage.builder()
-                .text(messageText)
+                .text(String.format("Консультации преподавателя %s", TeacherNameFormatter.formatFullName(teacher)))
                 .chatId(chatId)
-                .replyMarkup(keyboardBuilder.buildTeacherConsultations(consultations, isSubscribed))
+                .replyMarkup(keyboardBuilder.buildTeacherConsultationsMenu(isSubscribed))
                 .build());
+        sendConsultationsList(chatId, teacher);
+    }
+
+    /**
+     * Отправить список консультаций преподавателя с текущим фильтром, начиная с сохранённой страницы
+     */
+    private void sendConsultationsList(Long chatId, TelegramUser teacher) {
+        String filter = stateManager.getFilter(chatId);
+        KeysetPage<Consultation> page = consultationService.getTeacherConsultationsPage(
+                teacher, filter, stateManager.getListCursor(chatId));
+        stateManager.setListCursor(chatId, page.current());
+
+        botMessenger.sendTextWithInlineKeyboard(
+                messageFormatter.formatConsultationsList(teacher, page.items(), filter), chatId,
+                keyboardBuilder.buildConsultationsPage(ListCodes.consultations(filter, teacher.getId()), page));
     }
 
     private void applyConsultationFilter(Long chatId, String filter) {
@@ -332,7 +398,32 @@ public class StudentCommandHandler {
         if (teacher == null) return;
 
         stateManager.setFilter(chatId, filter);
-        showTeacherConsultations(chatId, teacher);
+        sendConsultationsList(chatId, teacher);
+    }
+
+    /**
+     * Перелистнуть список консультаций: сообщение со списком редактируется на месте
+     */
+    private void changeConsultationsPage(ListCallback callback, Long chatId, Integer messageId) {
+        Long teacherId = ListCodes.teacherId(callback);
+        TelegramUser teacher = teacherId != null ? teacherSearchService.findById(teacherId) : null;
+        if (teacher == null) {
+            botMessenger.sendText("Преподаватель не найден", chatId);
+            return;
+        }
+
+        String filter = ListCodes.filter(callback);
+        KeysetPage<Consultation> page = consultationService.getTeacherConsultationsPage(
+                teacher, filter, callback.cursor());
+
+        // Страницу запоминаем, только если это список, открытый сейчас, - к нему вернёт "Назад к списку"
+        if (teacherId.equals(stateManager.getCurrentTeacher(chatId)) && filter.equals(stateManager.getFilter(chatId))) {
+            stateManager.setListCursor(chatId, page.current());
+        }
+
+        botMessenger.editTextWithInlineKeyboard(
+                messageFormatter.formatConsultationsList(teacher, page.items(), filter), chatId, messageId,
+                keyboardBuilder.buildConsultationsPage(callback.list(), page));
     }
 
     // ========== Управление подписками ==========
@@ -492,7 +583,7 @@ public class StudentCommandHandler {
         if (requestId != null) {
             // Очищаем ID запроса перед показом списка
             stateManager.clearCurrentRequest(chatId);
-            showMyRequests(chatId);
+            showRequestsWithMenu(chatId);
             return;
         }
 
@@ -552,11 +643,9 @@ public class StudentCommandHandler {
         if (!result.success()) {
             botMessenger.sendText(result.message(), chatId);
         } else {
+            // Автозакрытие при заполнении выполнено вместе с записью
             String confirmMessage = messageFormatter.formatRegistrationConfirmation();
             botMessenger.sendText(confirmMessage, chatId);
-
-            // Проверяем автозакрытие (передаём ID для перезагрузки свежих данных)
-            teacherConsultationService.checkAndAutoClose(consultation.getId());
         }
 
         showConsultationDetails(chatId, consultation.getId());
@@ -567,31 +656,14 @@ public class StudentCommandHandler {
         if (consultation == null) return;
 
         TelegramUser student = getCurrentStudent(chatId);
-
-        // Считаем до отмены
-        long countBefore = studentServiceBot.getRegisteredCount(consultation);
-
         StudentServiceBot.RegistrationResult result = studentServiceBot.cancelRegistration(student, consultation);
 
         if (!result.success()) {
             botMessenger.sendText(result.message(), chatId);
         } else {
+            // Автооткрытие и уведомление подписчиков об освободившемся месте выполнены вместе с отменой записи
             String confirmMessage = messageFormatter.formatCancellationConfirmation();
             botMessenger.sendText(confirmMessage, chatId);
-
-            // Перезагружаем консультацию для актуальных данных
-            consultation = consultationService.findById(consultation.getId());
-
-            // Считаем после отмены
-            long countAfter = studentServiceBot.getRegisteredCount(consultation);
-
-
-            teacherConsultationService.checkAndAutoOpen(consultation.getId(), countBefore);
-            // Если освободилось место, уведомляем подписчиков
-            if (countAfter < countBefore) {
-                // Отправляем уведомления (исключая текущего студента)
-                notificationService.notifySubscribersAvailableSpots(consultation.getId(), student.getId());
-            }
         }
 
         showConsultationDetails(chatId, consultation.getId());
@@ -600,11 +672,11 @@ public class StudentCommandHandler {
     private void showMyRegistrations(Long chatId) {
         TelegramUser student = getCurrentStudent(chatId);
         List<StudentConsultation> registrations = studentServiceBot.getStudentRegistrations(student);
-        String message = messageFormatter.formatStudentRegistrations(registrations);
 
         if (registrations.isEmpty()) {
             // Нет записей - просто показываем сообщение
-            botMessenger.sendText(message, chatId);
+            botMessenger.sendLongText(chatId, null,
+                    out -> messageFormatter.writeStudentRegistrations(registrations, out));
         } else {
             // Есть записи - устанавливаем состояние для возможности выбора по номеру
             stateManager.setState(chatId, UserState.VIEWING_CONSULTATION_DETAILS);
@@ -615,11 +687,9 @@ public class StudentCommandHandler {
                     .map(StudentConsultation::getConsultation)
                     .toList();
             
-            botMessenger.execute(SendMessage.builder()
-                    .chatId(chatId)
-                    .text(message)
-                    .replyMarkup(keyboardBuilder.buildMyRegistrationsList(consultations))
-                    .build());
+            // Длинный список уходит несколькими сообщениями, клавиатура - у последнего
+            botMessenger.sendLongText(chatId, keyboardBuilder.buildMyRegistrationsList(consultations),
+                    out -> messageFormatter.writeStudentRegistrations(registrations, out));
         }
     }
 
@@ -650,7 +720,7 @@ public class StudentCommandHandler {
                 if (requestId != null) {
                     showRequestDetails(chatId, requestId);
                 } else {
-                    showMyRequests(chatId);
+                    showRequestsWithMenu(chatId);
                 }
             }
             default -> sendMainMenu(chatId);
@@ -664,7 +734,7 @@ public class StudentCommandHandler {
      * Гарантированно вернет пользователя, т.к. UpdateConsumer проверяет регистрацию
      */
     private TelegramUser getCurrentStudent(Long chatId) {
-        return telegramUserRepository.findByTelegramId(chatId).orElseThrow();
+        return telegramUserCache.findByTelegramId(chatId).orElseThrow();
     }
 
     /**
@@ -768,14 +838,13 @@ public class StudentCommandHandler {
     }
 
     /**
-     * Показать все запросы консультаций (от всех студентов)
+     * Показать запросы консультаций (от всех студентов), начиная с первой страницы
      */
     private void showMyRequests(Long chatId) {
-        List<Consultation> requests = consultationRequestService.getAllRequests();
+        KeysetPage<Consultation> page = consultationRequestService.getRequestsPage(PageCursor.first());
+        String message = messageFormatter.formatRequestsList(page.items());
 
-        String message = messageFormatter.formatRequestsList(requests);
-
-        if (requests.isEmpty()) {
+        if (page.isEmpty()) {
             botMessenger.execute(SendMessage.builder()
                     .chatId(chatId)
                     .text(message)
@@ -785,14 +854,24 @@ public class StudentCommandHandler {
             // Просмотр списка запросов: устанавливаем состояние, очищаем ID конкретного запроса
             stateManager.clearCurrentRequest(chatId);
             stateManager.setState(chatId, UserState.VIEWING_REQUEST_DETAILS);
-            botMessenger.execute(SendMessage.builder()
-                    .chatId(chatId)
-                    .text(message)
-                    .replyMarkup(keyboardBuilder.buildRequestsList(requests))
-                    .build());
+            botMessenger.sendTextWithInlineKeyboard(message, chatId,
+                    keyboardBuilder.buildConsultationsPage(ListCodes.REQUESTS, page));
         }
     }
 
+    /**
+     * Вернуть главное меню и показать запросы: список приходит с inline-кнопками,
+     * поэтому клавиатуру действий с запросом заменяем отдельным сообщением
+     */
+    private void showRequestsWithMenu(Long chatId) {
+        botMessenger.execute(SendMessage.builder()
+                .chatId(chatId)
+                .text("📋 Запросы консультаций")
+                .replyMarkup(keyboardBuilder.buildMainMenu())
+                .build());
+        showMyRequests(chatId);
+    }
+
     /**
      * Показать детали конкретного запроса
      */
@@ -1,9 +1,15 @@
 package com.example.botforconsultations.api.bot;
 
+import com.example.botforconsultations.api.bot.command.TextCommandRegistry;
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.ListCallback;
+import com.example.botforconsultations.api.bot.paging.ListCodes;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.api.bot.service.ConsultationRequestService;
-import com.example.botforconsultations.api.bot.service.NotificationService;
 import com.example.botforconsultations.api.bot.service.TeacherConsultationService;
+import com.example.botforconsultations.api.bot.service.TelegramUserCache;
 import com.example.botforconsultations.api.bot.service.TodoTaskService;
+import com.example.botforconsultations.api.bot.service.TodoTaskService.TaskFilter;
 import com.example.botforconsultations.api.bot.state.TeacherStateManager;
 import com.example.botforconsultations.api.bot.state.TeacherStateManager.TeacherState;
 import com.example.botforconsultations.api.bot.utils.KeyboardConstants;
@@ -16,7 +22,7 @@ import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.model.TodoTask;
 import com.example.botforconsultations.core.repository.ConsultationRepository;
-import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,7 +31,6 @@ import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -47,13 +52,12 @@ import static com.example.botforconsultations.core.util.TimeUtils.parseTime;
 public class TeacherCommandHandler {
 
     // Репозитории
-    private final TelegramUserRepository telegramUserRepository;
     private final ConsultationRepository consultationRepository;
 
     // Сервисы
+    private final TelegramUserCache telegramUserCache;
     private final TeacherConsultationService consultationService;
     private final ConsultationRequestService requestService;
-    private final NotificationService notificationService;
     private final TodoTaskService todoTaskService;
     private final BotMessenger botMessenger;
 
@@ -85,6 +89,53 @@ public class TeacherCommandHandler {
             TeacherState.REMOVING_REMINDER_TIME
     );
 
+    // Кнопки главного меню и экранов преподавателя
+    private final TextCommandRegistry textCommands = new TextCommandRegistry("teacher");
+
+    /**
+     * Текстовые команды преподавателя
+     */
+    @PostConstruct
+    void registerTextCommands() {
+        textCommands.register("Помощь", this::sendHelp);
+        textCommands.register("📅 Мои консультации", this::showMyConsultations);
+        textCommands.register("➕ Создать консультацию", this::startConsultationCreation);
+        textCommands.register("📋 Мои задачи", chatId -> {
+            stateManager.setListCursor(chatId, null);
+            showMyTasks(chatId);
+        });
+        textCommands.register("📋 Просмотреть запросы", this::showStudentRequests);
+
+        // Управление консультацией
+        textCommands.register(CLOSE_REGISTRATION, this::handleCloseConsultation);
+        textCommands.register(OPEN_REGISTRATION, this::handleOpenConsultation);
+        textCommands.register("✏️ Редактировать", this::showEditMenu);
+        textCommands.register("❌ Отменить консультацию", this::handleCancelConsultation);
+        textCommands.register("👥 Просмотреть студентов", this::showRegisteredStudents);
+
+        // Редактирование параметров
+        textCommands.register("📋 Название", this::startEditTitle);
+        textCommands.register("📅 Дата и время", this::startEditDateTime);
+        textCommands.register("👥 Вместимость", this::startEditCapacity);
+        textCommands.register("🔒 Автозакрытие", this::startEditAutoClose);
+
+        // Работа с запросами
+        textCommands.register("✅ Принять запрос", this::startAcceptRequest);
+
+        // Управление задачами
+        textCommands.register("✅ Отметить выполненной", this::markTaskAsCompleted);
+        textCommands.register("⏳ Отметить невыполненной", this::markTaskAsPending);
+
+        // Фильтры задач
+        textCommands.register("❌ Невыполненные", chatId -> filterTasksByStatus(chatId, "incomplete"));
+        textCommands.register("✅ Выполненные", chatId -> filterTasksByStatus(chatId, "completed"));
+        textCommands.register("📋 Все", chatId -> filterTasksByStatus(chatId, "all"));
+
+        // Навигация
+        textCommands.register("◀️ Назад к списку", this::backToList);
+        textCommands.register("◀️ Назад", this::handleBackButton);
+    }
+
     /**
      * Главный обработчик команд преподавателя
      */
@@ -141,43 +192,8 @@ public class TeacherCommandHandler {
         if (profileCommandHandler.handleProfileCommand(text, chatId)) {
             return;
         }
-        switch (text) {
-            case "Помощь" -> sendHelp(chatId);
-            case "📅 Мои консультации" -> showMyConsultations(chatId);
-            case "➕ Создать консультацию" -> startConsultationCreation(chatId);
-            case "📋 Мои задачи" -> showMyTasks(chatId);
-            case "📋 Просмотреть запросы" -> showStudentRequests(chatId);
-
-            // Управление консультацией
-            case CLOSE_REGISTRATION -> handleCloseConsultation(chatId);
-            case OPEN_REGISTRATION -> handleOpenConsultation(chatId);
-            case "✏️ Редактировать" -> showEditMenu(chatId);
-            case "❌ Отменить консультацию" -> handleCancelConsultation(chatId);
-            case "👥 Просмотреть студентов" -> showRegisteredStudents(chatId);
-
-            // Редактирование параметров
-            case "📋 Название" -> startEditTitle(chatId);
-            case "📅 Дата и время" -> startEditDateTime(chatId);
-            case "👥 Вместимость" -> startEditCapacity(chatId);
-            case "🔒 Автозакрытие" -> startEditAutoClose(chatId);
-
-            // Работа с запросами
-            case "✅ Принять запрос" -> startAcceptRequest(chatId);
-
-            // Управление задачами
-            case "✅ Отметить выполненной" -> markTaskAsCompleted(chatId);
-            case "⏳ Отметить невыполненной" -> markTaskAsPending(chatId);
-
-            // Фильтры задач
-            case "❌ Невыполненные" -> filterTasksByStatus(chatId, "incomplete");
-            case "✅ Выполненные" -> filterTasksByStatus(chatId, "completed");
-            case "📋 Все" -> filterTasksByStatus(chatId, "all");
-
-            // Навигация
-            case "◀️ Назад к списку" -> backToList(chatId);
-            case "◀️ Назад" -> handleBackButton(chatId);
-
-            default -> botMessenger.sendText(
+        if (!textCommands.dispatch(text, chatId)) {
+            botMessenger.sendText(
                     "Извините, я не понимаю эту команду. Отправьте 'Помощь' для получения списка доступных команд.",
                     chatId
             );
@@ -411,9 +427,6 @@ public class TeacherCommandHandler {
         stateManager.clearTempConsultationData(chatId);
         stateManager.resetState(chatId);
 
-        // Отправляем уведомления подписчикам
-        notificationService.notifySubscribersNewConsultation(consultation.getId());
-
         // Подтверждение
         botMessenger.execute(SendMessage.builder()
                 .chatId(chatId)
@@ -444,12 +457,23 @@ public class TeacherCommandHandler {
     // ========== Просмотр консультаций ==========
 
     private void showMyConsultations(Long chatId) {
+        stateManager.setListCursor(chatId, null);
+        showConsultationsPage(chatId, false);
+    }
+
+    /**
+     * Показать список своих консультаций с сохранённой страницы
+     *
+     * @param withMenu вернуть главное меню отдельным сообщением (список приходит с inline-кнопками)
+     */
+    private void showConsultationsPage(Long chatId, boolean withMenu) {
         TelegramUser teacher = getCurrentTeacher(chatId);
-        List<Consultation> consultations = consultationService.getTeacherConsultations(teacher);
+        KeysetPage<Consultation> page = consultationService.getTeacherConsultationsPage(
+                teacher, stateManager.getListCursor(chatId));
 
-        String message = messageFormatter.formatConsultationsList(consultations);
+        String message = messageFormatter.formatConsultationsList(page.items());
 
-        if (consultations.isEmpty()) {
+        if (page.isEmpty()) {
             botMessenger.execute(SendMessage.builder()
                     .chatId(chatId)
                     .text(message)
@@ -459,14 +483,62 @@ public class TeacherCommandHandler {
             // Просмотр списка консультаций: устанавливаем состояние, очищаем ID конкретной консультации
             stateManager.clearCurrentConsultation(chatId);
             stateManager.setState(chatId, TeacherState.VIEWING_CONSULTATION_DETAILS);
-            botMessenger.execute(SendMessage.builder()
-                    .chatId(chatId)
-                    .text(message)
-                    .replyMarkup(keyboardBuilder.buildConsultationsList(consultations))
-                    .build());
+            stateManager.setListCursor(chatId, page.current());
+            if (withMenu) {
+                sendMenuMessage(chatId, "📅 Мои консультации");
+            }
+            botMessenger.sendTextWithInlineKeyboard(message, chatId,
+                    keyboardBuilder.buildConsultationsPage(ListCodes.CONSULTATIONS, page));
         }
     }
 
+    /**
+     * Обработчик inline-кнопок постраничных списков
+     */
+    public void handleListCallback(ListCallback callback, Long chatId, Integer messageId) {
+        switch (callback.type()) {
+            case ListCodes.CONSULTATIONS -> {
+                if (callback.isPage()) {
+                    KeysetPage<Consultation> page = consultationService.getTeacherConsultationsPage(
+                            getCurrentTeacher(chatId), callback.cursor());
+                    stateManager.setListCursor(chatId, page.current());
+                    botMessenger.editTextWithInlineKeyboard(messageFormatter.formatConsultationsList(page.items()),
+                            chatId, messageId, keyboardBuilder.buildConsultationsPage(callback.list(), page));
+                } else if (callback.id() != null) {
+                    showConsultationDetails(chatId, callback.id());
+                }
+            }
+            case ListCodes.REQUESTS -> {
+                if (callback.isPage()) {
+                    KeysetPage<Consultation> page = requestService.getRequestsPage(callback.cursor());
+                    botMessenger.editTextWithInlineKeyboard(messageFormatter.formatRequestsList(page.items()),
+                            chatId, messageId, keyboardBuilder.buildConsultationsPage(callback.list(), page));
+                } else if (callback.id() != null) {
+                    showRequestDetails(chatId, callback.id());
+                }
+            }
+            case ListCodes.TASKS -> {
+                if (callback.isPage()) {
+                    changeTasksPage(callback, chatId, messageId);
+                } else if (callback.id() != null) {
+                    showTaskDetails(chatId, callback.id());
+                }
+            }
+            default -> log.warn("Unknown teacher list: {}", callback.list());
+        }
+    }
+
+    /**
+     * Вернуть главное меню: клавиатуру действий заменяем отдельным сообщением перед списком
+     */
+    private void sendMenuMessage(Long chatId, String text) {
+        botMessenger.execute(SendMessage.builder()
+                .chatId(chatId)
+                .text(text)
+                .replyMarkup(keyboardBuilder.buildMainMenu())
+                .build());
+    }
+
     private void handleNumberSelection(String text, Long chatId) {
         try {
             Long id = extractId(text);
@@ -523,9 +595,7 @@ public class TeacherCommandHandler {
                     stateManager.setCurrentConsultation(chatId, consultationId);
                     stateManager.setState(chatId, TeacherState.VIEWING_CONSULTATION_DETAILS);
 
-                    long registeredCount = consultation.getRegUsers() != null
-                            ? consultation.getRegUsers().size()
-                            : 0;
+                    long registeredCount = consultation.getRegisteredCount();
                     String message = messageFormatter.formatConsultationDetails(consultation, registeredCount);
 
                     // Проверяем владельца консультации
@@ -564,16 +634,10 @@ public class TeacherCommandHandler {
 
             consultationRepository.findById(consultationId).ifPresentOrElse(
                     consultation -> {
-                        List<StudentConsultation> registrations = consultation.getRegUsers() != null
-                                ? List.copyOf(consultation.getRegUsers())
-                                : List.of();
-                        String message = messageFormatter.formatRegisteredStudents(registrations);
-
-                        botMessenger.execute(SendMessage.builder()
-                                .chatId(chatId)
-                                .text(message)
-                                .replyMarkup(keyboardBuilder.buildBackKeyboard())
-                                .build());
+                        List<StudentConsultation> registrations =
+                                consultationService.getRegistrations(consultation.getId());
+                        botMessenger.sendLongText(chatId, keyboardBuilder.buildBackKeyboard(),
+                                out -> messageFormatter.writeRegisteredStudents(registrations, out));
                     },
                     () -> botMessenger.sendText("Консультация не найдена", chatId)
             );
@@ -637,9 +701,6 @@ public class TeacherCommandHandler {
                         botMessenger.sendText(result.message(), chatId);
                     } else {
                         botMessenger.sendText("🔓 Запись на консультацию открыта", chatId);
-
-                        // Уведомляем подписчиков о появлении мест
-                        notificationService.notifySubscribersAvailableSpots(consultation.getId(), null);
                     }
 
                     showConsultationDetails(chatId, consultationId);
@@ -663,11 +724,9 @@ public class TeacherCommandHandler {
                         return;
                     }
 
+                    // Уведомление записанных студентов ставится в outbox вместе с отменой
                     consultationService.cancelConsultation(consultation, "Отменено преподавателем");
 
-                    // Уведомляем всех записанных студентов
-                    notificationService.notifyRegisteredStudentsCancellation(consultation.getId());
-
                     botMessenger.sendText(
                             "❌ Консультация отменена.\n" +
                                     "Все записанные студенты получили уведомление.",
@@ -750,11 +809,8 @@ public class TeacherCommandHandler {
                         return;
                     }
 
-                    consultation.setTitle(title);
-                    consultationRepository.save(consultation);
-
-                    // Уведомляем записанных студентов
-                    notificationService.notifyRegisteredStudentsUpdate(consultation.getId(), "Изменено название консультации");
+                    // Изменение и уведомление записанных студентов сохраняются в одной транзакции
+                    consultationService.updateTitle(consultation, title);
 
                     stateManager.setState(chatId, TeacherState.DEFAULT);
                     botMessenger.sendText("✅ Название изменено", chatId);
@@ -808,13 +864,8 @@ public class TeacherCommandHandler {
                         return;
                     }
 
-                    consultation.setDate(parsed.date());
-                    consultation.setStartTime(parsed.startTime());
-                    consultation.setEndTime(parsed.endTime());
-                    consultationRepository.save(consultation);
-
-                    // Уведомляем записанных студентов
-                    notificationService.notifyRegisteredStudentsUpdate(consultation.getId(), "Изменены дата и время консультации");
+                    // Изменение и уведомление записанных студентов сохраняются в одной транзакции
+                    consultationService.updateDateTime(consultation, parsed.date(), parsed.startTime(), parsed.endTime());
 
                     stateManager.setState(chatId, TeacherState.DEFAULT);
                     botMessenger.sendText("✅ Дата и время изменены", chatId);
@@ -858,9 +909,7 @@ public class TeacherCommandHandler {
                         return;
                     }
 
-                    int registeredCount = consultation.getRegUsers() != null
-                            ? consultation.getRegUsers().size()
-                            : 0;
+                    int registeredCount = consultation.getRegisteredCount();
 
                     // Проверяем только если задана конкретная вместимость
                     if (capacity != null && capacity < registeredCount) {
@@ -878,7 +927,6 @@ public class TeacherCommandHandler {
 
                     // Проверяем автоматическое изменение статуса при включённом автозакрытии
                     ConsultationStatus oldStatus = consultation.getStatus();
-                    boolean statusChanged = false;
 
                     if (consultation.isAutoCloseOnCapacity()) {
                         // Случай 1: Уменьшили capacity или убрали ограничение → проверяем автозакрытие
@@ -887,26 +935,19 @@ public class TeacherCommandHandler {
                             // Автозакрытие: мест больше нет
                             consultationService.closeConsultation(consultation);
                             botMessenger.sendText("🔒 Консультация автоматически закрыта (достигнут лимит)", chatId);
-                            statusChanged = true;
                         }
                         // Случай 2: Увеличили capacity или убрали ограничение → проверяем автооткрытие
                         else if ((capacity == null || registeredCount < capacity) &&
                                 consultation.getStatus() == ConsultationStatus.CLOSED) {
-                            // Автооткрытие: появились свободные места
+                            // Автооткрытие: появились свободные места (уведомление подписчиков ставится в outbox)
                             TeacherConsultationService.OpenResult result =
                                     consultationService.openConsultation(consultation);
                             if (result.isSuccess()) {
                                 botMessenger.sendText("🔓 Консультация автоматически открыта (есть свободные места)", chatId);
-                                statusChanged = true;
                             }
                         }
                     }
 
-                    // Уведомляем подписчиков только если консультация автоматически открылась (статус изменился на OPEN)
-                    if (statusChanged && consultation.getStatus() == ConsultationStatus.OPEN) {
-                        notificationService.notifySubscribersAvailableSpots(consultation.getId(), null);
-                    }
-
                     stateManager.setState(chatId, TeacherState.DEFAULT);
 
                     String capacityText = capacity == null ? "без ограничений" : String.valueOf(capacity);
@@ -953,9 +994,7 @@ public class TeacherCommandHandler {
                     // Проверяем автозакрытие, если оно было выключено, а теперь включено
                     if (!wasAutoCloseEnabled && autoClose) {
                         // Автозакрытие включено - проверяем, нужно ли закрыть консультацию
-                        long registeredCount = consultation.getRegUsers() != null
-                                ? consultation.getRegUsers().size()
-                                : 0;
+                        long registeredCount = consultation.getRegisteredCount();
 
                         if (consultation.getCapacity() != null &&
                                 registeredCount >= consultation.getCapacity() &&
@@ -986,11 +1025,19 @@ public class TeacherCommandHandler {
     // ========== Работа с запросами студентов ==========
 
     private void showStudentRequests(Long chatId) {
-        List<Consultation> requests = requestService.getAllRequests();
+        showStudentRequests(chatId, false);
+    }
 
-        String message = messageFormatter.formatRequestsList(requests);
+    /**
+     * Показать запросы студентов с первой страницы
+     *
+     * @param withMenu вернуть главное меню отдельным сообщением (список приходит с inline-кнопками)
+     */
+    private void showStudentRequests(Long chatId, boolean withMenu) {
+        KeysetPage<Consultation> page = requestService.getRequestsPage(PageCursor.first());
+        String message = messageFormatter.formatRequestsList(page.items());
 
-        if (requests.isEmpty()) {
+        if (page.isEmpty()) {
             botMessenger.execute(SendMessage.builder()
                     .chatId(chatId)
                     .text(message)
@@ -1000,11 +1047,11 @@ public class TeacherCommandHandler {
             // Просмотр списка запросов: устанавливаем состояние, очищаем ID конкретного запроса
             stateManager.clearCurrentRequest(chatId);
             stateManager.setState(chatId, TeacherState.VIEWING_REQUEST_DETAILS);
-            botMessenger.execute(SendMessage.builder()
-                    .chatId(chatId)
-                    .text(message)
-                    .replyMarkup(keyboardBuilder.buildRequestsList(requests))
-                    .build());
+            if (withMenu) {
+                sendMenuMessage(chatId, "📋 Запросы студентов");
+            }
+            botMessenger.sendTextWithInlineKeyboard(message, chatId,
+                    keyboardBuilder.buildConsultationsPage(ListCodes.REQUESTS, page));
         }
     }
 
@@ -1015,9 +1062,7 @@ public class TeacherCommandHandler {
                     stateManager.setCurrentRequest(chatId, requestId);
                     stateManager.setState(chatId, TeacherState.VIEWING_REQUEST_DETAILS);
 
-                    int interestedCount = request.getRegUsers() != null
-                            ? request.getRegUsers().size()
-                            : 0;
+                    int interestedCount = request.getRegisteredCount();
                     String message = messageFormatter.formatRequestDetails(request, interestedCount);
 
                     botMessenger.execute(SendMessage.builder()
@@ -1033,16 +1078,9 @@ public class TeacherCommandHandler {
     private void showRequestStudents(Long chatId, Long requestId) {
         requestService.findRequestById(requestId).ifPresentOrElse(
                 request -> {
-                    List<StudentConsultation> registrations = request.getRegUsers() != null
-                            ? List.copyOf(request.getRegUsers())
-                            : List.of();
-                    String message = messageFormatter.formatRegisteredStudents(registrations);
-
-                    botMessenger.execute(SendMessage.builder()
-                            .chatId(chatId)
-                            .text(message)
-                            .replyMarkup(keyboardBuilder.buildBackKeyboard())
-                            .build());
+                    List<StudentConsultation> registrations = consultationService.getRegistrations(request.getId());
+                    botMessenger.sendLongText(chatId, keyboardBuilder.buildBackKeyboard(),
+                            out -> messageFormatter.writeRegisteredStudents(registrations, out));
                 },
                 () -> botMessenger.sendText("Запрос не найден", chatId)
         );
@@ -1107,9 +1145,7 @@ public class TeacherCommandHandler {
         if (requestId != null && capacity != null) {
             Consultation request = requestService.findRequestById(requestId).get();
 
-            int interestedCount = request.getRegUsers() != null
-                    ? request.getRegUsers().size()
-                    : 0;
+            int interestedCount = request.getRegisteredCount();
 
             if (capacity < interestedCount) {
                 botMessenger.sendText(
@@ -1180,9 +1216,6 @@ public class TeacherCommandHandler {
                     stateManager.clearTempConsultationData(chatId);
                     stateManager.resetState(chatId);
 
-                    // Уведомляем заинтересованных студентов
-                    notificationService.notifyInterestedStudentsRequestAccepted(consultation.getId());
-
                     botMessenger.execute(SendMessage.builder()
                             .chatId(chatId)
                             .text(String.format(
@@ -1216,11 +1249,11 @@ public class TeacherCommandHandler {
         TeacherState currentState = stateManager.getState(chatId);
 
         if (currentState == TeacherState.VIEWING_REQUEST_DETAILS) {
-            showStudentRequests(chatId);
+            showStudentRequests(chatId, true);
         } else if (currentState == TeacherState.VIEWING_TASK_DETAILS) {
             showMyTasks(chatId);
         } else {
-            showMyConsultations(chatId);
+            showConsultationsPage(chatId, true);
         }
     }
 
@@ -1332,7 +1365,7 @@ public class TeacherCommandHandler {
     // ========== Вспомогательные методы ==========
 
     private TelegramUser getCurrentTeacher(Long chatId) {
-        return telegramUserRepository.findByTelegramId(chatId).orElseThrow();
+        return telegramUserCache.findByTelegramId(chatId).orElseThrow();
     }
 
     /**
@@ -1468,63 +1501,58 @@ public class TeacherCommandHandler {
     // ========== Управление задачами ==========
 
     /**
-     * Показать список задач преподавателя
+     * Показать список задач преподавателя: меню фильтров, затем список с сохранённой страницы
      */
     private void showMyTasks(Long chatId) {
         log.info("Показываем задачи преподавателя, chatId: {}", chatId);
 
         TelegramUser teacher = getCurrentTeacher(chatId);
-
-        // Получить фильтры
         String statusFilter = stateManager.getTaskStatusFilter(chatId);
         String deadlineFilter = stateManager.getTaskDeadlineFilter(chatId);
 
-        // Получить все задачи
-        List<TodoTask> allTasks = todoTaskService.getTasksByTeacherId(teacher.getId());
-
-        // Применить фильтры
-        List<TodoTask> filteredTasks = applyTaskFilters(allTasks, statusFilter, deadlineFilter);
+        TaskFilter filter = new TaskFilter(teacher.getId(), statusFilter, deadlineFilter);
+        KeysetPage<TodoTask> page = todoTaskService.getTasksPage(filter, stateManager.getListCursor(chatId));
 
         // Очищаем текущую задачу при просмотре списка
         stateManager.clearCurrentTask(chatId);
         stateManager.setState(chatId, TeacherState.VIEWING_TASK_DETAILS);
+        stateManager.setListCursor(chatId, page.current());
 
-        String messageText = messageFormatter.formatMyTasksList(filteredTasks, statusFilter, deadlineFilter);
-
-        botMessenger.execute(
-                SendMessage.builder()
-                        .chatId(chatId)
-                        .text(messageText)
-                        .replyMarkup(keyboardBuilder.buildTasksList(filteredTasks))
-                        .build()
-        );
+        botMessenger.execute(SendMessage.builder()
+                .chatId(chatId)
+                .text("📋 Мои задачи")
+                .replyMarkup(keyboardBuilder.buildTasksMenu())
+                .build());
+        botMessenger.sendTextWithInlineKeyboard(
+                messageFormatter.formatMyTasksList(page.items(), todoTaskService.countTasks(filter),
+                        statusFilter, deadlineFilter),
+                chatId,
+                keyboardBuilder.buildTasksPage(ListCodes.tasks(statusFilter, deadlineFilter, teacher.getId()), page));
     }
 
     /**
-     * Применить фильтры к списку задач
+     * Перелистнуть список задач: сообщение со списком редактируется на месте
      */
-    private List<TodoTask> applyTaskFilters(List<TodoTask> tasks, String statusFilter, String deadlineFilter) {
-        LocalDateTime currentTime = now();
-
-        return tasks.stream()
-                .filter(task -> {
-                    // Фильтр по статусу
-                    boolean statusMatch = switch (statusFilter) {
-                        case "completed" -> task.getIsCompleted();
-                        case "incomplete" -> !task.getIsCompleted();
-                        default -> true; // "all"
-                    };
-
-                    // Фильтр по дедлайну
-                    boolean deadlineMatch = switch (deadlineFilter) {
-                        case "past" -> task.getDeadline().isBefore(currentTime) && !task.getIsCompleted();
-                        case "future" -> task.getDeadline().isAfter(currentTime);
-                        default -> true; // "all"
-                    };
-
-                    return statusMatch && deadlineMatch;
-                })
-                .toList();
+    private void changeTasksPage(ListCallback callback, Long chatId, Integer messageId) {
+        TelegramUser teacher = getCurrentTeacher(chatId);
+        String statusFilter = ListCodes.taskStatus(callback);
+        String deadlineFilter = ListCodes.taskDeadline(callback);
+
+        TaskFilter filter = new TaskFilter(teacher.getId(), statusFilter, deadlineFilter);
+        KeysetPage<TodoTask> page = todoTaskService.getTasksPage(filter, callback.cursor());
+
+        // Страницу запоминаем, только если фильтры списка совпадают с текущими - к нему вернёт "Назад к списку"
+        String currentList = ListCodes.tasks(stateManager.getTaskStatusFilter(chatId),
+                stateManager.getTaskDeadlineFilter(chatId), teacher.getId());
+        if (callback.list().equals(currentList)) {
+            stateManager.setListCursor(chatId, page.current());
+        }
+
+        botMessenger.editTextWithInlineKeyboard(
+                messageFormatter.formatMyTasksList(page.items(), todoTaskService.countTasks(filter),
+                        statusFilter, deadlineFilter),
+                chatId, messageId,
+                keyboardBuilder.buildTasksPage(callback.list(), page));
     }
 
     /**
@@ -1,16 +1,23 @@
 package com.example.botforconsultations.api.bot;
 
+import com.example.botforconsultations.api.bot.dispatch.ChatUpdateDispatcher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.longpolling.interfaces.LongPollingUpdateConsumer;
 import org.telegram.telegrambots.longpolling.starter.SpringLongPollingBot;
 
+/**
+ * Получение обновлений через long polling (bot.mode=long-polling, по умолчанию).
+ * В режиме webhook обновления принимает TelegramWebhookController.
+ */
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "bot.mode", havingValue = "long-polling", matchIfMissing = true)
 public class TelegramBot implements SpringLongPollingBot {
 
-    private final UpdateConsumer updateConsumer;
+    private final ChatUpdateDispatcher updateDispatcher;
 
     @Value("${bot.name}")
     private String botName;
@@ -24,7 +31,7 @@ public class TelegramBot implements SpringLongPollingBot {
 
     @Override
     public LongPollingUpdateConsumer getUpdatesConsumer() {
-        return updateConsumer;
+        return updateDispatcher;
     }
 }
 
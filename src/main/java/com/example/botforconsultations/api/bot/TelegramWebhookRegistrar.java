@@ -0,0 +1,66 @@
+package com.example.botforconsultations.api.bot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.util.List;
+
+/**
+ * Регистрация webhook в Telegram при запуске (bot.mode=webhook, bot.webhook.register=true).
+ * При нескольких экземплярах повторная регистрация того же URL безопасна.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bot.mode", havingValue = "webhook")
+public class TelegramWebhookRegistrar {
+
+    private final TelegramClient telegramClient;
+
+    @Value("${bot.webhook.register:true}")
+    private boolean register;
+    @Value("${bot.webhook.url:}")
+    private String publicUrl;
+    @Value("${bot.webhook.path:/api/telegram/webhook}")
+    private String path;
+    @Value("${bot.webhook.secret-token:}")
+    private String secretToken;
+    @Value("${bot.webhook.max-connections:40}")
+    private int maxConnections;
+
+    public TelegramWebhookRegistrar(TelegramClient telegramClient) {
+        this.telegramClient = telegramClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerWebhook() {
+        if (!register) {
+            log.info("Webhook registration disabled, expecting it to be set externally");
+            return;
+        }
+        if (publicUrl.isBlank()) {
+            log.error("bot.webhook.url is not set, webhook is not registered");
+            return;
+        }
+
+        String url = publicUrl.replaceAll("/+$", "") + path;
+        SetWebhook setWebhook = SetWebhook.builder()
+                .url(url)
+                .secretToken(secretToken)
+                .maxConnections(maxConnections)
+                .allowedUpdates(List.of("message", "callback_query"))
+                .build();
+        try {
+            telegramClient.execute(setWebhook);
+            log.info("Webhook registered: {}", url);
+        } catch (TelegramApiException e) {
+            log.error("Failed to register webhook {}: {}", url, e.getMessage());
+        }
+    }
+}
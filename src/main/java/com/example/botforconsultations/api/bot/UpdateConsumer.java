@@ -1,31 +1,52 @@
 package com.example.botforconsultations.api.bot;
 
+import com.example.botforconsultations.api.bot.callback.CallbackContext;
+import com.example.botforconsultations.api.bot.callback.CallbackData;
+import com.example.botforconsultations.api.bot.callback.CallbackRouter;
+import com.example.botforconsultations.api.bot.callback.CallbackRoutes;
+import com.example.botforconsultations.api.bot.paging.ListCallback;
+import com.example.botforconsultations.api.bot.service.TelegramUserCache;
 import com.example.botforconsultations.core.model.Role;
 import com.example.botforconsultations.core.model.TelegramUser;
-import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.telegram.telegrambots.longpolling.util.LongPollingSingleThreadUpdateConsumer;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.message.Message;
 
 import java.util.Optional;
 
+/**
+ * Обработчик одного обновления Telegram.
+ * Вызывается из ChatUpdateDispatcher: обновления одного чата приходят последовательно,
+ * обновления разных чатов - параллельно.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class UpdateConsumer implements LongPollingSingleThreadUpdateConsumer {
+public class UpdateConsumer {
 
     private final BotMessenger botMessenger;
-    private final TelegramUserRepository telegramUserRepository;
+    private final TelegramUserCache telegramUserCache;
     private final StudentCommandHandler studentCommands;
     private final TeacherCommandHandler teacherCommands;
     private final DeaneryCommandHandler deaneryCommands;
     private final AuthCommandHandler authCommandHandler;
+    private final CallbackRouter callbackRouter;
 
+    /**
+     * Маршруты inline-кнопок
+     */
+    @PostConstruct
+    void registerCallbackRoutes() {
+        callbackRouter.register(CallbackRoutes.VIEW_CONSULTATION, this::handleViewConsultation);
+        callbackRouter.register(CallbackRoutes.VIEW_CONSULTATION_LEGACY, this::handleViewConsultation);
+        callbackRouter.register(CallbackRoutes.LIST_PAGE, this::handleListCallback);
+        callbackRouter.register(CallbackRoutes.LIST_PICK, this::handleListCallback);
+    }
 
-    @Override
     public void consume(Update update) {
         if (update.hasMessage()) {
             Message message = update.getMessage();
@@ -55,29 +76,28 @@ public class UpdateConsumer implements LongPollingSingleThreadUpdateConsumer {
      * Обработка callback-запросов от inline-кнопок
      */
     private void handleCallbackQuery(Update update) {
-        String callbackData = update.getCallbackQuery().getData();
-        Long chatId = update.getCallbackQuery().getMessage().getChatId();
-
-        // Формат: "view_consultation:123"
-        if (callbackData.startsWith("view_consultation:")) {
-            String consultationIdStr = callbackData.substring("view_consultation:".length());
-            try {
-                Long consultationId = Long.parseLong(consultationIdStr);
-                handleViewConsultation(consultationId, chatId);
-            } catch (NumberFormatException e) {
-                log.error("Invalid consultation ID in callback: {}", callbackData);
-                botMessenger.sendText("Ошибка: неверный формат консультации", chatId);
-            }
-        }
+        CallbackQuery callbackQuery = update.getCallbackQuery();
+        Long chatId = callbackQuery.getMessage().getChatId();
+        botMessenger.answerCallback(callbackQuery.getId(), chatId);
+
+        TelegramUser user = telegramUserCache.findByTelegramId(chatId).orElse(null);
+        callbackRouter.route(new CallbackContext(CallbackData.parse(callbackQuery.getData()), chatId,
+                callbackQuery.getMessage().getMessageId(), user));
     }
 
     /**
-     * Обработка просмотра консультации из уведомления
+     * Просмотр консультации из уведомления: "vc:123"
      */
-    private void handleViewConsultation(Long consultationId, Long chatId) {
-        Optional<TelegramUser> userOptional = telegramUserRepository.findByTelegramId(chatId);
+    private void handleViewConsultation(CallbackContext context) {
+        Long chatId = context.chatId();
+        Long consultationId = context.data().longArg(0);
+        if (consultationId == null) {
+            log.error("Invalid consultation ID in callback: {}", context.data());
+            botMessenger.sendText("Ошибка: неверный формат консультации", chatId);
+            return;
+        }
 
-        if (userOptional.isEmpty() || userOptional.get().getRole() != Role.STUDENT) {
+        if (context.user() == null || context.user().getRole() != Role.STUDENT) {
             botMessenger.sendText("Эта функция доступна только для студентов", chatId);
             return;
         }
@@ -86,11 +106,38 @@ public class UpdateConsumer implements LongPollingSingleThreadUpdateConsumer {
         studentCommands.showConsultationFromNotification(consultationId, chatId);
     }
 
+    /**
+     * Кнопки постраничных списков: переход на страницу или выбор элемента.
+     * Списки у каждой роли свои, поэтому обработка передаётся обработчику роли.
+     */
+    private void handleListCallback(CallbackContext context) {
+        ListCallback callback = ListCallback.from(context.data());
+        if (callback == null) {
+            log.warn("Invalid list callback: {}", context.data());
+            return;
+        }
+
+        TelegramUser user = context.user();
+        if (user == null || user.getRole() == null) {
+            return;
+        }
+
+        Long chatId = context.chatId();
+        Integer messageId = context.messageId();
+        if (user.getRole() == Role.STUDENT) {
+            studentCommands.handleListCallback(callback, chatId, messageId);
+        } else if (user.getRole() == Role.TEACHER && user.isHasConfirmed()) {
+            teacherCommands.handleListCallback(callback, chatId, messageId);
+        } else if (user.getRole() == Role.DEANERY && user.isHasConfirmed()) {
+            deaneryCommands.handleListCallback(callback, chatId, messageId);
+        }
+    }
+
     /**
      * Обработка текстовых сообщений
      */
     private void handleTextMessage(String text, Long chatId) {
-        Optional<TelegramUser> userOptional = telegramUserRepository.findByTelegramId(chatId);
+        Optional<TelegramUser> userOptional = telegramUserCache.findByTelegramId(chatId);
 
 
         if (text.equals("/start")) {
@@ -0,0 +1,14 @@
+package com.example.botforconsultations.api.bot.callback;
+
+import com.example.botforconsultations.core.model.TelegramUser;
+
+/**
+ * Нажатие inline-кнопки, переданное обработчику маршрута
+ *
+ * @param data      разобранная callback_data
+ * @param chatId    чат, в котором нажата кнопка
+ * @param messageId сообщение с кнопкой (для редактирования на месте)
+ * @param user      пользователь (null - не зарегистрирован)
+ */
+public record CallbackContext(CallbackData data, Long chatId, Integer messageId, TelegramUser user) {
+}
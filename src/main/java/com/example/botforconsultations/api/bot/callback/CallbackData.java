@@ -0,0 +1,76 @@
+package com.example.botforconsultations.api.bot.callback;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Разобранная callback_data: маршрут и аргументы.
+ * <p>
+ * Формат: "&lt;маршрут&gt;:&lt;аргумент&gt;:&lt;аргумент&gt;...". Аргументы не могут содержать ':'.
+ *
+ * @param route маршрут (см. CallbackRoutes)
+ * @param args  аргументы после маршрута
+ */
+public record CallbackData(String route, List<String> args) {
+
+    // Ограничение Telegram на callback_data
+    public static final int MAX_BYTES = 64;
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Собрать callback_data
+     *
+     * @throws IllegalArgumentException если результат длиннее 64 байт или аргумент содержит ':'
+     */
+    public static String encode(String route, Object... args) {
+        StringBuilder data = new StringBuilder(route);
+        for (Object arg : args) {
+            String value = String.valueOf(arg);
+            if (value.indexOf(SEPARATOR) >= 0) {
+                throw new IllegalArgumentException("callback_data argument contains '" + SEPARATOR + "': " + value);
+            }
+            data.append(SEPARATOR).append(value);
+        }
+
+        String result = data.toString();
+        if (result.getBytes(StandardCharsets.UTF_8).length > MAX_BYTES) {
+            throw new IllegalArgumentException("callback_data longer than " + MAX_BYTES + " bytes: " + result);
+        }
+        return result;
+    }
+
+    /**
+     * Разобрать callback_data; null - пустая строка
+     */
+    public static CallbackData parse(String data) {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+        String[] parts = data.split(String.valueOf(SEPARATOR), -1);
+        return new CallbackData(parts[0], List.of(Arrays.copyOfRange(parts, 1, parts.length)));
+    }
+
+    /**
+     * Аргумент по номеру; null - аргумента нет
+     */
+    public String arg(int index) {
+        return index < args.size() ? args.get(index) : null;
+    }
+
+    /**
+     * Аргумент-число по номеру; null - аргумента нет или это не число
+     */
+    public Long longArg(int index) {
+        String value = arg(index);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.botforconsultations.api.bot.callback;
+
+/**
+ * Обработчик маршрута callback_data
+ */
+@FunctionalInterface
+public interface CallbackHandler {
+
+    void handle(CallbackContext context);
+}
@@ -0,0 +1,51 @@
+package com.example.botforconsultations.api.bot.callback;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Маршрутизатор нажатий inline-кнопок.
+ * <p>
+ * Обработчики регистрируются по маршруту - части callback_data до первого ':'.
+ * Поиск обработчика - одно обращение к хеш-таблице, независимо от числа маршрутов.
+ * Маршруты регистрируются при старте (см. UpdateConsumer), повторная регистрация маршрута - ошибка.
+ */
+@Slf4j
+@Component
+public class CallbackRouter {
+
+    private final Map<String, CallbackHandler> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Зарегистрировать обработчик маршрута
+     *
+     * @throws IllegalStateException если маршрут уже зарегистрирован
+     */
+    public void register(String route, CallbackHandler handler) {
+        CallbackHandler previous = routes.putIfAbsent(route, handler);
+        if (previous != null) {
+            throw new IllegalStateException("Callback route already registered: " + route);
+        }
+    }
+
+    /**
+     * Передать нажатие обработчику его маршрута
+     *
+     * @return false - маршрут неизвестен или callback_data пустая
+     */
+    public boolean route(CallbackContext context) {
+        if (context.data() == null) {
+            return false;
+        }
+        CallbackHandler handler = routes.get(context.data().route());
+        if (handler == null) {
+            log.warn("Unknown callback route '{}' from chat {}", context.data().route(), context.chatId());
+            return false;
+        }
+        handler.handle(context);
+        return true;
+    }
+}
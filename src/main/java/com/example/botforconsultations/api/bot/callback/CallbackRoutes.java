@@ -0,0 +1,19 @@
+package com.example.botforconsultations.api.bot.callback;
+
+/**
+ * Маршруты callback_data inline-кнопок (первая часть до ':').
+ * Коды короткие: вместе с аргументами callback_data должна уместиться в 64 байта.
+ */
+public final class CallbackRoutes {
+
+    // Открыть консультацию из уведомления: "vc:<ID>"
+    public static final String VIEW_CONSULTATION = "vc";
+    // Прежний формат кнопки уведомления - такие кнопки остались в уже отправленных сообщениях
+    public static final String VIEW_CONSULTATION_LEGACY = "view_consultation";
+    // Постраничные списки: "pg:<список>:<курсор>", "pk:<список>:<ID>" (см. ListCallback)
+    public static final String LIST_PAGE = "pg";
+    public static final String LIST_PICK = "pk";
+
+    private CallbackRoutes() {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.botforconsultations.api.bot.command;
+
+/**
+ * Обработчик текстовой команды (нажатия кнопки reply-клавиатуры)
+ */
+@FunctionalInterface
+public interface TextCommand {
+
+    void handle(Long chatId);
+}
@@ -0,0 +1,47 @@
+package com.example.botforconsultations.api.bot.command;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Реестр текстовых команд одной роли: текст кнопки -> обработчик.
+ * <p>
+ * Команды регистрируются при старте обработчика роли (@PostConstruct) и после этого не меняются,
+ * поэтому таблица - обычный HashMap. Поиск команды - одно обращение к хеш-таблице.
+ * Повторная регистрация текста - ошибка, как и повторный case в switch.
+ */
+public class TextCommandRegistry {
+
+    private final String role;
+    private final Map<String, TextCommand> commands = new HashMap<>();
+
+    public TextCommandRegistry(String role) {
+        this.role = role;
+    }
+
+    /**
+     * Зарегистрировать обработчик команды
+     *
+     * @throws IllegalStateException если команда уже зарегистрирована
+     */
+    public void register(String text, TextCommand command) {
+        TextCommand previous = commands.putIfAbsent(text, command);
+        if (previous != null) {
+            throw new IllegalStateException("Text command already registered for " + role + ": " + text);
+        }
+    }
+
+    /**
+     * Выполнить команду, если текст совпадает с зарегистрированным
+     *
+     * @return false - команда неизвестна
+     */
+    public boolean dispatch(String text, Long chatId) {
+        TextCommand command = commands.get(text);
+        if (command == null) {
+            return false;
+        }
+        command.handle(chatId);
+        return true;
+    }
+}
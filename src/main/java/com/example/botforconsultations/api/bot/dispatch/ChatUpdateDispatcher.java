@@ -0,0 +1,237 @@
+package com.example.botforconsultations.api.bot.dispatch;
+
+import com.example.botforconsultations.api.bot.BotMessenger;
+import com.example.botforconsultations.api.bot.UpdateConsumer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.longpolling.interfaces.LongPollingUpdateConsumer;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Параллельный диспетчер обновлений Telegram.
+ * Обновления разных чатов обрабатываются в пуле потоков,
+ * обновления одного чата - строго последовательно (очередь на каждый chatId).
+ */
+@Slf4j
+@Component
+public class ChatUpdateDispatcher implements LongPollingUpdateConsumer {
+
+    private final UpdateConsumer updateConsumer;
+    private final BotMessenger botMessenger;
+    private final int maxQueuePerChat;
+    private final ExecutorService executor;
+
+    // Очереди обновлений по чатам; чат присутствует в карте, пока у него есть необработанные обновления
+    private final Map<Long, ChatQueue> chatQueues = new ConcurrentHashMap<>();
+
+    // Метрики
+    private final AtomicInteger queuedUpdates = new AtomicInteger();
+    private final AtomicInteger maxObservedDepth = new AtomicInteger();
+    private final AtomicLong processedUpdates = new AtomicLong();
+    private final AtomicLong rejectedUpdates = new AtomicLong();
+    private final AtomicLong failedUpdates = new AtomicLong();
+
+    public ChatUpdateDispatcher(UpdateConsumer updateConsumer,
+                                BotMessenger botMessenger,
+                                @Value("${bot.dispatcher.threads:8}") int threads,
+                                @Value("${bot.dispatcher.max-pending-chats:1000}") int maxPendingChats,
+                                @Value("${bot.dispatcher.max-queue-per-chat:20}") int maxQueuePerChat) {
+        this.updateConsumer = updateConsumer;
+        this.botMessenger = botMessenger;
+        this.maxQueuePerChat = maxQueuePerChat;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Ограниченная очередь задач + CallerRunsPolicy: при перегрузке поток long polling
+        // сам обрабатывает обновления и тем самым замедляет получение новых (backpressure)
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxPendingChats),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bot-update-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public void consume(List<Update> updates) {
+        for (Update update : updates) {
+            dispatch(update);
+        }
+    }
+
+    /**
+     * Поставить обновление в очередь его чата
+     */
+    public void dispatch(Update update) {
+        long chatId = resolveChatId(update);
+        ChatQueue[] toSchedule = new ChatQueue[1];
+        boolean[] rejected = new boolean[1];
+
+        // compute блокирует ключ: постановка в очередь и удаление опустевшей очереди не пересекаются
+        chatQueues.compute(chatId, (id, existing) -> {
+            ChatQueue queue = existing != null ? existing : new ChatQueue(id);
+            synchronized (queue) {
+                if (queue.updates.size() >= maxQueuePerChat) {
+                    rejected[0] = true;
+                    return queue;
+                }
+                queue.updates.add(update);
+                updateMaxDepth(queue.updates.size());
+                if (!queue.scheduled) {
+                    queue.scheduled = true;
+                    toSchedule[0] = queue;
+                }
+            }
+            return queue;
+        });
+
+        if (rejected[0]) {
+            rejectedUpdates.incrementAndGet();
+            log.warn("Update queue overflow for chat {}, update #{} dropped", chatId, update.getUpdateId());
+            if (chatId != 0) {
+                botMessenger.sendText("Слишком много сообщений подряд. Подождите ответа и повторите действие.", chatId);
+            }
+            return;
+        }
+
+        queuedUpdates.incrementAndGet();
+        if (toSchedule[0] != null) {
+            executor.execute(() -> drain(toSchedule[0]));
+        }
+    }
+
+    /**
+     * Последовательно обработать все обновления очереди чата
+     */
+    private void drain(ChatQueue queue) {
+        while (true) {
+            Update next;
+            synchronized (queue) {
+                next = queue.updates.poll();
+            }
+
+            if (next == null) {
+                boolean[] finished = new boolean[1];
+                chatQueues.compute(queue.chatId, (id, current) -> {
+                    synchronized (queue) {
+                        if (queue.updates.isEmpty()) {
+                            queue.scheduled = false;
+                            finished[0] = true;
+                            return null;
+                        }
+                        return current;
+                    }
+                });
+                if (finished[0]) {
+                    return;
+                }
+                continue;
+            }
+
+            queuedUpdates.decrementAndGet();
+            try {
+                updateConsumer.consume(next);
+                processedUpdates.incrementAndGet();
+            } catch (Exception e) {
+                failedUpdates.incrementAndGet();
+                log.error("Error handling update #{} for chat {}: {}", next.getUpdateId(), queue.chatId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private long resolveChatId(Update update) {
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
+        }
+        if (update.hasCallbackQuery()) {
+            if (update.getCallbackQuery().getMessage() != null) {
+                return update.getCallbackQuery().getMessage().getChatId();
+            }
+            return update.getCallbackQuery().getFrom().getId();
+        }
+        // Прочие типы обновлений не обрабатываются, но сохраняют общий порядок
+        return 0L;
+    }
+
+    private void updateMaxDepth(int depth) {
+        maxObservedDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     * Текущие метрики диспетчера
+     */
+    public DispatcherStats getStats() {
+        return new DispatcherStats(
+                chatQueues.size(),
+                queuedUpdates.get(),
+                maxObservedDepth.get(),
+                processedUpdates.get(),
+                rejectedUpdates.get(),
+                failedUpdates.get()
+        );
+    }
+
+    /**
+     * Периодический вывод метрик в лог (только при наличии активности)
+     */
+    @Scheduled(fixedRate = 60000)
+    public void logStats() {
+        DispatcherStats stats = getStats();
+        if (stats.activeChats() > 0 || stats.rejected() > 0) {
+            log.info("Update dispatcher: {}", stats);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Update dispatcher did not finish in time, {} updates left", queuedUpdates.get());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Последовательная очередь обновлений одного чата
+     */
+    private static class ChatQueue {
+        private final long chatId;
+        private final ArrayDeque<Update> updates = new ArrayDeque<>();
+        private boolean scheduled;
+
+        private ChatQueue(long chatId) {
+            this.chatId = chatId;
+        }
+    }
+
+    /**
+     * Снимок метрик диспетчера
+     *
+     * @param activeChats чаты с необработанными обновлениями
+     * @param queued      обновления в очередях
+     * @param maxDepth    максимальная наблюдавшаяся глубина очереди одного чата
+     * @param processed   обработано успешно
+     * @param rejected    отброшено из-за переполнения очереди чата
+     * @param failed      завершились ошибкой
+     */
+    public record DispatcherStats(int activeChats, int queued, int maxDepth,
+                                  long processed, long rejected, long failed) {
+    }
+}
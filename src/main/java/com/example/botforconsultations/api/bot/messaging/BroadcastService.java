@@ -0,0 +1,193 @@
+package com.example.botforconsultations.api.bot.messaging;
+
+import com.example.botforconsultations.api.bot.BotMessenger;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Массовая рассылка одного сообщения списку получателей.
+ * <p>
+ * Сообщение формируется вызывающим кодом один раз, затем отправки ставятся в OutboundMessageQueue
+ * пачками: следующая пачка добавляется, когда завершена предыдущая. Это не блокирует поток обработчика
+ * и не забивает очередь отправки, оставляя место для интерактивных ответов.
+ */
+@Slf4j
+@Service
+public class BroadcastService {
+
+    // Сколько завершённых рассылок хранить для просмотра прогресса
+    private static final int MAX_TRACKED_BROADCASTS = 100;
+
+    private final BotMessenger botMessenger;
+    private final int batchSize;
+
+    private final AtomicLong idSequence = new AtomicLong();
+    private final Map<Long, Broadcast> broadcasts = new ConcurrentSkipListMap<>();
+
+    public BroadcastService(BotMessenger botMessenger,
+                            @Value("${bot.broadcast.batch-size:50}") int batchSize) {
+        this.botMessenger = botMessenger;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Начать рассылку
+     *
+     * @param name     описание рассылки для логов и прогресса
+     * @param chatIds  получатели
+     * @param text     текст сообщения
+     * @param keyboard inline-клавиатура (может быть null)
+     * @return дескриптор рассылки с прогрессом
+     */
+    public Broadcast broadcast(String name, Collection<Long> chatIds, String text, InlineKeyboardMarkup keyboard) {
+        Broadcast broadcast = new Broadcast(idSequence.incrementAndGet(), name, List.copyOf(chatIds), text, keyboard);
+        track(broadcast);
+
+        if (broadcast.getTotal() == 0) {
+            broadcast.completion.complete(broadcast);
+            return broadcast;
+        }
+
+        log.info("Broadcast #{} '{}' started for {} recipients", broadcast.getId(), name, broadcast.getTotal());
+        sendBatch(broadcast, 0);
+        return broadcast;
+    }
+
+    /**
+     * Получить рассылку по ID (активную или недавно завершённую)
+     */
+    public Broadcast getBroadcast(long id) {
+        return broadcasts.get(id);
+    }
+
+    /**
+     * Получить незавершённые рассылки
+     */
+    public List<Broadcast> getActiveBroadcasts() {
+        return broadcasts.values().stream()
+                .filter(b -> !b.isDone())
+                .toList();
+    }
+
+    private void sendBatch(Broadcast broadcast, int from) {
+        int to = Math.min(from + batchSize, broadcast.getTotal());
+        List<CompletableFuture<?>> batch = new ArrayList<>(to - from);
+
+        for (int i = from; i < to; i++) {
+            Long chatId = broadcast.recipients.get(i);
+            SendMessage message = SendMessage.builder()
+                    .text(broadcast.text)
+                    .chatId(chatId)
+                    .replyMarkup(broadcast.keyboard)
+                    .build();
+            batch.add(botMessenger.execute(message).whenComplete((result, error) -> {
+                if (error == null) {
+                    broadcast.sent.incrementAndGet();
+                } else {
+                    broadcast.failed.incrementAndGet();
+                }
+            }));
+        }
+
+        CompletableFuture.allOf(batch.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null)
+                .thenRun(() -> {
+                    if (to < broadcast.getTotal()) {
+                        sendBatch(broadcast, to);
+                    } else {
+                        finish(broadcast);
+                    }
+                });
+    }
+
+    private void finish(Broadcast broadcast) {
+        log.info("Broadcast #{} '{}' finished: sent {}, failed {} of {} in {} ms",
+                broadcast.getId(), broadcast.getName(), broadcast.getSent(), broadcast.getFailed(),
+                broadcast.getTotal(), System.currentTimeMillis() - broadcast.startedAt);
+        broadcast.completion.complete(broadcast);
+    }
+
+    private void track(Broadcast broadcast) {
+        broadcasts.put(broadcast.getId(), broadcast);
+        // Удаляем самые старые завершённые рассылки
+        while (broadcasts.size() > MAX_TRACKED_BROADCASTS) {
+            Long oldestDone = broadcasts.values().stream()
+                    .filter(Broadcast::isDone)
+                    .map(Broadcast::getId)
+                    .findFirst()
+                    .orElse(null);
+            if (oldestDone == null) {
+                break;
+            }
+            broadcasts.remove(oldestDone);
+        }
+    }
+
+    /**
+     * Дескриптор рассылки: прогресс и результат
+     */
+    public static class Broadcast {
+        @Getter
+        private final long id;
+        @Getter
+        private final String name;
+        private final List<Long> recipients;
+        private final String text;
+        private final InlineKeyboardMarkup keyboard;
+        private final long startedAt = System.currentTimeMillis();
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final CompletableFuture<Broadcast> completion = new CompletableFuture<>();
+
+        private Broadcast(long id, String name, List<Long> recipients, String text, InlineKeyboardMarkup keyboard) {
+            this.id = id;
+            this.name = name;
+            this.recipients = recipients;
+            this.text = text;
+            this.keyboard = keyboard;
+        }
+
+        public int getTotal() {
+            return recipients.size();
+        }
+
+        public int getSent() {
+            return sent.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * Доля обработанных получателей (0..1)
+         */
+        public double getProgress() {
+            return getTotal() == 0 ? 1d : (double) (getSent() + getFailed()) / getTotal();
+        }
+
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        /**
+         * Future, завершающийся после обработки всех получателей
+         */
+        public CompletableFuture<Broadcast> getCompletion() {
+            return completion;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.botforconsultations.api.bot.messaging;
+
+import com.example.botforconsultations.api.bot.state.ChatStateStore;
+import com.example.botforconsultations.api.bot.state.InMemoryChatStateStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.BotApiMethod;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Асинхронная очередь исходящих запросов к Telegram Bot API.
+ * <p>
+ * Ограничения частоты: общий token bucket (~30 сообщений/сек) и token bucket на каждый чат (~1 сообщение/сек
+ * с небольшим запасом на всплеск). Сообщения одного чата отправляются строго по порядку.
+ * Bucket чата хранится отдельно от очереди чата и переживает её опустошение: иначе чат, которому сообщения
+ * уходят по одному, каждый раз получал бы новый полный bucket и лимит на чат не действовал бы.
+ * При ответе 429 чат ставится на паузу на retry_after секунд, при сетевых ошибках - повтор с экспоненциальной задержкой.
+ */
+@Slf4j
+@Component
+public class OutboundMessageQueue {
+
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long BASE_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    // Запас к времени полного пополнения bucket чата, после которого он удаляется
+    private static final Duration LIMITER_IDLE_MARGIN = Duration.ofSeconds(1);
+
+    private final TelegramClient telegramClient;
+    private final int workerCount;
+    private final int maxQueued;
+    private final int maxAttempts;
+    private final double perChatRate;
+    private final double perChatBurst;
+    private final TokenBucket globalLimiter;
+    // Bucket'ы чатов. Хранятся, пока не пополнятся полностью: удаление такого bucket ничего не меняет
+    private final ChatStateStore<TokenBucket> chatLimiters;
+
+    // Очереди сообщений по чатам; чат присутствует в карте, пока у него есть неотправленные сообщения
+    private final Map<Long, ChatOutbox> outboxes = new ConcurrentHashMap<>();
+    // Чаты, готовые к отправке (с учётом паузы после лимитов и повторов)
+    private final DelayQueue<ChatOutbox> readyChats = new DelayQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running = true;
+    private volatile long drainDeadline = Long.MAX_VALUE;
+
+    // Метрики
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public OutboundMessageQueue(TelegramClient telegramClient,
+                                @Value("${bot.outbound.workers:4}") int workerCount,
+                                @Value("${bot.outbound.max-queued:10000}") int maxQueued,
+                                @Value("${bot.outbound.max-attempts:5}") int maxAttempts,
+                                @Value("${bot.outbound.global-rate:30}") double globalRate,
+                                @Value("${bot.outbound.per-chat-rate:1}") double perChatRate,
+                                @Value("${bot.outbound.per-chat-burst:3}") double perChatBurst,
+                                @Value("${bot.outbound.max-chat-limiters:100000}") int maxChatLimiters) {
+        this.telegramClient = telegramClient;
+        this.workerCount = workerCount;
+        this.maxQueued = maxQueued;
+        this.maxAttempts = maxAttempts;
+        this.perChatRate = perChatRate;
+        this.perChatBurst = perChatBurst;
+        this.globalLimiter = new TokenBucket(globalRate, globalRate);
+        Duration refillTime = Duration.ofMillis((long) Math.ceil(perChatBurst / perChatRate * 1000));
+        this.chatLimiters = new InMemoryChatStateStore<>("outbound-chat-limiters", maxChatLimiters,
+                refillTime.plus(LIMITER_IDLE_MARGIN));
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::workerLoop, "bot-outbound-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Поставить запрос в очередь чата.
+     *
+     * @return future, завершающийся ответом Telegram или ошибкой после исчерпания попыток
+     */
+    public <T extends Serializable> CompletableFuture<T> enqueue(long chatId, BotApiMethod<T> method) {
+        OutboundMessage<T> message = new OutboundMessage<>(method);
+
+        if (!running || queued.incrementAndGet() > maxQueued) {
+            if (running) {
+                queued.decrementAndGet();
+            }
+            dropped.incrementAndGet();
+            message.future.completeExceptionally(
+                    new IllegalStateException("Outbound queue is full or stopped, message to chat " + chatId + " dropped"));
+            return message.future;
+        }
+
+        // compute блокирует ключ: добавление и освобождение опустевшей очереди не пересекаются
+        outboxes.compute(chatId, (id, existing) -> {
+            ChatOutbox outbox = existing != null ? existing : new ChatOutbox(id);
+            synchronized (outbox) {
+                outbox.messages.add(message);
+                if (!outbox.scheduled) {
+                    outbox.scheduled = true;
+                    outbox.readyAt = System.nanoTime();
+                    readyChats.add(outbox);
+                }
+            }
+            return outbox;
+        });
+
+        return message.future;
+    }
+
+    private void workerLoop() {
+        while (running || (queued.get() > 0 && System.nanoTime() < drainDeadline)) {
+            try {
+                ChatOutbox outbox = readyChats.poll(1, TimeUnit.SECONDS);
+                if (outbox != null) {
+                    process(outbox);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in outbound worker: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Отправить очередное сообщение чата с учётом лимитов
+     */
+    private void process(ChatOutbox outbox) throws InterruptedException {
+        long chatWait = limiterFor(outbox.chatId).tryAcquire();
+        if (chatWait > 0) {
+            rescheduleOrRelease(outbox, chatWait);
+            return;
+        }
+
+        OutboundMessage<?> message;
+        synchronized (outbox) {
+            message = outbox.messages.peek();
+        }
+        if (message == null) {
+            rescheduleOrRelease(outbox, 0);
+            return;
+        }
+
+        try {
+            globalLimiter.acquire();
+        } catch (InterruptedException e) {
+            rescheduleOrRelease(outbox, 0);
+            throw e;
+        }
+
+        long delay = send(outbox, message);
+        rescheduleOrRelease(outbox, delay);
+    }
+
+    /**
+     * Выполнить запрос.
+     *
+     * @return задержка перед следующей отправкой в этот чат (наносекунды)
+     */
+    private <T extends Serializable> long send(ChatOutbox outbox, OutboundMessage<T> message) {
+        try {
+            T result = telegramClient.execute(message.method);
+            removeHead(outbox);
+            sent.incrementAndGet();
+            message.future.complete(result);
+            return 0;
+        } catch (TelegramApiRequestException e) {
+            Integer errorCode = e.getErrorCode();
+            if (errorCode != null && errorCode == 429) {
+                int retryAfter = e.getParameters() != null && e.getParameters().getRetryAfter() != null
+                        ? e.getParameters().getRetryAfter()
+                        : 1;
+                throttled.incrementAndGet();
+                limiterFor(outbox.chatId).drain();
+                log.warn("Telegram rate limit hit for chat {}, retry after {} s", outbox.chatId, retryAfter);
+                return TimeUnit.SECONDS.toNanos(retryAfter);
+            }
+            if (errorCode != null && errorCode >= 400 && errorCode < 500) {
+                // Ошибка запроса (бот заблокирован, неверные данные) - повтор не поможет
+                fail(outbox, message, e);
+                return 0;
+            }
+            return retryOrFail(outbox, message, e);
+        } catch (TelegramApiException e) {
+            return retryOrFail(outbox, message, e);
+        }
+    }
+
+    private long retryOrFail(ChatOutbox outbox, OutboundMessage<?> message, TelegramApiException e) {
+        message.attempts++;
+        if (message.attempts >= maxAttempts) {
+            fail(outbox, message, e);
+            return 0;
+        }
+        retried.incrementAndGet();
+        long backoff = Math.min(MAX_BACKOFF_NANOS, BASE_BACKOFF_NANOS << (message.attempts - 1));
+        log.debug("Retrying message to chat {} in {} ms (attempt {}): {}",
+                outbox.chatId, TimeUnit.NANOSECONDS.toMillis(backoff), message.attempts, e.getMessage());
+        return backoff;
+    }
+
+    private void fail(ChatOutbox outbox, OutboundMessage<?> message, TelegramApiException e) {
+        removeHead(outbox);
+        failed.incrementAndGet();
+        message.future.completeExceptionally(e);
+    }
+
+    private void removeHead(ChatOutbox outbox) {
+        synchronized (outbox) {
+            outbox.messages.poll();
+        }
+        queued.decrementAndGet();
+    }
+
+    private TokenBucket limiterFor(long chatId) {
+        return chatLimiters.computeIfAbsent(chatId, () -> new TokenBucket(perChatBurst, perChatRate));
+    }
+
+    /**
+     * Вернуть чат в очередь готовых (с задержкой) или удалить, если сообщений больше нет
+     */
+    private void rescheduleOrRelease(ChatOutbox outbox, long delayNanos) {
+        outboxes.compute(outbox.chatId, (id, current) -> {
+            synchronized (outbox) {
+                if (outbox.messages.isEmpty()) {
+                    outbox.scheduled = false;
+                    return null;
+                }
+                outbox.readyAt = System.nanoTime() + delayNanos;
+                readyChats.add(outbox);
+                return current;
+            }
+        });
+    }
+
+    /**
+     * Текущие метрики очереди
+     */
+    public OutboundStats getStats() {
+        return new OutboundStats(queued.get(), outboxes.size(), sent.get(), failed.get(),
+                retried.get(), throttled.get(), dropped.get());
+    }
+
+    /**
+     * Периодический вывод метрик в лог (только при наличии активности)
+     */
+    @Scheduled(fixedRate = 60000)
+    public void logStats() {
+        OutboundStats stats = getStats();
+        if (stats.queued() > 0 || stats.throttled() > 0 || stats.failed() > 0) {
+            log.info("Outbound queue: {}", stats);
+        }
+    }
+
+    /**
+     * Удаление bucket'ов чатов, которые давно ничего не отправляли (пополнились полностью)
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleLimiters() {
+        chatLimiters.evictExpired();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Даём воркерам дослать накопленные сообщения
+        drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(11));
+        }
+        if (queued.get() > 0) {
+            log.warn("Outbound queue stopped with {} unsent messages", queued.get());
+        }
+    }
+
+    /**
+     * Очередь сообщений одного чата
+     */
+    private static class ChatOutbox implements Delayed {
+        private final long chatId;
+        private final ArrayDeque<OutboundMessage<?>> messages = new ArrayDeque<>();
+        private boolean scheduled;
+        private volatile long readyAt;
+
+        private ChatOutbox(long chatId) {
+            this.chatId = chatId;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * Запрос в очереди вместе с его future
+     */
+    private static class OutboundMessage<T extends Serializable> {
+        private final BotApiMethod<T> method;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private int attempts;
+
+        private OutboundMessage(BotApiMethod<T> method) {
+            this.method = method;
+        }
+    }
+
+    /**
+     * Снимок метрик очереди
+     *
+     * @param queued      сообщения, ожидающие отправки
+     * @param activeChats чаты с неотправленными сообщениями
+     * @param sent        отправлено успешно
+     * @param failed      не отправлено (ошибка запроса или исчерпаны попытки)
+     * @param retried     повторные попытки
+     * @param throttled   ответы 429 от Telegram
+     * @param dropped     отброшено из-за переполнения очереди
+     */
+    public record OutboundStats(int queued, int activeChats, long sent, long failed,
+                                long retried, long throttled, long dropped) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.botforconsultations.api.bot.messaging;
+
+/**
+ * Простой token bucket для ограничения частоты отправки.
+ * Потокобезопасен, время считается по System.nanoTime().
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param capacity        максимальный "всплеск" (сколько сообщений можно отправить подряд)
+     * @param tokensPerSecond скорость пополнения
+     */
+    public TokenBucket(double capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Попытаться взять токен.
+     *
+     * @return 0, если токен получен; иначе сколько наносекунд ждать до появления токена
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1d) {
+            tokens -= 1d;
+            return 0L;
+        }
+        return (long) Math.ceil((1d - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Взять токен, при необходимости дождавшись его появления
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    /**
+     * Полностью опустошить корзину (например, после ответа 429 от Telegram)
+     */
+    public synchronized void drain() {
+        refill();
+        tokens = 0d;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
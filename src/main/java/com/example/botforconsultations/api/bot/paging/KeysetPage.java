@@ -0,0 +1,122 @@
+package com.example.botforconsultations.api.bot.paging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница keyset-списка: элементы в порядке показа и курсоры соседних страниц.
+ * <p>
+ * Запрос страницы берёт на один элемент больше размера страницы - по нему видно, есть ли элементы дальше.
+ * Стоимость запроса не зависит от номера страницы: БД продолжает чтение индекса с ключа курсора.
+ *
+ * @param items    элементы страницы
+ * @param previous курсор предыдущей страницы (null - это первая страница)
+ * @param next     курсор следующей страницы (null - это последняя страница)
+ * @param current  курсор, по которому страница получена (для возврата к ней)
+ */
+public record KeysetPage<T>(List<T> items, PageCursor previous, PageCursor next, PageCursor current) {
+
+    public boolean hasPrevious() {
+        return previous != null;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Загрузить страницу из БД.
+     * Если по курсору ничего не нашлось (элементы успели удалить), показывается крайняя страница списка.
+     *
+     * @param cursor курсор страницы
+     * @param size   размер страницы
+     * @param query  запрос: по курсору возвращает до size + 1 строк, для курсора "назад" - в обратном порядке
+     * @param key    ключ элемента для курсоров
+     */
+    public static <T> KeysetPage<T> load(PageCursor cursor, int size,
+                                         Function<PageCursor, List<T>> query, Function<T, String> key) {
+        KeysetPage<T> page = of(query.apply(cursor), cursor, size, key);
+        if (page.isEmpty() && cursor.key() != null) {
+            PageCursor edge = cursor.backward() ? PageCursor.first() : PageCursor.last();
+            page = of(query.apply(edge), edge, size, key);
+        }
+        return page;
+    }
+
+    /**
+     * Страница списка, который уже целиком в памяти (например, справочник преподавателей).
+     * Если элемента из курсора в списке больше нет, показывается первая страница.
+     */
+    public static <T> KeysetPage<T> ofList(List<T> all, PageCursor cursor, int size, Function<T, String> key) {
+        int from;
+        int to;
+        if (cursor.key() == null) {
+            from = cursor.backward() ? Math.max(0, all.size() - size) : 0;
+            to = Math.min(all.size(), from + size);
+        } else {
+            int index = indexOf(all, cursor.key(), key);
+            if (index < 0) {
+                return ofList(all, PageCursor.first(), size, key);
+            }
+            if (cursor.backward()) {
+                // Строго до элемента курсора: страница не пересекается с той, с которой ушли
+                from = Math.max(0, index - size);
+                to = index;
+            } else {
+                from = index + 1;
+                to = Math.min(all.size(), from + size);
+            }
+            if (from >= to) {
+                // Элемент курсора сместился к краю списка - показываем крайнюю страницу
+                PageCursor edge = cursor.backward() ? PageCursor.first() : PageCursor.last();
+                return ofList(all, edge, size, key);
+            }
+        }
+
+        List<T> items = List.copyOf(all.subList(from, to));
+        PageCursor previous = from > 0 && !items.isEmpty() ? PageCursor.before(key.apply(items.get(0))) : null;
+        PageCursor next = to < all.size() && !items.isEmpty()
+                ? PageCursor.after(key.apply(items.get(items.size() - 1)))
+                : null;
+        return new KeysetPage<>(items, previous, next, cursor);
+    }
+
+    private static <T> KeysetPage<T> of(List<T> rows, PageCursor cursor, int size, Function<T, String> key) {
+        boolean more = rows.size() > size;
+        List<T> items = new ArrayList<>(rows.subList(0, Math.min(size, rows.size())));
+        if (items.isEmpty()) {
+            return new KeysetPage<>(List.of(), null, null, cursor);
+        }
+
+        // Страница "назад" читается в обратном порядке - разворачиваем в порядок показа
+        boolean hasPrevious;
+        boolean hasNext;
+        if (cursor.backward()) {
+            Collections.reverse(items);
+            hasPrevious = more;
+            hasNext = cursor.key() != null;
+        } else {
+            hasPrevious = cursor.key() != null;
+            hasNext = more;
+        }
+
+        PageCursor previous = hasPrevious ? PageCursor.before(key.apply(items.get(0))) : null;
+        PageCursor next = hasNext ? PageCursor.after(key.apply(items.get(items.size() - 1))) : null;
+        return new KeysetPage<>(Collections.unmodifiableList(items), previous, next, cursor);
+    }
+
+    private static <T> int indexOf(List<T> all, String wanted, Function<T, String> key) {
+        for (int i = 0; i < all.size(); i++) {
+            if (wanted.equals(key.apply(all.get(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
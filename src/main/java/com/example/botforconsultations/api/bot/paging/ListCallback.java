@@ -0,0 +1,86 @@
+package com.example.botforconsultations.api.bot.paging;
+
+import com.example.botforconsultations.api.bot.callback.CallbackData;
+import com.example.botforconsultations.api.bot.callback.CallbackRoutes;
+
+/**
+ * callback_data inline-кнопок постраничных списков.
+ * <p>
+ * Формат: "pg:&lt;список&gt;:&lt;курсор&gt;" - перейти на страницу, "pk:&lt;список&gt;:&lt;ID&gt;" - выбрать элемент.
+ * Список - короткий код с контекстом через точку (например, "c.f.42" - будущие консультации преподавателя 42),
+ * поэтому кнопки старого сообщения продолжают показывать свой список, даже если пользователь уже перешёл к другому.
+ *
+ * @param action CallbackRoutes.LIST_PAGE или CallbackRoutes.LIST_PICK
+ * @param list   код списка
+ * @param value  курсор страницы (PAGE) или ID элемента (PICK)
+ */
+public record ListCallback(String action, String list, String value) {
+
+    /**
+     * callback_data перехода на страницу
+     */
+    public static String page(String list, PageCursor cursor) {
+        return CallbackData.encode(CallbackRoutes.LIST_PAGE, list, cursor.encode());
+    }
+
+    /**
+     * callback_data выбора элемента
+     */
+    public static String pick(String list, Long id) {
+        return CallbackData.encode(CallbackRoutes.LIST_PICK, list, id);
+    }
+
+    /**
+     * Кнопка списка из разобранной callback_data; null - неверный формат
+     */
+    public static ListCallback from(CallbackData data) {
+        if (data.args().size() != 2) {
+            return null;
+        }
+        return new ListCallback(data.route(), data.arg(0), data.arg(1));
+    }
+
+    public boolean isPage() {
+        return CallbackRoutes.LIST_PAGE.equals(action);
+    }
+
+    public boolean isPick() {
+        return CallbackRoutes.LIST_PICK.equals(action);
+    }
+
+    /**
+     * Курсор страницы (для PAGE)
+     */
+    public PageCursor cursor() {
+        return PageCursor.parse(value);
+    }
+
+    /**
+     * ID выбранного элемента (для PICK); null - неверный формат
+     */
+    public Long id() {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Контекст списка: части кода после первой точки ("c.f.42" -> ["f", "42"])
+     */
+    public String[] args() {
+        String[] parts = list.split("\\.");
+        String[] args = new String[parts.length - 1];
+        System.arraycopy(parts, 1, args, 0, args.length);
+        return args;
+    }
+
+    /**
+     * Тип списка: часть кода до первой точки ("c.f.42" -> "c")
+     */
+    public String type() {
+        int dot = list.indexOf('.');
+        return dot < 0 ? list : list.substring(0, dot);
+    }
+}
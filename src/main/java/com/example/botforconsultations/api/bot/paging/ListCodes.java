@@ -0,0 +1,113 @@
+package com.example.botforconsultations.api.bot.paging;
+
+/**
+ * Коды постраничных списков для callback_data (см. ListCallback).
+ * Коды короткие: вместе с курсором они должны уместиться в 64 байта.
+ */
+public final class ListCodes {
+
+    // Преподаватели
+    public static final String TEACHERS = "t";
+    // Консультации: "c" - свои (для преподавателя), "c.<фильтр>.<ID преподавателя>" - консультации преподавателя
+    public static final String CONSULTATIONS = "c";
+    // Запросы консультаций
+    public static final String REQUESTS = "r";
+    // Задачи: "k.<статус><дедлайн>" - все задачи, "k.<статус><дедлайн>.<ID преподавателя>" - задачи преподавателя
+    public static final String TASKS = "k";
+
+    private ListCodes() {
+    }
+
+    /**
+     * Код списка консультаций преподавателя с фильтром ("future", "past", иначе все)
+     */
+    public static String consultations(String filter, Long teacherId) {
+        String code = switch (filter) {
+            case "future" -> "f";
+            case "past" -> "p";
+            default -> "a";
+        };
+        return CONSULTATIONS + "." + code + "." + teacherId;
+    }
+
+    /**
+     * Фильтр из кода списка консультаций преподавателя (null - код без фильтра)
+     */
+    public static String filter(ListCallback callback) {
+        String[] args = callback.args();
+        if (args.length < 1) {
+            return null;
+        }
+        return switch (args[0]) {
+            case "f" -> "future";
+            case "p" -> "past";
+            default -> "all";
+        };
+    }
+
+    /**
+     * ID преподавателя из кода списка консультаций или задач преподавателя (null - код без преподавателя)
+     */
+    public static Long teacherId(ListCallback callback) {
+        String[] args = callback.args();
+        if (args.length < 2) {
+            return null;
+        }
+        try {
+            return Long.parseLong(args[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Код списка задач с фильтрами
+     *
+     * @param status    "incomplete", "completed", иначе все
+     * @param deadline  "past", "future", иначе все
+     * @param teacherId преподаватель (null - задачи всех преподавателей)
+     */
+    public static String tasks(String status, String deadline, Long teacherId) {
+        String statusCode = switch (status) {
+            case "incomplete" -> "i";
+            case "completed" -> "c";
+            default -> "a";
+        };
+        String deadlineCode = switch (deadline) {
+            case "past" -> "p";
+            case "future" -> "f";
+            default -> "a";
+        };
+        String code = TASKS + "." + statusCode + deadlineCode;
+        return teacherId != null ? code + "." + teacherId : code;
+    }
+
+    /**
+     * Фильтр статуса из кода списка задач
+     */
+    public static String taskStatus(ListCallback callback) {
+        String filters = taskFilters(callback);
+        return switch (filters.charAt(0)) {
+            case 'i' -> "incomplete";
+            case 'c' -> "completed";
+            default -> "all";
+        };
+    }
+
+    /**
+     * Фильтр дедлайна из кода списка задач
+     */
+    public static String taskDeadline(ListCallback callback) {
+        String filters = taskFilters(callback);
+        return switch (filters.charAt(1)) {
+            case 'p' -> "past";
+            case 'f' -> "future";
+            default -> "all";
+        };
+    }
+
+    private static String taskFilters(ListCallback callback) {
+        String[] args = callback.args();
+        return args.length > 0 && args[0].length() == 2 ? args[0] : "aa";
+    }
+}
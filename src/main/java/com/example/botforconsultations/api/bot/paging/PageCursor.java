@@ -0,0 +1,85 @@
+package com.example.botforconsultations.api.bot.paging;
+
+/**
+ * Курсор страницы keyset-списка.
+ * <p>
+ * Страница задаётся ключом соседнего элемента, а не номером: "после ключа" (вперёд) или "до ключа" (назад).
+ * Курсор без ключа - первая (вперёд) или последняя (назад) страница. Ключ - строка, формат которой
+ * определяет конкретный список (ID, дата+время+ID и т.п.).
+ *
+ * @param backward true - элементы до ключа (предыдущая страница), false - после ключа
+ * @param key      ключ граничного элемента (null - от начала или от конца списка)
+ */
+public record PageCursor(boolean backward, String key) {
+
+    private static final char FORWARD_MARK = 'n';
+    private static final char BACKWARD_MARK = 'p';
+
+    /**
+     * Первая страница
+     */
+    public static PageCursor first() {
+        return new PageCursor(false, null);
+    }
+
+    /**
+     * Последняя страница
+     */
+    public static PageCursor last() {
+        return new PageCursor(true, null);
+    }
+
+    /**
+     * Страница после элемента с ключом
+     */
+    public static PageCursor after(String key) {
+        return new PageCursor(false, key);
+    }
+
+    /**
+     * Страница до элемента с ключом
+     */
+    public static PageCursor before(String key) {
+        return new PageCursor(true, key);
+    }
+
+    public boolean isFirst() {
+        return !backward && key == null;
+    }
+
+    /**
+     * Ключ как число (для списков с ключом-ID); null, если ключа нет или он некорректен
+     */
+    public Long longKey() {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Компактная строка для callback_data и сессии: "n", "p", "n123", "p123"
+     */
+    public String encode() {
+        return (backward ? BACKWARD_MARK : FORWARD_MARK) + (key != null ? key : "");
+    }
+
+    /**
+     * Разобрать строку курсора; некорректная или пустая строка - первая страница
+     */
+    public static PageCursor parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return first();
+        }
+        char mark = value.charAt(0);
+        if (mark != FORWARD_MARK && mark != BACKWARD_MARK) {
+            return first();
+        }
+        String key = value.length() > 1 ? value.substring(1) : null;
+        return new PageCursor(mark == BACKWARD_MARK, key);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.botforconsultations.api.bot.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+import static com.example.botforconsultations.core.util.TimeUtils.now;
+
+/**
+ * Выполнение массовой очистки пачками.
+ * <p>
+ * Каждая пачка - один set-based UPDATE/DELETE с LIMIT в отдельной транзакции, поэтому блокировки
+ * держатся только на время одной пачки. Пачка должна выбирать строки условием, которое перестаёт
+ * выполняться после обработки: тогда прерванная очистка (лимит времени, остановка приложения)
+ * просто продолжается следующим запуском с того же места.
+ */
+@Slf4j
+@Component
+public class ChunkedCleanupRunner {
+
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxDuration;
+    private final Duration batchPause;
+
+    // Результат последнего запуска каждой задачи
+    private final Map<String, CleanupRun> lastRuns = new ConcurrentHashMap<>();
+
+    public ChunkedCleanupRunner(PlatformTransactionManager transactionManager,
+                                @Value("${bot.cleanup.max-duration:10m}") Duration maxDuration,
+                                @Value("${bot.cleanup.batch-pause:50ms}") Duration batchPause) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxDuration = maxDuration;
+        this.batchPause = batchPause;
+    }
+
+    /**
+     * Выполнять пачки, пока очередная не окажется неполной
+     *
+     * @param job       имя задачи для логов и метрик
+     * @param batchSize размер пачки (по нему определяется, что строки закончились)
+     * @param batch     одна пачка: возвращает количество обработанных строк
+     * @return итог запуска
+     */
+    public CleanupRun run(String job, int batchSize, IntSupplier batch) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + maxDuration.toNanos();
+        int batches = 0;
+        long rows = 0;
+        long maxBatchMillis = 0;
+        boolean completed = false;
+
+        try {
+            while (true) {
+                long batchStart = System.nanoTime();
+                Integer processed = transactionTemplate.execute(status -> batch.getAsInt());
+                long batchMillis = Duration.ofNanos(System.nanoTime() - batchStart).toMillis();
+                int count = processed != null ? processed : 0;
+
+                batches++;
+                rows += count;
+                maxBatchMillis = Math.max(maxBatchMillis, batchMillis);
+                log.debug("Cleanup '{}': batch #{} - {} rows in {} ms", job, batches, count, batchMillis);
+
+                if (count < batchSize) {
+                    completed = true;
+                    break;
+                }
+                if (System.nanoTime() > deadline) {
+                    log.warn("Cleanup '{}' stopped after {} - will continue on next run", job, maxDuration);
+                    break;
+                }
+                Thread.sleep(batchPause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cleanup '{}' interrupted after {} batches - will continue on next run", job, batches);
+        } catch (RuntimeException e) {
+            // Зафиксированные пачки остаются, следующий запуск продолжит с упавшей
+            log.error("Cleanup '{}' failed on batch #{}: {}", job, batches + 1, e.getMessage(), e);
+        }
+
+        CleanupRun run = new CleanupRun(job, batches, rows,
+                Duration.ofNanos(System.nanoTime() - startedAt).toMillis(), maxBatchMillis, completed, now());
+        lastRuns.put(job, run);
+        log.info("Cleanup '{}' finished: {}", job, run);
+        return run;
+    }
+
+    /**
+     * Результаты последних запусков
+     */
+    public List<CleanupRun> getLastRuns() {
+        return List.copyOf(lastRuns.values());
+    }
+
+    /**
+     * Итог запуска очистки
+     *
+     * @param job            имя задачи
+     * @param batches        выполнено пачек
+     * @param rows           обработано строк
+     * @param durationMillis общая длительность, мс
+     * @param maxBatchMillis самая долгая пачка, мс
+     * @param completed      обработаны все подходящие строки (false - лимит времени, прерывание или ошибка)
+     * @param finishedAt     время завершения
+     */
+    public record CleanupRun(String job, int batches, long rows, long durationMillis,
+                             long maxBatchMillis, boolean completed, LocalDateTime finishedAt) {
+        /**
+         * Среднее количество строк в пачке
+         */
+        public double rowsPerBatch() {
+            return batches == 0 ? 0d : (double) rows / batches;
+        }
+    }
+}
@@ -1,79 +1,122 @@
 package com.example.botforconsultations.api.bot.service;
 
-import com.example.botforconsultations.core.model.Consultation;
-import com.example.botforconsultations.core.model.ConsultationStatus;
+import com.example.botforconsultations.api.bot.service.ChunkedCleanupRunner.CleanupRun;
+import com.example.botforconsultations.core.repository.ConsultationArchiveRepository;
 import com.example.botforconsultations.core.repository.ConsultationRepository;
 import com.example.botforconsultations.core.repository.StudentConsultationRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
+import static com.example.botforconsultations.core.util.TimeUtils.now;
+
 /**
- * Сервис для автоматической очистки и закрытия консультаций
+ * Сервис для автоматической очистки и закрытия консультаций.
+ * Изменения выполняются пачками по bot.cleanup.batch-size строк, каждая пачка в своей транзакции.
+ * <p>
+ * Прошедшие консультации не удаляются безвозвратно, а переносятся в архив
+ * (см. ConsultationArchiveRepository), из архива данные удаляются целыми месячными секциями.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ConsultationCleanupService {
 
     private final ConsultationRepository consultationRepository;
     private final StudentConsultationRepository studentConsultationRepository;
+    private final ConsultationArchiveRepository archiveRepository;
+    private final ChunkedCleanupRunner cleanupRunner;
+    private final int batchSize;
+    private final int retentionDays;
+    private final int archiveRetentionMonths;
+
+    public ConsultationCleanupService(ConsultationRepository consultationRepository,
+                                      StudentConsultationRepository studentConsultationRepository,
+                                      ConsultationArchiveRepository archiveRepository,
+                                      ChunkedCleanupRunner cleanupRunner,
+                                      @Value("${bot.cleanup.batch-size:500}") int batchSize,
+                                      @Value("${bot.cleanup.retention-days:30}") int retentionDays,
+                                      @Value("${bot.archive.retention-months:24}") int archiveRetentionMonths) {
+        this.consultationRepository = consultationRepository;
+        this.studentConsultationRepository = studentConsultationRepository;
+        this.archiveRepository = archiveRepository;
+        this.cleanupRunner = cleanupRunner;
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+        this.archiveRetentionMonths = archiveRetentionMonths;
+    }
 
     /**
      * Каждый день в 00:00 проверяет и закрывает прошедшие консультации
      * которые все еще открыты
      */
     @Scheduled(cron = "0 0 0 * * ?")
-    @Transactional
-    public void closeExpiredConsultations() {
-        log.info("Starting scheduled task: closing expired consultations");
-
-        LocalDate today = LocalDate.now();
+    public CleanupRun closeExpiredConsultations() {
+        LocalDate today = now().toLocalDate();
 
-        // Находим только открытые консультации с датой в прошлом (оптимизированный запрос)
-        List<Consultation> expiredConsultations = consultationRepository
-                .findExpiredConsultations(ConsultationStatus.OPEN, today);
-
-        int closedCount = 0;
-
-        for (Consultation consultation : expiredConsultations) {
-            consultation.setStatus(ConsultationStatus.CLOSED);
-            consultationRepository.save(consultation);
-            closedCount++;
-            log.info("Closed expired consultation #{} (date: {}, endTime: {})",
-                    consultation.getId(),
-                    consultation.getDate(),
-                    consultation.getEndTime());
-        }
-
-        log.info("Scheduled task completed: closed {} expired consultations", closedCount);
+        return cleanupRunner.run("close-expired-consultations", batchSize,
+                () -> consultationRepository.closeExpiredBatch(today, batchSize));
     }
 
     /**
-     * Каждый день в 00:05 удаляет консультации, которые завершились более 30 дней назад
-     * Сначала удаляет записи студентов, потом сами консультации
+     * Каждый день в 00:05 переносит в архив консультации, которые завершились более 30 дней назад.
+     * В каждой пачке консультации и записи студентов копируются в архив и удаляются из рабочих таблиц
      */
     @Scheduled(cron = "0 5 0 * * ?")
-    @Transactional
-    public void deleteOldConsultations() {
-        log.info("Starting scheduled task: deleting old consultations");
+    public CleanupRun archiveOldConsultations() {
+        LocalDate threshold = now().toLocalDate().minusDays(retentionDays);
+        LocalDateTime archivedAt = now();
 
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
+        // Секции создаются заранее: DDL не должен выполняться внутри пачек
+        LocalDate oldest = consultationRepository.findMinDateBefore(threshold);
+        if (oldest != null) {
+            archiveRepository.ensureMonthlyPartitions(YearMonth.from(oldest), YearMonth.from(threshold.minusDays(1)));
+        }
 
-        // Шаг 1: Удаляем все записи студентов для консультаций старше 30 дней
-        int deletedRegistrations = studentConsultationRepository.deleteByConsultationDateBefore(thirtyDaysAgo);
-        log.info("Deleted {} student registrations for old consultations", deletedRegistrations);
+        return cleanupRunner.run("archive-old-consultations", batchSize, () -> {
+            List<Long> ids = consultationRepository.findIdsByDateBefore(threshold, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            archiveRepository.archiveConsultations(ids, archivedAt);
+            int archivedRegistrations = archiveRepository.archiveRegistrations(ids);
+            studentConsultationRepository.deleteByConsultationIds(ids);
+            int deletedConsultations = consultationRepository.deleteByIds(ids);
+            log.debug("Archived {} consultations and {} student registrations", deletedConsultations, archivedRegistrations);
+            return ids.size();
+        });
+    }
 
-        // Шаг 2: Удаляем сами консультации старше 30 дней
-        int deletedConsultations = consultationRepository.deleteByDateBefore(thirtyDaysAgo);
-        log.info("Deleted {} old consultations", deletedConsultations);
+    /**
+     * Первого числа каждого месяца в 00:30 удаляет из архива секции старше bot.archive.retention-months месяцев
+     *
+     * @return количество удалённых секций
+     */
+    @Scheduled(cron = "0 30 0 1 * ?")
+    public int dropExpiredArchivePartitions() {
+        YearMonth oldestKept = YearMonth.from(now()).minusMonths(archiveRetentionMonths);
+        int dropped = 0;
 
-        log.info("Scheduled task completed: deleted {} consultations and {} registrations",
-                deletedConsultations, deletedRegistrations);
+        for (String table : List.of(ConsultationArchiveRepository.REGISTRATION_TABLE,
+                ConsultationArchiveRepository.CONSULTATION_TABLE)) {
+            for (YearMonth month : archiveRepository.findPartitionMonths(table)) {
+                if (!month.isBefore(oldestKept)) {
+                    break;
+                }
+                try {
+                    archiveRepository.dropPartition(table, month);
+                    dropped++;
+                    log.info("Dropped archive partition {} for {}", table, month);
+                } catch (RuntimeException e) {
+                    log.error("Failed to drop archive partition {} for {}: {}", table, month, e.getMessage(), e);
+                }
+            }
+        }
+        return dropped;
     }
 }
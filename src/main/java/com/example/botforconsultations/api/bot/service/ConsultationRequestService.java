@@ -1,5 +1,7 @@
 package com.example.botforconsultations.api.bot.service;
 
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.ConsultationStatus;
 import com.example.botforconsultations.core.model.StudentConsultation;
@@ -7,8 +9,10 @@ import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.repository.ConsultationRepository;
 import com.example.botforconsultations.core.repository.StudentConsultationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +25,9 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ConsultationRequestService {
 
+    // Количество запросов на одной странице списка
+    public static final int REQUESTS_PAGE_SIZE = 10;
+
     private final ConsultationRepository consultationRepository;
     private final StudentConsultationRepository studentConsultationRepository;
 
@@ -32,13 +39,27 @@ public class ConsultationRequestService {
     }
 
     /**
-     * Получить все запросы всех студентов
+     * Получить страницу запросов всех студентов (новые сверху).
+     * Keyset-пагинация по ID: страница начинается с ключа курсора,
+     * поэтому стоимость запроса не зависит ни от номера страницы, ни от размера таблицы.
      */
-    public List<Consultation> getAllRequests() {
-        return consultationRepository.findAll().stream()
-                .filter(c -> c.getStatus() == ConsultationStatus.REQUEST)
-                .sorted((a, b) -> b.getId().compareTo(a.getId())) // сортировка по ID desc
-                .toList();
+    public KeysetPage<Consultation> getRequestsPage(PageCursor cursor) {
+        return KeysetPage.load(cursor, REQUESTS_PAGE_SIZE, this::findRequests,
+                request -> request.getId().toString());
+    }
+
+    private List<Consultation> findRequests(PageCursor cursor) {
+        PageRequest limit = PageRequest.of(0, REQUESTS_PAGE_SIZE + 1);
+        Long id = cursor.longKey();
+        if (cursor.backward()) {
+            // Предыдущая страница - более новые запросы, читаем по возрастанию ID
+            return id == null
+                    ? consultationRepository.findByStatusOrderByIdAsc(ConsultationStatus.REQUEST, limit)
+                    : consultationRepository.findByStatusAndIdGreaterThanOrderByIdAsc(ConsultationStatus.REQUEST, id, limit);
+        }
+        return id == null
+                ? consultationRepository.findByStatusOrderByIdDesc(ConsultationStatus.REQUEST, limit)
+                : consultationRepository.findByStatusAndIdLessThanOrderByIdDesc(ConsultationStatus.REQUEST, id, limit);
     }
 
     /**
@@ -80,6 +101,7 @@ public class ConsultationRequestService {
                 .build();
 
         studentConsultationRepository.save(studentRecord);
+        consultationRepository.reserveSeat(request.getId());
 
         return request;
     }
@@ -99,24 +121,16 @@ public class ConsultationRequestService {
             return failureRegistration("Это не запрос консультации");
         }
 
-        // Проверка: уже записан?
-        boolean alreadyRegistered = studentConsultationRepository
-                .findByStudentAndConsultation(student, request)
-                .isPresent();
+        // Счётчик заинтересованных увеличивается атомарно; 0 - запрос уже принят или удалён
+        if (consultationRepository.reserveSeat(request.getId()) == 0) {
+            return failureRegistration("Запрос уже недоступен для записи");
+        }
 
-        if (alreadyRegistered) {
+        if (studentConsultationRepository.insertIfAbsent(student.getId(), request.getId(), message) == 0) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return failureRegistration("Вы уже записаны на этот запрос");
         }
 
-        // Создаём запись
-        StudentConsultation registration = StudentConsultation.builder()
-                .consultation(request)
-                .student(student)
-                .message(message)
-                .build();
-
-        studentConsultationRepository.save(registration);
-
         return successRegistration();
     }
 
@@ -134,17 +148,11 @@ public class ConsultationRequestService {
             return failureUnregistration("Это не запрос консультации");
         }
 
-        // Находим запись студента
-        Optional<StudentConsultation> registration = studentConsultationRepository
-                .findByStudentAndConsultation(student, request);
-
-        if (registration.isEmpty()) {
+        // Удаляем запись студента напрямую
+        if (studentConsultationRepository.deleteByStudentIdAndConsultationId(student.getId(), request.getId()) == 0) {
             return failureUnregistration("Вы не записаны на этот запрос");
         }
-
-        // Удаляем запись студента напрямую
-        studentConsultationRepository.delete(registration.get());
-        studentConsultationRepository.flush();
+        consultationRepository.releaseSeat(request.getId());
 
         // Проверяем: остались ли ещё записанные студенты?
         long remainingCount = studentConsultationRepository.countByConsultation(request);
@@ -1,17 +1,29 @@
 package com.example.botforconsultations.api.bot.service;
 
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.ConsultationStatus;
+import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.repository.ConsultationRepository;
+import com.example.botforconsultations.core.repository.StudentConsultationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
 import java.util.List;
 
+import static com.example.botforconsultations.core.util.TimeUtils.now;
+
 /**
  * Сервис для работы с консультациями
  */
@@ -20,41 +32,128 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ConsultationService {
 
+    // Количество консультаций на одной странице списка
+    public static final int CONSULTATIONS_PAGE_SIZE = 10;
+
     private final ConsultationRepository consultationRepository;
+    private final StudentConsultationRepository studentConsultationRepository;
 
     /**
-     * Получить консультации преподавателя с фильтром
+     * Получить страницу консультаций преподавателя с фильтром.
+     * Запросы (status = REQUEST) и фильтр по времени отсекаются в БД, страница читается по индексу
+     * с ключа курсора (дата, время начала, ID) - без OFFSET и подсчёта общего количества.
+     * Ключ курсора: "yyyyMMdd.HHmmss.ID".
+     *
+     * @param filter "future" - предстоящие (ближайшие сверху), "past" - прошедшие, иначе все (последние сверху)
+     * @param cursor курсор страницы
      */
-    public List<Consultation> getTeacherConsultations(TelegramUser teacher, String filter) {
-        List<Consultation> allConsultations = consultationRepository.findByTeacherOrderByStartTimeAsc(teacher);
-        List<Consultation> requests = consultationRepository.findByTeacherAndStatusOrderByIdDesc(teacher, ConsultationStatus.REQUEST);
+    public KeysetPage<Consultation> getTeacherConsultationsPage(TelegramUser teacher, String filter, PageCursor cursor) {
+        LocalDateTime currentTime = now();
+        ConsultationKey current = new ConsultationKey(currentTime.toLocalDate(), currentTime.toLocalTime(), null);
+
+        ConsultationKey lower = ConsultationKey.MIN;
+        ConsultationKey upper = ConsultationKey.MAX;
+        boolean ascending = false;
+        switch (filter) {
+            case "future" -> {
+                lower = current.withId(Long.MAX_VALUE);
+                ascending = true;
+            }
+            case "past" -> upper = current.withId(0L);
+            default -> {
+                // "all"
+            }
+        }
+
+        ConsultationKey fromKey = lower;
+        ConsultationKey toKey = upper;
+        boolean isAscending = ascending;
+        return KeysetPage.load(cursor, CONSULTATIONS_PAGE_SIZE,
+                pageCursor -> findTeacherConsultations(teacher, fromKey, toKey, isAscending, pageCursor),
+                consultation -> ConsultationKey.of(consultation).format());
+    }
+
+    private List<Consultation> findTeacherConsultations(TelegramUser teacher, ConsultationKey lower,
+                                                        ConsultationKey upper, boolean ascending,
+                                                        PageCursor cursor) {
+        // Страница "вперёд" идёт в порядке показа, "назад" - в обратном
+        boolean queryAscending = ascending != cursor.backward();
+
+        ConsultationKey key = ConsultationKey.parse(cursor.key());
+        if (key != null) {
+            if (queryAscending) {
+                lower = max(lower, key);
+            } else {
+                upper = min(upper, key);
+            }
+        }
 
-        // Исключаем запросы из всех консультаций
-        List<Consultation> filteredConsultations = allConsultations.stream()
-                .filter(consultation -> requests.stream().noneMatch(request -> request.getId().equals(consultation.getId())))
-                .toList();
+        Pageable limit = PageRequest.of(0, CONSULTATIONS_PAGE_SIZE + 1);
+        return queryAscending
+                ? consultationRepository.findTeacherConsultationsAscending(teacher, ConsultationStatus.REQUEST,
+                lower.date(), lower.time(), lower.id(), upper.date(), upper.time(), upper.id(), limit)
+                : consultationRepository.findTeacherConsultationsDescending(teacher, ConsultationStatus.REQUEST,
+                lower.date(), lower.time(), lower.id(), upper.date(), upper.time(), upper.id(), limit);
+    }
+
+    private static ConsultationKey max(ConsultationKey a, ConsultationKey b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
 
-        return applyFilter(filteredConsultations, filter);
+    private static ConsultationKey min(ConsultationKey a, ConsultationKey b) {
+        return a.compareTo(b) <= 0 ? a : b;
     }
 
     /**
-     * Применяет фильтр к списку консультаций
+     * Ключ консультации в keyset-списке: дата, время начала, ID
      */
-    public List<Consultation> applyFilter(List<Consultation> consultations, String filter) {
-        LocalDate today = LocalDate.now();
-        LocalTime now = LocalTime.now();
-
-        return switch (filter) {
-            case "future" -> consultations.stream()
-                    .filter(c -> c.getDate().isAfter(today) ||
-                            (c.getDate().isEqual(today) && c.getStartTime().isAfter(now)))
-                    .toList();
-            case "past" -> consultations.stream()
-                    .filter(c -> c.getDate().isBefore(today) ||
-                            (c.getDate().isEqual(today) && c.getStartTime().isBefore(now)))
-                    .toList();
-            default -> consultations; // "all"
-        };
+    private record ConsultationKey(LocalDate date, LocalTime time, Long id) implements Comparable<ConsultationKey> {
+
+        static final ConsultationKey MIN = new ConsultationKey(LocalDate.of(1, 1, 1), LocalTime.MIN, 0L);
+        static final ConsultationKey MAX = new ConsultationKey(LocalDate.of(9999, 12, 31), LocalTime.MAX, Long.MAX_VALUE);
+
+        private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+        private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HHmmss");
+        private static final Comparator<ConsultationKey> ORDER = Comparator.comparing(ConsultationKey::date)
+                .thenComparing(ConsultationKey::time)
+                .thenComparing(ConsultationKey::id);
+
+        static ConsultationKey of(Consultation consultation) {
+            return new ConsultationKey(consultation.getDate(), consultation.getStartTime(), consultation.getId());
+        }
+
+        /**
+         * Разобрать ключ курсора; null - ключа нет или он некорректен
+         */
+        static ConsultationKey parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            String[] parts = value.split("\\.");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                return new ConsultationKey(LocalDate.parse(parts[0], DATE_FORMAT),
+                        LocalTime.parse(parts[1], TIME_FORMAT),
+                        Long.parseLong(parts[2]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return date.format(DATE_FORMAT) + "." + time.format(TIME_FORMAT) + "." + id;
+        }
+
+        ConsultationKey withId(Long id) {
+            return new ConsultationKey(date, time, id);
+        }
+
+        @Override
+        public int compareTo(ConsultationKey other) {
+            return ORDER.compare(this, other);
+        }
     }
 
     /**
@@ -64,6 +163,27 @@ public class ConsultationService {
         return consultationRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Записи студентов на консультацию (вместе со студентами, одним запросом)
+     */
+    public List<StudentConsultation> getRegistrations(Long consultationId) {
+        return studentConsultationRepository.findByConsultationIdWithStudent(consultationId);
+    }
+
+    /**
+     * Telegram ID записанных студентов - для уведомлений, без загрузки сущностей
+     */
+    public List<Long> getRegisteredStudentChatIds(Long consultationId) {
+        return studentConsultationRepository.findStudentTelegramIdsByConsultationId(consultationId);
+    }
+
+    /**
+     * ID записанных студентов
+     */
+    public List<Long> getRegisteredStudentIds(Long consultationId) {
+        return studentConsultationRepository.findStudentIdsByConsultationId(consultationId);
+    }
+
     /**
      * Проверить, доступна ли консультация для записи
      */
@@ -0,0 +1,177 @@
+package com.example.botforconsultations.api.bot.service;
+
+import com.example.botforconsultations.core.model.NotificationOutboxEvent;
+import com.example.botforconsultations.core.repository.NotificationOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.botforconsultations.core.util.TimeUtils.now;
+
+/**
+ * Фоновый релей transactional outbox.
+ * <p>
+ * Захватывает необработанные события пачками, передаёт их в NotificationService и отмечает обработанными.
+ * Доставка at-least-once: событие отмечается только после того, как рассылка обработала всех получателей.
+ * Если узел остановится раньше, захват истечёт через claim-timeout и событие отправит другой узел
+ * (получатели, которым сообщение уже ушло, получат его повторно).
+ * Захват строк через SKIP LOCKED позволяет запускать релей на нескольких экземплярах бота.
+ * Каждый шаг - отдельный короткий запрос к БД, соединение не удерживается во время обращения к Telegram.
+ */
+@Slf4j
+@Service
+public class NotificationOutboxRelay {
+
+    private static final int DISPATCHED_KEYS_CACHE_SIZE = 10_000;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retentionDays;
+    private final Duration claimTimeout;
+
+    // Метка захвата: уникальна для узла и пачки
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong claimSequence = new AtomicLong();
+
+    // Ключи уже переданных событий: защита от повторной рассылки, если не удалось отметить событие в БД
+    private final Set<String> dispatchedKeys = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > DISPATCHED_KEYS_CACHE_SIZE;
+                }
+            }));
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                                   NotificationService notificationService,
+                                   @Value("${bot.outbox.batch-size:50}") int batchSize,
+                                   @Value("${bot.outbox.max-attempts:5}") int maxAttempts,
+                                   @Value("${bot.outbox.retention-days:7}") int retentionDays,
+                                   @Value("${bot.outbox.claim-timeout:10m}") Duration claimTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Отправляет накопившиеся события (по умолчанию каждые 2 секунды)
+     */
+    @Scheduled(fixedDelayString = "${bot.outbox.poll-interval:2000}")
+    public void relay() {
+        int claimed;
+        do {
+            String claim = instanceId + "-" + claimSequence.incrementAndGet();
+            LocalDateTime now = now();
+            claimed = outboxRepository.claimPending(claim, now, now.plus(claimTimeout), batchSize);
+            if (claimed > 0) {
+                for (NotificationOutboxEvent event : outboxRepository.findClaimed(claim)) {
+                    process(event);
+                }
+            }
+        } while (claimed == batchSize);
+    }
+
+    /**
+     * Каждый день в 00:10 удаляет старые обработанные события
+     */
+    @Scheduled(cron = "0 10 0 * * ?")
+    public void cleanupProcessed() {
+        int deleted = outboxRepository.deleteProcessedBefore(now().minusDays(retentionDays));
+        log.info("Deleted {} processed outbox events", deleted);
+    }
+
+    private void process(NotificationOutboxEvent event) {
+        String key = event.getIdempotencyKey();
+        if (!dispatchedKeys.add(key)) {
+            log.debug("Outbox event {} already dispatched, marking processed", key);
+            markProcessed(event);
+            return;
+        }
+
+        CompletableFuture<?> sent;
+        try {
+            sent = dispatch(event);
+        } catch (Exception e) {
+            // Рассылка не передана - при повторе её нужно отправить заново
+            dispatchedKeys.remove(key);
+            handleFailure(event, e);
+            return;
+        }
+
+        sent.whenComplete((result, error) -> {
+            if (error != null) {
+                dispatchedKeys.remove(key);
+                handleFailure(event, error);
+            } else {
+                markProcessed(event);
+            }
+        });
+    }
+
+    private void markProcessed(NotificationOutboxEvent event) {
+        try {
+            // Если не удалось только отметить событие, ключ остаётся: повтор лишь отметит его без рассылки
+            outboxRepository.markProcessed(event.getId(), now(), null);
+        } catch (Exception e) {
+            handleFailure(event, e);
+        }
+    }
+
+    private CompletableFuture<?> dispatch(NotificationOutboxEvent event) {
+        Long consultationId = event.getConsultationId();
+        return switch (event.getEventType()) {
+            case NEW_CONSULTATION -> notificationService.notifySubscribersNewConsultation(consultationId);
+            case CONSULTATION_UPDATE ->
+                    notificationService.notifyRegisteredStudentsUpdate(consultationId, event.getDescription());
+            case AVAILABLE_SPOTS ->
+                    notificationService.notifySubscribersAvailableSpots(consultationId, event.getExcludeStudentId());
+            case CANCELLATION -> notificationService.notifyRegisteredStudentsCancellation(consultationId);
+            case REQUEST_ACCEPTED -> notificationService.notifyInterestedStudentsRequestAccepted(consultationId);
+        };
+    }
+
+    private void handleFailure(NotificationOutboxEvent event, Throwable failure) {
+        Throwable e = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        int attempts = event.getAttempts() + 1;
+        String error = truncate(e.getMessage());
+
+        if (attempts >= maxAttempts) {
+            // Исчерпаны попытки - закрываем событие с ошибкой, чтобы не блокировать очередь
+            log.error("Outbox event #{} ({}) failed after {} attempts: {}",
+                    event.getId(), event.getEventType(), attempts, e.getMessage());
+            outboxRepository.markProcessed(event.getId(), now(), error);
+            return;
+        }
+
+        LocalDateTime nextAttempt = now().plusSeconds(10L << attempts);
+        log.warn("Outbox event #{} ({}) failed, retry at {}: {}",
+                event.getId(), event.getEventType(), nextAttempt, e.getMessage());
+        outboxRepository.markFailed(event.getId(), nextAttempt, error);
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
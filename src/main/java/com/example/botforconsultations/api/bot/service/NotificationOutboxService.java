@@ -0,0 +1,93 @@
+package com.example.botforconsultations.api.bot.service;
+
+import com.example.botforconsultations.core.model.NotificationEventType;
+import com.example.botforconsultations.core.model.NotificationOutboxEvent;
+import com.example.botforconsultations.core.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Запись событий уведомлений в outbox.
+ * Методы выполняются только внутри транзакции вызывающего кода, поэтому событие
+ * сохраняется атомарно вместе с изменением консультации. Отправку выполняет NotificationOutboxRelay.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+
+    /**
+     * Новая консультация (уведомление подписчиков)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void newConsultation(Long consultationId) {
+        // Консультация создаётся один раз - ключ детерминирован
+        append(NotificationEventType.NEW_CONSULTATION, consultationId, null, null,
+                NotificationEventType.NEW_CONSULTATION + ":" + consultationId);
+    }
+
+    /**
+     * Изменение консультации (уведомление записанных студентов)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void consultationUpdated(Long consultationId, String changeDescription) {
+        append(NotificationEventType.CONSULTATION_UPDATE, consultationId, null, changeDescription,
+                uniqueKey(NotificationEventType.CONSULTATION_UPDATE, consultationId));
+    }
+
+    /**
+     * Появились свободные места (уведомление подписчиков, кроме excludeStudentId)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void availableSpots(Long consultationId, Long excludeStudentId) {
+        append(NotificationEventType.AVAILABLE_SPOTS, consultationId, excludeStudentId, null,
+                uniqueKey(NotificationEventType.AVAILABLE_SPOTS, consultationId));
+    }
+
+    /**
+     * Отмена консультации (уведомление записанных студентов)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cancellation(Long consultationId) {
+        // Отмена окончательна - ключ детерминирован
+        append(NotificationEventType.CANCELLATION, consultationId, null, null,
+                NotificationEventType.CANCELLATION + ":" + consultationId);
+    }
+
+    /**
+     * Запрос принят преподавателем (уведомление заинтересованных студентов)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void requestAccepted(Long consultationId) {
+        // Запрос принимается один раз - ключ детерминирован
+        append(NotificationEventType.REQUEST_ACCEPTED, consultationId, null, null,
+                NotificationEventType.REQUEST_ACCEPTED + ":" + consultationId);
+    }
+
+    private void append(NotificationEventType type, Long consultationId, Long excludeStudentId,
+                        String description, String idempotencyKey) {
+        if (outboxRepository.existsByIdempotencyKey(idempotencyKey)) {
+            log.debug("Outbox event {} already recorded, skipping", idempotencyKey);
+            return;
+        }
+
+        outboxRepository.save(NotificationOutboxEvent.builder()
+                .eventType(type)
+                .consultationId(consultationId)
+                .excludeStudentId(excludeStudentId)
+                .description(description)
+                .idempotencyKey(idempotencyKey)
+                .build());
+    }
+
+    private String uniqueKey(NotificationEventType type, Long consultationId) {
+        return type + ":" + consultationId + ":" + UUID.randomUUID();
+    }
+}
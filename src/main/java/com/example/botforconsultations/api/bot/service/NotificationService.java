@@ -1,9 +1,11 @@
 package com.example.botforconsultations.api.bot.service;
 
 import com.example.botforconsultations.api.bot.BotMessenger;
+import com.example.botforconsultations.api.bot.callback.CallbackData;
+import com.example.botforconsultations.api.bot.callback.CallbackRoutes;
+import com.example.botforconsultations.api.bot.messaging.BroadcastService;
 import com.example.botforconsultations.api.bot.utils.TeacherMessageFormatter;
 import com.example.botforconsultations.core.model.Consultation;
-import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.Subscription;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.repository.SubscriptionRepository;
@@ -17,7 +19,7 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKe
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Сервис для отправки уведомлений студентам
@@ -27,7 +29,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final CompletableFuture<Void> NOTHING_TO_SEND = CompletableFuture.completedFuture(null);
+
     private final BotMessenger botMessenger;
+    private final BroadcastService broadcastService;
     private final SubscriptionRepository subscriptionRepository;
     private final TeacherMessageFormatter messageFormatter;
     private final ConsultationService consultationService;
@@ -38,7 +43,7 @@ public class NotificationService {
     private InlineKeyboardMarkup buildConsultationButton(Long consultationId) {
         InlineKeyboardButton button = InlineKeyboardButton.builder()
                 .text("📋 Открыть консультацию")
-                .callbackData("view_consultation:" + consultationId)
+                .callbackData(CallbackData.encode(CallbackRoutes.VIEW_CONSULTATION, consultationId))
                 .build();
 
         InlineKeyboardRow row = new InlineKeyboardRow();
@@ -54,86 +59,78 @@ public class NotificationService {
 
     /**
      * Уведомить подписчиков о новой консультации
+     *
+     * @return завершается, когда сообщение отправлено всем получателям
      */
-    public void notifySubscribersNewConsultation(Long consultationId) {
+    public CompletableFuture<?> notifySubscribersNewConsultation(Long consultationId) {
         Consultation consultation = consultationService.findById(consultationId);
+        if (consultation == null) {
+            log.warn("Consultation #{} not found, notification skipped", consultationId);
+            return NOTHING_TO_SEND;
+        }
         List<Subscription> subscriptions = subscriptionRepository.findByTeacher(consultation.getTeacher());
 
         if (subscriptions.isEmpty()) {
             log.debug("No subscribers for teacher #{}", consultation.getTeacher().getId());
-            return;
+            return NOTHING_TO_SEND;
         }
 
         String message = messageFormatter.formatNewConsultationNotification(consultation);
         InlineKeyboardMarkup keyboard = buildConsultationButton(consultationId);
 
-        int sent = 0;
-        for (Subscription subscription : subscriptions) {
-            Long chatId = subscription.getStudent().getTelegramId();
-            try {
-                botMessenger.sendTextWithInlineKeyboard(message, chatId, keyboard);
-                sent++;
-            } catch (Exception e) {
-                log.error("Failed to send notification to student #{}: {}",
-                        subscription.getStudent().getId(), e.getMessage());
-            }
-        }
-
-        log.info("Sent {} notifications about new consultation #{}", sent, consultation.getId());
+        List<Long> chatIds = subscriptions.stream()
+                .map(subscription -> subscription.getStudent().getTelegramId())
+                .toList();
+        return broadcastService.broadcast("new consultation #" + consultation.getId(), chatIds, message, keyboard)
+                .getCompletion();
     }
 
     /**
      * Уведомить записанных студентов об изменении консультации
+     *
+     * @return завершается, когда сообщение отправлено всем получателям
      */
-    public void notifyRegisteredStudentsUpdate(Long consultationId, String changeDescription) {
+    public CompletableFuture<?> notifyRegisteredStudentsUpdate(Long consultationId, String changeDescription) {
         Consultation consultation = consultationService.findById(consultationId);
-        List<StudentConsultation> registrations = consultation.getRegUsers() != null
-                ? List.copyOf(consultation.getRegUsers())
-                : List.of();
+        if (consultation == null) {
+            log.warn("Consultation #{} not found, notification skipped", consultationId);
+            return NOTHING_TO_SEND;
+        }
+        List<Long> chatIds = consultationService.getRegisteredStudentChatIds(consultationId);
 
-        if (registrations.isEmpty()) {
+        if (chatIds.isEmpty()) {
             log.debug("No registered students for consultation #{}", consultation.getId());
-            return;
+            return NOTHING_TO_SEND;
         }
 
         String message = messageFormatter.formatConsultationUpdateNotification(consultation, changeDescription);
 
-        int sent = 0;
-        for (StudentConsultation sc : registrations) {
-            Long chatId = sc.getStudent().getTelegramId();
-            try {
-                botMessenger.sendText(message, chatId);
-                sent++;
-            } catch (Exception e) {
-                log.error("Failed to send update notification to student #{}: {}",
-                        sc.getStudent().getId(), e.getMessage());
-            }
-        }
-
-        log.info("Sent {} update notifications for consultation #{}", sent, consultation.getId());
+        return broadcastService.broadcast("consultation #" + consultation.getId() + " update",
+                chatIds, message, null).getCompletion();
     }
 
     /**
      * Уведомить подписчиков о появлении свободных мест
      * Отправляет только тем, кто подписан на преподавателя, но НЕ записан на консультацию
+     *
+     * @return завершается, когда сообщение отправлено всем получателям
      */
-    public void notifySubscribersAvailableSpots(Long consultationId, Long excludeStudentId) {
+    public CompletableFuture<?> notifySubscribersAvailableSpots(Long consultationId, Long excludeStudentId) {
         Consultation consultation = consultationService.findById(consultationId);
+        if (consultation == null) {
+            log.warn("Consultation #{} not found, notification skipped", consultationId);
+            return NOTHING_TO_SEND;
+        }
         // Получаем всех подписчиков преподавателя
         List<Subscription> subscriptions = subscriptionRepository.findByTeacher(consultation.getTeacher());
 
         if (subscriptions.isEmpty()) {
             log.debug("No subscribers for teacher #{}", consultation.getTeacher().getId());
-            return;
+            return NOTHING_TO_SEND;
         }
 
         // Получаем всех записанных студентов
-        List<StudentConsultation> registrations = consultation.getRegUsers() != null
-                ? List.copyOf(consultation.getRegUsers())
-                : List.of();
-        Set<Long> registeredStudentIds = registrations.stream()
-                .map(sc -> sc.getStudent().getId())
-                .collect(Collectors.toSet());
+        Set<Long> registeredStudentIds = Set.copyOf(consultationService.getRegisteredStudentIds(consultationId));
 
         // Фильтруем: только подписанные, но не записанные (и не исключённый студент)
         List<TelegramUser> studentsToNotify = subscriptions.stream()
@@ -144,71 +141,60 @@ public class NotificationService {
 
         if (studentsToNotify.isEmpty()) {
             log.debug("No students to notify about available spots for consultation #{}", consultation.getId());
-            return;
+            return NOTHING_TO_SEND;
         }
 
-        long currentCount = registrations.size();
+        long currentCount = registeredStudentIds.size();
         String message = messageFormatter.formatAvailableSpotsNotification(consultation, currentCount);
         InlineKeyboardMarkup keyboard = buildConsultationButton(consultationId);
 
-        int sent = 0;
-        for (TelegramUser student : studentsToNotify) {
-            Long chatId = student.getTelegramId();
-            try {
-                botMessenger.sendTextWithInlineKeyboard(message, chatId, keyboard);
-                sent++;
-            } catch (Exception e) {
-                log.error("Failed to send available spots notification to student #{}: {}",
-                        student.getId(), e.getMessage());
-            }
-        }
-
-        log.info("Sent {} available spots notifications for consultation #{}", sent, consultation.getId());
+        List<Long> notifyChatIds = studentsToNotify.stream()
+                .map(TelegramUser::getTelegramId)
+                .toList();
+        return broadcastService.broadcast("consultation #" + consultation.getId() + " available spots",
+                notifyChatIds, message, keyboard).getCompletion();
     }
 
     /**
      * Уведомить записанных студентов об отмене консультации
+     *
+     * @return завершается, когда сообщение отправлено всем получателям
      */
-    public void notifyRegisteredStudentsCancellation(Long consultationId) {
+    public CompletableFuture<?> notifyRegisteredStudentsCancellation(Long consultationId) {
         Consultation consultation = consultationService.findById(consultationId);
-        List<StudentConsultation> registrations = consultation.getRegUsers() != null
-                ? List.copyOf(consultation.getRegUsers())
-                : List.of();
+        if (consultation == null) {
+            log.warn("Consultation #{} not found, notification skipped", consultationId);
+            return NOTHING_TO_SEND;
+        }
+        List<Long> chatIds = consultationService.getRegisteredStudentChatIds(consultationId);
 
-        if (registrations.isEmpty()) {
+        if (chatIds.isEmpty()) {
             log.debug("No registered students for consultation #{}", consultation.getId());
-            return;
+            return NOTHING_TO_SEND;
         }
 
         String message = messageFormatter.formatCancellationNotification(consultation);
 
-        int sent = 0;
-        for (StudentConsultation sc : registrations) {
-            Long chatId = sc.getStudent().getTelegramId();
-            try {
-                botMessenger.sendText(message, chatId);
-                sent++;
-            } catch (Exception e) {
-                log.error("Failed to send cancellation notification to student #{}: {}",
-                        sc.getStudent().getId(), e.getMessage());
-            }
-        }
-
-        log.info("Sent {} cancellation notifications for consultation #{}", sent, consultation.getId());
+        return broadcastService.broadcast("consultation #" + consultation.getId() + " cancellation",
+                chatIds, message, null).getCompletion();
     }
 
     /**
      * Уведомить записанных студентов о превращении запроса в консультацию
+     *
+     * @return завершается, когда сообщение отправлено всем получателям
      */
-    public void notifyInterestedStudentsRequestAccepted(Long consultationId) {
+    public CompletableFuture<?> notifyInterestedStudentsRequestAccepted(Long consultationId) {
         Consultation consultation = consultationService.findById(consultationId);
-        List<StudentConsultation> registrations = consultation.getRegUsers() != null
-                ? List.copyOf(consultation.getRegUsers())
-                : List.of();
+        if (consultation == null) {
+            log.warn("Consultation #{} not found, notification skipped", consultationId);
+            return NOTHING_TO_SEND;
+        }
+        List<Long> chatIds = consultationService.getRegisteredStudentChatIds(consultationId);
 
-        if (registrations.isEmpty()) {
+        if (chatIds.isEmpty()) {
             log.debug("No interested students for consultation #{}", consultation.getId());
-            return;
+            return NOTHING_TO_SEND;
         }
 
         // Формируем сообщение как о новой консультации
@@ -218,19 +204,8 @@ public class NotificationService {
 
         InlineKeyboardMarkup keyboard = buildConsultationButton(consultationId);
 
-        int sent = 0;
-        for (StudentConsultation sc : registrations) {
-            Long chatId = sc.getStudent().getTelegramId();
-            try {
-                botMessenger.sendTextWithInlineKeyboard(message, chatId, keyboard);
-                sent++;
-            } catch (Exception e) {
-                log.error("Failed to send request accepted notification to student #{}: {}",
-                        sc.getStudent().getId(), e.getMessage());
-            }
-        }
-
-        log.info("Sent {} request accepted notifications for consultation #{}", sent, consultation.getId());
+        return broadcastService.broadcast("request #" + consultation.getId() + " accepted",
+                chatIds, message, keyboard).getCompletion();
     }
 
     /**
@@ -1,7 +1,9 @@
 package com.example.botforconsultations.api.bot.service;
 
 import com.example.botforconsultations.core.model.ReminderTime;
+import com.example.botforconsultations.core.model.Role;
 import com.example.botforconsultations.core.model.TelegramUser;
+import com.example.botforconsultations.core.repository.ConsultationRepository;
 import com.example.botforconsultations.core.repository.TelegramUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProfileService {
 
     private final TelegramUserRepository telegramUserRepository;
+    private final TelegramUserCache telegramUserCache;
+    private final TeacherDirectory teacherDirectory;
+    private final TaskReminderScheduler taskReminderScheduler;
+    private final ConsultationRepository consultationRepository;
+
+    /**
+     * Удалить аккаунт пользователя (связанные данные удаляются каскадно).
+     * Записи студента удаляются вместе с ним, поэтому сначала освобождаются занятые им места.
+     */
+    @Transactional
+    public void deleteAccount(TelegramUser user) {
+        consultationRepository.releaseSeatsOfStudent(user.getId());
+        telegramUserRepository.delete(user);
+        telegramUserCache.invalidate(user.getTelegramId());
+        if (user.getRole() == Role.TEACHER) {
+            teacherDirectory.changed();
+        }
+    }
 
     /**
      * Обновить имя пользователя
@@ -31,6 +51,10 @@ public class ProfileService {
 
         user.setFirstName(newFirstName.trim());
         telegramUserRepository.save(user);
+        telegramUserCache.invalidate(user.getTelegramId());
+        if (user.getRole() == Role.TEACHER) {
+            teacherDirectory.changed();
+        }
 
         return ProfileUpdateResult.success("Имя успешно обновлено");
     }
@@ -50,6 +74,10 @@ public class ProfileService {
 
         user.setLastName(newLastName.trim());
         telegramUserRepository.save(user);
+        telegramUserCache.invalidate(user.getTelegramId());
+        if (user.getRole() == Role.TEACHER) {
+            teacherDirectory.changed();
+        }
 
         return ProfileUpdateResult.success("Фамилия успешно обновлена");
     }
@@ -69,6 +97,9 @@ public class ProfileService {
 
         user.getReminderTimes().add(reminderTime);
         telegramUserRepository.save(user);
+        telegramUserCache.invalidate(user.getTelegramId());
+        // Новое время напоминания нужно запланировать для уже созданных задач
+        taskReminderScheduler.rescheduleTeacher(user);
 
         return ProfileUpdateResult.success("✅ Напоминание добавлено: " + reminderTime.getDisplayName() + " до дедлайна");
     }
@@ -88,6 +119,7 @@ public class ProfileService {
 
         user.getReminderTimes().remove(reminderTime);
         telegramUserRepository.save(user);
+        telegramUserCache.invalidate(user.getTelegramId());
 
         return ProfileUpdateResult.success("✅ Напоминание удалено: " + reminderTime.getDisplayName());
     }
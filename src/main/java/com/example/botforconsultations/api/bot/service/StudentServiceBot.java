@@ -4,11 +4,13 @@ import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.Subscription;
 import com.example.botforconsultations.core.model.TelegramUser;
+import com.example.botforconsultations.core.repository.ConsultationRepository;
 import com.example.botforconsultations.core.repository.StudentConsultationRepository;
 import com.example.botforconsultations.core.repository.SubscriptionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +24,9 @@ public class StudentServiceBot {
 
     private final SubscriptionRepository subscriptionRepository;
     private final StudentConsultationRepository studentConsultationRepository;
+    private final ConsultationRepository consultationRepository;
+    private final ConsultationService consultationService;
+    private final NotificationOutboxService notificationOutbox;
 
     // ========== Подписки ==========
 
@@ -73,37 +78,43 @@ public class StudentServiceBot {
     // ========== Записи на консультации ==========
 
     /**
-     * Записать студента на консультацию
+     * Записать студента на консультацию.
+     * Место занимается атомарно (ConsultationRepository.reserveSeat): проверка статуса и вместимости,
+     * увеличение счётчика и автозакрытие при заполнении выполняются одним UPDATE, затем вставляется запись.
      */
     @Transactional
     public RegistrationResult register(TelegramUser student, Consultation consultation, String message) {
-        if (studentConsultationRepository.existsByStudentAndConsultation(student, consultation)) {
-            return RegistrationResult.alreadyRegistered();
+        if (consultationRepository.reserveSeat(consultation.getId()) == 0) {
+            // Мест нет или запись закрыта - причину определяем по актуальному состоянию консультации
+            Consultation current = consultationService.findById(consultation.getId());
+            ConsultationService.ValidationResult validation = consultationService.validateForRegistration(
+                    current, current != null ? current.getRegisteredCount() : 0);
+            return RegistrationResult.rejected(validation.isValid()
+                    ? "Запись на эту консультацию сейчас недоступна"
+                    : validation.errorMessage());
         }
 
-        StudentConsultation studentConsultation = StudentConsultation.builder()
-                .student(student)
-                .consultation(consultation)
-                .message(message)
-                .build();
-
-        studentConsultationRepository.save(studentConsultation);
+        if (studentConsultationRepository.insertIfAbsent(student.getId(), consultation.getId(), message) == 0) {
+            // Уже записан: откатываем занятое место
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return RegistrationResult.alreadyRegistered();
+        }
         return RegistrationResult.success(true);
     }
 
     /**
-     * Отменить запись студента на консультацию
+     * Отменить запись студента на консультацию.
+     * Освобождение места снова открывает консультацию, закрытую автозакрытием.
      */
     @Transactional
     public RegistrationResult cancelRegistration(TelegramUser student, Consultation consultation) {
-        Optional<StudentConsultation> registration =
-                studentConsultationRepository.findByStudentAndConsultation(student, consultation);
-
-        if (registration.isEmpty()) {
+        if (studentConsultationRepository.deleteByStudentIdAndConsultationId(student.getId(), consultation.getId()) == 0) {
             return RegistrationResult.notRegistered();
         }
 
-        studentConsultationRepository.delete(registration.get());
+        consultationRepository.releaseSeat(consultation.getId());
+        // Освободилось место - уведомляем подписчиков (кроме самого студента)
+        notificationOutbox.availableSpots(consultation.getId(), student.getId());
         return RegistrationResult.success(false);
     }
 
@@ -132,9 +143,7 @@ public class StudentServiceBot {
      * Получить количество записанных студентов на консультацию
      */
     public long getRegisteredCount(Consultation consultation) {
-        return consultation.getRegUsers() != null
-                ? consultation.getRegUsers().size()
-                : 0;
+        return consultation.getRegisteredCount();
     }
 
     // ========== Результаты операций ==========
@@ -167,5 +176,9 @@ public class StudentServiceBot {
         public static RegistrationResult notRegistered() {
             return new RegistrationResult(false, "Вы не записаны на эту консультацию", false);
         }
+
+        public static RegistrationResult rejected(String message) {
+            return new RegistrationResult(false, message, false);
+        }
     }
 }
@@ -0,0 +1,211 @@
+package com.example.botforconsultations.api.bot.service;
+
+import com.example.botforconsultations.core.model.ReminderTime;
+import com.example.botforconsultations.core.model.TelegramUser;
+import com.example.botforconsultations.core.model.TodoTask;
+import com.example.botforconsultations.core.repository.TodoTaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.botforconsultations.core.util.TimeUtils.now;
+
+/**
+ * Планировщик напоминаний о дедлайнах задач.
+ * <p>
+ * Моменты отправки рассчитываются заранее и хранятся в DelayQueue, поток планировщика просыпается
+ * только к ближайшему напоминанию. Очередь заполняется один раз при старте, дальше обновляется
+ * точечно: TodoTaskService вызывает schedule/cancel при создании, изменении и выполнении задачи.
+ * <p>
+ * Записи в очереди не удаляются: при перепланировании задача получает новую версию,
+ * а записи со старой версией пропускаются при срабатывании.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskReminderScheduler {
+
+    // Сколько напоминание остаётся актуальным после расчётного момента (например, после перезапуска бота)
+    private static final Duration GRACE_PERIOD = Duration.ofMinutes(5);
+
+    private final TodoTaskRepository todoTaskRepository;
+    private final TaskReminderService taskReminderService;
+
+    private final DelayQueue<ScheduledReminder> queue = new DelayQueue<>();
+    // Актуальная версия расписания задачи; задачи без напоминаний в карте отсутствуют
+    private final Map<Long, Long> taskVersions = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private volatile Thread worker;
+
+    /**
+     * Заполнить очередь напоминаниями по всем активным задачам и запустить планировщик
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<TodoTask> tasks = todoTaskRepository.findByIsCompletedFalseAndDeadlineAfter(now());
+        for (TodoTask task : tasks) {
+            apply(task.getId(), planReminders(task));
+        }
+        log.info("Task reminder scheduler started: {} reminders for {} tasks", queue.size(), taskVersions.size());
+
+        worker = new Thread(this::workerLoop, "task-reminders");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Пересчитать напоминания задачи (после создания или изменения).
+     * Внутри транзакции очередь обновляется только после её фиксации.
+     */
+    public void schedule(TodoTask task) {
+        Long taskId = task.getId();
+        List<PlannedReminder> reminders = planReminders(task);
+        afterCommit(() -> apply(taskId, reminders));
+    }
+
+    /**
+     * Отменить напоминания задачи (после выполнения или удаления)
+     */
+    public void cancel(Long taskId) {
+        afterCommit(() -> taskVersions.remove(taskId));
+    }
+
+    /**
+     * Пересчитать напоминания всех активных задач преподавателя (после изменения времени напоминаний)
+     */
+    public void rescheduleTeacher(TelegramUser teacher) {
+        for (TodoTask task : todoTaskRepository.findByTeacherAndIsCompletedFalseOrderByDeadlineAsc(teacher)) {
+            schedule(task);
+        }
+    }
+
+    /**
+     * Рассчитать моменты отправки ещё не отправленных напоминаний задачи
+     */
+    private List<PlannedReminder> planReminders(TodoTask task) {
+        List<PlannedReminder> reminders = new ArrayList<>();
+        TelegramUser teacher = task.getTeacher();
+        if (Boolean.TRUE.equals(task.getIsCompleted()) || task.getDeadline() == null
+                || teacher == null || teacher.getReminderTimes() == null) {
+            return reminders;
+        }
+
+        LocalDateTime currentTime = now();
+        for (ReminderTime reminderTime : teacher.getReminderTimes()) {
+            if (task.isReminderSent(reminderTime)) {
+                continue;
+            }
+            LocalDateTime fireAt = task.getDeadline().minusMinutes(reminderTime.getMinutesBeforeDeadline());
+            if (currentTime.isBefore(fireAt.plus(GRACE_PERIOD))) {
+                reminders.add(new PlannedReminder(reminderTime, fireAt));
+            }
+        }
+        return reminders;
+    }
+
+    private void apply(Long taskId, List<PlannedReminder> reminders) {
+        if (reminders.isEmpty()) {
+            taskVersions.remove(taskId);
+            return;
+        }
+
+        long version = versionSequence.incrementAndGet();
+        taskVersions.put(taskId, version);
+
+        LocalDateTime currentTime = now();
+        for (PlannedReminder reminder : reminders) {
+            long delayNanos = Math.max(0, Duration.between(currentTime, reminder.fireAt()).toNanos());
+            queue.add(new ScheduledReminder(taskId, reminder.reminderTime(), version, System.nanoTime() + delayNanos));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void workerLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ScheduledReminder reminder = queue.take();
+                if (!Long.valueOf(reminder.version).equals(taskVersions.get(reminder.taskId))) {
+                    continue;  // задачу перепланировали или отменили
+                }
+                taskReminderService.deliver(reminder.taskId, reminder.reminderTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Unexpected error in task reminder scheduler: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Количество записей в очереди (включая устаревшие версии)
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private record PlannedReminder(ReminderTime reminderTime, LocalDateTime fireAt) {
+    }
+
+    /**
+     * Запланированное напоминание в очереди
+     */
+    private static class ScheduledReminder implements Delayed {
+        private final long taskId;
+        private final ReminderTime reminderTime;
+        private final long version;
+        private final long readyAt;
+
+        private ScheduledReminder(long taskId, ReminderTime reminderTime, long version, long readyAt) {
+            this.taskId = taskId;
+            this.reminderTime = reminderTime;
+            this.version = version;
+            this.readyAt = readyAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -2,24 +2,23 @@ package com.example.botforconsultations.api.bot.service;
 
 import com.example.botforconsultations.api.bot.BotMessenger;
 import com.example.botforconsultations.core.model.ReminderTime;
+import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.model.TodoTask;
 import com.example.botforconsultations.core.repository.TodoTaskRepository;
 import com.example.botforconsultations.core.service.GoogleOAuthService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 import static com.example.botforconsultations.core.util.TimeUtils.now;
 
 /**
- * Сервис для отправки напоминаний преподавателям о приближающихся дедлайнах задач
+ * Сервис для отправки напоминаний преподавателям о приближающихся дедлайнах задач.
+ * Моменты отправки планирует TaskReminderScheduler.
  */
 @Slf4j
 @Service
@@ -31,45 +30,46 @@ public class TaskReminderService {
     private final GoogleOAuthService googleOAuthService;
 
     /**
-     * Проверка и отправка напоминаний
+     * Отправить напоминание по задаче, если оно ещё актуально.
+     * Вызывается TaskReminderScheduler в момент срабатывания; отправка фиксируется в задаче условным UPDATE,
+     * поэтому каждое напоминание приходит не больше одного раза, даже если его обрабатывают одновременно.
      */
-    @Scheduled(fixedRate = 30000) // 30 секунд в миллисекундах
-    public void checkAndSendReminders() {
-        log.debug("Checking for task reminders...");
+    @Transactional
+    public void deliver(Long taskId, ReminderTime reminderTime) {
+        TodoTask task = todoTaskRepository.findById(taskId).orElse(null);
+        if (task == null || task.getIsCompleted() || task.getDeadline() == null
+                || task.isReminderSent(reminderTime)) {
+            return;
+        }
+
+        TelegramUser teacher = task.getTeacher();
+        if (teacher == null || teacher.getReminderTimes() == null
+                || !teacher.getReminderTimes().contains(reminderTime)) {
+            return;
+        }
 
+        // Защита от устаревшего расписания: напоминание не раньше положенного и не после дедлайна
         LocalDateTime currentTime = now();
+        LocalDateTime reminderDateTime = task.getDeadline().minusMinutes(reminderTime.getMinutesBeforeDeadline());
+        if (currentTime.isBefore(reminderDateTime.minusMinutes(1)) || !currentTime.isBefore(task.getDeadline())) {
+            return;
+        }
 
-        // Получаем все невыполненные задачи с дедлайном в будущем
-        List<TodoTask> tasks = todoTaskRepository.findByIsCompletedFalseAndDeadlineAfter(currentTime);
-
-        for (TodoTask task : tasks) {
-            if (task.getTeacher() == null || task.getTeacher().getReminderTimes() == null 
-                    || task.getTeacher().getReminderTimes().isEmpty()) {
-                continue;
-            }
-
-            // Пропускаем преподавателей, у которых подключен Google Calendar
-            // (напоминания для них приходят через Google Calendar)
-            if (googleOAuthService.isConnected(task.getTeacher())) {
-                log.debug("Skipping reminder for task #{} - teacher #{} has Google Calendar connected",
-                        task.getId(), task.getTeacher().getId());
-                continue;
-            }
-
-            // Проверяем каждое время напоминания
-            for (ReminderTime reminderTime : task.getTeacher().getReminderTimes()) {
-                int minutesBeforeDeadline = reminderTime.getMinutesBeforeDeadline();
-
-                // Вычисляем время, когда нужно отправить напоминание
-                LocalDateTime reminderDateTime = task.getDeadline().minusMinutes(minutesBeforeDeadline);
-
-                // Проверяем, находится ли текущее время в интервале для отправки напоминания
-                // Интервал: от reminderDateTime до reminderDateTime + 5 минут (частота проверки)
-                if (currentTime.isAfter(reminderDateTime) && currentTime.isBefore(reminderDateTime.plusMinutes(5))) {
-                    sendReminder(task, reminderTime);
-                }
-            }
+        int requiredMask = ReminderTime.mask(teacher.getReminderTimes());
+        if (todoTaskRepository.markReminderSent(taskId, reminderTime.getBit(), requiredMask) == 0) {
+            // Напоминание уже отметил другой вызов
+            return;
         }
+
+        // Пропускаем преподавателей, у которых подключен Google Calendar
+        // (напоминания для них приходят через Google Calendar)
+        if (googleOAuthService.isConnected(teacher)) {
+            log.debug("Skipping reminder for task #{} - teacher #{} has Google Calendar connected",
+                    task.getId(), teacher.getId());
+            return;
+        }
+
+        sendReminder(task, reminderTime);
     }
 
     /**
@@ -1,7 +1,10 @@
 package com.example.botforconsultations.api.bot.service;
 
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.ConsultationStatus;
+import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.repository.ConsultationRepository;
 import lombok.RequiredArgsConstructor;
@@ -22,17 +25,21 @@ import java.util.List;
 public class TeacherConsultationService {
 
     private final ConsultationRepository consultationRepository;
+    private final ConsultationService consultationService;
+    private final NotificationOutboxService notificationOutbox;
 
     /**
-     * Получить все консультации преподавателя
+     * Получить страницу консультаций преподавателя (без запросов, последние сверху)
      */
-    public List<Consultation> getTeacherConsultations(TelegramUser teacher) {
-        List<Consultation> allConsultations = consultationRepository.findByTeacherOrderByStartTimeAsc(teacher);
-        List<Consultation> requests = consultationRepository.findByTeacherAndStatusOrderByIdDesc(teacher, ConsultationStatus.REQUEST);
-        // Исключаем запросы из всех консультаций
-        return allConsultations.stream()
-                .filter(consultation -> requests.stream().noneMatch(request -> request.getId().equals(consultation.getId())))
-                .toList();
+    public KeysetPage<Consultation> getTeacherConsultationsPage(TelegramUser teacher, PageCursor cursor) {
+        return consultationService.getTeacherConsultationsPage(teacher, "all", cursor);
+    }
+
+    /**
+     * Получить записанных на консультацию (или заинтересованных в запросе) студентов
+     */
+    public List<StudentConsultation> getRegistrations(Long consultationId) {
+        return consultationService.getRegistrations(consultationId);
     }
 
     /**
@@ -59,6 +66,7 @@ public class TeacherConsultationService {
 
         Consultation saved = consultationRepository.save(consultation);
         log.info("Created consultation #{} by teacher #{}", saved.getId(), teacher.getId());
+        notificationOutbox.newConsultation(saved.getId());
 
         return saved;
     }
@@ -79,9 +87,7 @@ public class TeacherConsultationService {
      */
     @Transactional
     public OpenResult openConsultation(Consultation consultation) {
-        long registeredCount = consultation.getRegUsers() != null
-                ? consultation.getRegUsers().size()
-                : 0;
+        long registeredCount = consultation.getRegisteredCount();
 
         // Проверяем: если автозакрытие включено и нет свободных мест
         if (consultation.isAutoCloseOnCapacity() &&
@@ -95,6 +101,7 @@ public class TeacherConsultationService {
         consultation.setStatus(ConsultationStatus.OPEN);
         consultationRepository.save(consultation);
         log.info("Opened consultation #{}", consultation.getId());
+        notificationOutbox.availableSpots(consultation.getId(), null);
 
         return OpenResult.successful();
     }
@@ -118,6 +125,31 @@ public class TeacherConsultationService {
         consultation.setClosedReason(reason);
         consultationRepository.save(consultation);
         log.info("Cancelled consultation #{}", consultation.getId());
+        notificationOutbox.cancellation(consultation.getId());
+    }
+
+    /**
+     * Изменить название консультации
+     */
+    @Transactional
+    public void updateTitle(Consultation consultation, String title) {
+        consultation.setTitle(title);
+        consultationRepository.save(consultation);
+        log.info("Updated title of consultation #{}", consultation.getId());
+        notificationOutbox.consultationUpdated(consultation.getId(), "Изменено название консультации");
+    }
+
+    /**
+     * Изменить дату и время консультации
+     */
+    @Transactional
+    public void updateDateTime(Consultation consultation, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        consultation.setDate(date);
+        consultation.setStartTime(startTime);
+        consultation.setEndTime(endTime);
+        consultationRepository.save(consultation);
+        log.info("Updated date and time of consultation #{}", consultation.getId());
+        notificationOutbox.consultationUpdated(consultation.getId(), "Изменены дата и время консультации");
     }
 
     /**
@@ -146,9 +178,7 @@ public class TeacherConsultationService {
         request.setAutoCloseOnCapacity(autoCloseOnCapacity);
 
         // Определяем статус
-        long interestedCount = request.getRegUsers() != null
-                ? request.getRegUsers().size()
-                : 0;
+        long interestedCount = request.getRegisteredCount();
         if (autoCloseOnCapacity && capacity != null && interestedCount >= capacity) {
             request.setStatus(ConsultationStatus.CLOSED);
         } else {
@@ -158,73 +188,11 @@ public class TeacherConsultationService {
         Consultation updated = consultationRepository.save(request);
         log.info("Accepted request #{} by teacher #{}, converted to consultation",
                 request.getId(), teacher.getId());
+        notificationOutbox.requestAccepted(updated.getId());
 
         return updated;
     }
 
-    /**
-     * Проверить, нужно ли автоматически закрыть консультацию
-     * Вызывается после записи студента
-     *
-     * @param consultationId ID консультации для перезагрузки свежих данных
-     */
-    @Transactional
-    public boolean checkAndAutoClose(Long consultationId) {
-        // Перезагружаем консультацию из БД для получения актуальной коллекции regUsers
-        Consultation consultation = consultationRepository.findById(consultationId).orElse(null);
-        if (consultation == null) {
-            return false;
-        }
-
-        if (!consultation.isAutoCloseOnCapacity() || consultation.getCapacity() == null) {
-            return false;
-        }
-
-        long registeredCount = consultation.getRegUsers() != null
-                ? consultation.getRegUsers().size()
-                : 0;
-
-        if (registeredCount >= consultation.getCapacity() &&
-                consultation.getStatus() == ConsultationStatus.OPEN) {
-
-            consultation.setStatus(ConsultationStatus.CLOSED);
-            consultationRepository.save(consultation);
-            log.info("Auto-closed consultation #{} (capacity reached)", consultation.getId());
-            return true;
-        }
-
-        return false;
-    }
-
-    @Transactional
-    public boolean checkAndAutoOpen(Long consultationId, long countBefore) {
-        // Перезагружаем консультацию из БД для получения актуальной коллекции regUsers
-        Consultation consultation = consultationRepository.findById(consultationId).orElse(null);
-        if (consultation == null) {
-            return false;
-        }
-
-        if (!consultation.isAutoCloseOnCapacity() || consultation.getCapacity() == null) {
-            return false;
-        }
-
-        long registeredCount = consultation.getRegUsers() != null
-                ? consultation.getRegUsers().size()
-                : 0;
-
-        if (consultation.getCapacity() <= countBefore &&
-                registeredCount < consultation.getCapacity() &&
-                consultation.getStatus().equals(ConsultationStatus.CLOSED)
-        ) {
-            consultation.setStatus(ConsultationStatus.OPEN);
-            consultationRepository.save(consultation);
-            log.info("Auto-open consultation #{} (capacity reached)", consultation.getId());
-            return true;
-        }
-
-        return false;
-    }
-
     // ========== Result Records ==========
 
     /**
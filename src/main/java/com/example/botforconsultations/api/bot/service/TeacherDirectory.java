@@ -0,0 +1,134 @@
+package com.example.botforconsultations.api.bot.service;
+
+import com.example.botforconsultations.core.model.Role;
+import com.example.botforconsultations.core.model.TeacherSummary;
+import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import com.example.botforconsultations.core.repository.TelegramUserRepository.UserNameView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Справочник подтверждённых преподавателей в памяти (copy-on-write).
+ * <p>
+ * Списки преподавателей показываются на каждое нажатие кнопки - вместо запроса к БД с загрузкой
+ * сущностей обработчики читают неизменяемый снимок. Снимок пересобирается целиком одним лёгким запросом
+ * и подменяется атомарно, поэтому чтение не блокируется и всегда видит согласованный список.
+ * <p>
+ * Любое изменение преподавателя (активация, деактивация, смена имени или роли, удаление) должно
+ * вызывать changed(). При нескольких экземплярах бота изменения с другого узла становятся видны
+ * через bot.teacher-directory.refresh-interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeacherDirectory {
+
+    private static final Comparator<TeacherSummary> BY_NAME = Comparator
+            .comparing((TeacherSummary teacher) -> normalize(teacher.lastName()))
+            .thenComparing(teacher -> normalize(teacher.firstName()))
+            .thenComparing(TeacherSummary::id);
+
+    private final TelegramUserRepository telegramUserRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Все подтверждённые преподаватели, по фамилии и имени
+     */
+    public List<TeacherSummary> getAll() {
+        return snapshot().teachers();
+    }
+
+    /**
+     * Найти преподавателя по ID (null - нет среди подтверждённых)
+     */
+    public TeacherSummary find(Long id) {
+        return id != null ? snapshot().byId().get(id) : null;
+    }
+
+    /**
+     * Сообщить об изменении преподавателя.
+     * Внутри транзакции снимок пересобирается после её фиксации.
+     */
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Периодически пересобирает снимок, чтобы подхватить изменения с других экземпляров
+     */
+    @Scheduled(fixedDelayString = "${bot.teacher-directory.refresh-interval:300000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Пересобрать снимок из БД.
+     * Сборки выполняются по очереди: более поздняя сборка не будет перезаписана более ранней.
+     */
+    public synchronized void refresh() {
+        List<TeacherSummary> teachers = telegramUserRepository.findNamesByRoleAndHasConfirmed(Role.TEACHER, true)
+                .stream()
+                .map(TeacherDirectory::toSummary)
+                .sorted(BY_NAME)
+                .toList();
+        Map<Long, TeacherSummary> byId = teachers.stream()
+                .collect(Collectors.toUnmodifiableMap(TeacherSummary::id, Function.identity()));
+
+        snapshot = new Snapshot(teachers, byId);
+        log.debug("Teacher directory refreshed: {} teachers", teachers.size());
+    }
+
+    /**
+     * Нормализация для поиска: нижний регистр, ё -> е, одиночные пробелы.
+     * Совпадает с выражением индекса idx_telegram_users_name_trgm.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT)
+                .replace('ё', 'е');
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static TeacherSummary toSummary(UserNameView user) {
+        String searchKey = normalize(
+                (user.getFirstName() != null ? user.getFirstName() : "") + " "
+                        + (user.getLastName() != null ? user.getLastName() : ""));
+        return new TeacherSummary(user.getId(), user.getFirstName(), user.getLastName(), searchKey);
+    }
+
+    private record Snapshot(List<TeacherSummary> teachers, Map<Long, TeacherSummary> byId) {
+    }
+}
@@ -1,37 +1,87 @@
 package com.example.botforconsultations.api.bot.service;
 
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.api.bot.utils.TeacherNameFormatter;
 import com.example.botforconsultations.core.model.Role;
+import com.example.botforconsultations.core.model.TeacherSummary;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.repository.TelegramUserRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Сервис для поиска преподавателей
  */
 @Service
-@RequiredArgsConstructor
 public class TeacherSearchService {
 
+    public static final int TEACHERS_PAGE_SIZE = 10;
+
     private final TelegramUserRepository telegramUserRepository;
+    private final TeacherDirectory teacherDirectory;
+    private final int searchLimit;
+
+    public TeacherSearchService(TelegramUserRepository telegramUserRepository,
+                                TeacherDirectory teacherDirectory,
+                                @Value("${bot.teacher-search.limit:20}") int searchLimit) {
+        this.telegramUserRepository = telegramUserRepository;
+        this.teacherDirectory = teacherDirectory;
+        this.searchLimit = searchLimit;
+    }
 
     /**
-     * Получить всех подтвержденных преподавателей
+     * Страница списка подтвержденных преподавателей; ключ курсора - ID преподавателя
      */
-    public List<TelegramUser> getAllTeachers() {
-        return telegramUserRepository.findByRoleAndHasConfirmed(Role.TEACHER, true);
+    public KeysetPage<TeacherSummary> getTeachersPage(PageCursor cursor) {
+        return KeysetPage.ofList(teacherDirectory.getAll(), cursor, TEACHERS_PAGE_SIZE,
+                teacher -> teacher.id().toString());
     }
 
     /**
-     * Поиск преподавателей по имени или фамилии
+     * Поиск преподавателей по части имени или фамилии.
+     * Вхождения подстроки ищутся в справочнике в памяти: сначала совпадения с начала слова, затем остальные.
+     * Если вхождений нет, запрос уходит в триграммный индекс БД - он находит имена с опечатками.
+     * Регистр и ё/е не различаются, результатов не больше bot.teacher-search.limit.
      */
-    public List<TelegramUser> searchTeachers(String query) {
-        return telegramUserRepository
-                .findByRoleAndHasConfirmedTrueAndFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                        Role.TEACHER, query, query);
+    public List<TeacherSummary> searchTeachers(String query) {
+        String normalized = TeacherDirectory.normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        List<TeacherSummary> teachers = teacherDirectory.getAll();
+        List<TeacherSummary> wordStart = new ArrayList<>();
+        List<TeacherSummary> substring = new ArrayList<>();
+        for (TeacherSummary teacher : teachers) {
+            String key = teacher.searchKey();
+            if (key.startsWith(normalized) || key.contains(" " + normalized)) {
+                wordStart.add(teacher);
+            } else if (key.contains(normalized)) {
+                substring.add(teacher);
+            }
+        }
+        if (!wordStart.isEmpty() || !substring.isEmpty()) {
+            wordStart.addAll(substring);
+            return List.copyOf(wordStart.subList(0, Math.min(searchLimit, wordStart.size())));
+        }
+
+        // Похожие имена - ID из индекса в порядке релевантности, данные из справочника
+        return telegramUserRepository.searchConfirmedTeacherIds(normalized, escapeLike(normalized), searchLimit)
+                .stream()
+                .map(teacherDirectory::find)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 
     /**
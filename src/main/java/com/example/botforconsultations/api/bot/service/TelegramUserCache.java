@@ -0,0 +1,104 @@
+package com.example.botforconsultations.api.bot.service;
+
+import com.example.botforconsultations.api.bot.state.ChatStateStore;
+import com.example.botforconsultations.api.bot.state.InMemoryChatStateStore;
+import com.example.botforconsultations.core.model.TelegramUser;
+import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш пользователей бота по telegramId (read-through).
+ * <p>
+ * Каждое обновление определяет пользователя и его роль - без кэша это запрос к БД
+ * (с загрузкой reminderTimes) в UpdateConsumer и ещё один в обработчике роли.
+ * Отсутствие пользователя тоже кэшируется. Любое изменение TelegramUser должно вызывать invalidate();
+ * при нескольких экземплярах бота изменения с другого узла становятся видны через bot.user-cache.ttl.
+ * Возвращаемые сущности отсоединены от сессии: ленивые коллекции у них не загружены.
+ */
+@Slf4j
+@Service
+public class TelegramUserCache {
+
+    private final TelegramUserRepository telegramUserRepository;
+    private final ChatStateStore<Optional<TelegramUser>> cache;
+
+    // Увеличивается при каждой инвалидации: загрузка, начатая до неё, не попадёт в кэш
+    private final AtomicLong generation = new AtomicLong();
+
+    public TelegramUserCache(TelegramUserRepository telegramUserRepository,
+                             @Value("${bot.user-cache.max-size:10000}") int maxSize,
+                             @Value("${bot.user-cache.ttl:10m}") Duration ttl) {
+        this.telegramUserRepository = telegramUserRepository;
+        this.cache = new InMemoryChatStateStore<>("telegram-users", maxSize, ttl);
+    }
+
+    /**
+     * Найти пользователя по Telegram ID
+     */
+    public Optional<TelegramUser> findByTelegramId(Long telegramId) {
+        Optional<TelegramUser> cached = cache.get(telegramId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadGeneration = generation.get();
+        Optional<TelegramUser> user = telegramUserRepository.findByTelegramId(telegramId);
+        if (generation.get() == loadGeneration) {
+            cache.put(telegramId, user);
+        }
+        return user;
+    }
+
+    /**
+     * Сбросить пользователя из кэша.
+     * Внутри транзакции сброс повторяется после её завершения, чтобы не закэшировать незафиксированные данные.
+     */
+    public void invalidate(Long telegramId) {
+        if (telegramId == null) {
+            return;
+        }
+        evict(telegramId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(telegramId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Метрики кэша
+     */
+    public ChatStateStore.Stats getStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Каждую минуту удаляет устаревшие записи и выводит метрики
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        cache.evictExpired();
+        ChatStateStore.Stats stats = cache.getStats();
+        if (stats.hits() + stats.misses() > 0) {
+            log.info("User cache: {}, hit ratio {}", stats, String.format("%.2f", stats.hitRatio()));
+        }
+    }
+
+    private void evict(Long telegramId) {
+        generation.incrementAndGet();
+        cache.remove(telegramId);
+    }
+}
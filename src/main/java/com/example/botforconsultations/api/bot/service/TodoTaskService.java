@@ -1,5 +1,7 @@
 package com.example.botforconsultations.api.bot.service;
 
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.model.TodoTask;
 import com.example.botforconsultations.core.repository.TodoTaskRepository;
@@ -7,11 +9,17 @@ import com.example.botforconsultations.core.service.GoogleCalendarService;
 import com.example.botforconsultations.core.service.GoogleOAuthService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static com.example.botforconsultations.core.util.TimeUtils.now;
@@ -21,9 +29,13 @@ import static com.example.botforconsultations.core.util.TimeUtils.now;
 @Slf4j
 public class TodoTaskService {
 
+    // Количество задач на одной странице списка
+    public static final int TASKS_PAGE_SIZE = 10;
+
     private final TodoTaskRepository todoTaskRepository;
     private final GoogleOAuthService googleOAuthService;
     private final GoogleCalendarService googleCalendarService;
+    private final TaskReminderScheduler taskReminderScheduler;
 
     /**
      * Создать новую задачу для преподавателя
@@ -44,6 +56,7 @@ public class TodoTaskService {
         TodoTask saved = todoTaskRepository.save(todo);
         log.info("Created todo task {} for teacher {} by user {}",
                 saved.getId(), teacher.getId(), createdBy.getId());
+        taskReminderScheduler.schedule(saved);
 
         // Проверяем, подключен ли у преподавателя Google Calendar
         if (googleOAuthService.isConnected(teacher)) {
@@ -110,6 +123,7 @@ public class TodoTaskService {
             todo.setCompletedAt(now());
             todoTaskRepository.save(todo);
             log.info("Todo task {} marked as completed", todoId);
+            taskReminderScheduler.cancel(todoId);
 
             // Обновляем событие в Google Calendar (меняем цвет на зеленый)
             if (todo.getGoogleCalendarEventId() != null) {
@@ -139,6 +153,7 @@ public class TodoTaskService {
             todo.setCompletedAt(null);
             todoTaskRepository.save(todo);
             log.info("Todo task {} marked as incomplete", todoId);
+            taskReminderScheduler.schedule(todo);
 
             // Обновляем событие в Google Calendar (возвращаем красный цвет)
             if (todo.getGoogleCalendarEventId() != null) {
@@ -161,6 +176,7 @@ public class TodoTaskService {
      */
     @Transactional
     public void deleteTodo(Long todoId) {
+        taskReminderScheduler.cancel(todoId);
         Optional<TodoTask> todoOpt = todoTaskRepository.findById(todoId);
         if (todoOpt.isPresent()) {
             TodoTask todo = todoOpt.get();
@@ -203,9 +219,14 @@ public class TodoTaskService {
 
         todo.setTitle(title);
         todo.setDescription(description);
-        todo.setDeadline(deadline);
+        if (!Objects.equals(todo.getDeadline(), deadline)) {
+            todo.setDeadline(deadline);
+            todo.resetReminders();
+        }
 
-        return todoTaskRepository.save(todo);
+        TodoTask saved = todoTaskRepository.save(todo);
+        taskReminderScheduler.schedule(saved);
+        return saved;
     }
 
     /**
@@ -237,10 +258,147 @@ public class TodoTaskService {
     }
 
     /**
-     * Получить все активные задачи (для деканата)
+     * Получить страницу задач с фильтрами, по возрастанию дедлайна.
+     * Фильтры по преподавателю, статусу и дедлайну применяются в БД, страница читается по индексу
+     * с ключа курсора (дедлайн, ID) - без загрузки всех задач в память.
+     * Ключ курсора: "yyyyMMddHHmmss.ID". Задачи без дедлайна в списки не попадают.
+     */
+    public KeysetPage<TodoTask> getTasksPage(TaskFilter filter, PageCursor cursor) {
+        TaskKey lower = filter.lowerBound();
+        TaskKey upper = filter.upperBound();
+        return KeysetPage.load(cursor, TASKS_PAGE_SIZE,
+                pageCursor -> findTasks(filter, lower, upper, pageCursor),
+                task -> TaskKey.of(task).format());
+    }
+
+    /**
+     * Количество задач с фильтрами (для заголовка списка)
+     */
+    public long countTasks(TaskFilter filter) {
+        return todoTaskRepository.countTasks(filter.teacherId(), filter.statuses(),
+                filter.lowerBound().deadline(), filter.upperBound().deadline());
+    }
+
+    private List<TodoTask> findTasks(TaskFilter filter, TaskKey lower, TaskKey upper, PageCursor cursor) {
+        // Страница "вперёд" читается по возрастанию ключа, "назад" - по убыванию
+        TaskKey key = TaskKey.parse(cursor.key());
+        if (key != null) {
+            if (cursor.backward()) {
+                upper = min(upper, key);
+            } else {
+                lower = max(lower, key);
+            }
+        }
+
+        Pageable limit = PageRequest.of(0, TASKS_PAGE_SIZE + 1);
+        boolean backward = cursor.backward();
+        if (filter.teacherId() != null) {
+            return backward
+                    ? todoTaskRepository.findTeacherTasksDescending(filter.teacherId(), filter.statuses(),
+                    lower.deadline(), lower.id(), upper.deadline(), upper.id(), limit)
+                    : todoTaskRepository.findTeacherTasksAscending(filter.teacherId(), filter.statuses(),
+                    lower.deadline(), lower.id(), upper.deadline(), upper.id(), limit);
+        }
+
+        Boolean completed = filter.completed();
+        if (completed == null) {
+            return backward
+                    ? todoTaskRepository.findAllTasksDescending(
+                    lower.deadline(), lower.id(), upper.deadline(), upper.id(), limit)
+                    : todoTaskRepository.findAllTasksAscending(
+                    lower.deadline(), lower.id(), upper.deadline(), upper.id(), limit);
+        }
+        return backward
+                ? todoTaskRepository.findAllTasksByStatusDescending(completed,
+                lower.deadline(), lower.id(), upper.deadline(), upper.id(), limit)
+                : todoTaskRepository.findAllTasksByStatusAscending(completed,
+                lower.deadline(), lower.id(), upper.deadline(), upper.id(), limit);
+    }
+
+    private static TaskKey max(TaskKey a, TaskKey b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static TaskKey min(TaskKey a, TaskKey b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * Фильтры списка задач
+     *
+     * @param teacherId преподаватель (null - задачи всех преподавателей)
+     * @param status    "incomplete", "completed", иначе все
+     * @param deadline  "past" - дедлайн прошёл, "future" - дедлайн впереди, иначе все
+     */
+    public record TaskFilter(Long teacherId, String status, String deadline) {
+
+        List<Boolean> statuses() {
+            Boolean completed = completed();
+            return completed == null ? List.of(true, false) : List.of(completed);
+        }
+
+        /**
+         * Требуемое значение isCompleted; null - подходят все задачи
+         */
+        Boolean completed() {
+            return switch (status) {
+                case "incomplete" -> false;
+                case "completed" -> true;
+                default -> null;
+            };
+        }
+
+        TaskKey lowerBound() {
+            return "future".equals(deadline) ? new TaskKey(now(), Long.MAX_VALUE) : TaskKey.MIN;
+        }
+
+        TaskKey upperBound() {
+            return "past".equals(deadline) ? new TaskKey(now(), 0L) : TaskKey.MAX;
+        }
+    }
+
+    /**
+     * Ключ задачи в keyset-списке: дедлайн, ID
      */
-    public List<TodoTask> getAllActiveTasks() {
-        return todoTaskRepository.findByIsCompletedFalseOrderByDeadlineAsc();
+    private record TaskKey(LocalDateTime deadline, Long id) implements Comparable<TaskKey> {
+
+        static final TaskKey MIN = new TaskKey(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+        static final TaskKey MAX = new TaskKey(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+        private static final Comparator<TaskKey> ORDER = Comparator.comparing(TaskKey::deadline)
+                .thenComparing(TaskKey::id);
+
+        static TaskKey of(TodoTask task) {
+            return new TaskKey(task.getDeadline(), task.getId());
+        }
+
+        /**
+         * Разобрать ключ курсора; null - ключа нет или он некорректен
+         */
+        static TaskKey parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            String[] parts = value.split("\\.");
+            if (parts.length != 2) {
+                return null;
+            }
+            try {
+                return new TaskKey(LocalDateTime.parse(parts[0], FORMAT), Long.parseLong(parts[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return deadline.format(FORMAT) + "." + id;
+        }
+
+        @Override
+        public int compareTo(TaskKey other) {
+            return ORDER.compare(this, other);
+        }
     }
 
     /**
@@ -278,10 +436,11 @@ public class TodoTaskService {
                 .orElseThrow(() -> new IllegalArgumentException("Todo task not found: " + todoId));
 
         todo.setDeadline(newDeadline);
-        // Сбрасываем флаг напоминания, если дедлайн изменён
-        todo.setReminderSent(false);
+        // Сбрасываем отправленные напоминания, если дедлайн изменён
+        todo.resetReminders();
         todoTaskRepository.save(todo);
         log.info("Updated deadline for todo task {} to {}", todoId, newDeadline);
+        taskReminderScheduler.schedule(todo);
 
         // Обновляем событие в Google Calendar
         if (todo.getGoogleCalendarEventId() != null) {
@@ -1,82 +1,166 @@
 package com.example.botforconsultations.api.bot.state;
 
-import java.util.HashMap;
-import java.util.Map;
+import com.example.botforconsultations.api.bot.paging.PageCursor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Базовый менеджер состояний с общей логикой для всех ролей.
  * Использует дженерики для типизации состояний.
+ * <p>
+ * Все данные диалога чата хранятся в одной сессии (ChatSession) в ChatStateStore.
+ * Хранилище ограничено по размеру и удаляет сессии неактивных чатов,
+ * поэтому незавершённый диалог через некоторое время сбрасывается в DEFAULT.
  *
  * @param <S> тип enum состояния (UserState, TeacherState, DeaneryState)
+ * @param <C> тип сессии чата
  */
-public abstract class BaseStateManager<S extends Enum<S>> {
+@Slf4j
+public abstract class BaseStateManager<S extends Enum<S>, C extends BaseStateManager.ChatSession<S>> {
 
-    // Хранилище состояний пользователей
-    protected final Map<Long, S> userStates = new HashMap<>();
+    // Хранилище сессий пользователей
+    protected final ChatStateStore<C> sessions;
+    private final Supplier<C> sessionFactory;
 
-    // Общее для всех: текущая просматриваемая консультация
-    protected final Map<Long, Long> currentConsultationId = new HashMap<>();
+    protected BaseStateManager(ChatStateStore<C> sessions, Supplier<C> sessionFactory) {
+        this.sessions = sessions;
+        this.sessionFactory = sessionFactory;
+    }
 
     /**
      * Получить дефолтное состояние (должен быть переопределён в наследниках)
      */
     protected abstract S getDefaultState();
 
+    /**
+     * Сессия чата, если она есть (только для чтения - изменения через update)
+     */
+    protected C findSession(Long chatId) {
+        return sessions.get(chatId);
+    }
+
+    /**
+     * Изменить сессию чата (создаётся при отсутствии).
+     * Изменённая сессия сохраняется в хранилище - для внешних хранилищ это обязательно.
+     */
+    protected void update(Long chatId, Consumer<C> mutation) {
+        C session = sessions.computeIfAbsent(chatId, sessionFactory);
+        mutation.accept(session);
+        sessions.put(chatId, session);
+    }
+
+    /**
+     * Изменить сессию чата, только если она существует
+     */
+    protected void updateIfPresent(Long chatId, Consumer<C> mutation) {
+        C session = sessions.get(chatId);
+        if (session != null) {
+            mutation.accept(session);
+            sessions.put(chatId, session);
+        }
+    }
+
     /**
      * Получить текущее состояние пользователя
      */
     public S getState(Long chatId) {
-        return userStates.getOrDefault(chatId, getDefaultState());
+        C session = findSession(chatId);
+        return session != null && session.getState() != null ? session.getState() : getDefaultState();
     }
 
     /**
      * Установить состояние пользователя
      */
     public void setState(Long chatId, S state) {
-        userStates.put(chatId, state);
+        update(chatId, session -> session.setState(state));
     }
 
     /**
      * Сбросить состояние к DEFAULT
      */
     public void resetState(Long chatId) {
-        userStates.put(chatId, getDefaultState());
+        update(chatId, session -> session.setState(getDefaultState()));
     }
 
     /**
      * Установить текущую консультацию
      */
     public void setCurrentConsultation(Long chatId, Long consultationId) {
-        currentConsultationId.put(chatId, consultationId);
+        update(chatId, session -> session.setCurrentConsultationId(consultationId));
     }
 
     /**
      * Получить ID текущей консультации
      */
     public Long getCurrentConsultation(Long chatId) {
-        return currentConsultationId.get(chatId);
+        C session = findSession(chatId);
+        return session != null ? session.getCurrentConsultationId() : null;
     }
 
     /**
      * Очистить ID текущей консультации
      */
     public void clearCurrentConsultation(Long chatId) {
-        currentConsultationId.remove(chatId);
+        updateIfPresent(chatId, session -> session.setCurrentConsultationId(null));
     }
 
     /**
-     * Очистить все данные пользователя.
-     * Вызывает хук clearSpecificData() для очистки специфичных данных наследника.
+     * Запомнить курсор страницы текущего списка (null - с первой страницы)
+     */
+    public void setListCursor(Long chatId, PageCursor cursor) {
+        update(chatId, session -> session.setListCursor(cursor != null ? cursor.encode() : null));
+    }
+
+    /**
+     * Получить курсор страницы текущего списка
+     */
+    public PageCursor getListCursor(Long chatId) {
+        C session = findSession(chatId);
+        return PageCursor.parse(session != null ? session.getListCursor() : null);
+    }
+
+    /**
+     * Очистить все данные пользователя
      */
     public void clearUserData(Long chatId) {
-        userStates.remove(chatId);
-        currentConsultationId.remove(chatId);
-        clearSpecificData(chatId);
+        sessions.remove(chatId);
     }
 
     /**
-     * Хук для очистки специфичных данных конкретного менеджера.
-     * Переопределяется в наследниках.
+     * Метрики хранилища сессий
      */
-    protected abstract void clearSpecificData(Long chatId);
+    public ChatStateStore.Stats getStoreStats() {
+        return sessions.getStats();
+    }
+
+    /**
+     * Каждую минуту удаляет сессии неактивных чатов и выводит метрики хранилища
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredSessions() {
+        int expired = sessions.evictExpired();
+        ChatStateStore.Stats stats = sessions.getStats();
+        if (expired > 0) {
+            log.info("State store: {} expired sessions removed, {}, hit ratio {}",
+                    expired, stats, String.format("%.2f", stats.hitRatio()));
+        } else {
+            log.debug("State store: {}, hit ratio {}", stats, String.format("%.2f", stats.hitRatio()));
+        }
+    }
+
+    /**
+     * Общие данные диалога чата
+     */
+    @Getter
+    @Setter
+    public abstract static class ChatSession<S extends Enum<S>> {
+        private S state;
+        private Long currentConsultationId;
+        private String listCursor;
+    }
 }
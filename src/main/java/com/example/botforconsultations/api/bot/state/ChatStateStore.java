@@ -0,0 +1,66 @@
+package com.example.botforconsultations.api.bot.state;
+
+import java.util.function.Supplier;
+
+/**
+ * Хранилище состояния диалога по chatId.
+ * Ключ - примитивный long (Telegram chat ID), значение - сессия чата конкретной роли.
+ *
+ * @param <V> тип сессии чата
+ */
+public interface ChatStateStore<V> {
+
+    /**
+     * Получить сессию чата или null, если её нет (или она истекла)
+     */
+    V get(long chatId);
+
+    /**
+     * Получить сессию чата, создав её при отсутствии
+     */
+    V computeIfAbsent(long chatId, Supplier<V> factory);
+
+    /**
+     * Сохранить сессию чата
+     */
+    void put(long chatId, V value);
+
+    /**
+     * Удалить сессию чата
+     */
+    void remove(long chatId);
+
+    /**
+     * Удалить истёкшие сессии
+     *
+     * @return количество удалённых сессий
+     */
+    int evictExpired();
+
+    /**
+     * Текущие метрики хранилища
+     */
+    Stats getStats();
+
+    /**
+     * Снимок метрик хранилища
+     *
+     * @param name        имя хранилища (роль)
+     * @param size        текущее количество сессий
+     * @param maxSize     максимальное количество сессий (0 - без ограничения)
+     * @param hits        обращения к существующей сессии
+     * @param misses      обращения к отсутствующей сессии
+     * @param evictions   вытеснено из-за превышения размера
+     * @param expirations удалено по истечении времени неактивности
+     */
+    record Stats(String name, int size, int maxSize, long hits, long misses, long evictions, long expirations) {
+
+        /**
+         * Доля попаданий (0..1)
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0d : (double) hits / total;
+        }
+    }
+}
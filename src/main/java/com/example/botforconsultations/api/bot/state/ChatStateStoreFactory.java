@@ -0,0 +1,16 @@
+package com.example.botforconsultations.api.bot.state;
+
+/**
+ * Фабрика хранилищ состояния диалога.
+ * Реализация определяет, где хранятся сессии (память процесса, внешняя БД).
+ */
+public interface ChatStateStoreFactory {
+
+    /**
+     * Создать хранилище сессий
+     *
+     * @param name        имя хранилища (роль), используется в метриках и как ключ во внешнем хранилище
+     * @param sessionType класс сессии
+     */
+    <V> ChatStateStore<V> create(String name, Class<V> sessionType);
+}
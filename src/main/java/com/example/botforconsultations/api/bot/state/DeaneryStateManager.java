@@ -1,20 +1,17 @@
 package com.example.botforconsultations.api.bot.state;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Менеджер состояний деканата.
  * Наследуется от BaseStateManager с общей логикой.
  */
 @Component
-@RequiredArgsConstructor
-public class DeaneryStateManager extends BaseStateManager<DeaneryStateManager.DeaneryState> {
+public class DeaneryStateManager extends BaseStateManager<DeaneryStateManager.DeaneryState, DeaneryStateManager.DeanerySession> {
 
     public enum DeaneryState {
         DEFAULT,                           // Обычное состояние (главное меню)
@@ -55,31 +52,28 @@ public class DeaneryStateManager extends BaseStateManager<DeaneryStateManager.De
         private String description;
     }
 
-    // Специфичные для деканата данные (композиция)
-    private final EntityIdStorage teacherIds = new EntityIdStorage();
-    private final EntityIdStorage consultationIds = new EntityIdStorage();
-    private final EntityIdStorage taskIds = new EntityIdStorage();
-    private final Map<Long, String> consultationFilter = new HashMap<>();
-    private final Map<Long, String> taskStatusFilter = new HashMap<>();
-    private final Map<Long, String> taskDeadlineFilter = new HashMap<>();
-    private final Map<Long, TodoCreationData> todoCreationDataMap = new HashMap<>();
-    private final Map<Long, DeaneryState> previousState = new HashMap<>();
+    /**
+     * Данные диалога деканата
+     */
+    @Getter
+    @Setter
+    public static class DeanerySession extends ChatSession<DeaneryState> {
+        private Long teacherId;
+        private Long taskId;
+        private String consultationFilter;
+        private String taskStatusFilter;
+        private String taskDeadlineFilter;
+        private TodoCreationData todoCreationData;
+        private DeaneryState previousState;
+    }
 
-    @Override
-    protected DeaneryState getDefaultState() {
-        return DeaneryState.DEFAULT;
+    public DeaneryStateManager(ChatStateStoreFactory storeFactory) {
+        super(storeFactory.create("deanery", DeanerySession.class), DeanerySession::new);
     }
 
     @Override
-    protected void clearSpecificData(Long chatId) {
-        teacherIds.clear(chatId);
-        consultationIds.clear(chatId);
-        taskIds.clear(chatId);
-        consultationFilter.remove(chatId);
-        taskStatusFilter.remove(chatId);
-        taskDeadlineFilter.remove(chatId);
-        todoCreationDataMap.remove(chatId);
-        previousState.remove(chatId);
+    protected DeaneryState getDefaultState() {
+        return DeaneryState.DEFAULT;
     }
 
     // ========== Специфичные методы для деканата ==========
@@ -88,92 +82,96 @@ public class DeaneryStateManager extends BaseStateManager<DeaneryStateManager.De
      * Установить текущего преподавателя
      */
     public void setCurrentTeacher(Long chatId, Long teacherId) {
-        teacherIds.set(chatId, teacherId);
+        update(chatId, session -> session.setTeacherId(teacherId));
     }
 
     /**
      * Получить ID текущего преподавателя
      */
     public Long getCurrentTeacher(Long chatId) {
-        return teacherIds.get(chatId);
+        DeanerySession session = findSession(chatId);
+        return session != null ? session.getTeacherId() : null;
     }
 
     /**
      * Установить фильтр консультаций
      */
     public void setFilter(Long chatId, String filter) {
-        consultationFilter.put(chatId, filter);
+        update(chatId, session -> {
+            session.setConsultationFilter(filter);
+            session.setListCursor(null);  // Новый фильтр - список с первой страницы
+        });
     }
 
     /**
      * Получить фильтр консультаций
      */
     public String getFilter(Long chatId) {
-        return consultationFilter.getOrDefault(chatId, "future");
+        DeanerySession session = findSession(chatId);
+        return session != null && session.getConsultationFilter() != null
+                ? session.getConsultationFilter()
+                : "future";
     }
 
     /**
      * Очистить ID текущего преподавателя
      */
     public void clearCurrentTeacher(Long chatId) {
-        teacherIds.clear(chatId);
-        consultationFilter.remove(chatId);
-    }
-
-    /**
-     * Установить текущую консультацию
-     */
-    public void setCurrentConsultation(Long chatId, Long consultationId) {
-        consultationIds.set(chatId, consultationId);
-    }
-
-    /**
-     * Получить ID текущей консультации
-     */
-    public Long getCurrentConsultation(Long chatId) {
-        return consultationIds.get(chatId);
-    }
-
-    /**
-     * Очистить ID текущей консультации
-     */
-    public void clearCurrentConsultation(Long chatId) {
-        consultationIds.clear(chatId);
+        updateIfPresent(chatId, session -> {
+            session.setTeacherId(null);
+            session.setConsultationFilter(null);
+        });
     }
 
     /**
      * Установить текущую задачу
      */
     public void setCurrentTask(Long chatId, Long taskId) {
-        taskIds.set(chatId, taskId);
+        update(chatId, session -> session.setTaskId(taskId));
     }
 
     /**
      * Получить ID текущей задачи
      */
     public Long getCurrentTask(Long chatId) {
-        return taskIds.get(chatId);
+        DeanerySession session = findSession(chatId);
+        return session != null ? session.getTaskId() : null;
     }
 
     /**
      * Очистить ID текущей задачи
      */
     public void clearCurrentTask(Long chatId) {
-        taskIds.clear(chatId);
+        updateIfPresent(chatId, session -> session.setTaskId(null));
     }
 
     /**
-     * Получить данные создания задачи (автоматически создаётся если отсутствует)
+     * Получить данные создания задачи (только чтение, изменения - через setTemp*)
      */
     public TodoCreationData getTodoCreationData(Long chatId) {
-        return todoCreationDataMap.computeIfAbsent(chatId, k -> new TodoCreationData());
+        DeanerySession session = findSession(chatId);
+        return session != null && session.getTodoCreationData() != null
+                ? session.getTodoCreationData()
+                : new TodoCreationData();
+    }
+
+    /**
+     * Изменить данные создания задачи (создаются при отсутствии)
+     */
+    private void updateTodoCreationData(Long chatId, Consumer<TodoCreationData> mutation) {
+        update(chatId, session -> {
+            if (session.getTodoCreationData() == null) {
+                session.setTodoCreationData(new TodoCreationData());
+            }
+            mutation.accept(session.getTodoCreationData());
+        });
     }
 
     /**
      * Очистить данные создания задачи
      */
     public void clearTodoCreationData(Long chatId) {
-        todoCreationDataMap.remove(chatId);
+        updateIfPresent(chatId, session -> session.setTodoCreationData(null));
     }
 
     // ========== Методы для работы с временными данными задачи ==========
@@ -182,14 +180,14 @@ public class DeaneryStateManager extends BaseStateManager<DeaneryStateManager.De
      * Установить название задачи
      */
     public void setTempTitle(Long chatId, String title) {
-        getTodoCreationData(chatId).setTitle(title);
+        updateTodoCreationData(chatId, data -> data.setTitle(title));
     }
 
     /**
      * Установить описание задачи
      */
     public void setTempDescription(Long chatId, String description) {
-        getTodoCreationData(chatId).setDescription(description);
+        updateTodoCreationData(chatId, data -> data.setDescription(description));
     }
 
     /**
@@ -219,28 +217,36 @@ public class DeaneryStateManager extends BaseStateManager<DeaneryStateManager.De
      * Установить фильтр статуса задач
      */
     public void setTaskStatusFilter(Long chatId, String filter) {
-        taskStatusFilter.put(chatId, filter);
+        update(chatId, session -> {
+            session.setTaskStatusFilter(filter);
+            session.setListCursor(null);  // Новый фильтр - список с первой страницы
+        });
     }
 
     /**
      * Получить фильтр статуса задач
      */
     public String getTaskStatusFilter(Long chatId) {
-        return taskStatusFilter.getOrDefault(chatId, "all");
+        DeanerySession session = findSession(chatId);
+        return session != null && session.getTaskStatusFilter() != null ? session.getTaskStatusFilter() : "all";
     }
 
     /**
      * Установить фильтр дедлайна задач
      */
     public void setTaskDeadlineFilter(Long chatId, String filter) {
-        taskDeadlineFilter.put(chatId, filter);
+        update(chatId, session -> {
+            session.setTaskDeadlineFilter(filter);
+            session.setListCursor(null);  // Новый фильтр - список с первой страницы
+        });
     }
 
     /**
      * Получить фильтр дедлайна задач
      */
     public String getTaskDeadlineFilter(Long chatId) {
-        return taskDeadlineFilter.getOrDefault(chatId, "all");
+        DeanerySession session = findSession(chatId);
+        return session != null && session.getTaskDeadlineFilter() != null ? session.getTaskDeadlineFilter() : "all";
     }
 
     /**
@@ -248,21 +254,22 @@ public class DeaneryStateManager extends BaseStateManager<DeaneryStateManager.De
      */
     public void savePreviousState(Long chatId) {
         DeaneryState current = getState(chatId);
-        previousState.put(chatId, current);
+        update(chatId, session -> session.setPreviousState(current));
     }
 
     /**
      * Получить предыдущее состояние
      */
     public DeaneryState getPreviousState(Long chatId) {
-        return previousState.get(chatId);
+        DeanerySession session = findSession(chatId);
+        return session != null ? session.getPreviousState() : null;
     }
 
     /**
      * Очистить предыдущее состояние
      */
     public void clearPreviousState(Long chatId) {
-        previousState.remove(chatId);
+        updateIfPresent(chatId, session -> session.setPreviousState(null));
     }
 }
 
@@ -0,0 +1,302 @@
+package com.example.botforconsultations.api.bot.state;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Хранилище сессий в памяти процесса.
+ * <p>
+ * Ограничено по размеру (при переполнении вытесняется давно не использовавшаяся сессия)
+ * и по времени неактивности (сессия удаляется через ttl после последнего обращения).
+ * Ключи хранятся как примитивный long без упаковки в Long.
+ * Данные разбиты на сегменты с отдельной блокировкой, чтобы обращения из разных чатов не конкурировали.
+ */
+public class InMemoryChatStateStore<V> implements ChatStateStore<V> {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Segment<V>[] segments;
+
+    // Метрики
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public InMemoryChatStateStore(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.segments = new Segment[SEGMENT_COUNT];
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    @Override
+    public V get(long chatId) {
+        long hash = hash(chatId);
+        Segment<V> segment = segmentFor(hash);
+        long now = System.nanoTime();
+        synchronized (segment) {
+            Node<V> node = findAlive(segment, chatId, hash, now);
+            if (node == null) {
+                misses.increment();
+                return null;
+            }
+            segment.touch(node, now);
+            hits.increment();
+            return node.value;
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(long chatId, Supplier<V> factory) {
+        long hash = hash(chatId);
+        Segment<V> segment = segmentFor(hash);
+        long now = System.nanoTime();
+        synchronized (segment) {
+            Node<V> node = findAlive(segment, chatId, hash, now);
+            if (node != null) {
+                segment.touch(node, now);
+                hits.increment();
+                return node.value;
+            }
+            misses.increment();
+            V value = factory.get();
+            insert(segment, chatId, hash, value, now);
+            return value;
+        }
+    }
+
+    @Override
+    public void put(long chatId, V value) {
+        long hash = hash(chatId);
+        Segment<V> segment = segmentFor(hash);
+        long now = System.nanoTime();
+        synchronized (segment) {
+            Node<V> node = segment.find(chatId, hash);
+            if (node != null) {
+                node.value = value;
+                segment.touch(node, now);
+                return;
+            }
+            insert(segment, chatId, hash, value, now);
+        }
+    }
+
+    @Override
+    public void remove(long chatId) {
+        long hash = hash(chatId);
+        Segment<V> segment = segmentFor(hash);
+        synchronized (segment) {
+            Node<V> node = segment.find(chatId, hash);
+            if (node != null) {
+                segment.unlink(node);
+            }
+        }
+    }
+
+    @Override
+    public int evictExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                // Список упорядочен по времени последнего обращения - истёкшие сессии в начале
+                while (segment.head != null && isExpired(segment.head, now)) {
+                    segment.unlink(segment.head);
+                    removed++;
+                }
+            }
+        }
+        expirations.add(removed);
+        return removed;
+    }
+
+    @Override
+    public Stats getStats() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return new Stats(name, size, maxSize, hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private Node<V> findAlive(Segment<V> segment, long chatId, long hash, long now) {
+        Node<V> node = segment.find(chatId, hash);
+        if (node != null && isExpired(node, now)) {
+            segment.unlink(node);
+            expirations.increment();
+            return null;
+        }
+        return node;
+    }
+
+    private void insert(Segment<V> segment, long chatId, long hash, V value, long now) {
+        segment.insert(new Node<>(chatId, hash, value, now));
+        // Вытесняем давно не использовавшиеся сессии сегмента
+        while (segment.size > segment.capacity) {
+            segment.unlink(segment.head);
+            evictions.increment();
+        }
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return now - node.accessedAt > ttlNanos;
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int) (hash >>> 60) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static long hash(long key) {
+        // Перемешивание битов (финализатор MurmurHash3): chat ID распределяются равномерно по сегментам и корзинам
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Сегмент: хеш-таблица с цепочками и двусвязный список в порядке обращений (от старых к новым)
+     */
+    private static final class Segment<V> {
+        private final int capacity;
+        private Node<V>[] table;
+        private int size;
+        private Node<V> head;
+        private Node<V> tail;
+
+        @SuppressWarnings("unchecked")
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.table = new Node[INITIAL_TABLE_SIZE];
+        }
+
+        private Node<V> find(long key, long hash) {
+            for (Node<V> node = table[index(hash, table.length)]; node != null; node = node.next) {
+                if (node.key == key) {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        private void insert(Node<V> node) {
+            if (size >= table.length - (table.length >>> 2)) {
+                resize();
+            }
+            int index = index(node.hash, table.length);
+            node.next = table[index];
+            table[index] = node;
+            linkLast(node);
+            size++;
+        }
+
+        private void unlink(Node<V> node) {
+            int index = index(node.hash, table.length);
+            Node<V> prev = null;
+            for (Node<V> current = table[index]; current != null; prev = current, current = current.next) {
+                if (current == node) {
+                    if (prev == null) {
+                        table[index] = current.next;
+                    } else {
+                        prev.next = current.next;
+                    }
+                    break;
+                }
+            }
+            node.next = null;
+
+            if (node.before == null) {
+                head = node.after;
+            } else {
+                node.before.after = node.after;
+            }
+            if (node.after == null) {
+                tail = node.before;
+            } else {
+                node.after.before = node.before;
+            }
+            node.before = null;
+            node.after = null;
+            size--;
+        }
+
+        private void touch(Node<V> node, long now) {
+            node.accessedAt = now;
+            if (node == tail) {
+                return;
+            }
+            // Переносим в конец списка (самая свежая)
+            if (node.before == null) {
+                head = node.after;
+            } else {
+                node.before.after = node.after;
+            }
+            node.after.before = node.before;
+            node.before = null;
+            node.after = null;
+            linkLast(node);
+        }
+
+        private void linkLast(Node<V> node) {
+            node.before = tail;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.after = node;
+            }
+            tail = node;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize() {
+            Node<V>[] newTable = new Node[table.length << 1];
+            for (Node<V> bucket : table) {
+                Node<V> node = bucket;
+                while (node != null) {
+                    Node<V> next = node.next;
+                    int index = index(node.hash, newTable.length);
+                    node.next = newTable[index];
+                    newTable[index] = node;
+                    node = next;
+                }
+            }
+            table = newTable;
+        }
+
+        private static int index(long hash, int length) {
+            return (int) hash & (length - 1);
+        }
+    }
+
+    private static final class Node<V> {
+        private final long key;
+        private final long hash;
+        private V value;
+        private long accessedAt;
+        private Node<V> next;
+        private Node<V> before;
+        private Node<V> after;
+
+        private Node(long key, long hash, V value, long accessedAt) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.accessedAt = accessedAt;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.botforconsultations.api.bot.state;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Фабрика хранилищ сессий в памяти процесса (bot.state.backend=memory, по умолчанию).
+ * Подходит для одного экземпляра бота и для тестов; сессии теряются при перезапуске.
+ */
+@Component
+@ConditionalOnProperty(name = "bot.state.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryChatStateStoreFactory implements ChatStateStoreFactory {
+
+    private final int maxChats;
+    private final Duration ttl;
+
+    public InMemoryChatStateStoreFactory(@Value("${bot.state.max-chats:10000}") int maxChats,
+                                         @Value("${bot.state.ttl:24h}") Duration ttl) {
+        this.maxChats = maxChats;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public <V> ChatStateStore<V> create(String name, Class<V> sessionType) {
+        return new InMemoryChatStateStore<>(name, maxChats, ttl);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.botforconsultations.api.bot.state;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.example.botforconsultations.core.util.TimeUtils.now;
+
+/**
+ * Хранилище сессий в PostgreSQL (таблица chat_session, данные в JSONB).
+ * <p>
+ * Сессии переживают перезапуск и доступны всем экземплярам бота.
+ * Запись отложенная (write-behind): изменения накапливаются в памяти и сбрасываются пачкой
+ * методом flush(); до сброса чтение возвращает несохранённую версию (read-your-writes в пределах узла).
+ * Если обновления одного чата приходят на разные узлы чаще интервала сброса, второй узел может
+ * прочитать предыдущую версию - при интервале в сотни миллисекунд для диалога это не заметно.
+ */
+@Slf4j
+public class JdbcChatStateStore<V> implements ChatStateStore<V> {
+
+    private static final String SELECT_SQL =
+            "SELECT data FROM chat_session WHERE store_name = ? AND chat_id = ? AND updated_at > ?";
+    private static final String UPSERT_SQL =
+            "INSERT INTO chat_session (store_name, chat_id, data, updated_at) VALUES (?, ?, CAST(? AS jsonb), ?) " +
+                    "ON CONFLICT (store_name, chat_id) DO UPDATE SET data = EXCLUDED.data, updated_at = EXCLUDED.updated_at";
+    private static final String DELETE_SQL =
+            "DELETE FROM chat_session WHERE store_name = ? AND chat_id = ?";
+    private static final String EXPIRE_SQL =
+            "DELETE FROM chat_session WHERE store_name = ? AND updated_at < ?";
+    private static final String COUNT_SQL =
+            "SELECT count(*) FROM chat_session WHERE store_name = ?";
+
+    private final String name;
+    private final Class<V> sessionType;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int batchSize;
+
+    // Изменения, ещё не записанные в БД (value = null - удаление)
+    private final Map<Long, PendingWrite<V>> pending = new ConcurrentHashMap<>();
+
+    // Метрики
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public JdbcChatStateStore(String name, Class<V> sessionType, JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper, Duration ttl, int batchSize) {
+        this.name = name;
+        this.sessionType = sessionType;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public V get(long chatId) {
+        PendingWrite<V> write = pending.get(chatId);
+        if (write != null) {
+            if (write.value() == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return write.value();
+        }
+
+        List<String> rows = jdbcTemplate.queryForList(SELECT_SQL, String.class,
+                name, chatId, Timestamp.valueOf(now().minus(ttl)));
+        V value = rows.isEmpty() ? null : deserialize(chatId, rows.get(0));
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return value;
+    }
+
+    @Override
+    public V computeIfAbsent(long chatId, Supplier<V> factory) {
+        // Обновления одного чата обрабатываются последовательно, поэтому проверка и вставка не конкурируют
+        V value = get(chatId);
+        if (value == null) {
+            value = factory.get();
+            put(chatId, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(long chatId, V value) {
+        // Сериализуем сразу, в потоке чата: сброс не читает объект, который может меняться
+        pending.put(chatId, new PendingWrite<>(value, serialize(value)));
+    }
+
+    @Override
+    public void remove(long chatId) {
+        pending.put(chatId, new PendingWrite<>(null, null));
+    }
+
+    /**
+     * Записать накопленные изменения в БД пачками.
+     * При ошибке изменения остаются в памяти до следующего сброса.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, PendingWrite<V>>> batch = new ArrayList<>(pending.entrySet());
+        List<Map.Entry<Long, PendingWrite<V>>> upserts = new ArrayList<>();
+        List<Map.Entry<Long, PendingWrite<V>>> deletes = new ArrayList<>();
+        for (Map.Entry<Long, PendingWrite<V>> entry : batch) {
+            (entry.getValue().value() != null ? upserts : deletes).add(entry);
+        }
+
+        Timestamp updatedAt = Timestamp.valueOf(now());
+        try {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts, batchSize, (ps, entry) -> {
+                    ps.setString(1, name);
+                    ps.setLong(2, entry.getKey());
+                    ps.setString(3, entry.getValue().json());
+                    ps.setTimestamp(4, updatedAt);
+                });
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes, batchSize, (ps, entry) -> {
+                    ps.setString(1, name);
+                    ps.setLong(2, entry.getKey());
+                });
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} '{}' sessions, will retry: {}", batch.size(), name, e.getMessage());
+            return;
+        }
+
+        // Удаляем только те записи, которые не изменились во время сброса
+        for (Map.Entry<Long, PendingWrite<V>> entry : batch) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+        log.debug("Flushed {} '{}' sessions", batch.size(), name);
+    }
+
+    @Override
+    public int evictExpired() {
+        int removed = jdbcTemplate.update(EXPIRE_SQL, name, Timestamp.valueOf(now().minus(ttl)));
+        expirations.add(removed);
+        return removed;
+    }
+
+    @Override
+    public Stats getStats() {
+        Integer size = jdbcTemplate.queryForObject(COUNT_SQL, Integer.class, name);
+        return new Stats(name, size != null ? size : 0, 0, hits.sum(), misses.sum(), 0, expirations.sum());
+    }
+
+    private String serialize(V value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + name + " session", e);
+        }
+    }
+
+    private V deserialize(long chatId, String json) {
+        try {
+            return objectMapper.readValue(json, sessionType);
+        } catch (JsonProcessingException e) {
+            // Несовместимая версия сессии - диалог начинается заново
+            log.warn("Cannot read '{}' session of chat {}, resetting: {}", name, chatId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Несохранённое изменение сессии
+     */
+    private record PendingWrite<V>(V value, String json) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.botforconsultations.api.bot.state;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Фабрика хранилищ сессий в PostgreSQL (bot.state.backend=jdbc).
+ * Периодически сбрасывает накопленные изменения всех хранилищ.
+ */
+@Component
+@ConditionalOnProperty(name = "bot.state.backend", havingValue = "jdbc")
+public class JdbcChatStateStoreFactory implements ChatStateStoreFactory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int batchSize;
+    private final List<JdbcChatStateStore<?>> stores = new CopyOnWriteArrayList<>();
+
+    public JdbcChatStateStoreFactory(JdbcTemplate jdbcTemplate,
+                                     ObjectMapper objectMapper,
+                                     @Value("${bot.state.ttl:24h}") Duration ttl,
+                                     @Value("${bot.state.flush-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public <V> ChatStateStore<V> create(String name, Class<V> sessionType) {
+        JdbcChatStateStore<V> store = new JdbcChatStateStore<>(name, sessionType, jdbcTemplate, objectMapper, ttl, batchSize);
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Сбросить изменения сессий в БД (по умолчанию каждые 200 мс)
+     */
+    @Scheduled(fixedDelayString = "${bot.state.flush-interval:200}")
+    public void flush() {
+        for (JdbcChatStateStore<?> store : stores) {
+            store.flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Не теряем изменения, накопленные к остановке
+        flush();
+    }
+}
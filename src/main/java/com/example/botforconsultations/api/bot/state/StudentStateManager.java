@@ -1,16 +1,15 @@
 package com.example.botforconsultations.api.bot.state;
 
+import lombok.Getter;
+import lombok.Setter;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Менеджер состояний студента.
  * Наследуется от BaseStateManager с общей логикой.
  */
 @Component
-public class StudentStateManager extends BaseStateManager<StudentStateManager.UserState> {
+public class StudentStateManager extends BaseStateManager<StudentStateManager.UserState, StudentStateManager.StudentSession> {
 
     public enum UserState {
         WAITING_FOR_TEACHER_NAME,
@@ -25,21 +24,24 @@ public class StudentStateManager extends BaseStateManager<StudentStateManager.Us
         DEFAULT
     }
 
-    // Специфичные для студента данные (композиция)
-    private final EntityIdStorage teacherIds = new EntityIdStorage();
-    private final EntityIdStorage requestIds = new EntityIdStorage();
-    private final Map<Long, String> consultationFilter = new HashMap<>();
+    /**
+     * Данные диалога студента
+     */
+    @Getter
+    @Setter
+    public static class StudentSession extends ChatSession<UserState> {
+        private Long teacherId;
+        private Long requestId;
+        private String consultationFilter;
+    }
 
-    @Override
-    protected UserState getDefaultState() {
-        return UserState.DEFAULT;
+    public StudentStateManager(ChatStateStoreFactory storeFactory) {
+        super(storeFactory.create("student", StudentSession.class), StudentSession::new);
     }
 
     @Override
-    protected void clearSpecificData(Long chatId) {
-        teacherIds.clear(chatId);
-        requestIds.clear(chatId);
-        consultationFilter.remove(chatId);
+    protected UserState getDefaultState() {
+        return UserState.DEFAULT;
     }
 
     // ========== Специфичные методы для студента ==========
@@ -48,56 +50,66 @@ public class StudentStateManager extends BaseStateManager<StudentStateManager.Us
      * Установить текущего преподавателя
      */
     public void setCurrentTeacher(Long chatId, Long teacherId) {
-        teacherIds.set(chatId, teacherId);
+        update(chatId, session -> session.setTeacherId(teacherId));
     }
 
     /**
      * Получить текущего преподавателя
      */
     public Long getCurrentTeacher(Long chatId) {
-        return teacherIds.get(chatId);
+        StudentSession session = findSession(chatId);
+        return session != null ? session.getTeacherId() : null;
     }
 
     /**
      * Установить текущий запрос консультации
      */
     public void setCurrentRequest(Long chatId, Long requestId) {
-        requestIds.set(chatId, requestId);
+        update(chatId, session -> session.setRequestId(requestId));
     }
 
     /**
      * Получить текущий запрос консультации
      */
     public Long getCurrentRequest(Long chatId) {
-        return requestIds.get(chatId);
+        StudentSession session = findSession(chatId);
+        return session != null ? session.getRequestId() : null;
     }
 
     /**
      * Установить фильтр консультаций
      */
     public void setFilter(Long chatId, String filter) {
-        consultationFilter.put(chatId, filter);
+        update(chatId, session -> {
+            session.setConsultationFilter(filter);
+            session.setListCursor(null);  // Новый фильтр - список с первой страницы
+        });
     }
 
     /**
      * Получить фильтр консультаций
      */
     public String getFilter(Long chatId) {
-        return consultationFilter.getOrDefault(chatId, "future");
+        StudentSession session = findSession(chatId);
+        return session != null && session.getConsultationFilter() != null
+                ? session.getConsultationFilter()
+                : "future";
     }
 
     /**
      * Очистить ID текущего преподавателя
      */
     public void clearCurrentTeacher(Long chatId) {
-        teacherIds.clear(chatId);
-        consultationFilter.remove(chatId);  // Фильтр привязан к преподавателю
+        updateIfPresent(chatId, session -> {
+            session.setTeacherId(null);
+            session.setConsultationFilter(null);  // Фильтр привязан к преподавателю
+        });
     }
 
     /**
      * Очистить ID текущего запроса
      */
     public void clearCurrentRequest(Long chatId) {
-        requestIds.clear(chatId);
+        updateIfPresent(chatId, session -> session.setRequestId(null));
     }
 }
@@ -5,8 +5,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Менеджер состояний для преподавателя.
@@ -14,7 +13,7 @@ import java.util.Map;
  */
 @Slf4j
 @Component
-public class TeacherStateManager extends BaseStateManager<TeacherStateManager.TeacherState> {
+public class TeacherStateManager extends BaseStateManager<TeacherStateManager.TeacherState, TeacherStateManager.TeacherSession> {
 
     /**
      * Возможные состояния преподавателя
@@ -60,25 +59,26 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
         private Integer capacity;
     }
 
-    // Специфичные для преподавателя данные (композиция)
-    private final EntityIdStorage requestIds = new EntityIdStorage();
-    private final EntityIdStorage taskIds = new EntityIdStorage();
-    private final Map<Long, ConsultationCreationData> creationDataMap = new HashMap<>();
-    private final Map<Long, String> taskStatusFilters = new HashMap<>();
-    private final Map<Long, String> taskDeadlineFilters = new HashMap<>();
+    /**
+     * Данные диалога преподавателя
+     */
+    @Getter
+    @Setter
+    public static class TeacherSession extends ChatSession<TeacherState> {
+        private Long requestId;
+        private Long taskId;
+        private ConsultationCreationData creationData;
+        private String taskStatusFilter;
+        private String taskDeadlineFilter;
+    }
 
-    @Override
-    protected TeacherState getDefaultState() {
-        return TeacherState.DEFAULT;
+    public TeacherStateManager(ChatStateStoreFactory storeFactory) {
+        super(storeFactory.create("teacher", TeacherSession.class), TeacherSession::new);
     }
 
     @Override
-    protected void clearSpecificData(Long chatId) {
-        requestIds.clear(chatId);
-        taskIds.clear(chatId);
-        creationDataMap.remove(chatId);
-        taskStatusFilters.remove(chatId);
-        taskDeadlineFilters.remove(chatId);
+    protected TeacherState getDefaultState() {
+        return TeacherState.DEFAULT;
     }
 
     // ========== Специфичные методы для преподавателя ==========
@@ -94,21 +94,22 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Установить текущий запрос
      */
     public void setCurrentRequest(Long chatId, Long requestId) {
-        requestIds.set(chatId, requestId);
+        update(chatId, session -> session.setRequestId(requestId));
     }
 
     /**
      * Получить ID текущего запроса
      */
     public Long getCurrentRequest(Long chatId) {
-        return requestIds.get(chatId);
+        TeacherSession session = findSession(chatId);
+        return session != null ? session.getRequestId() : null;
     }
 
     /**
      * Очистить текущий запрос
      */
     public void clearCurrentRequest(Long chatId) {
-        requestIds.clear(chatId);
+        updateIfPresent(chatId, session -> session.setRequestId(null));
         log.debug("Teacher {} current request cleared", chatId);
     }
 
@@ -116,38 +117,54 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Установить текущую задачу
      */
     public void setCurrentTask(Long chatId, Long taskId) {
-        taskIds.set(chatId, taskId);
+        update(chatId, session -> session.setTaskId(taskId));
     }
 
     /**
      * Получить ID текущей задачи
      */
     public Long getCurrentTask(Long chatId) {
-        return taskIds.get(chatId);
+        TeacherSession session = findSession(chatId);
+        return session != null ? session.getTaskId() : null;
     }
 
     /**
      * Очистить текущую задачу
      */
     public void clearCurrentTask(Long chatId) {
-        taskIds.clear(chatId);
+        updateIfPresent(chatId, session -> session.setTaskId(null));
         log.debug("Teacher {} current task cleared", chatId);
     }
 
     // ========== Временные данные для создания консультации ==========
 
     /**
-     * Получить данные создания консультации (автоматически создаётся если отсутствует)
+     * Получить данные создания консультации (только чтение, изменения - через setTemp*)
      */
     public ConsultationCreationData getCreationData(Long chatId) {
-        return creationDataMap.computeIfAbsent(chatId, k -> new ConsultationCreationData());
+        TeacherSession session = findSession(chatId);
+        return session != null && session.getCreationData() != null
+                ? session.getCreationData()
+                : new ConsultationCreationData();
+    }
+
+    /**
+     * Изменить данные создания консультации (создаются при отсутствии)
+     */
+    private void updateCreationData(Long chatId, Consumer<ConsultationCreationData> mutation) {
+        update(chatId, session -> {
+            if (session.getCreationData() == null) {
+                session.setCreationData(new ConsultationCreationData());
+            }
+            mutation.accept(session.getCreationData());
+        });
     }
 
     /**
      * Очистить временные данные консультации (после создания)
      */
     public void clearTempConsultationData(Long chatId) {
-        creationDataMap.remove(chatId);
+        updateIfPresent(chatId, session -> session.setCreationData(null));
         log.debug("Teacher {} temp consultation data cleared", chatId);
     }
 
@@ -157,7 +174,7 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Сохранить название консультации
      */
     public void setTempTitle(Long chatId, String title) {
-        getCreationData(chatId).setTitle(title);
+        updateCreationData(chatId, data -> data.setTitle(title));
     }
 
     /**
@@ -171,7 +188,7 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Сохранить дату консультации
      */
     public void setTempDate(Long chatId, String date) {
-        getCreationData(chatId).setDate(date);
+        updateCreationData(chatId, data -> data.setDate(date));
     }
 
     /**
@@ -185,7 +202,7 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Сохранить время начала
      */
     public void setTempStartTime(Long chatId, String startTime) {
-        getCreationData(chatId).setStartTime(startTime);
+        updateCreationData(chatId, data -> data.setStartTime(startTime));
     }
 
     /**
@@ -199,7 +216,7 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Сохранить время окончания
      */
     public void setTempEndTime(Long chatId, String endTime) {
-        getCreationData(chatId).setEndTime(endTime);
+        updateCreationData(chatId, data -> data.setEndTime(endTime));
     }
 
     /**
@@ -213,7 +230,7 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Сохранить вместимость
      */
     public void setTempCapacity(Long chatId, Integer capacity) {
-        getCreationData(chatId).setCapacity(capacity);
+        updateCreationData(chatId, data -> data.setCapacity(capacity));
     }
 
     /**
@@ -229,36 +246,46 @@ public class TeacherStateManager extends BaseStateManager<TeacherStateManager.Te
      * Установить фильтр статуса задач
      */
     public void setTaskStatusFilter(Long chatId, String filter) {
-        taskStatusFilters.put(chatId, filter);
+        update(chatId, session -> {
+            session.setTaskStatusFilter(filter);
+            session.setListCursor(null);  // Новый фильтр - список с первой страницы
+        });
     }
 
     /**
      * Получить фильтр статуса задач
      */
     public String getTaskStatusFilter(Long chatId) {
-        return taskStatusFilters.getOrDefault(chatId, "all");
+        TeacherSession session = findSession(chatId);
+        return session != null && session.getTaskStatusFilter() != null ? session.getTaskStatusFilter() : "all";
     }
 
     /**
      * Установить фильтр дедлайна задач
      */
     public void setTaskDeadlineFilter(Long chatId, String filter) {
-        taskDeadlineFilters.put(chatId, filter);
+        update(chatId, session -> {
+            session.setTaskDeadlineFilter(filter);
+            session.setListCursor(null);  // Новый фильтр - список с первой страницы
+        });
     }
 
     /**
      * Получить фильтр дедлайна задач
      */
     public String getTaskDeadlineFilter(Long chatId) {
-        return taskDeadlineFilters.getOrDefault(chatId, "all");
+        TeacherSession session = findSession(chatId);
+        return session != null && session.getTaskDeadlineFilter() != null ? session.getTaskDeadlineFilter() : "all";
     }
 
     /**
      * Сбросить все фильтры задач
      */
     public void clearTaskFilters(Long chatId) {
-        taskStatusFilters.remove(chatId);
-        taskDeadlineFilters.remove(chatId);
+        updateIfPresent(chatId, session -> {
+            session.setTaskStatusFilter(null);
+            session.setTaskDeadlineFilter(null);
+        });
     }
 }
 
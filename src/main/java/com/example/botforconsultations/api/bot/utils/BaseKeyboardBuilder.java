@@ -1,6 +1,15 @@
 package com.example.botforconsultations.api.bot.utils;
 
+import com.example.botforconsultations.api.bot.paging.KeysetPage;
+import com.example.botforconsultations.api.bot.paging.ListCallback;
+import com.example.botforconsultations.core.model.Consultation;
+import com.example.botforconsultations.core.model.TeacherSummary;
+import com.example.botforconsultations.core.model.TodoTask;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardRow;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardButton;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
 
@@ -9,6 +18,10 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Базовый класс для построения клавиатур.
@@ -20,8 +33,10 @@ public abstract class BaseKeyboardBuilder {
     protected static final DateTimeFormatter BUTTON_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM");
     protected static final DateTimeFormatter BUTTON_TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+    // Клавиатуры меню, не зависящие от данных: строятся и сериализуются один раз на вариант
+    private final Map<String, StaticKeyboard> staticMenus = new ConcurrentHashMap<>();
+
     // Максимальное количество элементов в списке
-    protected static final int MAX_LIST_ITEMS = 5;
     protected static final int MAX_REQUESTS_ITEMS = 10;
 
     /**
@@ -33,6 +48,103 @@ public abstract class BaseKeyboardBuilder {
                 KeyboardConstants.FILTER_FUTURE);
     }
 
+    // ========== Постраничные inline-списки ==========
+
+    /**
+     * Inline-клавиатура страницы преподавателей
+     *
+     * @param list код списка для callback_data (см. ListCallback)
+     */
+    public InlineKeyboardMarkup buildTeachersPage(String list, KeysetPage<TeacherSummary> page) {
+        return buildInlinePage(list, page, TeacherNameFormatter::formatFullName, TeacherSummary::id);
+    }
+
+    /**
+     * Inline-клавиатура страницы консультаций или запросов
+     *
+     * @param list код списка для callback_data (см. ListCallback)
+     */
+    public InlineKeyboardMarkup buildConsultationsPage(String list, KeysetPage<Consultation> page) {
+        return buildInlinePage(list, page, this::consultationButtonText, Consultation::getId);
+    }
+
+    /**
+     * Inline-клавиатура страницы задач
+     *
+     * @param list код списка для callback_data (см. ListCallback)
+     */
+    public InlineKeyboardMarkup buildTasksPage(String list, KeysetPage<TodoTask> page) {
+        return buildInlinePage(list, page, this::taskButtonText, TodoTask::getId);
+    }
+
+    /**
+     * Inline-клавиатура страницы списка: по кнопке на элемент и строка перехода между страницами.
+     * Кнопки перехода меняют это же сообщение, новое сообщение не отправляется.
+     */
+    protected <T> InlineKeyboardMarkup buildInlinePage(String list, KeysetPage<T> page,
+                                                       Function<T, String> text, Function<T, Long> id) {
+        List<InlineKeyboardRow> keyboard = new ArrayList<>();
+        for (T item : page.items()) {
+            InlineKeyboardRow row = new InlineKeyboardRow();
+            row.add(inlineButton(text.apply(item), ListCallback.pick(list, id.apply(item))));
+            keyboard.add(row);
+        }
+
+        InlineKeyboardRow navigation = new InlineKeyboardRow();
+        if (page.hasPrevious()) {
+            navigation.add(inlineButton(KeyboardConstants.PREV_PAGE, ListCallback.page(list, page.previous())));
+        }
+        if (page.hasNext()) {
+            navigation.add(inlineButton(KeyboardConstants.NEXT_PAGE, ListCallback.page(list, page.next())));
+        }
+        if (!navigation.isEmpty()) {
+            keyboard.add(navigation);
+        }
+
+        return InlineKeyboardMarkup.builder()
+                .keyboard(keyboard)
+                .build();
+    }
+
+    protected InlineKeyboardButton inlineButton(String text, String callbackData) {
+        return InlineKeyboardButton.builder()
+                .text(text)
+                .callbackData(callbackData)
+                .build();
+    }
+
+    /**
+     * Текст кнопки консультации: "№123 - 15.10 14:00", для запроса без даты - "№123 - Тема"
+     */
+    protected String consultationButtonText(Consultation consultation) {
+        if (consultation.getDate() != null) {
+            return String.format("%s%d - %s %s",
+                    KeyboardConstants.NUMBER_PREFIX,
+                    consultation.getId(),
+                    formatDate(consultation.getDate()),
+                    formatTime(consultation.getStartTime()));
+        }
+        return String.format("%s%d - %s",
+                KeyboardConstants.NUMBER_PREFIX,
+                consultation.getId(),
+                consultation.getTitle());
+    }
+
+    /**
+     * Текст кнопки задачи: "№123 - ⏳ Название" (длинное название обрезается)
+     */
+    protected String taskButtonText(TodoTask task) {
+        String statusIcon = task.getIsCompleted() ? "✅" : "⏳";
+        String title = task.getTitle().length() > 25
+                ? task.getTitle().substring(0, 25) + "..."
+                : task.getTitle();
+        return String.format("%s%d - %s %s",
+                KeyboardConstants.NUMBER_PREFIX,
+                task.getId(),
+                statusIcon,
+                title);
+    }
+
     /**
      * Создать строку с одной кнопкой
      */
@@ -63,6 +175,21 @@ public abstract class BaseKeyboardBuilder {
         return row;
     }
 
+    /**
+     * Клавиатура меню из кэша: при первом обращении строки заполняет rows, дальше отдаётся готовый экземпляр.
+     * Постраничные списки и клавиатуры с кнопками из данных (ID, имена) сюда не попадают - число их
+     * вариантов не ограничено.
+     *
+     * @param key вариант меню: имя и всё, от чего зависит набор кнопок
+     */
+    protected ReplyKeyboard staticMenu(String key, Consumer<List<KeyboardRow>> rows) {
+        return staticMenus.computeIfAbsent(key, k -> {
+            List<KeyboardRow> keyboard = new ArrayList<>();
+            rows.accept(keyboard);
+            return StaticKeyboard.of(buildKeyboard(keyboard));
+        });
+    }
+
     /**
      * Построить финальную клавиатуру из списка строк
      */
@@ -76,7 +203,7 @@ public abstract class BaseKeyboardBuilder {
     /**
      * Клавиатура для редактирования профиля (общая для всех ролей)
      */
-    public ReplyKeyboardMarkup buildProfileKeyboard() {
+    public ReplyKeyboard buildProfileKeyboard() {
         return buildProfileKeyboard(false, false, false);
     }
 
@@ -85,7 +212,7 @@ public abstract class BaseKeyboardBuilder {
      *
      * @param showReminderButton показывать ли кнопку настройки напоминаний (только для зарегистрированных)
      */
-    public ReplyKeyboardMarkup buildProfileKeyboard(boolean showReminderButton) {
+    public ReplyKeyboard buildProfileKeyboard(boolean showReminderButton) {
         return buildProfileKeyboard(showReminderButton, false, false);
     }
 
@@ -96,39 +223,37 @@ public abstract class BaseKeyboardBuilder {
      * @param showConnectCalendar    показывать ли кнопку подключения Google Calendar
      * @param showDisconnectCalendar показывать ли кнопку отключения Google Calendar
      */
-    public ReplyKeyboardMarkup buildProfileKeyboard(boolean showReminderButton,
+    public ReplyKeyboard buildProfileKeyboard(boolean showReminderButton,
                                                     boolean showConnectCalendar,
                                                     boolean showDisconnectCalendar) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createTwoButtonRow(KeyboardConstants.EDIT_FIRST_NAME, KeyboardConstants.EDIT_LAST_NAME));
-
-        if (showReminderButton) {
-            keyboard.add(createSingleButtonRow(KeyboardConstants.EDIT_REMINDER_TIME));
-        }
+        return staticMenu("profile." + showReminderButton + "." + showConnectCalendar + "." + showDisconnectCalendar, keyboard -> {
+            keyboard.add(createTwoButtonRow(KeyboardConstants.EDIT_FIRST_NAME, KeyboardConstants.EDIT_LAST_NAME));
 
-        if (showConnectCalendar) {
-            keyboard.add(createSingleButtonRow(KeyboardConstants.CONNECT_GOOGLE_CALENDAR));
-        }
+            if (showReminderButton) {
+                keyboard.add(createSingleButtonRow(KeyboardConstants.EDIT_REMINDER_TIME));
+            }
 
-        if (showDisconnectCalendar) {
-            keyboard.add(createSingleButtonRow(KeyboardConstants.DISCONNECT_GOOGLE_CALENDAR));
-        }
+            if (showConnectCalendar) {
+                keyboard.add(createSingleButtonRow(KeyboardConstants.CONNECT_GOOGLE_CALENDAR));
+            }
 
-        // Удаление аккаунта доступно для всех ролей
-        keyboard.add(createSingleButtonRow(KeyboardConstants.DELETE_ACCOUNT));
-        keyboard.add(createSingleButtonRow(KeyboardConstants.BACK));
+            if (showDisconnectCalendar) {
+                keyboard.add(createSingleButtonRow(KeyboardConstants.DISCONNECT_GOOGLE_CALENDAR));
+            }
 
-        return buildKeyboard(keyboard);
+            // Удаление аккаунта доступно для всех ролей
+            keyboard.add(createSingleButtonRow(KeyboardConstants.DELETE_ACCOUNT));
+            keyboard.add(createSingleButtonRow(KeyboardConstants.BACK));
+        });
     }
 
     /**
      * Клавиатура подтверждения удаления (Да/Отмена)
      */
-    public ReplyKeyboardMarkup buildConfirmDeleteKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createTwoButtonRow(KeyboardConstants.CONFIRM_DELETE, KeyboardConstants.CANCEL));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildConfirmDeleteKeyboard() {
+        return staticMenu("confirmDelete", keyboard -> {
+            keyboard.add(createTwoButtonRow(KeyboardConstants.CONFIRM_DELETE, KeyboardConstants.CANCEL));
+        });
     }
 
     protected String formatDate(LocalDate date) {
@@ -0,0 +1,109 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import com.example.botforconsultations.api.bot.state.ChatStateStore;
+import com.example.botforconsultations.api.bot.state.InMemoryChatStateStore;
+import com.example.botforconsultations.core.model.Consultation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Кэш готовых карточек консультаций по (ID консультации, версия, вид карточки).
+ * <p>
+ * Одну и ту же консультацию смотрят многие студенты, а уведомление о ней уходит всем подписчикам -
+ * карточка строится один раз на версию. Версию увеличивает триггер БД при любом изменении консультации
+ * (в том числе счётчика записанных) и имени преподавателя, поэтому явная инвалидация не нужна:
+ * карточка старой версии просто не совпадёт с текущей и будет вытеснена как давно не использовавшаяся.
+ * Консультация должна быть загружена из БД и не изменена после загрузки, иначе её версия не соответствует полям.
+ */
+@Slf4j
+@Component
+public class ConsultationCardCache {
+
+    /**
+     * Вид карточки (от него зависит текст при одинаковой консультации)
+     */
+    public enum View {
+        // Карточка для студента и деканата
+        DETAILS,
+        // Карточка для преподавателя
+        TEACHER_DETAILS,
+        // Уведомление о новой консультации
+        NEW_CONSULTATION
+    }
+
+    private static final View[] VIEWS = View.values();
+
+    private final ChatStateStore<Cards> cache;
+
+    public ConsultationCardCache(@Value("${bot.card-cache.max-size:5000}") int maxSize,
+                                 @Value("${bot.card-cache.ttl:1h}") Duration ttl) {
+        this.cache = new InMemoryChatStateStore<>("consultation-cards", maxSize, ttl);
+    }
+
+    /**
+     * Карточка консультации из кэша; при промахе строится через render и запоминается
+     */
+    public String get(Consultation consultation, View view, Supplier<String> render) {
+        if (consultation.getId() == null) {
+            return render.get();
+        }
+        long id = consultation.getId();
+        long version = consultation.getVersion();
+
+        Cards cards = cache.get(id);
+        if (cards != null && cards.version() == version && cards.texts()[view.ordinal()] != null) {
+            return cards.texts()[view.ordinal()];
+        }
+
+        String text = render.get();
+        if (cards == null || cards.version() < version) {
+            cache.put(id, Cards.of(version, view, text));
+        } else if (cards.version() == version) {
+            cache.put(id, cards.with(view, text));
+        }
+        // Версия в кэше новее - консультация была загружена раньше изменения, карточку не запоминаем
+        return text;
+    }
+
+    /**
+     * Метрики кэша
+     */
+    public ChatStateStore.Stats getStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Каждую минуту удаляет устаревшие записи и выводит метрики
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        cache.evictExpired();
+        ChatStateStore.Stats stats = cache.getStats();
+        if (stats.hits() + stats.misses() > 0) {
+            log.info("Consultation card cache: {}, hit ratio {}", stats, String.format("%.2f", stats.hitRatio()));
+        }
+    }
+
+    /**
+     * Карточки одной версии консультации по видам (массив не меняется после публикации в кэше)
+     */
+    private record Cards(long version, String[] texts) {
+
+        static Cards of(long version, View view, String text) {
+            String[] texts = new String[VIEWS.length];
+            texts[view.ordinal()] = text;
+            return new Cards(version, texts);
+        }
+
+        Cards with(View view, String text) {
+            String[] copy = texts.clone();
+            copy[view.ordinal()] = text;
+            return new Cards(version, copy);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.Subscription;
 import com.example.botforconsultations.core.model.TelegramUser;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -15,20 +16,23 @@ import java.util.Locale;
  * Утилита для форматирования сообщений о консультациях
  */
 @Component
+@RequiredArgsConstructor
 public class ConsultationMessageFormatter {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy", new Locale("ru"));
     private static final DateTimeFormatter SHORT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+    private final ConsultationCardCache cardCache;
+
     /**
-     * Формирует сообщение со списком консультаций преподавателя
+     * Формирует сообщение со списком консультаций преподавателя (одна страница списка)
      */
     public String formatConsultationsList(TelegramUser teacher, List<Consultation> consultations, String filter) {
         StringBuilder message = new StringBuilder();
-        message.append(String.format("Консультации преподавателя %s %s:\n\n",
+        MessageTemplate.append(message, "Консультации преподавателя %s %s:\n\n",
                 teacher.getFirstName(),
-                teacher.getLastName() != null ? teacher.getLastName() : ""));
+                teacher.getLastName() != null ? teacher.getLastName() : "");
 
         message.append(getFilterText(filter)).append("\n\n");
 
@@ -49,14 +53,14 @@ public class ConsultationMessageFormatter {
      */
     public String formatConsultationShort(Consultation consultation) {
         StringBuilder message = new StringBuilder();
-        message.append(String.format("№%d\n", consultation.getId()));
-        message.append(String.format("📅 %s %s - %s\n",
+        MessageTemplate.append(message, "№%d\n", consultation.getId());
+        MessageTemplate.append(message, "📅 %s %s - %s\n",
                 consultation.getDate().format(SHORT_DATE_FORMATTER),
                 consultation.getStartTime().format(TIME_FORMATTER),
-                consultation.getEndTime().format(TIME_FORMATTER)));
+                consultation.getEndTime().format(TIME_FORMATTER));
 
         if (consultation.getTitle() != null && !consultation.getTitle().isEmpty()) {
-            message.append(String.format("📝 %s\n", consultation.getTitle()));
+            MessageTemplate.append(message, "📝 %s\n", consultation.getTitle());
         }
 
         // Добавляем статус консультации
@@ -66,41 +70,51 @@ public class ConsultationMessageFormatter {
             case CANCELLED -> "❌ Отменена";
             case REQUEST -> "⏳ Запрос";
         };
-        message.append(String.format("%s\n", statusEmoji));
+        MessageTemplate.append(message, "%s\n", statusEmoji);
 
         message.append("\n");
         return message.toString();
     }
 
     /**
-     * Детальная информация о консультации
+     * Детальная информация о консультации.
+     * Карточка без вопроса студента общая для всех (registeredCount - счётчик консультации) и берётся из кэша.
      */
     public String formatConsultationDetails(Consultation consultation, long registeredCount, StudentConsultation studentRegistration) {
+        if (hasQuestion(studentRegistration)) {
+            return renderConsultationDetails(consultation, registeredCount, studentRegistration);
+        }
+        return cardCache.get(consultation, ConsultationCardCache.View.DETAILS,
+                () -> renderConsultationDetails(consultation, registeredCount, null));
+    }
+
+    private String renderConsultationDetails(Consultation consultation, long registeredCount,
+                                             StudentConsultation studentRegistration) {
         StringBuilder message = new StringBuilder();
-        message.append(String.format("📋 Консультация №%d\n\n", consultation.getId()));
-        message.append(String.format("👨‍🏫 Преподаватель: %s %s\n",
+        MessageTemplate.append(message, "📋 Консультация №%d\n\n", consultation.getId());
+        MessageTemplate.append(message, "👨‍🏫 Преподаватель: %s %s\n",
                 consultation.getTeacher().getFirstName(),
-                consultation.getTeacher().getLastName() != null ? consultation.getTeacher().getLastName() : ""));
-        message.append(String.format("📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER)));
-        message.append(String.format("🕐 Время: %s - %s\n",
+                consultation.getTeacher().getLastName() != null ? consultation.getTeacher().getLastName() : "");
+        MessageTemplate.append(message, "📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER));
+        MessageTemplate.append(message, "🕐 Время: %s - %s\n",
                 consultation.getStartTime().format(TIME_FORMATTER),
-                consultation.getEndTime().format(TIME_FORMATTER)));
+                consultation.getEndTime().format(TIME_FORMATTER));
 
         if (consultation.getTitle() != null && !consultation.getTitle().isEmpty()) {
-            message.append(String.format("\n📝 Тема: %s\n", consultation.getTitle()));
+            MessageTemplate.append(message, "\n📝 Тема: %s\n", consultation.getTitle());
         }
 
         // Если студент зарегистрирован - показываем его сообщение
-        if (studentRegistration != null && studentRegistration.getMessage() != null && !studentRegistration.getMessage().isEmpty()) {
-            message.append(String.format("\n💬 Ваш вопрос: %s\n", studentRegistration.getMessage()));
+        if (hasQuestion(studentRegistration)) {
+            MessageTemplate.append(message, "\n💬 Ваш вопрос: %s\n", studentRegistration.getMessage());
         }
 
         // Отображаем количество записанных студентов с учётом вместимости
         message.append("\n👥 Записано студентов: ");
         if (consultation.getCapacity() != null && consultation.getCapacity() > 0) {
-            message.append(String.format("%d/%d", registeredCount, consultation.getCapacity()));
+            MessageTemplate.append(message, "%d/%d", registeredCount, consultation.getCapacity());
         } else {
-            message.append(String.format("%d (без ограничений)", registeredCount));
+            MessageTemplate.append(message, "%d (без ограничений)", registeredCount);
         }
 
         // Добавляем статус консультации
@@ -110,12 +124,17 @@ public class ConsultationMessageFormatter {
             case CANCELLED -> "❌ Консультация отменена";
             case REQUEST -> "⏳ Запрос на консультацию";
         };
-        message.append(String.format("\n📊 Статус: %s", statusText));
+        MessageTemplate.append(message, "\n📊 Статус: %s", statusText);
 
         message.append("\n\n💡 Выберите действие:");
         return message.toString();
     }
 
+    private boolean hasQuestion(StudentConsultation studentRegistration) {
+        return studentRegistration != null && studentRegistration.getMessage() != null
+                && !studentRegistration.getMessage().isEmpty();
+    }
+
     /**
      * Сообщение о подтверждении записи
      */
@@ -161,14 +180,15 @@ public class ConsultationMessageFormatter {
     }
 
     /**
-     * Список записей студента
+     * Список записей студента (по записи на блок - при переполнении список продолжается следующим сообщением)
      */
-    public String formatStudentRegistrations(List<StudentConsultation> registrations) {
+    public void writeStudentRegistrations(List<StudentConsultation> registrations, MessageChunks out) {
         if (registrations.isEmpty()) {
-            return """
+            out.append("""
                     У вас пока нет записей на консультации.
                     
-                    Используйте "🔍 Преподаватели" для поиска консультаций.""";
+                    Используйте "🔍 Преподаватели" для поиска консультаций.""");
+            return;
         }
 
         LocalDate today = LocalDate.now();
@@ -185,28 +205,26 @@ public class ConsultationMessageFormatter {
             }
         }
 
-        StringBuilder message = new StringBuilder();
-        message.append("📝 Ваши записи на консультации\n\n");
+        out.append("📝 Ваши записи на консультации\n\n");
 
         if (!futureRegistrations.isEmpty()) {
-            message.append("📅 Предстоящие консультации:\n\n");
-            futureRegistrations.forEach(sc -> message.append(formatStudentConsultation(sc, true)));
+            out.append("📅 Предстоящие консультации:\n\n");
+            futureRegistrations.forEach(sc -> out.append(formatStudentConsultation(sc, true)));
         }
 
         if (!pastRegistrations.isEmpty()) {
-            message.append("📆 Прошедшие консультации:\n\n");
-            pastRegistrations.forEach(sc -> message.append(formatStudentConsultation(sc, false)));
+            out.append("📆 Прошедшие консультации:\n\n");
+            pastRegistrations.forEach(sc -> out.append(formatStudentConsultation(sc, false)));
         }
 
-        message.append(String.format("\nВсего записей: %d", registrations.size()));
+        StringBuilder summary = new StringBuilder();
+        MessageTemplate.append(summary, "\nВсего записей: %d", registrations.size());
         if (!futureRegistrations.isEmpty() || !pastRegistrations.isEmpty()) {
-            message.append(String.format(" (предстоящих: %d, прошедших: %d)",
-                    futureRegistrations.size(), pastRegistrations.size()));
+            MessageTemplate.append(summary, " (предстоящих: %d, прошедших: %d)",
+                    futureRegistrations.size(), pastRegistrations.size());
         }
-
-        message.append("\n\n💡 Введите №... для просмотра деталей конкретной консультации");
-
-        return message.toString();
+        summary.append("\n\n💡 Введите №... для просмотра деталей конкретной консультации");
+        out.append(summary.toString());
     }
 
     /**
@@ -215,18 +233,18 @@ public class ConsultationMessageFormatter {
     private String formatStudentConsultation(StudentConsultation sc, boolean includeDetails) {
         Consultation consultation = sc.getConsultation();
         StringBuilder message = new StringBuilder();
-        message.append(String.format("📋 Консультация №%d\n", consultation.getId()));
-        message.append(String.format("👨‍🏫 Преподаватель: %s %s\n",
+        MessageTemplate.append(message, "📋 Консультация №%d\n", consultation.getId());
+        MessageTemplate.append(message, "👨‍🏫 Преподаватель: %s %s\n",
                 consultation.getTeacher().getFirstName(),
-                consultation.getTeacher().getLastName() != null ? consultation.getTeacher().getLastName() : ""));
-        message.append(String.format("📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER)));
-        message.append(String.format("🕐 Время: %s - %s\n",
+                consultation.getTeacher().getLastName() != null ? consultation.getTeacher().getLastName() : "");
+        MessageTemplate.append(message, "📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER));
+        MessageTemplate.append(message, "🕐 Время: %s - %s\n",
                 consultation.getStartTime().format(TIME_FORMATTER),
-                consultation.getEndTime().format(TIME_FORMATTER)));
+                consultation.getEndTime().format(TIME_FORMATTER));
 
         if (includeDetails) {
             if (sc.getMessage() != null && !sc.getMessage().isEmpty()) {
-                message.append(String.format("📝 Ваш вопрос: %s\n", sc.getMessage()));
+                MessageTemplate.append(message, "📝 Ваш вопрос: %s\n", sc.getMessage());
             }
 
             if (consultation.getStatus() != null) {
@@ -236,7 +254,7 @@ public class ConsultationMessageFormatter {
                     case CANCELLED -> "❌ Отменена";
                     case REQUEST -> "⏳ Запрос";
                 };
-                message.append(String.format("Статус: %s\n", statusText));
+                MessageTemplate.append(message, "Статус: %s\n", statusText);
             }
         }
 
@@ -266,7 +284,7 @@ public class ConsultationMessageFormatter {
             message.append("\n");
         }
 
-        message.append(String.format("\nВсего подписок: %d\n\n", subscriptions.size()));
+        MessageTemplate.append(message, "\nВсего подписок: %d\n\n", subscriptions.size());
         message.append("Для отмены подписки выберите преподавателя в разделе \"🔍 Преподаватели\" " +
                 "и нажмите \"🔕 Отписаться\"");
 
@@ -307,16 +325,16 @@ public class ConsultationMessageFormatter {
                 case CANCELLED -> "❌";
             };
 
-            int interestedCount = request.getRegUsers() != null ? request.getRegUsers().size() : 0;
+            int interestedCount = request.getRegisteredCount();
 
-            message.append(String.format("%s №%d - %s\n",
+            MessageTemplate.append(message, "%s №%d - %s\n",
                     statusEmoji,
                     request.getId(),
-                    request.getTitle()));
-            message.append(String.format("   👤 Автор: %s\n",
-                    TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher())));
-            message.append(String.format("   👥 Заинтересовано: %d\n",
-                    interestedCount));
+                    request.getTitle());
+            MessageTemplate.append(message, "   👤 Автор: %s\n",
+                    TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher()));
+            MessageTemplate.append(message, "   👥 Заинтересовано: %d\n",
+                    interestedCount);
             message.append("\n");
         }
 
@@ -329,17 +347,17 @@ public class ConsultationMessageFormatter {
      */
     public String formatRequestDetails(Consultation request) {
         StringBuilder message = new StringBuilder();
-        message.append(String.format("📋 Запрос консультации №%d\n\n", request.getId()));
+        MessageTemplate.append(message, "📋 Запрос консультации №%d\n\n", request.getId());
 
-        message.append(String.format("📝 Тема: %s\n\n", request.getTitle()));
+        MessageTemplate.append(message, "📝 Тема: %s\n\n", request.getTitle());
 
-        message.append(String.format("👤 Автор запроса: %s\n",
-                TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher())));
+        MessageTemplate.append(message, "👤 Автор запроса: %s\n",
+                TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher()));
 
         // Количество заинтересованных студентов
-        int interestedCount = request.getRegUsers() != null ? request.getRegUsers().size() : 0;
-        message.append(String.format("\n👥 Заинтересовано студентов: %d\n",
-                interestedCount));
+        int interestedCount = request.getRegisteredCount();
+        MessageTemplate.append(message, "\n👥 Заинтересовано студентов: %d\n",
+                interestedCount);
 
         // Статус запроса
         String statusText = switch (request.getStatus()) {
@@ -348,7 +366,7 @@ public class ConsultationMessageFormatter {
             case CLOSED -> "🔒 Запрос закрыт";
             case CANCELLED -> "❌ Запрос отменён";
         };
-        message.append(String.format("📊 Статус: %s\n", statusText));
+        MessageTemplate.append(message, "📊 Статус: %s\n", statusText);
 
         message.append("\n💡 Выберите действие:");
 
@@ -359,7 +377,7 @@ public class ConsultationMessageFormatter {
      * Подтверждение создания запроса
      */
     public String formatRequestCreationConfirmation(Consultation request) {
-        return String.format(
+        return MessageTemplate.format(
                 """
                         ✅ Запрос консультации успешно создан!
                         
@@ -1,15 +1,10 @@
 package com.example.botforconsultations.api.bot.utils;
 
-import com.example.botforconsultations.core.model.Consultation;
-import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.model.TodoTask;
 import org.springframework.stereotype.Component;
-import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static com.example.botforconsultations.api.bot.utils.KeyboardConstants.ALL_TASKS;
 import static com.example.botforconsultations.api.bot.utils.KeyboardConstants.ALL_TEACHERS;
 import static com.example.botforconsultations.api.bot.utils.KeyboardConstants.BACK;
@@ -48,25 +43,21 @@ public class DeaneryKeyboardBuilder extends BaseKeyboardBuilder {
     /**
      * Главное меню деканата
      */
-    public ReplyKeyboardMarkup buildMainMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createTwoButtonRow(TEACHERS_MENU, ALL_TASKS));
-        keyboard.add(createTwoButtonRow(PROFILE, HELP));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildMainMenu() {
+        return staticMenu("mainMenu", keyboard -> {
+            keyboard.add(createTwoButtonRow(TEACHERS_MENU, ALL_TASKS));
+            keyboard.add(createTwoButtonRow(PROFILE, HELP));
+        });
     }
 
     /**
      * Меню ожидания подтверждения для неактивированного деканата
      */
-    public ReplyKeyboardMarkup buildWaitingForApprovalMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createSingleButtonRow(PROFILE));
-        keyboard.add(createSingleButtonRow(EDIT_ROLE));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildWaitingForApprovalMenu() {
+        return staticMenu("waitingForApproval", keyboard -> {
+            keyboard.add(createSingleButtonRow(PROFILE));
+            keyboard.add(createSingleButtonRow(EDIT_ROLE));
+        });
     }
 
     // ========== Работа с преподавателями ==========
@@ -74,242 +65,143 @@ public class DeaneryKeyboardBuilder extends BaseKeyboardBuilder {
     /**
      * Меню для работы с преподавателями
      */
-    public ReplyKeyboardMarkup buildTeachersMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createTwoButtonRow(ALL_TEACHERS, SEARCH_TEACHER));
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
-    }
-
-    /**
-     * Список найденных преподавателей (первые 5 в кнопках)
-     */
-    public ReplyKeyboardMarkup buildTeacherListKeyboard(List<TelegramUser> teachers) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем первых 5 преподавателей
-        addTeacherButtons(keyboard, teachers, MAX_LIST_ITEMS);
-
-        keyboard.add(createSingleButtonRow(SEARCH_TEACHER));
-        keyboard.add(createSingleButtonRow(BACK_TO_TEACHERS));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildTeachersMenu() {
+        return staticMenu("teachersMenu", keyboard -> {
+            keyboard.add(createTwoButtonRow(ALL_TEACHERS, SEARCH_TEACHER));
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Меню действий с выбранным преподавателем
      */
-    public ReplyKeyboardMarkup buildTeacherMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Кнопка "Консультации" на всю ширину
-        keyboard.add(createSingleButtonRow(TEACHER_CONSULTATIONS));
+    public ReplyKeyboard buildTeacherMenu() {
+        return staticMenu("teacherMenu", keyboard -> {
+            // Кнопка "Консультации" на всю ширину
+            keyboard.add(createSingleButtonRow(TEACHER_CONSULTATIONS));
 
-        // Кнопки управления задачами
-        keyboard.add(createTwoButtonRow(CREATE_TASK, TEACHER_TASKS));
+            // Кнопки управления задачами
+            keyboard.add(createTwoButtonRow(CREATE_TASK, TEACHER_TASKS));
 
-        // Навигация
-        keyboard.add(createTwoButtonRow(BACK_TO_TEACHERS, MAIN_MENU));
-
-        return buildKeyboard(keyboard);
+            // Навигация
+            keyboard.add(createTwoButtonRow(BACK_TO_TEACHERS, MAIN_MENU));
+        });
     }
 
     /**
-     * Клавиатура со списком консультаций преподавателя
-     * (с кнопками для управления задачами вместо подписки)
+     * Меню просмотра консультаций преподавателя (сам список - inline-клавиатура сообщения)
      */
-    public ReplyKeyboardMarkup buildTeacherConsultations(List<Consultation> consultations) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем консультации 
-        addConsultationButtons(keyboard, consultations, MAX_LIST_ITEMS);
-
-        // Фильтры консультаций
-        keyboard.add(createFilterRow());
+    public ReplyKeyboard buildTeacherConsultationsMenu() {
+        return staticMenu("teacherConsultationsMenu", keyboard -> {
+            // Фильтры консультаций
+            keyboard.add(createFilterRow());
 
-        // Навигация
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
+            // Навигация
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Клавиатура для детального просмотра консультации
      * (только просмотр студентов, без записи)
      */
-    public ReplyKeyboardMarkup buildConsultationDetails() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createSingleButtonRow(STUDENT_LIST));
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildConsultationDetails() {
+        return staticMenu("consultationDetails", keyboard -> {
+            keyboard.add(createSingleButtonRow(STUDENT_LIST));
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     /**
      * Клавиатура после просмотра списка студентов
      */
-    public ReplyKeyboardMarkup buildStudentListKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createSingleButtonRow(BACK));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildStudentListKeyboard() {
+        return staticMenu("studentList", keyboard -> {
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     // ========== Работа с задачами ==========
 
     /**
-     * Клавиатура списка всех задач деканата
+     * Меню списка всех задач деканата (сами задачи - в inline-списке)
      */
-    public ReplyKeyboardMarkup buildAllTasksList(List<TodoTask> tasks) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем первые 5 задач как кнопки
-        addTaskButtons(keyboard, tasks, MAX_LIST_ITEMS);
-
-        // Фильтры по дедлайну (как у консультаций)
-        keyboard.add(createFilterRow());
-
-        // Фильтры по статусу выполнения
-        keyboard.add(createTaskStatusFilterRow());
+    public ReplyKeyboard buildAllTasksMenu() {
+        return staticMenu("allTasksMenu", keyboard -> {
+            // Фильтры по дедлайну (как у консультаций)
+            keyboard.add(createFilterRow());
 
-        // Навигация
-        keyboard.add(createSingleButtonRow(BACK));
+            // Фильтры по статусу выполнения
+            keyboard.add(createTaskStatusFilterRow());
 
-        return buildKeyboard(keyboard);
+            // Навигация
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
-     * Клавиатура списка задач конкретного преподавателя
+     * Меню списка задач конкретного преподавателя (сами задачи - в inline-списке)
      */
-    public ReplyKeyboardMarkup buildTeacherTasksList(List<TodoTask> tasks) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
+    public ReplyKeyboard buildTeacherTasksMenu() {
+        return staticMenu("teacherTasksMenu", keyboard -> {
+            // Фильтры по дедлайну
+            keyboard.add(createFilterRow());
 
-        // Добавляем первые 5 задач как кнопки
-        addTaskButtons(keyboard, tasks, MAX_LIST_ITEMS);
+            // Фильтры по статусу выполнения
+            keyboard.add(createTaskStatusFilterRow());
 
-        // Фильтры по дедлайну
-        keyboard.add(createFilterRow());
+            // Создать новую задачу
+            keyboard.add(createSingleButtonRow(CREATE_TASK));
 
-        // Фильтры по статусу выполнения
-        keyboard.add(createTaskStatusFilterRow());
-
-        // Создать новую задачу
-        keyboard.add(createSingleButtonRow(CREATE_TASK));
-
-        // Навигация
-        keyboard.add(createTwoButtonRow(BACK_TO_TEACHERS, MAIN_MENU));
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
+            // Навигация
+            keyboard.add(createTwoButtonRow(BACK_TO_TEACHERS, MAIN_MENU));
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Детальный просмотр задачи
      */
-    public ReplyKeyboardMarkup buildTaskDetails(TodoTask task) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Изменение статуса
-        if (task.getIsCompleted()) {
-            keyboard.add(createSingleButtonRow(MARK_PENDING));
-        } else {
-            keyboard.add(createSingleButtonRow(MARK_COMPLETED));
-        }
-
-        // Управление задачей
-        keyboard.add(createTwoButtonRow(EDIT_TASK, DELETE_TASK));
+    public ReplyKeyboard buildTaskDetails(TodoTask task) {
+        return staticMenu("taskDetails." + task.getIsCompleted(), keyboard -> {
+            // Изменение статуса
+            if (task.getIsCompleted()) {
+                keyboard.add(createSingleButtonRow(MARK_PENDING));
+            } else {
+                keyboard.add(createSingleButtonRow(MARK_COMPLETED));
+            }
 
-        // Навигация
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+            // Управление задачей
+            keyboard.add(createTwoButtonRow(EDIT_TASK, DELETE_TASK));
 
-        return buildKeyboard(keyboard);
+            // Навигация
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     /**
      * Меню редактирования задачи
      */
-    public ReplyKeyboardMarkup buildEditTaskMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createSingleButtonRow(EDIT_TASK_TITLE));
-        keyboard.add(createSingleButtonRow(EDIT_TASK_DESCRIPTION));
-        keyboard.add(createSingleButtonRow(EDIT_TASK_DEADLINE));
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildEditTaskMenu() {
+        return staticMenu("editTaskMenu", keyboard -> {
+            keyboard.add(createSingleButtonRow(EDIT_TASK_TITLE));
+            keyboard.add(createSingleButtonRow(EDIT_TASK_DESCRIPTION));
+            keyboard.add(createSingleButtonRow(EDIT_TASK_DEADLINE));
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Клавиатура при создании/редактировании задачи
      */
-    public ReplyKeyboardMarkup buildCancelKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createSingleButtonRow(CANCEL));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildCancelKeyboard() {
+        return staticMenu("cancel", keyboard -> {
+            keyboard.add(createSingleButtonRow(CANCEL));
+        });
     }
 
     // ========== Приватные вспомогательные методы ==========
 
-    /**
-     * Добавить кнопки преподавателей
-     */
-    private void addTeacherButtons(List<KeyboardRow> keyboard, List<TelegramUser> teachers, int maxCount) {
-        int count = 0;
-        for (TelegramUser teacher : teachers) {
-            if (count >= maxCount) break;
-            keyboard.add(createSingleButtonRow(TeacherNameFormatter.formatFullName(teacher)));
-            count++;
-        }
-    }
-
-    /**
-     * Добавить кнопки консультаций
-     */
-    private void addConsultationButtons(List<KeyboardRow> keyboard, List<Consultation> consultations, int maxCount) {
-        int count = 0;
-        for (Consultation consultation : consultations) {
-            if (count >= maxCount) break;
-            String buttonText;
-            if (consultation.getDate() != null) {
-                buttonText = String.format("%s%d - %s %s",
-                        NUMBER_PREFIX,
-                        consultation.getId(),
-                        formatDate(consultation.getDate()),
-                        formatTime(consultation.getStartTime())
-                );
-            } else {
-                buttonText = String.format("%s%d - %s",
-                        NUMBER_PREFIX,
-                        consultation.getId(),
-                        consultation.getTitle()
-                );
-            }
-            keyboard.add(createSingleButtonRow(buttonText));
-            count++;
-        }
-    }
-
-    /**
-     * Добавить кнопки задач
-     */
-    private void addTaskButtons(List<KeyboardRow> keyboard, List<TodoTask> tasks, int maxCount) {
-        int count = 0;
-        for (TodoTask task : tasks) {
-            if (count >= maxCount) break;
-            String title = task.getTitle().length() > 25
-                    ? task.getTitle().substring(0, 25) + "..."
-                    : task.getTitle();
-            String buttonText = String.format("%s%d - %s",
-                    NUMBER_PREFIX,
-                    task.getId(),
-                    title);
-            keyboard.add(createSingleButtonRow(buttonText));
-            count++;
-        }
-    }
-
     /**
      * Создать строку с фильтрами статуса задач
      */
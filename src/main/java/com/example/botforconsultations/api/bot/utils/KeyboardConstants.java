@@ -15,6 +15,8 @@ public final class KeyboardConstants {
     public static final String BACK_TO_LIST = "◀️ Назад к списку";
     public static final String BACK_TO_TEACHERS = "🔙 К преподавателям";
     public static final String MAIN_MENU = "🏠 Главное меню";
+    public static final String PREV_PAGE = "⬅️ Предыдущие";
+    public static final String NEXT_PAGE = "➡️ Следующие";
 
     // ========== Фильтры консультаций ==========
     public static final String FILTER_FUTURE = "⏭️ Будущие";
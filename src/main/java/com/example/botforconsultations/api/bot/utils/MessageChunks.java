@@ -0,0 +1,102 @@
+package com.example.botforconsultations.api.bot.utils;
+
+/**
+ * Длинный текст, разбитый на сообщения по лимиту Telegram (4096 символов).
+ * <p>
+ * Форматтер добавляет текст блоками (заголовок, запись списка). Блок целиком переносится в следующее сообщение,
+ * если не помещается в текущее; блок длиннее лимита режется по строкам, затем по пробелам.
+ * Заполненное сообщение сразу отдаётся получателю (например, в очередь отправки), поэтому весь текст
+ * в памяти не собирается. Получатель узнаёт, какое сообщение последнее, - к нему прикрепляется клавиатура.
+ */
+public class MessageChunks {
+
+    // Максимальная длина текста одного сообщения Telegram
+    public static final int MAX_LENGTH = 4096;
+
+    /**
+     * Получатель готовых сообщений (вызывается по порядку)
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(String text, boolean last);
+    }
+
+    private final int maxLength;
+    private final Sink sink;
+    private final StringBuilder current = new StringBuilder();
+    // Готовое сообщение ждёт следующего: пока неизвестно, последнее ли оно
+    private String pending;
+
+    public MessageChunks(Sink sink) {
+        this(MAX_LENGTH, sink);
+    }
+
+    public MessageChunks(int maxLength, Sink sink) {
+        this.maxLength = maxLength;
+        this.sink = sink;
+    }
+
+    /**
+     * Добавить блок текста
+     */
+    public MessageChunks append(String block) {
+        if (current.length() + block.length() <= maxLength) {
+            current.append(block);
+            return this;
+        }
+
+        if (!current.isEmpty()) {
+            flush();
+        }
+        while (block.length() > maxLength) {
+            int cut = cutPosition(block);
+            current.append(block, 0, cut);
+            flush();
+            block = block.substring(cut);
+        }
+        current.append(block);
+        return this;
+    }
+
+    /**
+     * Отдать оставшийся текст; последнее сообщение отдаётся с признаком last
+     */
+    public void finish() {
+        if (!current.isEmpty()) {
+            flush();
+        }
+        if (pending != null) {
+            sink.accept(pending, true);
+            pending = null;
+        }
+    }
+
+    private void flush() {
+        // Telegram всё равно обрезает пробелы по краям, а пустое сообщение отклоняет
+        String text = current.toString().strip();
+        current.setLength(0);
+        if (text.isEmpty()) {
+            return;
+        }
+        if (pending != null) {
+            sink.accept(pending, false);
+        }
+        pending = text;
+    }
+
+    /**
+     * Где разрезать слишком длинный блок: после последнего перевода строки или пробела в пределах лимита
+     */
+    private int cutPosition(String block) {
+        int newline = block.lastIndexOf('\n', maxLength - 1);
+        if (newline > 0) {
+            return newline + 1;
+        }
+        int space = block.lastIndexOf(' ', maxLength - 1);
+        if (space > 0) {
+            return space + 1;
+        }
+        // Не разрываем суррогатную пару (эмодзи)
+        return Character.isHighSurrogate(block.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+    }
+}
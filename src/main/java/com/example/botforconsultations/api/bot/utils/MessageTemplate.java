@@ -0,0 +1,113 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Шаблон сообщения, разобранный один раз на литералы и места для аргументов.
+ * <p>
+ * Замена String.format в форматтерах сообщений: String.format разбирает строку формата при каждом вызове,
+ * а шаблон - только при первом использовании, дальше подстановка сводится к склейке литералов и аргументов.
+ * Поддерживаются только %s, %d и %% - другие спецификаторы в сообщениях бота не используются.
+ * Аргумент подставляется как String.valueOf (null - "null", как у String.format).
+ */
+public final class MessageTemplate {
+
+    // Разобранные шаблоны по строке формата (строки формата - константы в коде, их число ограничено)
+    private static final Map<String, MessageTemplate> COMPILED = new ConcurrentHashMap<>();
+
+    // Запас длины на один аргумент при выделении буфера
+    private static final int ARGUMENT_CAPACITY = 16;
+
+    // Литералы между аргументами: на один больше, чем аргументов
+    private final String[] literals;
+    private final int capacity;
+
+    private MessageTemplate(String[] literals) {
+        this.literals = literals;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.capacity = length + (literals.length - 1) * ARGUMENT_CAPACITY;
+    }
+
+    /**
+     * Разобрать шаблон
+     *
+     * @throws IllegalArgumentException если в шаблоне есть спецификатор, кроме %s, %d и %%
+     */
+    public static MessageTemplate compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            char spec = i + 1 < pattern.length() ? pattern.charAt(i + 1) : 0;
+            switch (spec) {
+                case '%' -> literal.append('%');
+                case 's', 'd' -> {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                }
+                default -> throw new IllegalArgumentException(
+                        "Unsupported format specifier at " + i + " in template: " + pattern);
+            }
+            i++;
+        }
+        literals.add(literal.toString());
+        return new MessageTemplate(literals.toArray(String[]::new));
+    }
+
+    /**
+     * Подставить аргументы в шаблон (шаблон разбирается при первом вызове и переиспользуется)
+     */
+    public static String format(String pattern, Object... args) {
+        return of(pattern).render(args);
+    }
+
+    /**
+     * Дописать шаблон с аргументами в буфер сообщения, без промежуточной строки
+     */
+    public static StringBuilder append(StringBuilder out, String pattern, Object... args) {
+        return of(pattern).appendTo(out, args);
+    }
+
+    private static MessageTemplate of(String pattern) {
+        MessageTemplate template = COMPILED.get(pattern);
+        if (template == null) {
+            template = COMPILED.computeIfAbsent(pattern, MessageTemplate::compile);
+        }
+        return template;
+    }
+
+    /**
+     * Подставить аргументы в шаблон
+     */
+    public String render(Object... args) {
+        return appendTo(new StringBuilder(capacity), args).toString();
+    }
+
+    /**
+     * Дописать шаблон с аргументами в буфер
+     *
+     * @throws IllegalArgumentException если число аргументов не совпадает с числом мест в шаблоне
+     */
+    public StringBuilder appendTo(StringBuilder out, Object... args) {
+        if (args.length != literals.length - 1) {
+            throw new IllegalArgumentException(
+                    "Template expects " + (literals.length - 1) + " arguments, got " + args.length);
+        }
+        out.ensureCapacity(out.length() + capacity);
+        out.append(literals[0]);
+        for (int i = 0; i < args.length; i++) {
+            out.append(args[i]).append(literals[i + 1]);
+        }
+        return out;
+    }
+}
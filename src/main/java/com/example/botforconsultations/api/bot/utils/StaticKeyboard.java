@@ -0,0 +1,83 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiValidationException;
+
+import java.io.IOException;
+
+/**
+ * Клавиатура меню, которая не зависит от данных: проверяется и сериализуется в JSON один раз при создании.
+ * <p>
+ * Один экземпляр отправляется всем пользователям, поэтому при отправке сообщения JSON клавиатуры
+ * не строится заново, а вставляется готовой строкой. Разметка после создания не меняется.
+ */
+@JsonSerialize(using = StaticKeyboard.Serializer.class)
+public final class StaticKeyboard implements ReplyKeyboard {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final String json;
+
+    private StaticKeyboard(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Зафиксировать клавиатуру: проверить и сериализовать
+     *
+     * @throws IllegalStateException если клавиатура некорректна (ошибка в коде меню)
+     */
+    public static StaticKeyboard of(ReplyKeyboardMarkup markup) {
+        try {
+            markup.validate();
+            return new StaticKeyboard(MAPPER.writeValueAsString(markup));
+        } catch (TelegramApiValidationException | JsonProcessingException e) {
+            throw new IllegalStateException("Invalid static keyboard: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * JSON клавиатуры (как в поле reply_markup)
+     */
+    public String json() {
+        return json;
+    }
+
+    @Override
+    public void validate() {
+        // Проверена при создании
+    }
+
+    /**
+     * Записывает готовый JSON без повторной сериализации
+     */
+    public static class Serializer extends StdSerializer<StaticKeyboard> {
+
+        public Serializer() {
+            super(StaticKeyboard.class);
+        }
+
+        @Override
+        public void serialize(StaticKeyboard keyboard, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeRawValue(keyboard.json);
+        }
+
+        @Override
+        public void serializeWithType(StaticKeyboard keyboard, JsonGenerator generator, SerializerProvider provider,
+                                      TypeSerializer typeSerializer) throws IOException {
+            // Тип клавиатуры Telegram определяет по полям, идентификатор типа не пишется
+            serialize(keyboard, generator, provider);
+        }
+    }
+}
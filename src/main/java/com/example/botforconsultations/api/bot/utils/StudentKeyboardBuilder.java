@@ -2,8 +2,8 @@ package com.example.botforconsultations.api.bot.utils;
 
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.ConsultationStatus;
-import com.example.botforconsultations.core.model.TelegramUser;
 import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
 
@@ -41,94 +41,51 @@ public class StudentKeyboardBuilder extends BaseKeyboardBuilder {
     /**
      * Главное меню студента
      */
-    public ReplyKeyboardMarkup buildMainMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createSingleButtonRow(TEACHERS_MENU));
-        keyboard.add(createTwoButtonRow(SUBSCRIPTIONS, MY_REGISTRATIONS));
-        keyboard.add(createTwoButtonRow(REQUEST_CONSULTATION, VIEW_REQUESTS));
-        keyboard.add(createTwoButtonRow(PROFILE, HELP));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildMainMenu() {
+        return staticMenu("mainMenu", keyboard -> {
+            keyboard.add(createSingleButtonRow(TEACHERS_MENU));
+            keyboard.add(createTwoButtonRow(SUBSCRIPTIONS, MY_REGISTRATIONS));
+            keyboard.add(createTwoButtonRow(REQUEST_CONSULTATION, VIEW_REQUESTS));
+            keyboard.add(createTwoButtonRow(PROFILE, HELP));
+        });
     }
 
     /**
      * Меню для работы с преподавателями
      */
-    public ReplyKeyboardMarkup buildTeachersMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createTwoButtonRow(ALL_TEACHERS, SEARCH_TEACHER));
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
-    }
-
-    /**
-     * Клавиатура с результатами поиска преподавателей
-     */
-    public ReplyKeyboardMarkup buildTeacherSearchResults(List<TelegramUser> teachers) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем первых 5 преподавателей как кнопки
-        addTeacherButtons(keyboard, teachers, MAX_LIST_ITEMS);
-
-        keyboard.add(createSingleButtonRow(SEARCH_TEACHER));
-        keyboard.add(createSingleButtonRow(BACK_TO_TEACHERS));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildTeachersMenu() {
+        return staticMenu("teachersMenu", keyboard -> {
+            keyboard.add(createTwoButtonRow(ALL_TEACHERS, SEARCH_TEACHER));
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
-     * Клавиатура со списком консультаций преподавателя
+     * Меню просмотра консультаций преподавателя (сам список - inline-клавиатура сообщения)
      */
-    public ReplyKeyboardMarkup buildTeacherConsultations(
-            List<Consultation> consultations,
-            boolean isSubscribed) {
-
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем консультации (максимум 5)
-        addConsultationButtons(keyboard, consultations, MAX_LIST_ITEMS);
+    public ReplyKeyboard buildTeacherConsultationsMenu(boolean isSubscribed) {
+        return staticMenu("teacherConsultationsMenu." + isSubscribed, keyboard -> {
+            // Фильтры
+            keyboard.add(createFilterRow());
 
-        // Фильтры
-        keyboard.add(createFilterRow());
+            // Подписка/отписка
+            keyboard.add(createSubscriptionRow(isSubscribed));
 
-        // Подписка/отписка
-        keyboard.add(createSubscriptionRow(isSubscribed));
-
-        // Навигация
-        keyboard.add(createTwoButtonRow(BACK_TO_TEACHERS, BACK));
-
-        return buildKeyboard(keyboard);
+            // Навигация
+            keyboard.add(createTwoButtonRow(BACK_TO_TEACHERS, BACK));
+        });
     }
 
     /**
      * Клавиатура для детального просмотра консультации
      */
-    public ReplyKeyboardMarkup buildConsultationDetails(Consultation consultation, boolean isRegistered) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Кнопка записи/отмены зависит от статуса консультации
-        addRegistrationButtons(keyboard, consultation, isRegistered);
-
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
-
-        return buildKeyboard(keyboard);
-    }
-
-    /**
-     * Клавиатура для просмотра списка запросов
-     */
-    public ReplyKeyboardMarkup buildRequestsList(List<Consultation> requests) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем запросы (максимум 10)
-        addConsultationButtons(keyboard, requests, MAX_REQUESTS_ITEMS);
+    public ReplyKeyboard buildConsultationDetails(Consultation consultation, boolean isRegistered) {
+        return staticMenu("consultationDetails." + consultation.getStatus() + "." + isRegistered, keyboard -> {
+            // Кнопка записи/отмены зависит от статуса консультации
+            addRegistrationButtons(keyboard, consultation, isRegistered);
 
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     /**
@@ -148,47 +105,33 @@ public class StudentKeyboardBuilder extends BaseKeyboardBuilder {
     /**
      * Клавиатура для детального просмотра запроса
      */
-    public ReplyKeyboardMarkup buildRequestDetails(boolean isRegistered) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createRequestActionRow(isRegistered));
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildRequestDetails(boolean isRegistered) {
+        return staticMenu("requestDetails." + isRegistered, keyboard -> {
+            keyboard.add(createRequestActionRow(isRegistered));
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     /**
      * Простая клавиатура с кнопкой "Назад"
      */
-    public ReplyKeyboardMarkup buildBackKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createSingleButtonRow(BACK));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildBackKeyboard() {
+        return staticMenu("back", keyboard -> {
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Клавиатура с кнопкой "Отмена" для прерывания ввода
      */
-    public ReplyKeyboardMarkup buildCancelKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createSingleButtonRow(CANCEL));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildCancelKeyboard() {
+        return staticMenu("cancel", keyboard -> {
+            keyboard.add(createSingleButtonRow(CANCEL));
+        });
     }
 
     // ========== Приватные вспомогательные методы ==========
 
-    /**
-     * Добавить кнопки преподавателей
-     */
-    private void addTeacherButtons(List<KeyboardRow> keyboard, List<TelegramUser> teachers, int maxCount) {
-        int count = 0;
-        for (TelegramUser teacher : teachers) {
-            if (count >= maxCount) break;
-            keyboard.add(createSingleButtonRow(TeacherNameFormatter.formatFullName(teacher)));
-            count++;
-        }
-    }
-
     /**
      * Добавить кнопки консультаций
      */
@@ -196,22 +139,7 @@ public class StudentKeyboardBuilder extends BaseKeyboardBuilder {
         int count = 0;
         for (Consultation consultation : consultations) {
             if (count >= maxCount) break;
-            String buttonText;
-            if (consultation.getDate() != null) {
-                buttonText = String.format("%s%d - %s %s",
-                        NUMBER_PREFIX,
-                        consultation.getId(),
-                        formatDate(consultation.getDate()),
-                        formatTime(consultation.getStartTime())
-                );
-            } else {
-                buttonText = String.format("%s%d - %s",
-                        NUMBER_PREFIX,
-                        consultation.getId(),
-                        consultation.getTitle()
-                );
-            }
-            keyboard.add(createSingleButtonRow(buttonText));
+            keyboard.add(createSingleButtonRow(consultationButtonText(consultation)));
             count++;
         }
     }
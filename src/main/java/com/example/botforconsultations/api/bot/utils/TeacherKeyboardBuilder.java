@@ -5,6 +5,7 @@ import com.example.botforconsultations.core.model.ConsultationStatus;
 import com.example.botforconsultations.core.model.ReminderTime;
 import com.example.botforconsultations.core.model.TodoTask;
 import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
 
@@ -51,176 +52,111 @@ public class TeacherKeyboardBuilder extends BaseKeyboardBuilder {
     /**
      * Меню ожидания подтверждения для неактивированных преподавателей
      */
-    public ReplyKeyboardMarkup buildWaitingForApprovalMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createSingleButtonRow(PROFILE));
-        keyboard.add(createSingleButtonRow(EDIT_ROLE));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildWaitingForApprovalMenu() {
+        return staticMenu("waitingForApproval", keyboard -> {
+            keyboard.add(createSingleButtonRow(PROFILE));
+            keyboard.add(createSingleButtonRow(EDIT_ROLE));
+        });
     }
 
     /**
      * Главное меню преподавателя
      */
-    public ReplyKeyboardMarkup buildMainMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createTwoButtonRow(MY_CONSULTATIONS, CREATE_CONSULTATION));
-        keyboard.add(createTwoButtonRow(MY_TASKS, VIEW_REQUESTS));
-        keyboard.add(createTwoButtonRow(PROFILE, HELP));
-
-        return buildKeyboard(keyboard);
-    }
-
-    /**
-     * Клавиатура со списком консультаций преподавателя
-     */
-    public ReplyKeyboardMarkup buildConsultationsList(List<Consultation> consultations) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем консультации (максимум 5)
-        addConsultationButtons(keyboard, consultations, MAX_LIST_ITEMS);
-
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildMainMenu() {
+        return staticMenu("mainMenu", keyboard -> {
+            keyboard.add(createTwoButtonRow(MY_CONSULTATIONS, CREATE_CONSULTATION));
+            keyboard.add(createTwoButtonRow(MY_TASKS, VIEW_REQUESTS));
+            keyboard.add(createTwoButtonRow(PROFILE, HELP));
+        });
     }
 
     /**
      * Клавиатура для детального просмотра консультации
      */
-    public ReplyKeyboardMarkup buildConsultationDetails(Consultation consultation, long registeredCount) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Кнопки управления в зависимости от статуса
-        addConsultationManagementButtons(keyboard, consultation.getStatus());
-
-        // Кнопка "Просмотреть студентов" (если есть записанные)
-        if (registeredCount > 0) {
-            keyboard.add(createSingleButtonRow(VIEW_STUDENTS));
-        }
-
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+    public ReplyKeyboard buildConsultationDetails(Consultation consultation, long registeredCount) {
+        return staticMenu("consultationDetails." + consultation.getStatus() + "." + (registeredCount > 0), keyboard -> {
+            // Кнопки управления в зависимости от статуса
+            addConsultationManagementButtons(keyboard, consultation.getStatus());
+
+            // Кнопка "Просмотреть студентов" (если есть записанные)
+            if (registeredCount > 0) {
+                keyboard.add(createSingleButtonRow(VIEW_STUDENTS));
+            }
 
-        return buildKeyboard(keyboard);
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     /**
      * Клавиатура для просмотра консультации другого преподавателя (только чтение)
      */
-    public ReplyKeyboardMarkup buildConsultationDetailsReadOnly(long registeredCount) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Только кнопка "Просмотреть студентов" (если есть записанные)
-        if (registeredCount > 0) {
-            keyboard.add(createSingleButtonRow(VIEW_STUDENTS));
-        }
-
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
-
-        return buildKeyboard(keyboard);
-    }
-
-    /**
-     * Клавиатура для просмотра списка запросов студентов
-     */
-    public ReplyKeyboardMarkup buildRequestsList(List<Consultation> requests) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем запросы (максимум 5)
-        addConsultationButtons(keyboard, requests, MAX_LIST_ITEMS);
-
-        keyboard.add(createSingleButtonRow(BACK));
+    public ReplyKeyboard buildConsultationDetailsReadOnly(long registeredCount) {
+        return staticMenu("consultationDetailsReadOnly." + (registeredCount > 0), keyboard -> {
+            // Только кнопка "Просмотреть студентов" (если есть записанные)
+            if (registeredCount > 0) {
+                keyboard.add(createSingleButtonRow(VIEW_STUDENTS));
+            }
 
-        return buildKeyboard(keyboard);
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     /**
      * Клавиатура для детального просмотра запроса студента
      */
-    public ReplyKeyboardMarkup buildRequestDetails(int interestedCount) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createSingleButtonRow(ACCEPT_REQUEST));
+    public ReplyKeyboard buildRequestDetails(int interestedCount) {
+        return staticMenu("requestDetails." + (interestedCount > 0), keyboard -> {
+            keyboard.add(createSingleButtonRow(ACCEPT_REQUEST));
 
-        // Если есть заинтересованные студенты
-        if (interestedCount > 0) {
-            keyboard.add(createSingleButtonRow(VIEW_STUDENTS));
-        }
-
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+            // Если есть заинтересованные студенты
+            if (interestedCount > 0) {
+                keyboard.add(createSingleButtonRow(VIEW_STUDENTS));
+            }
 
-        return buildKeyboard(keyboard);
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     /**
      * Клавиатура для подтверждения автозакрытия (Да/Нет)
      */
-    public ReplyKeyboardMarkup buildYesNoKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createTwoButtonRow(YES, NO));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildYesNoKeyboard() {
+        return staticMenu("yesNo", keyboard -> {
+            keyboard.add(createTwoButtonRow(YES, NO));
+        });
     }
 
     /**
      * Клавиатура для выбора параметра редактирования
      */
-    public ReplyKeyboardMarkup buildEditMenu() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        keyboard.add(createTwoButtonRow(EDIT_TITLE, EDIT_DATE_TIME));
-        keyboard.add(createTwoButtonRow(EDIT_CAPACITY, EDIT_AUTO_CLOSE));
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildEditMenu() {
+        return staticMenu("editMenu", keyboard -> {
+            keyboard.add(createTwoButtonRow(EDIT_TITLE, EDIT_DATE_TIME));
+            keyboard.add(createTwoButtonRow(EDIT_CAPACITY, EDIT_AUTO_CLOSE));
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Простая клавиатура с кнопкой "Назад"
      */
-    public ReplyKeyboardMarkup buildBackKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createSingleButtonRow(BACK));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildBackKeyboard() {
+        return staticMenu("back", keyboard -> {
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Клавиатура с кнопкой "Отмена"
      */
-    public ReplyKeyboardMarkup buildCancelKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createSingleButtonRow(CANCEL));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildCancelKeyboard() {
+        return staticMenu("cancel", keyboard -> {
+            keyboard.add(createSingleButtonRow(CANCEL));
+        });
     }
 
     // ========== Приватные вспомогательные методы ==========
 
-    /**
-     * Добавить кнопки консультаций
-     */
-    private void addConsultationButtons(List<KeyboardRow> keyboard, List<Consultation> consultations, int maxCount) {
-        int count = 0;
-        for (Consultation consultation : consultations) {
-            if (count >= maxCount) break;
-            String buttonText;
-            if (consultation.getDate() != null) {
-                buttonText = String.format("%s%d - %s %s",
-                        NUMBER_PREFIX,
-                        consultation.getId(),
-                        formatDate(consultation.getDate()),
-                        formatTime(consultation.getStartTime())
-                );
-            } else {
-                buttonText = String.format("%s%d - %s",
-                        NUMBER_PREFIX,
-                        consultation.getId(),
-                        consultation.getTitle()
-                );
-            }
-            keyboard.add(createSingleButtonRow(buttonText));
-            count++;
-        }
-    }
-
     /**
      * Добавить кнопки управления консультацией в зависимости от статуса
      */
@@ -238,50 +174,32 @@ public class TeacherKeyboardBuilder extends BaseKeyboardBuilder {
     // ========== Клавиатуры для задач ==========
 
     /**
-     * Клавиатура со списком задач преподавателя
+     * Меню списка задач преподавателя (сами задачи - в inline-списке)
      */
-    public ReplyKeyboardMarkup buildTasksList(List<TodoTask> tasks) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Добавляем задачи (максимум 5)
-        int count = 0;
-        for (TodoTask task : tasks) {
-            if (count >= MAX_LIST_ITEMS) break;
-            String statusIcon = task.getIsCompleted() ? "✅" : "⏳";
-            String buttonText = String.format("%s%d - %s %s",
-                    NUMBER_PREFIX,
-                    task.getId(),
-                    statusIcon,
-                    task.getTitle());
-            keyboard.add(createSingleButtonRow(buttonText));
-            count++;
-        }
-
-        // Фильтры (всегда показываем, чтобы можно было изменить фильтр даже если список пуст)
-        keyboard.add(createTwoButtonRow(FILTER_TASK_INCOMPLETE, FILTER_TASK_COMPLETED));
-        keyboard.add(createSingleButtonRow(FILTER_TASK_ALL));
-
-        keyboard.add(createSingleButtonRow(BACK));
-
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildTasksMenu() {
+        return staticMenu("tasksMenu", keyboard -> {
+            // Фильтры
+            keyboard.add(createTwoButtonRow(FILTER_TASK_INCOMPLETE, FILTER_TASK_COMPLETED));
+            keyboard.add(createSingleButtonRow(FILTER_TASK_ALL));
+
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
      * Клавиатура для детального просмотра задачи
      */
-    public ReplyKeyboardMarkup buildTaskDetails(TodoTask task) {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-
-        // Кнопка изменения статуса
-        if (task.getIsCompleted()) {
-            keyboard.add(createSingleButtonRow(MARK_TASK_PENDING));
-        } else {
-            keyboard.add(createSingleButtonRow(MARK_TASK_COMPLETED));
-        }
-
-        keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+    public ReplyKeyboard buildTaskDetails(TodoTask task) {
+        return staticMenu("taskDetails." + task.getIsCompleted(), keyboard -> {
+            // Кнопка изменения статуса
+            if (task.getIsCompleted()) {
+                keyboard.add(createSingleButtonRow(MARK_TASK_PENDING));
+            } else {
+                keyboard.add(createSingleButtonRow(MARK_TASK_COMPLETED));
+            }
 
-        return buildKeyboard(keyboard);
+            keyboard.add(createSingleButtonRow(BACK_TO_LIST));
+        });
     }
 
     // ========== Клавиатуры для напоминаний ==========
@@ -289,11 +207,11 @@ public class TeacherKeyboardBuilder extends BaseKeyboardBuilder {
     /**
      * Клавиатура главного меню напоминаний (добавить/удалить)
      */
-    public ReplyKeyboardMarkup buildReminderTimeMenuKeyboard() {
-        List<KeyboardRow> keyboard = new ArrayList<>();
-        keyboard.add(createTwoButtonRow(KeyboardConstants.ADD_REMINDER_TIME, KeyboardConstants.REMOVE_REMINDER_TIME));
-        keyboard.add(createSingleButtonRow(BACK));
-        return buildKeyboard(keyboard);
+    public ReplyKeyboard buildReminderTimeMenuKeyboard() {
+        return staticMenu("reminderTimeMenu", keyboard -> {
+            keyboard.add(createTwoButtonRow(KeyboardConstants.ADD_REMINDER_TIME, KeyboardConstants.REMOVE_REMINDER_TIME));
+            keyboard.add(createSingleButtonRow(BACK));
+        });
     }
 
     /**
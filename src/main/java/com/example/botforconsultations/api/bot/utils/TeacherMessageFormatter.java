@@ -4,6 +4,7 @@ import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.ConsultationStatus;
 import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.TodoTask;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -17,14 +18,18 @@ import static com.example.botforconsultations.core.util.TimeUtils.now;
  * Утилита для форматирования сообщений преподавателя
  */
 @Component
+@RequiredArgsConstructor
 public class TeacherMessageFormatter {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy", new Locale("ru"));
     private static final DateTimeFormatter SHORT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final ConsultationCardCache cardCache;
 
     /**
-     * Формирует список консультаций преподавателя
+     * Формирует список консультаций преподавателя (одна страница списка)
      */
     public String formatConsultationsList(List<Consultation> consultations) {
         if (consultations.isEmpty()) {
@@ -50,93 +55,99 @@ public class TeacherMessageFormatter {
      */
     private String formatConsultationShort(Consultation consultation) {
         StringBuilder message = new StringBuilder();
-        message.append(String.format("№%d\n", consultation.getId()));
+        MessageTemplate.append(message, "№%d\n", consultation.getId());
 
         if (consultation.getDate() != null && consultation.getStartTime() != null) {
-            message.append(String.format("📅 %s %s - %s\n",
+            MessageTemplate.append(message, "📅 %s %s - %s\n",
                     consultation.getDate().format(SHORT_DATE_FORMATTER),
                     consultation.getStartTime().format(TIME_FORMATTER),
-                    consultation.getEndTime().format(TIME_FORMATTER)));
+                    consultation.getEndTime().format(TIME_FORMATTER));
         }
 
         if (consultation.getTitle() != null && !consultation.getTitle().isEmpty()) {
-            message.append(String.format("📝 %s\n", consultation.getTitle()));
+            MessageTemplate.append(message, "📝 %s\n", consultation.getTitle());
         }
 
         String statusEmoji = getStatusEmoji(consultation.getStatus());
-        message.append(String.format("%s %s\n", statusEmoji, getStatusText(consultation.getStatus())));
+        MessageTemplate.append(message, "%s %s\n", statusEmoji, getStatusText(consultation.getStatus()));
         message.append("\n");
 
         return message.toString();
     }
 
     /**
-     * Детальная информация о консультации для преподавателя
+     * Детальная информация о консультации для преподавателя (registeredCount - счётчик консультации, карточка кэшируется)
      */
     public String formatConsultationDetails(Consultation consultation, long registeredCount) {
+        return cardCache.get(consultation, ConsultationCardCache.View.TEACHER_DETAILS,
+                () -> renderConsultationDetails(consultation, registeredCount));
+    }
+
+    private String renderConsultationDetails(Consultation consultation, long registeredCount) {
         StringBuilder message = new StringBuilder();
-        message.append(String.format("📋 Консультация №%d\n\n", consultation.getId()));
+        MessageTemplate.append(message, "📋 Консультация №%d\n\n", consultation.getId());
 
         if (consultation.getTitle() != null && !consultation.getTitle().isEmpty()) {
-            message.append(String.format("📝 Тема: %s\n\n", consultation.getTitle()));
+            MessageTemplate.append(message, "📝 Тема: %s\n\n", consultation.getTitle());
         }
 
         if (consultation.getDate() != null) {
-            message.append(String.format("📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER)));
+            MessageTemplate.append(message, "📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER));
         }
 
         if (consultation.getStartTime() != null && consultation.getEndTime() != null) {
-            message.append(String.format("🕐 Время: %s - %s\n\n",
+            MessageTemplate.append(message, "🕐 Время: %s - %s\n\n",
                     consultation.getStartTime().format(TIME_FORMATTER),
-                    consultation.getEndTime().format(TIME_FORMATTER)));
+                    consultation.getEndTime().format(TIME_FORMATTER));
         }
 
         // Статус
         String statusEmoji = getStatusEmoji(consultation.getStatus());
-        message.append(String.format("Статус: %s %s\n\n", statusEmoji, getStatusText(consultation.getStatus())));
+        MessageTemplate.append(message, "Статус: %s %s\n\n", statusEmoji, getStatusText(consultation.getStatus()));
 
         // Вместимость - отображаем записанных студентов с учётом лимита
         message.append("👥 Записано студентов: ");
         if (consultation.getCapacity() != null && consultation.getCapacity() > 0) {
-            message.append(String.format("%d/%d\n", registeredCount, consultation.getCapacity()));
+            MessageTemplate.append(message, "%d/%d\n", registeredCount, consultation.getCapacity());
         } else {
-            message.append(String.format("%d (без ограничений)\n", registeredCount));
+            MessageTemplate.append(message, "%d (без ограничений)\n", registeredCount);
         }
 
         // Автозакрытие
-        message.append(String.format("🔒 Автозакрытие: %s\n",
-                consultation.isAutoCloseOnCapacity() ? "включено" : "выключено"));
+        MessageTemplate.append(message, "🔒 Автозакрытие: %s\n",
+                consultation.isAutoCloseOnCapacity() ? "включено" : "выключено");
 
         message.append("\n💡 Выберите действие:");
         return message.toString();
     }
 
     /**
-     * Список записанных студентов с их вопросами
+     * Список записанных студентов с их вопросами (по студенту на блок - при переполнении
+     * список продолжается следующим сообщением)
      */
-    public String formatRegisteredStudents(List<StudentConsultation> registrations) {
+    public void writeRegisteredStudents(List<StudentConsultation> registrations, MessageChunks out) {
         if (registrations.isEmpty()) {
-            return "👥 На эту консультацию пока никто не записался";
+            out.append("👥 На эту консультацию пока никто не записался");
+            return;
         }
 
-        StringBuilder message = new StringBuilder();
-        message.append(String.format("👥 Список студентов (%d %s):\n\n",
+        out.append(MessageTemplate.format("👥 Список студентов (%d %s):\n\n",
                 registrations.size(),
                 getStudentWord(registrations.size())));
 
         int count = 1;
         for (StudentConsultation sc : registrations) {
-            message.append(String.format("%d. %s\n",
+            StringBuilder entry = new StringBuilder();
+            MessageTemplate.append(entry, "%d. %s\n",
                     count++,
-                    TeacherNameFormatter.formatFullName(sc.getStudent())));
+                    TeacherNameFormatter.formatFullName(sc.getStudent()));
 
             if (sc.getMessage() != null && !sc.getMessage().isEmpty()) {
-                message.append(String.format("   📝 Вопрос: %s\n", sc.getMessage()));
+                MessageTemplate.append(entry, "   📝 Вопрос: %s\n", sc.getMessage());
             }
-            message.append("\n");
+            entry.append("\n");
+            out.append(entry.toString());
         }
-
-        return message.toString();
     }
 
     /**
@@ -153,15 +164,15 @@ public class TeacherMessageFormatter {
         message.append("📋 Запросы студентов на консультации:\n\n");
 
         for (Consultation request : requests) {
-            int interestedCount = request.getRegUsers() != null ? request.getRegUsers().size() : 0;
+            int interestedCount = request.getRegisteredCount();
 
-            message.append(String.format("⏳ №%d - %s\n",
+            MessageTemplate.append(message, "⏳ №%d - %s\n",
                     request.getId(),
-                    request.getTitle()));
-            message.append(String.format("   👤 Автор: %s\n",
-                    TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher())));
-            message.append(String.format("   👥 Заинтересовано: %d\n",
-                    interestedCount));
+                    request.getTitle());
+            MessageTemplate.append(message, "   👤 Автор: %s\n",
+                    TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher()));
+            MessageTemplate.append(message, "   👥 Заинтересовано: %d\n",
+                    interestedCount);
             message.append("\n");
         }
 
@@ -174,15 +185,15 @@ public class TeacherMessageFormatter {
      */
     public String formatRequestDetails(Consultation request, int interestedCount) {
         StringBuilder message = new StringBuilder();
-        message.append(String.format("📋 Запрос консультации №%d\n\n", request.getId()));
+        MessageTemplate.append(message, "📋 Запрос консультации №%d\n\n", request.getId());
 
-        message.append(String.format("📝 Тема: %s\n\n", request.getTitle()));
+        MessageTemplate.append(message, "📝 Тема: %s\n\n", request.getTitle());
 
-        message.append(String.format("👤 Автор запроса: %s\n",
-                TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher())));
+        MessageTemplate.append(message, "👤 Автор запроса: %s\n",
+                TeacherNameFormatter.formatFullNameExcludeId(request.getTeacher()));
 
-        message.append(String.format("\n👥 Заинтересовано студентов: %d\n",
-                interestedCount));
+        MessageTemplate.append(message, "\n👥 Заинтересовано студентов: %d\n",
+                interestedCount);
 
         message.append("📊 Статус: ⏳ Ожидает принятия\n");
 
@@ -195,25 +206,30 @@ public class TeacherMessageFormatter {
     // ========== Уведомления ==========
 
     /**
-     * Уведомление о новой консультации (для подписчиков)
+     * Уведомление о новой консультации (для подписчиков, карточка кэшируется)
      */
     public String formatNewConsultationNotification(Consultation consultation) {
+        return cardCache.get(consultation, ConsultationCardCache.View.NEW_CONSULTATION,
+                () -> renderNewConsultationNotification(consultation));
+    }
+
+    private String renderNewConsultationNotification(Consultation consultation) {
         StringBuilder message = new StringBuilder();
         message.append("🔔 Новая консультация!\n\n");
-        message.append(String.format("👨‍🏫 Преподаватель: %s\n\n",
-                TeacherNameFormatter.formatFullName(consultation.getTeacher())));
+        MessageTemplate.append(message, "👨‍🏫 Преподаватель: %s\n\n",
+                TeacherNameFormatter.formatFullName(consultation.getTeacher()));
 
         if (consultation.getTitle() != null && !consultation.getTitle().isEmpty()) {
-            message.append(String.format("📝 Тема: %s\n\n", consultation.getTitle()));
+            MessageTemplate.append(message, "📝 Тема: %s\n\n", consultation.getTitle());
         }
 
-        message.append(String.format("📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER)));
-        message.append(String.format("🕐 Время: %s - %s\n\n",
+        MessageTemplate.append(message, "📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER));
+        MessageTemplate.append(message, "🕐 Время: %s - %s\n\n",
                 consultation.getStartTime().format(TIME_FORMATTER),
-                consultation.getEndTime().format(TIME_FORMATTER)));
+                consultation.getEndTime().format(TIME_FORMATTER));
 
         if (consultation.getCapacity() != null && consultation.getCapacity() > 0) {
-            message.append(String.format("👥 Мест: %d\n", consultation.getCapacity()));
+            MessageTemplate.append(message, "👥 Мест: %d\n", consultation.getCapacity());
         } else {
             message.append("👥 Мест: без ограничений\n");
         }
@@ -230,19 +246,19 @@ public class TeacherMessageFormatter {
     public String formatConsultationUpdateNotification(Consultation consultation, String changeDescription) {
         StringBuilder message = new StringBuilder();
         message.append("⚠️ Изменение в консультации!\n\n");
-        message.append(String.format("📋 Консультация №%d\n", consultation.getId()));
-        message.append(String.format("👨‍🏫 Преподаватель: %s\n\n",
-                TeacherNameFormatter.formatFullName(consultation.getTeacher())));
+        MessageTemplate.append(message, "📋 Консультация №%d\n", consultation.getId());
+        MessageTemplate.append(message, "👨‍🏫 Преподаватель: %s\n\n",
+                TeacherNameFormatter.formatFullName(consultation.getTeacher()));
 
-        message.append(String.format("Что изменилось: %s\n\n", changeDescription));
+        MessageTemplate.append(message, "Что изменилось: %s\n\n", changeDescription);
 
         if (consultation.getTitle() != null) {
-            message.append(String.format("📝 Тема: %s\n", consultation.getTitle()));
+            MessageTemplate.append(message, "📝 Тема: %s\n", consultation.getTitle());
         }
-        message.append(String.format("📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER)));
-        message.append(String.format("🕐 Время: %s - %s\n",
+        MessageTemplate.append(message, "📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER));
+        MessageTemplate.append(message, "🕐 Время: %s - %s\n",
                 consultation.getStartTime().format(TIME_FORMATTER),
-                consultation.getEndTime().format(TIME_FORMATTER)));
+                consultation.getEndTime().format(TIME_FORMATTER));
 
         return message.toString();
     }
@@ -253,22 +269,22 @@ public class TeacherMessageFormatter {
     public String formatAvailableSpotsNotification(Consultation consultation, long currentCount) {
         StringBuilder message = new StringBuilder();
         message.append("🔔 Освободилось место!\n\n");
-        message.append(String.format("📋 Консультация №%d\n", consultation.getId()));
-        message.append(String.format("👨‍🏫 Преподаватель: %s\n\n",
-                TeacherNameFormatter.formatFullName(consultation.getTeacher())));
+        MessageTemplate.append(message, "📋 Консультация №%d\n", consultation.getId());
+        MessageTemplate.append(message, "👨‍🏫 Преподаватель: %s\n\n",
+                TeacherNameFormatter.formatFullName(consultation.getTeacher()));
 
         if (consultation.getTitle() != null) {
-            message.append(String.format("📝 Тема: %s\n\n", consultation.getTitle()));
+            MessageTemplate.append(message, "📝 Тема: %s\n\n", consultation.getTitle());
         }
 
-        message.append(String.format("📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER)));
-        message.append(String.format("🕐 Время: %s - %s\n\n",
+        MessageTemplate.append(message, "📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER));
+        MessageTemplate.append(message, "🕐 Время: %s - %s\n\n",
                 consultation.getStartTime().format(TIME_FORMATTER),
-                consultation.getEndTime().format(TIME_FORMATTER)));
+                consultation.getEndTime().format(TIME_FORMATTER));
 
         if (consultation.getCapacity() != null && consultation.getCapacity() > 0) {
             long availableSpots = consultation.getCapacity() - currentCount;
-            message.append(String.format("👥 Свободных мест: %d\n\n", availableSpots));
+            MessageTemplate.append(message, "👥 Свободных мест: %d\n\n", availableSpots);
         }
 
         message.append("✅ Запись теперь открыта!");
@@ -282,18 +298,18 @@ public class TeacherMessageFormatter {
     public String formatCancellationNotification(Consultation consultation) {
         StringBuilder message = new StringBuilder();
         message.append("❌ Консультация отменена\n\n");
-        message.append(String.format("📋 Консультация №%d\n", consultation.getId()));
-        message.append(String.format("👨‍🏫 Преподаватель: %s\n\n",
-                TeacherNameFormatter.formatFullName(consultation.getTeacher())));
+        MessageTemplate.append(message, "📋 Консультация №%d\n", consultation.getId());
+        MessageTemplate.append(message, "👨‍🏫 Преподаватель: %s\n\n",
+                TeacherNameFormatter.formatFullName(consultation.getTeacher()));
 
         if (consultation.getTitle() != null) {
-            message.append(String.format("📝 Тема: %s\n\n", consultation.getTitle()));
+            MessageTemplate.append(message, "📝 Тема: %s\n\n", consultation.getTitle());
         }
 
-        message.append(String.format("📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER)));
-        message.append(String.format("🕐 Время: %s - %s\n\n",
+        MessageTemplate.append(message, "📅 Дата: %s\n", consultation.getDate().format(DATE_FORMATTER));
+        MessageTemplate.append(message, "🕐 Время: %s - %s\n\n",
                 consultation.getStartTime().format(TIME_FORMATTER),
-                consultation.getEndTime().format(TIME_FORMATTER)));
+                consultation.getEndTime().format(TIME_FORMATTER));
 
         // if (consultation.getClosedReason() != null && !consultation.getClosedReason().isEmpty()) {
         //     message.append(String.format("Причина: %s\n\n", consultation.getClosedReason()));
@@ -344,9 +360,12 @@ public class TeacherMessageFormatter {
     // ========== Форматирование задач ==========
 
     /**
-     * Форматировать список задач преподавателя
+     * Форматировать страницу списка задач преподавателя
+     *
+     * @param tasks задачи страницы
+     * @param total количество задач с учётом фильтров
      */
-    public String formatMyTasksList(List<TodoTask> tasks, String statusFilter, String deadlineFilter) {
+    public String formatMyTasksList(List<TodoTask> tasks, long total, String statusFilter, String deadlineFilter) {
         StringBuilder message = new StringBuilder();
         message.append("📋 Мои задачи\n\n");
 
@@ -367,8 +386,8 @@ public class TeacherMessageFormatter {
             message.append(formatTaskShort(task, currentTime));
         }
 
-        message.append(String.format("\nВсего задач: %d", tasks.size()));
-        message.append("\n\n💡 Введите №... для просмотра деталей задачи");
+        MessageTemplate.append(message, "\nВсего задач: %d", total);
+        message.append("\n\n💡 Нажмите на задачу или введите №... для просмотра деталей");
 
         return message.toString();
     }
@@ -381,7 +400,7 @@ public class TeacherMessageFormatter {
 
         // Номер и статус
         String statusEmoji = task.getIsCompleted() ? "✅" : "⏳";
-        message.append(String.format("%s №%d - ", statusEmoji, task.getId()));
+        MessageTemplate.append(message, "%s №%d - ", statusEmoji, task.getId());
 
         // Заголовок (обрезаем если длинный)
         String title = task.getTitle();
@@ -392,8 +411,8 @@ public class TeacherMessageFormatter {
 
         // Дедлайн
         LocalDateTime deadline = task.getDeadline();
-        message.append(String.format("   ⏰ %s",
-                deadline.format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"))));
+        MessageTemplate.append(message, "   ⏰ %s",
+                deadline.format(DATETIME_FORMATTER));
 
         // Индикатор просрочки
         if (!task.getIsCompleted() && deadline.isBefore(now)) {
@@ -414,33 +433,33 @@ public class TeacherMessageFormatter {
         StringBuilder message = new StringBuilder();
         LocalDateTime currentTime = now();
 
-        message.append(String.format("📋 Задача №%d\n\n", task.getId()));
+        MessageTemplate.append(message, "📋 Задача №%d\n\n", task.getId());
 
         // Название
-        message.append(String.format("📝 *%s*\n\n", task.getTitle()));
+        MessageTemplate.append(message, "📝 *%s*\n\n", task.getTitle());
 
         // Описание
         if (task.getDescription() != null && !task.getDescription().isEmpty()) {
-            message.append(String.format("📄 Описание:\n%s\n\n", task.getDescription()));
+            MessageTemplate.append(message, "📄 Описание:\n%s\n\n", task.getDescription());
         }
 
         // Дедлайн
         if (task.getDeadline() != null) {
-            message.append(String.format("⏰ Дедлайн: %s\n",
-                    task.getDeadline().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"))));
+            MessageTemplate.append(message, "⏰ Дедлайн: %s\n",
+                    task.getDeadline().format(DATETIME_FORMATTER));
 
             // Статус просрочки/времени
             if (!task.getIsCompleted() && task.getDeadline().isBefore(currentTime)) {
                 long daysOverdue = java.time.Duration.between(task.getDeadline(), currentTime).toDays();
-                message.append(String.format("⚠️ Просрочено на %d %s\n",
-                        daysOverdue, getDaysWord(daysOverdue)));
+                MessageTemplate.append(message, "⚠️ Просрочено на %d %s\n",
+                        daysOverdue, getDaysWord(daysOverdue));
             } else if (!task.getIsCompleted()) {
                 long daysLeft = java.time.Duration.between(currentTime, task.getDeadline()).toDays();
                 if (daysLeft == 0) {
                     message.append("⏳ Дедлайн сегодня!\n");
                 } else {
-                    message.append(String.format("⏳ Осталось %d %s\n",
-                            daysLeft, getDaysWord(daysLeft)));
+                    MessageTemplate.append(message, "⏳ Осталось %d %s\n",
+                            daysLeft, getDaysWord(daysLeft));
                 }
             }
             message.append("\n");
@@ -449,18 +468,18 @@ public class TeacherMessageFormatter {
         // Статус
         String statusIcon = task.getIsCompleted() ? "✅" : "⏳";
         String statusText = task.getIsCompleted() ? "Выполнена" : "В работе";
-        message.append(String.format("Статус: %s %s\n", statusIcon, statusText));
+        MessageTemplate.append(message, "Статус: %s %s\n", statusIcon, statusText);
 
         // Дата выполнения
         if (task.getIsCompleted() && task.getCompletedAt() != null) {
-            message.append(String.format("Выполнена: %s\n",
-                    task.getCompletedAt().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm"))));
+            MessageTemplate.append(message, "Выполнена: %s\n",
+                    task.getCompletedAt().format(DATETIME_FORMATTER));
         }
 
         // Кто создал
         if (task.getCreatedBy() != null) {
-            message.append(String.format("\n👤 Создано: %s\n",
-                    TeacherNameFormatter.formatFullName(task.getCreatedBy())));
+            MessageTemplate.append(message, "\n👤 Создано: %s\n",
+                    TeacherNameFormatter.formatFullName(task.getCreatedBy()));
         }
 
         message.append("\n💡 Выберите действие:");
@@ -1,5 +1,6 @@
 package com.example.botforconsultations.api.bot.utils;
 
+import com.example.botforconsultations.core.model.TeacherSummary;
 import com.example.botforconsultations.core.model.TelegramUser;
 import lombok.experimental.UtilityClass;
 
@@ -11,11 +12,21 @@ public class TeacherNameFormatter {
      * Формат: "👨‍🏫 №123 Имя Фамилия"
      */
     public static String formatFullName(TelegramUser teacher) {
-        String lastName = teacher.getLastName() != null ? teacher.getLastName() : "";
+        return formatFullName(teacher.getId(), teacher.getFirstName(), teacher.getLastName());
+    }
+
+    /**
+     * Форматирует полное имя преподавателя из справочника для отображения в кнопке
+     */
+    public static String formatFullName(TeacherSummary teacher) {
+        return formatFullName(teacher.id(), teacher.firstName(), teacher.lastName());
+    }
+
+    private static String formatFullName(Long id, String firstName, String lastName) {
         return String.format("👨‍🏫 №%d %s %s",
-                teacher.getId(),
-                teacher.getFirstName(),
-                lastName).trim();
+                id,
+                firstName,
+                lastName != null ? lastName : "").trim();
     }
 
     public static String formatFullNameExcludeId(TelegramUser teacher) {
@@ -19,14 +19,18 @@ public class TodoMessageFormatter {
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
     /**
-     * Форматировать список задач преподавателя
+     * Форматировать страницу списка задач преподавателя
+     *
+     * @param tasks задачи страницы
+     * @param total количество задач с учётом фильтров
      */
-    public String formatTeacherTasksList(TelegramUser teacher, List<TodoTask> tasks, String statusFilter, String deadlineFilter) {
+    public String formatTeacherTasksList(TelegramUser teacher, List<TodoTask> tasks, long total,
+                                         String statusFilter, String deadlineFilter) {
         StringBuilder message = new StringBuilder();
         message.append("📋 Задачи преподавателя\n\n");
-        message.append(String.format("👨‍🏫 %s %s\n\n",
+        MessageTemplate.append(message, "👨‍🏫 %s %s\n\n",
                 teacher.getFirstName(),
-                teacher.getLastName() != null ? teacher.getLastName() : ""));
+                teacher.getLastName() != null ? teacher.getLastName() : "");
 
         if (tasks.isEmpty()) {
             message.append("❌ Задач не найдено");
@@ -45,16 +49,19 @@ public class TodoMessageFormatter {
             message.append(formatTaskShort(task, currentTime));
         }
 
-        message.append(String.format("\nВсего задач: %d", tasks.size()));
-        message.append("\n\n💡 Введите №... для просмотра деталей задачи");
+        MessageTemplate.append(message, "\nВсего задач: %d", total);
+        message.append("\n\n💡 Нажмите на задачу или введите №... для просмотра деталей");
 
         return message.toString();
     }
 
     /**
-     * Форматировать список всех задач (для деканата)
+     * Форматировать страницу списка всех задач (для деканата)
+     *
+     * @param tasks задачи страницы
+     * @param total количество задач с учётом фильтров
      */
-    public String formatAllTasksList(List<TodoTask> tasks, String statusFilter, String deadlineFilter) {
+    public String formatAllTasksList(List<TodoTask> tasks, long total, String statusFilter, String deadlineFilter) {
         StringBuilder message = new StringBuilder();
         message.append("📋 Все задачи в системе\n\n");
 
@@ -75,8 +82,8 @@ public class TodoMessageFormatter {
             message.append(formatTaskShort(task, currentTime));
         }
 
-        message.append(String.format("\nВсего задач: %d", tasks.size()));
-        message.append("\n\n💡 Введите №... для просмотра деталей задачи");
+        MessageTemplate.append(message, "\nВсего задач: %d", total);
+        message.append("\n\n💡 Нажмите на задачу или введите №... для просмотра деталей");
 
         return message.toString();
     }
@@ -89,7 +96,7 @@ public class TodoMessageFormatter {
 
         // Номер и статус
         String statusEmoji = task.getIsCompleted() ? "✅" : "❌";
-        message.append(String.format("%s №%d - ", statusEmoji, task.getId()));
+        MessageTemplate.append(message, "%s №%d - ", statusEmoji, task.getId());
 
         // Заголовок (обрезаем если длинный)
         String title = task.getTitle();
@@ -100,14 +107,14 @@ public class TodoMessageFormatter {
 
         // Преподаватель
         TelegramUser teacher = task.getTeacher();
-        message.append(String.format("   👨‍🏫 %s %s\n",
+        MessageTemplate.append(message, "   👨‍🏫 %s %s\n",
                 teacher.getFirstName(),
-                teacher.getLastName() != null ? teacher.getLastName() : ""));
+                teacher.getLastName() != null ? teacher.getLastName() : "");
 
         // Дедлайн
         LocalDateTime deadline = task.getDeadline();
-        message.append(String.format("   ⏰ %s",
-                deadline.format(DATETIME_FORMATTER)));
+        MessageTemplate.append(message, "   ⏰ %s",
+                deadline.format(DATETIME_FORMATTER));
 
         // Индикатор просрочки
         if (!task.getIsCompleted() && deadline.isBefore(now)) {
@@ -120,68 +127,67 @@ public class TodoMessageFormatter {
     }
 
     /**
-     * Форматировать детали задачи
+     * Детали задачи (длинное описание продолжается следующим сообщением)
      */
-    public String formatTaskDetails(TodoTask task) {
-        StringBuilder message = new StringBuilder();
+    public void writeTaskDetails(TodoTask task, MessageChunks out) {
         LocalDateTime now = now();
 
-        message.append("📋 Детали задачи\n\n");
-
         // Номер и статус
         String statusEmoji = task.getIsCompleted() ? "✅" : "❌";
         String statusText = task.getIsCompleted() ? "Выполнена" : "Не выполнена";
-        message.append(String.format("№%d %s %s\n\n", task.getId(), statusEmoji, statusText));
+        out.append(MessageTemplate.format("📋 Детали задачи\n\n№%d %s %s\n\n", task.getId(), statusEmoji, statusText));
 
         // Заголовок
-        message.append(String.format("📌 Заголовок:\n%s\n\n", task.getTitle()));
+        out.append(MessageTemplate.format("📌 Заголовок:\n%s\n\n", task.getTitle()));
 
         // Описание
         if (task.getDescription() != null && !task.getDescription().isEmpty()) {
-            message.append(String.format("📝 Описание:\n%s\n\n", task.getDescription()));
+            out.append(MessageTemplate.format("📝 Описание:\n%s\n\n", task.getDescription()));
         }
 
+        StringBuilder message = new StringBuilder();
+
         // Преподаватель
         TelegramUser teacher = task.getTeacher();
-        message.append(String.format("👨‍🏫 Преподаватель: %s %s\n",
+        MessageTemplate.append(message, "👨‍🏫 Преподаватель: %s %s\n",
                 teacher.getFirstName(),
-                teacher.getLastName() != null ? teacher.getLastName() : ""));
+                teacher.getLastName() != null ? teacher.getLastName() : "");
 
         // Создатель
         TelegramUser createdBy = task.getCreatedBy();
         if (createdBy != null) {
-            message.append(String.format("👤 Создал: %s %s\n",
+            MessageTemplate.append(message, "👤 Создал: %s %s\n",
                     createdBy.getFirstName(),
-                    createdBy.getLastName() != null ? createdBy.getLastName() : ""));
+                    createdBy.getLastName() != null ? createdBy.getLastName() : "");
         }
 
         // Дедлайн
         LocalDateTime deadline = task.getDeadline();
-        message.append(String.format("⏰ Дедлайн: %s\n",
-                deadline.format(DATETIME_FORMATTER)));
+        MessageTemplate.append(message, "⏰ Дедлайн: %s\n",
+                deadline.format(DATETIME_FORMATTER));
 
         // Статус просрочки
         if (!task.getIsCompleted() && deadline.isBefore(now)) {
             long daysOverdue = java.time.Duration.between(deadline, now).toDays();
-            message.append(String.format("⚠️ Просрочено на %d %s\n",
-                    daysOverdue, getDaysWord(daysOverdue)));
+            MessageTemplate.append(message, "⚠️ Просрочено на %d %s\n",
+                    daysOverdue, getDaysWord(daysOverdue));
         } else if (!task.getIsCompleted()) {
             long daysLeft = java.time.Duration.between(now, deadline).toDays();
             if (daysLeft == 0) {
                 message.append("⏳ Дедлайн сегодня!\n");
             } else {
-                message.append(String.format("⏳ Осталось %d %s\n",
-                        daysLeft, getDaysWord(daysLeft)));
+                MessageTemplate.append(message, "⏳ Осталось %d %s\n",
+                        daysLeft, getDaysWord(daysLeft));
             }
         }
 
         // Дата выполнения
         if (task.getIsCompleted() && task.getCompletedAt() != null) {
-            message.append(String.format("✓ Выполнено: %s\n",
-                    task.getCompletedAt().format(DATETIME_FORMATTER)));
+            MessageTemplate.append(message, "✓ Выполнено: %s\n",
+                    task.getCompletedAt().format(DATETIME_FORMATTER));
         }
 
-        return message.toString();
+        out.append(message.toString());
     }
 
     /**
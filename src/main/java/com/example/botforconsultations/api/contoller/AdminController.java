@@ -1,12 +1,15 @@
 package com.example.botforconsultations.api.contoller;
 
+import com.example.botforconsultations.api.dto.ConsultationDto;
 import com.example.botforconsultations.api.dto.UserDto;
+import com.example.botforconsultations.api.mapper.ConsultationMapper;
 import com.example.botforconsultations.api.mapper.UserMapper;
 import com.example.botforconsultations.core.service.AdminService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,9 +18,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -27,6 +32,7 @@ public class AdminController {
 
     private final AdminService adminService;
     private final UserMapper userMapper;
+    private final ConsultationMapper consultationMapper;
 
     @PostMapping("login")
     @Operation(summary = "Вход в аккаунт")
@@ -97,5 +103,22 @@ public class AdminController {
     public void deleteUser(@PathVariable Long id) {
         adminService.deleteUser(id);
     }
-}
 
+    // ========== Архив консультаций ==========
+
+    @GetMapping("archive/consultations")
+    @Operation(summary = "Получение консультаций из архива", security = @SecurityRequirement(name = "bearerAuth"))
+    @ResponseStatus(HttpStatus.OK)
+    public ConsultationDto.ArchivePage getArchivedConsultations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return new ConsultationDto.ArchivePage(
+                consultationMapper.toArchivedConsultationInfo(
+                        adminService.getArchivedConsultations(from, to, teacherId, page, size)),
+                page, size, adminService.countArchivedConsultations(from, to, teacherId));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.botforconsultations.api.contoller;
+
+import com.example.botforconsultations.api.bot.dispatch.ChatUpdateDispatcher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Приём обновлений Telegram через webhook (bot.mode=webhook).
+ * Проверяет секретный токен, передаёт обновление в ChatUpdateDispatcher и сразу отвечает 200,
+ * не дожидаясь обработки. Позволяет запускать несколько экземпляров бота за балансировщиком.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(name = "bot.mode", havingValue = "webhook")
+public class TelegramWebhookController {
+
+    private static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final ChatUpdateDispatcher updateDispatcher;
+    private final ObjectMapper objectMapper;
+    private final byte[] secretToken;
+
+    public TelegramWebhookController(ChatUpdateDispatcher updateDispatcher,
+                                     ObjectMapper objectMapper,
+                                     @Value("${bot.webhook.secret-token:}") String secretToken) {
+        if (!StringUtils.hasText(secretToken)) {
+            throw new IllegalStateException("bot.webhook.secret-token must be set in webhook mode");
+        }
+        this.updateDispatcher = updateDispatcher;
+        this.objectMapper = objectMapper;
+        this.secretToken = secretToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostMapping("${bot.webhook.path:/api/telegram/webhook}")
+    public ResponseEntity<Void> onUpdate(@RequestHeader(value = SECRET_TOKEN_HEADER, required = false) String token,
+                                         @RequestBody String body) {
+        // Сравнение за постоянное время, чтобы токен нельзя было подобрать по времени ответа
+        if (token == null || !MessageDigest.isEqual(secretToken, token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejected webhook request with invalid secret token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Update update;
+        try {
+            update = objectMapper.readValue(body, Update.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot parse webhook update: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        updateDispatcher.dispatch(update);
+        return ResponseEntity.ok().build();
+    }
+}
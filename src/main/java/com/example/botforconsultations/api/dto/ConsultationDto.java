@@ -1,7 +1,11 @@
 package com.example.botforconsultations.api.dto;
 
+import com.example.botforconsultations.core.model.ConsultationStatus;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 
 public class ConsultationDto {
 
@@ -11,4 +15,16 @@ public class ConsultationDto {
     ) {
     }
 
+    public record ArchivedConsultationInfo(
+            Long id, Long teacherId, String teacherName, String title,
+            LocalDate date, LocalTime startTime, LocalTime endTime, Integer capacity,
+            ConsultationStatus status, String closedReason, int registeredCount, LocalDateTime archivedAt
+    ) {
+    }
+
+    public record ArchivePage(
+            List<ArchivedConsultationInfo> items, int page, int size, long total
+    ) {
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.example.botforconsultations.api.mapper;
 
 import com.example.botforconsultations.api.dto.ConsultationDto;
+import com.example.botforconsultations.core.model.ArchivedConsultation;
 import com.example.botforconsultations.core.model.Consultation;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -15,4 +16,8 @@ public interface ConsultationMapper {
     ConsultationDto.ConsultationInfo toConsultationDto(Consultation consultation);
 
     List<ConsultationDto.ConsultationInfo> toConsultationDto(List<Consultation> consultations);
+
+    ConsultationDto.ArchivedConsultationInfo toArchivedConsultationInfo(ArchivedConsultation consultation);
+
+    List<ConsultationDto.ArchivedConsultationInfo> toArchivedConsultationInfo(List<ArchivedConsultation> consultations);
 }
@@ -0,0 +1,29 @@
+package com.example.botforconsultations.core.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Консультация из архива (таблица consultation_archive).
+ * Архив хранит только итоговые данные: записи студентов сведены к их количеству.
+ *
+ * @param id              ID исходной консультации
+ * @param teacherId       ID преподавателя
+ * @param teacherName     имя преподавателя на момент архивации
+ * @param title           тема
+ * @param date            дата
+ * @param startTime       время начала
+ * @param endTime         время окончания
+ * @param capacity        вместимость (null - без ограничений)
+ * @param status          статус на момент архивации
+ * @param closedReason    причина закрытия
+ * @param registeredCount количество записавшихся студентов
+ * @param archivedAt      время переноса в архив
+ */
+public record ArchivedConsultation(
+        Long id, Long teacherId, String teacherName, String title,
+        LocalDate date, LocalTime startTime, LocalTime endTime, Integer capacity,
+        ConsultationStatus status, String closedReason, int registeredCount, LocalDateTime archivedAt
+) {
+}
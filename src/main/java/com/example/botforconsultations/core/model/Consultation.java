@@ -12,18 +12,20 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @Entity
 @Getter
@@ -46,8 +48,10 @@ public class Consultation {
 
     private LocalDate date;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Загружается через entity graph в методах ConsultationRepository
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "teacher_id")
+    @ToString.Exclude
     private TelegramUser teacher;
 
     @Enumerated(EnumType.STRING)
@@ -65,11 +69,22 @@ public class Consultation {
     @Column(name = "closed_reason")
     private String closedReason;
 
+    // Количество записавшихся студентов. Меняется только через ConsultationRepository.reserveSeat/releaseSeat,
+    // поэтому сохранение сущности счётчик не перезаписывает.
+    // Список записей - StudentConsultationRepository.findByConsultationIdWithStudent
+    @Column(name = "registered_count", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private int registeredCount;
 
-    @OneToMany(mappedBy = "consultation", fetch = FetchType.EAGER)
-    private Set<StudentConsultation> regUsers;
+    // Версия строки: увеличивается триггером БД при любом изменении консультации и при смене имени преподавателя,
+    // после сохранения перечитывается. По ней ConsultationCardCache отличает устаревшие карточки
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "version", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private long version;
 
     @OneToMany(mappedBy = "consultation", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
+    @ToString.Exclude
     private List<StudentConsultation> studentConsultations = new ArrayList<>();
 }
\ No newline at end of file
@@ -6,7 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -36,7 +36,8 @@ public class GoogleCalendarToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    // Один токен на пользователя (уникальный user_id); ManyToOne - пара к коллекции TelegramUser.googleCalendarTokens
+    @ManyToOne
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private TelegramUser user;
 
@@ -0,0 +1,9 @@
+package com.example.botforconsultations.core.model;
+
+public enum NotificationEventType {
+    NEW_CONSULTATION,      // новая консультация - подписчикам преподавателя
+    CONSULTATION_UPDATE,   // изменение консультации - записанным студентам
+    AVAILABLE_SPOTS,       // появились свободные места - подписчикам, не записанным на консультацию
+    CANCELLATION,          // отмена консультации - записанным студентам
+    REQUEST_ACCEPTED       // запрос принят преподавателем - заинтересованным студентам
+}
@@ -2,19 +2,35 @@ package com.example.botforconsultations.core.model;
 
 import lombok.Getter;
 
+import java.util.Collection;
+
 @Getter
 public enum ReminderTime {
-    MIN_15("15 минут", 15),
-    MIN_30("30 минут", 30),
-    HOUR_1("1 час", 60),
-    DAY_1("1 день", 1440);
+    MIN_15("15 минут", 15, 1),
+    MIN_30("30 минут", 30, 1 << 1),
+    HOUR_1("1 час", 60, 1 << 2),
+    DAY_1("1 день", 1440, 1 << 3);
 
     private final String displayName;
     private final int minutesBeforeDeadline;
+    // Бит в todo_tasks.sent_reminders. Хранится в БД: у новых значений - новый бит, существующие не менять
+    private final int bit;
 
-    ReminderTime(String displayName, int minutesBeforeDeadline) {
+    ReminderTime(String displayName, int minutesBeforeDeadline, int bit) {
         this.displayName = displayName;
         this.minutesBeforeDeadline = minutesBeforeDeadline;
+        this.bit = bit;
+    }
+
+    /**
+     * Маска из битов указанных напоминаний
+     */
+    public static int mask(Collection<ReminderTime> reminderTimes) {
+        int mask = 0;
+        for (ReminderTime time : reminderTimes) {
+            mask |= time.bit;
+        }
+        return mask;
     }
 
     /**
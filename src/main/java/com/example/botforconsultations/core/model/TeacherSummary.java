@@ -0,0 +1,13 @@
+package com.example.botforconsultations.core.model;
+
+/**
+ * Запись справочника преподавателей (см. TeacherDirectory).
+ * Неизменяемая копия нужных для списков и поиска полей, без связи с сессией JPA.
+ *
+ * @param id        ID преподавателя
+ * @param firstName имя
+ * @param lastName  фамилия (может быть null)
+ * @param searchKey нормализованное "имя фамилия" для поиска: нижний регистр, ё заменена на е
+ */
+public record TeacherSummary(Long id, String firstName, String lastName, String searchKey) {
+}
@@ -15,7 +15,6 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,6 +22,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(
@@ -41,7 +41,10 @@ public class TelegramUser extends User {
     private String phone;
     private boolean hasConfirmed;
 
+    // EAGER: пользователи из TelegramUserCache отсоединены от сессии, а экраны профиля читают reminderTimes.
+    // При загрузке списка пользователей (например, студентов консультации) коллекции читаются пачками
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
     @CollectionTable(name = "user_reminder_times", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "reminder_time")
     @Enumerated(EnumType.STRING)
@@ -73,7 +76,10 @@ public class TelegramUser extends User {
     @Builder.Default
     private List<Subscription> teacherSubscriptions = new ArrayList<>();
 
-    // Токен Google Calendar - при удалении пользователя удаляется токен
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
-    private GoogleCalendarToken googleCalendarToken;
+    // Токен Google Calendar (не больше одного) - при удалении пользователя удаляется токен.
+    // Коллекция, а не @OneToOne: обратная сторона OneToOne загружается отдельным запросом для каждого пользователя
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    @ToString.Exclude
+    private List<GoogleCalendarToken> googleCalendarTokens = new ArrayList<>();
 }
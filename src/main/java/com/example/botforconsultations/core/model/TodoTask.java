@@ -60,6 +60,10 @@ public class TodoTask {
     @Column(name = "reminder_sent", nullable = false)
     private Boolean reminderSent;
 
+    // Отправленные напоминания: бит ReminderTime.getBit() выставляется после отправки
+    @Column(name = "sent_reminders", nullable = false)
+    private Integer sentReminders;
+
     @Column(name = "google_calendar_event_id")
     private String googleCalendarEventId; // Для будущей интеграции
 
@@ -72,5 +76,30 @@ public class TodoTask {
         if (reminderSent == null) {
             reminderSent = false;
         }
+        if (sentReminders == null) {
+            sentReminders = 0;
+        }
+    }
+
+    /**
+     * Отправлено ли напоминание за указанное время до дедлайна
+     */
+    public boolean isReminderSent(ReminderTime reminderTime) {
+        return sentReminders != null && (sentReminders & reminderTime.getBit()) != 0;
+    }
+
+    /**
+     * Отметить напоминание как отправленное
+     */
+    public void markReminderSent(ReminderTime reminderTime) {
+        sentReminders = (sentReminders != null ? sentReminders : 0) | reminderTime.getBit();
+    }
+
+    /**
+     * Сбросить отправленные напоминания (например, после переноса дедлайна)
+     */
+    public void resetReminders() {
+        sentReminders = 0;
+        reminderSent = false;
     }
 }
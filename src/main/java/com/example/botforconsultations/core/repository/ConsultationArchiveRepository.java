@@ -0,0 +1,213 @@
+package com.example.botforconsultations.core.repository;
+
+import com.example.botforconsultations.core.model.ArchivedConsultation;
+import com.example.botforconsultations.core.model.ConsultationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Архив прошедших консультаций (consultation_archive, student_consultation_archive).
+ * <p>
+ * Таблицы секционированы по месяцу даты консультации (PARTITION BY RANGE), секция месяца
+ * называется {table}_YYYY_MM и создаётся перед переносом в неё строк. Старые данные удаляются
+ * отсоединением и удалением целой секции - без построчного DELETE и раздувания таблицы.
+ * <p>
+ * Секционированные таблицы не сопоставлены с JPA-сущностями, поэтому работа идёт через JdbcTemplate.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ConsultationArchiveRepository {
+
+    public static final String CONSULTATION_TABLE = "consultation_archive";
+    public static final String REGISTRATION_TABLE = "student_consultation_archive";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String ARCHIVE_CONSULTATIONS_SQL =
+            "INSERT INTO consultation_archive (id, teacher_id, teacher_name, title, date, start_time, end_time, " +
+                    "capacity, status, closed_reason, registered_count, archived_at) " +
+                    "SELECT c.id, c.teacher_id, trim(concat_ws(' ', t.first_name, t.last_name)), c.title, c.date, " +
+                    "c.start_time, c.end_time, c.capacity, c.status, c.closed_reason, " +
+                    "(SELECT count(*) FROM student_consultation sc WHERE sc.consultation_id = c.id), ? " +
+                    "FROM consultation c LEFT JOIN telegram_users t ON t.id = c.teacher_id " +
+                    "WHERE c.id = ANY (?) " +
+                    "ON CONFLICT DO NOTHING";
+    private static final String ARCHIVE_REGISTRATIONS_SQL =
+            "INSERT INTO student_consultation_archive (id, consultation_id, student_id, message, consultation_date) " +
+                    "SELECT sc.id, sc.consultation_id, sc.student_id, sc.message, c.date " +
+                    "FROM student_consultation sc JOIN consultation c ON c.id = sc.consultation_id " +
+                    "WHERE sc.consultation_id = ANY (?) " +
+                    "ON CONFLICT DO NOTHING";
+    private static final String PARTITIONS_SQL =
+            "SELECT child.relname FROM pg_inherits " +
+                    "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent " +
+                    "JOIN pg_class child ON child.oid = pg_inherits.inhrelid " +
+                    "WHERE parent.relname = ?";
+    private static final String SELECT_SQL =
+            "SELECT id, teacher_id, teacher_name, title, date, start_time, end_time, capacity, status, " +
+                    "closed_reason, registered_count, archived_at FROM consultation_archive ";
+    private static final String COUNT_SQL =
+            "SELECT count(*) FROM consultation_archive ";
+
+    private static final RowMapper<ArchivedConsultation> ROW_MAPPER = (rs, rowNum) -> {
+        Time startTime = rs.getTime("start_time");
+        Time endTime = rs.getTime("end_time");
+        String status = rs.getString("status");
+        return new ArchivedConsultation(
+                rs.getLong("id"),
+                rs.getLong("teacher_id"),
+                rs.getString("teacher_name"),
+                rs.getString("title"),
+                rs.getDate("date").toLocalDate(),
+                startTime != null ? startTime.toLocalTime() : null,
+                endTime != null ? endTime.toLocalTime() : null,
+                rs.getObject("capacity", Integer.class),
+                status != null ? ConsultationStatus.valueOf(status) : null,
+                rs.getString("closed_reason"),
+                rs.getInt("registered_count"),
+                rs.getTimestamp("archived_at").toLocalDateTime()
+        );
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Создать недостающие месячные секции обеих таблиц архива
+     *
+     * @param from первый месяц (включительно)
+     * @param to   последний месяц (включительно)
+     */
+    public void ensureMonthlyPartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            createPartition(CONSULTATION_TABLE, month);
+            createPartition(REGISTRATION_TABLE, month);
+        }
+    }
+
+    private void createPartition(String table, YearMonth month) {
+        // Имя и границы строятся из YearMonth, пользовательский ввод в DDL не попадает
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month) +
+                " PARTITION OF " + table +
+                " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * Скопировать консультации в архив (вместе с количеством записей).
+     * Повторный перенос уже заархивированных консультаций пропускается.
+     *
+     * @return количество добавленных в архив консультаций
+     */
+    public int archiveConsultations(List<Long> consultationIds, LocalDateTime archivedAt) {
+        return jdbcTemplate.update(ARCHIVE_CONSULTATIONS_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(archivedAt));
+            ps.setArray(2, toBigintArray(ps.getConnection(), consultationIds));
+        });
+    }
+
+    /**
+     * Скопировать записи студентов на консультации в архив
+     *
+     * @return количество добавленных в архив записей
+     */
+    public int archiveRegistrations(List<Long> consultationIds) {
+        return jdbcTemplate.update(ARCHIVE_REGISTRATIONS_SQL,
+                ps -> ps.setArray(1, toBigintArray(ps.getConnection(), consultationIds)));
+    }
+
+    private Array toBigintArray(Connection connection, List<Long> ids) throws SQLException {
+        return connection.createArrayOf("bigint", ids.toArray());
+    }
+
+    /**
+     * Месяцы, для которых у таблицы архива есть секции
+     */
+    public List<YearMonth> findPartitionMonths(String table) {
+        List<YearMonth> months = new ArrayList<>();
+        String prefix = table + "_";
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table)) {
+            if (name.startsWith(prefix)) {
+                try {
+                    months.add(YearMonth.parse(name.substring(prefix.length()), PARTITION_SUFFIX));
+                } catch (RuntimeException e) {
+                    log.warn("Skipping archive partition with unexpected name: {}", name);
+                }
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /**
+     * Отсоединить и удалить секцию месяца
+     */
+    public void dropPartition(String table, YearMonth month) {
+        String partition = partitionName(table, month);
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+    }
+
+    /**
+     * Найти консультации в архиве (сначала последние)
+     *
+     * @param from      начало периода (включительно, null - без ограничения)
+     * @param to        конец периода (включительно, null - без ограничения)
+     * @param teacherId преподаватель (null - все)
+     */
+    public List<ArchivedConsultation> find(LocalDate from, LocalDate to, Long teacherId, int offset, int limit) {
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(from, to, teacherId, args);
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(SELECT_SQL + where + "ORDER BY date DESC, start_time DESC, id DESC LIMIT ? OFFSET ?",
+                ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Количество консультаций в архиве по тем же условиям, что и find
+     */
+    public long count(LocalDate from, LocalDate to, Long teacherId) {
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(from, to, teacherId, args);
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL + where, Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    // Условие по дате позволяет PostgreSQL не читать секции вне периода
+    private String buildWhere(LocalDate from, LocalDate to, Long teacherId, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add("date >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("date <= ?");
+            args.add(Date.valueOf(to));
+        }
+        if (teacherId != null) {
+            conditions.add("teacher_id = ?");
+            args.add(teacherId);
+        }
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ";
+    }
+
+    private String partitionName(String table, YearMonth month) {
+        return table + "_" + month.format(PARTITION_SUFFIX);
+    }
+}
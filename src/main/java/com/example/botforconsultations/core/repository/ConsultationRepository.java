@@ -3,6 +3,8 @@ package com.example.botforconsultations.core.repository;
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.ConsultationStatus;
 import com.example.botforconsultations.core.model.TelegramUser;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,30 +12,155 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Консультации.
+ * Преподаватель загружается лениво, поэтому методы, результат которых выводится пользователю,
+ * подгружают его тем же запросом через entity graph.
+ */
 @Repository
 public interface ConsultationRepository extends JpaRepository<Consultation, Long> {
-    List<Consultation> findByTeacherOrderByStartTimeAsc(TelegramUser teacher);
+
+    @Override
+    @EntityGraph(attributePaths = "teacher")
+    Optional<Consultation> findById(Long id);
 
     // Для запросов консультаций: teacher = студент, status = REQUEST
+    @EntityGraph(attributePaths = "teacher")
     List<Consultation> findByTeacherAndStatusOrderByIdDesc(TelegramUser student, ConsultationStatus status);
 
+    // Постраничный (keyset) просмотр по статусу: первая страница и страницы после курсора
+    @EntityGraph(attributePaths = "teacher")
+    List<Consultation> findByStatusOrderByIdDesc(ConsultationStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "teacher")
+    List<Consultation> findByStatusAndIdLessThanOrderByIdDesc(ConsultationStatus status, Long id, Pageable pageable);
+
+    // То же в обратном порядке: последняя страница и страницы до курсора
+    @EntityGraph(attributePaths = "teacher")
+    List<Consultation> findByStatusOrderByIdAsc(ConsultationStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "teacher")
+    List<Consultation> findByStatusAndIdGreaterThanOrderByIdAsc(ConsultationStatus status, Long id, Pageable pageable);
+
+    /**
+     * Консультации преподавателя (кроме консультаций с указанным статусом) строго между двумя ключами
+     * (дата, время начала, ID), по возрастанию ключа. Страница keyset-списка, размер задаёт Pageable.
+     * Границы записаны сравнением кортежей, чтобы PostgreSQL использовал их как границы индекса
+     * (teacher_id, date, start_time, id) и не фильтровал строки с начала списка.
+     */
+    @EntityGraph(attributePaths = "teacher")
+    @Query("SELECT c FROM Consultation c WHERE c.teacher = :teacher AND c.status <> :excluded " +
+            "AND (c.date, c.startTime, c.id) > (:fromDate, :fromTime, :fromId) " +
+            "AND (c.date, c.startTime, c.id) < (:toDate, :toTime, :toId) " +
+            "ORDER BY c.date, c.startTime, c.id")
+    List<Consultation> findTeacherConsultationsAscending(@Param("teacher") TelegramUser teacher,
+                                                         @Param("excluded") ConsultationStatus excluded,
+                                                         @Param("fromDate") LocalDate fromDate,
+                                                         @Param("fromTime") LocalTime fromTime,
+                                                         @Param("fromId") Long fromId,
+                                                         @Param("toDate") LocalDate toDate,
+                                                         @Param("toTime") LocalTime toTime,
+                                                         @Param("toId") Long toId,
+                                                         Pageable pageable);
+
+    /**
+     * То же, что findTeacherConsultationsAscending, по убыванию ключа
+     */
+    @EntityGraph(attributePaths = "teacher")
+    @Query("SELECT c FROM Consultation c WHERE c.teacher = :teacher AND c.status <> :excluded " +
+            "AND (c.date, c.startTime, c.id) > (:fromDate, :fromTime, :fromId) " +
+            "AND (c.date, c.startTime, c.id) < (:toDate, :toTime, :toId) " +
+            "ORDER BY c.date DESC, c.startTime DESC, c.id DESC")
+    List<Consultation> findTeacherConsultationsDescending(@Param("teacher") TelegramUser teacher,
+                                                          @Param("excluded") ConsultationStatus excluded,
+                                                          @Param("fromDate") LocalDate fromDate,
+                                                          @Param("fromTime") LocalTime fromTime,
+                                                          @Param("fromId") Long fromId,
+                                                          @Param("toDate") LocalDate toDate,
+                                                          @Param("toTime") LocalTime toTime,
+                                                          @Param("toId") Long toId,
+                                                          Pageable pageable);
+
     // Для scheduled tasks
+    @EntityGraph(attributePaths = "teacher")
     List<Consultation> findByStatus(ConsultationStatus status);
 
     /**
-     * Найти все открытые консультации, которые уже прошли (дата в прошлом)
+     * Закрыть пачку открытых консультаций с датой в прошлом (не больше limit строк)
+     */
+    @Modifying
+    @Query(value = "UPDATE consultation SET status = 'CLOSED' WHERE id IN (" +
+            "SELECT id FROM consultation WHERE status = 'OPEN' AND date < :date ORDER BY id LIMIT :limit)",
+            nativeQuery = true)
+    int closeExpiredBatch(@Param("date") LocalDate date, @Param("limit") int limit);
+
+    /**
+     * Занять место на консультации (или присоединиться к запросу).
+     * Одним UPDATE проверяет статус и вместимость, увеличивает счётчик и при заполнении закрывает
+     * консультацию с автозакрытием. Строка остаётся заблокированной до конца транзакции,
+     * поэтому параллельные записи на одну консультацию выполняются по очереди и не превышают вместимость.
+     *
+     * @return 1 - место занято, 0 - консультация закрыта, отменена, заполнена или не найдена
+     */
+    @Modifying
+    @Query(value = "UPDATE consultation SET registered_count = registered_count + 1, " +
+            "status = CASE WHEN auto_close_on_capacity AND capacity > 0 AND registered_count + 1 >= capacity " +
+            "THEN 'CLOSED' ELSE status END " +
+            "WHERE id = :id AND status IN ('OPEN', 'REQUEST') " +
+            "AND (capacity IS NULL OR capacity <= 0 OR registered_count < capacity)",
+            nativeQuery = true)
+    int reserveSeat(@Param("id") Long id);
+
+    /**
+     * Освободить место на консультации.
+     * Если консультация была закрыта автозакрытием при заполнении, она снова открывается.
+     *
+     * @return 1 - место освобождено, 0 - консультация не найдена или счётчик уже нулевой
+     */
+    @Modifying
+    @Query(value = "UPDATE consultation SET registered_count = registered_count - 1, " +
+            "status = CASE WHEN status = 'CLOSED' AND auto_close_on_capacity AND capacity > 0 " +
+            "AND registered_count >= capacity AND registered_count - 1 < capacity " +
+            "THEN 'OPEN' ELSE status END " +
+            "WHERE id = :id AND registered_count > 0",
+            nativeQuery = true)
+    int releaseSeat(@Param("id") Long id);
+
+    /**
+     * Освободить места студента на всех его консультациях (перед удалением студента).
+     * Консультации, закрытые автозакрытием при заполнении, снова открываются - как в releaseSeat.
+     */
+    @Modifying
+    @Query(value = "UPDATE consultation SET registered_count = registered_count - 1, " +
+            "status = CASE WHEN status = 'CLOSED' AND auto_close_on_capacity AND capacity > 0 " +
+            "AND registered_count >= capacity AND registered_count - 1 < capacity " +
+            "THEN 'OPEN' ELSE status END " +
+            "WHERE registered_count > 0 AND id IN (" +
+            "SELECT consultation_id FROM student_consultation WHERE student_id = :studentId)",
+            nativeQuery = true)
+    int releaseSeatsOfStudent(@Param("studentId") Long studentId);
+
+    /**
+     * Самая ранняя дата среди консультаций старше заданной (null - таких нет)
+     */
+    @Query("SELECT MIN(c.date) FROM Consultation c WHERE c.date < :date")
+    LocalDate findMinDateBefore(@Param("date") LocalDate date);
+
+    /**
+     * ID консультаций старше заданной даты (пачка для переноса в архив)
      */
-    @Query("SELECT c FROM Consultation c WHERE c.status = :status AND c.date < :date")
-    List<Consultation> findExpiredConsultations(@Param("status") ConsultationStatus status,
-                                                @Param("date") LocalDate date);
+    @Query(value = "SELECT id FROM consultation WHERE date < :date ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByDateBefore(@Param("date") LocalDate date, @Param("limit") int limit);
 
     /**
-     * Удалить все консультации старше заданной даты (bulk delete)
+     * Удалить консультации по ID (bulk delete)
      * ВАЖНО: Этот запрос обходит JPA каскады, поэтому нужно сначала удалить связанные записи!
      */
     @Modifying
-    @Query("DELETE FROM Consultation c WHERE c.date < :date")
-    int deleteByDateBefore(@Param("date") LocalDate date);
+    @Query("DELETE FROM Consultation c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,77 @@
+package com.example.botforconsultations.core.repository;
+
+import com.example.botforconsultations.core.model.NotificationOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEvent, Long> {
+
+    /**
+     * Проверяет, записано ли уже событие с таким ключом идемпотентности
+     */
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Захватить пачку необработанных событий, время попытки которых наступило (по порядку создания).
+     * Строки, заблокированные другим узлом, пропускаются (SKIP LOCKED), захваченные - не выбираются
+     * до истечения claimed_until, поэтому несколько экземпляров бота не отправляют одно событие дважды.
+     *
+     * @return количество захваченных событий
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE notification_outbox SET claimed_by = :claim, claimed_until = :claimedUntil " +
+            "WHERE id IN (SELECT id FROM notification_outbox WHERE processed_at IS NULL " +
+            "AND next_attempt_at <= :now AND (claimed_until IS NULL OR claimed_until < :now) " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int claimPending(@Param("claim") String claim,
+                     @Param("now") LocalDateTime now,
+                     @Param("claimedUntil") LocalDateTime claimedUntil,
+                     @Param("limit") int limit);
+
+    /**
+     * События, захваченные с указанной меткой (по порядку создания)
+     */
+    @Query("SELECT e FROM NotificationOutboxEvent e WHERE e.claimedBy = :claim AND e.processedAt IS NULL " +
+            "ORDER BY e.id")
+    List<NotificationOutboxEvent> findClaimed(@Param("claim") String claim);
+
+    /**
+     * Отметить событие обработанным
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutboxEvent e SET e.processedAt = :processedAt, e.attempts = e.attempts + 1, " +
+            "e.lastError = :error WHERE e.id = :id")
+    int markProcessed(@Param("id") Long id,
+                      @Param("processedAt") LocalDateTime processedAt,
+                      @Param("error") String error);
+
+    /**
+     * Отложить событие до следующей попытки
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.lastError = :error, e.claimedBy = NULL, e.claimedUntil = NULL WHERE e.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /**
+     * Удалить обработанные события старше заданного времени
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationOutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -3,13 +3,13 @@ package com.example.botforconsultations.core.repository;
 import com.example.botforconsultations.core.model.Consultation;
 import com.example.botforconsultations.core.model.StudentConsultation;
 import com.example.botforconsultations.core.model.TelegramUser;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +21,30 @@ public interface StudentConsultationRepository extends JpaRepository<StudentCons
      */
     boolean existsByStudentAndConsultation(TelegramUser student, Consultation consultation);
 
+    /**
+     * Записать студента на консультацию, если он ещё не записан
+     *
+     * @return 1 - запись создана, 0 - студент уже записан
+     */
+    @Modifying
+    @Query(value = "INSERT INTO student_consultation (student_id, consultation_id, message) " +
+            "VALUES (:studentId, :consultationId, :message) " +
+            "ON CONFLICT (consultation_id, student_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("studentId") Long studentId,
+                       @Param("consultationId") Long consultationId,
+                       @Param("message") String message);
+
+    /**
+     * Удалить запись студента на консультацию
+     *
+     * @return количество удалённых записей (0 - студент не был записан)
+     */
+    @Modifying
+    @Query("DELETE FROM StudentConsultation sc WHERE sc.student.id = :studentId AND sc.consultation.id = :consultationId")
+    int deleteByStudentIdAndConsultationId(@Param("studentId") Long studentId,
+                                           @Param("consultationId") Long consultationId);
+
     /**
      * Находит запись студента на консультацию
      */
@@ -34,18 +58,33 @@ public interface StudentConsultationRepository extends JpaRepository<StudentCons
     /**
      * Находит все записи студента на консультации
      */
+    @EntityGraph(attributePaths = {"consultation", "consultation.teacher"})
     List<StudentConsultation> findByStudent(TelegramUser student);
 
     /**
      * Находит все записи студента только на консультации (исключая запросы)
      */
+    @EntityGraph(attributePaths = {"consultation", "consultation.teacher"})
     @Query("SELECT sc FROM StudentConsultation sc WHERE sc.student = :student AND sc.consultation.status != 'REQUEST'")
     List<StudentConsultation> findByStudentExcludingRequests(@Param("student") TelegramUser student);
 
     /**
-     * Находит всех студентов, записанных на консультацию
+     * Находит всех студентов, записанных на консультацию (студенты загружаются тем же запросом)
+     */
+    @Query("SELECT sc FROM StudentConsultation sc JOIN FETCH sc.student WHERE sc.consultation.id = :consultationId ORDER BY sc.id")
+    List<StudentConsultation> findByConsultationIdWithStudent(@Param("consultationId") Long consultationId);
+
+    /**
+     * ID студентов, записанных на консультацию
+     */
+    @Query("SELECT sc.student.id FROM StudentConsultation sc WHERE sc.consultation.id = :consultationId")
+    List<Long> findStudentIdsByConsultationId(@Param("consultationId") Long consultationId);
+
+    /**
+     * Telegram ID студентов, записанных на консультацию (для рассылки уведомлений)
      */
-    List<StudentConsultation> findByConsultation(Consultation consultation);
+    @Query("SELECT sc.student.telegramId FROM StudentConsultation sc WHERE sc.consultation.id = :consultationId")
+    List<Long> findStudentTelegramIdsByConsultationId(@Param("consultationId") Long consultationId);
 
     /**
      * Подсчитывает количество студентов на консультации
@@ -58,9 +97,9 @@ public interface StudentConsultationRepository extends JpaRepository<StudentCons
     void deleteByConsultation(Consultation consultation);
 
     /**
-     * Удаляет все записи студентов для консультаций старше заданной даты (bulk delete)
+     * Удаляет все записи студентов для консультаций с указанными ID (bulk delete)
      */
     @Modifying
-    @Query("DELETE FROM StudentConsultation sc WHERE sc.consultation.date < :date")
-    int deleteByConsultationDateBefore(@Param("date") LocalDate date);
+    @Query("DELETE FROM StudentConsultation sc WHERE sc.consultation.id IN :consultationIds")
+    int deleteByConsultationIds(@Param("consultationIds") List<Long> consultationIds);
 }
@@ -2,6 +2,7 @@ package com.example.botforconsultations.core.repository;
 
 import com.example.botforconsultations.core.model.Subscription;
 import com.example.botforconsultations.core.model.TelegramUser;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,11 +26,13 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     /**
      * Находит все подписки студента
      */
+    @EntityGraph(attributePaths = "teacher")
     List<Subscription> findByStudent(TelegramUser student);
 
     /**
      * Находит всех подписчиков преподавателя
      */
+    @EntityGraph(attributePaths = "student")
     List<Subscription> findByTeacher(TelegramUser teacher);
 
     /**
@@ -3,6 +3,8 @@ package com.example.botforconsultations.core.repository;
 import com.example.botforconsultations.core.model.Role;
 import com.example.botforconsultations.core.model.TelegramUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,13 +12,52 @@ import java.util.Optional;
 public interface TelegramUserRepository extends JpaRepository<TelegramUser, Long> {
     List<TelegramUser> findByRoleAndHasConfirmed(Role role, boolean hasConfirmed);
 
+    /**
+     * Имена пользователей без загрузки сущностей (для справочника преподавателей)
+     */
+    List<UserNameView> findNamesByRoleAndHasConfirmed(Role role, boolean hasConfirmed);
+
     List<TelegramUser> findByHasConfirmed(boolean hasConfirmed);
 
     Optional<TelegramUser> findByTelegramId(Long telegramId);
 
-    List<TelegramUser> findByRoleAndHasConfirmedTrueAndFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(Role role, String searchQuery, String searchQuery1);
+    /**
+     * Поиск подтверждённых преподавателей по части имени или фамилии (см. TeacherSearchService).
+     * Сначала совпадения с начала слова, затем вхождения подстроки, затем похожие (опечатки) - по word similarity.
+     * Нормализованное имя совпадает с выражением индекса idx_telegram_users_name_trgm.
+     *
+     * @param query   нормализованный запрос (нижний регистр, ё заменена на е)
+     * @param pattern запрос с экранированными % и _ (для LIKE)
+     * @param limit   максимум результатов
+     * @return ID преподавателей в порядке релевантности
+     */
+    @Query(value = "SELECT id FROM (" +
+            "SELECT t.id, t.first_name, t.last_name, " +
+            "translate(lower(coalesce(t.first_name, '') || ' ' || coalesce(t.last_name, '')), 'ё', 'е') AS name " +
+            "FROM telegram_users t JOIN users u ON u.id = t.id " +
+            "WHERE t.has_confirmed AND u.role = 'TEACHER') teacher " +
+            "WHERE name LIKE '%' || :pattern || '%' OR :query <% name " +
+            "ORDER BY CASE WHEN name LIKE :pattern || '%' OR name LIKE '% ' || :pattern || '%' THEN 0 " +
+            "WHEN name LIKE '%' || :pattern || '%' THEN 1 ELSE 2 END, " +
+            "word_similarity(:query, name) DESC, last_name, first_name " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Long> searchConfirmedTeacherIds(@Param("query") String query,
+                                         @Param("pattern") String pattern,
+                                         @Param("limit") int limit);
 
     Optional<TelegramUser> findByFirstNameAndLastNameAndRole(String firstName, String lastName, Role role);
 
     Optional<TelegramUser> findByFirstNameAndRole(String firstName, Role role);
+
+    /**
+     * Проекция: ID и имя пользователя
+     */
+    interface UserNameView {
+        Long getId();
+
+        String getFirstName();
+
+        String getLastName();
+    }
 }
@@ -2,12 +2,16 @@ package com.example.botforconsultations.core.repository;
 
 import com.example.botforconsultations.core.model.TodoTask;
 import com.example.botforconsultations.core.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -33,15 +37,141 @@ public interface TodoTaskRepository extends JpaRepository<TodoTask, Long> {
     List<TodoTask> findTasksNeedingReminder(@Param("now") LocalDateTime now,
                                             @Param("reminderTime") LocalDateTime reminderTime);
 
+    /**
+     * Отметить напоминание отправленным, если его ещё никто не отметил.
+     * Условие по биту проверяется в самом UPDATE, а строка блокируется до конца транзакции,
+     * поэтому при одновременной обработке (несколько узлов, повторная загрузка расписания)
+     * обновление получает только один вызов.
+     *
+     * @param bit          бит напоминания (ReminderTime.getBit())
+     * @param requiredMask биты всех напоминаний преподавателя: когда все отправлены, выставляется reminder_sent
+     * @return 1 - напоминание нужно отправить, 0 - оно уже отмечено
+     */
+    @Modifying
+    @Query(value = "UPDATE todo_tasks SET sent_reminders = sent_reminders | :bit, " +
+            "reminder_sent = ((sent_reminders | :bit) & :requiredMask) = :requiredMask " +
+            "WHERE id = :id AND (sent_reminders & :bit) = 0",
+            nativeQuery = true)
+    int markReminderSent(@Param("id") Long id,
+                         @Param("bit") int bit,
+                         @Param("requiredMask") int requiredMask);
+
     // Просроченные задачи
     @Query("SELECT t FROM TodoTask t WHERE t.isCompleted = false " +
             "AND t.deadline IS NOT NULL " +
             "AND t.deadline < :now")
     List<TodoTask> findOverdueTasks(@Param("now") LocalDateTime now);
 
-    // Все активные задачи (для деканата)
-    List<TodoTask> findByIsCompletedFalseOrderByDeadlineAsc();
-
     // Активные задачи с дедлайном после указанного времени (для напоминаний)
     List<TodoTask> findByIsCompletedFalseAndDeadlineAfter(LocalDateTime deadline);
+
+    /*
+     * Страницы keyset-списка задач: строго между двумя ключами (дедлайн, ID), размер задаёт Pageable.
+     * Границы записаны сравнением кортежей - PostgreSQL использует их как границы индекса (deadline, id),
+     * поэтому стоимость страницы не зависит от её номера. Для каждого набора фильтров свой запрос:
+     * условия вида ":param IS NULL OR ..." и "IN (true, false)" мешают выбрать индекс.
+     */
+
+    /**
+     * Задачи преподавателя по возрастанию ключа (индекс teacher_id, deadline, id).
+     * Статус проверяется фильтром: задач у одного преподавателя немного.
+     */
+    @EntityGraph(attributePaths = {"teacher", "createdBy"})
+    @Query("SELECT t FROM TodoTask t WHERE t.teacher.id = :teacherId " +
+            "AND t.isCompleted IN :statuses AND t.deadline IS NOT NULL " +
+            "AND (t.deadline, t.id) > (:fromDeadline, :fromId) " +
+            "AND (t.deadline, t.id) < (:toDeadline, :toId) " +
+            "ORDER BY t.deadline, t.id")
+    List<TodoTask> findTeacherTasksAscending(@Param("teacherId") Long teacherId,
+                                             @Param("statuses") Collection<Boolean> statuses,
+                                             @Param("fromDeadline") LocalDateTime fromDeadline,
+                                             @Param("fromId") Long fromId,
+                                             @Param("toDeadline") LocalDateTime toDeadline,
+                                             @Param("toId") Long toId,
+                                             Pageable pageable);
+
+    /**
+     * То же, что findTeacherTasksAscending, по убыванию ключа
+     */
+    @EntityGraph(attributePaths = {"teacher", "createdBy"})
+    @Query("SELECT t FROM TodoTask t WHERE t.teacher.id = :teacherId " +
+            "AND t.isCompleted IN :statuses AND t.deadline IS NOT NULL " +
+            "AND (t.deadline, t.id) > (:fromDeadline, :fromId) " +
+            "AND (t.deadline, t.id) < (:toDeadline, :toId) " +
+            "ORDER BY t.deadline DESC, t.id DESC")
+    List<TodoTask> findTeacherTasksDescending(@Param("teacherId") Long teacherId,
+                                              @Param("statuses") Collection<Boolean> statuses,
+                                              @Param("fromDeadline") LocalDateTime fromDeadline,
+                                              @Param("fromId") Long fromId,
+                                              @Param("toDeadline") LocalDateTime toDeadline,
+                                              @Param("toId") Long toId,
+                                              Pageable pageable);
+
+    /**
+     * Задачи всех преподавателей по возрастанию ключа (индекс deadline, id)
+     */
+    @EntityGraph(attributePaths = {"teacher", "createdBy"})
+    @Query("SELECT t FROM TodoTask t WHERE t.deadline IS NOT NULL " +
+            "AND (t.deadline, t.id) > (:fromDeadline, :fromId) " +
+            "AND (t.deadline, t.id) < (:toDeadline, :toId) " +
+            "ORDER BY t.deadline, t.id")
+    List<TodoTask> findAllTasksAscending(@Param("fromDeadline") LocalDateTime fromDeadline,
+                                         @Param("fromId") Long fromId,
+                                         @Param("toDeadline") LocalDateTime toDeadline,
+                                         @Param("toId") Long toId,
+                                         Pageable pageable);
+
+    /**
+     * То же, что findAllTasksAscending, по убыванию ключа
+     */
+    @EntityGraph(attributePaths = {"teacher", "createdBy"})
+    @Query("SELECT t FROM TodoTask t WHERE t.deadline IS NOT NULL " +
+            "AND (t.deadline, t.id) > (:fromDeadline, :fromId) " +
+            "AND (t.deadline, t.id) < (:toDeadline, :toId) " +
+            "ORDER BY t.deadline DESC, t.id DESC")
+    List<TodoTask> findAllTasksDescending(@Param("fromDeadline") LocalDateTime fromDeadline,
+                                          @Param("fromId") Long fromId,
+                                          @Param("toDeadline") LocalDateTime toDeadline,
+                                          @Param("toId") Long toId,
+                                          Pageable pageable);
+
+    /**
+     * Задачи всех преподавателей с заданным статусом по возрастанию ключа (индекс is_completed, deadline, id)
+     */
+    @EntityGraph(attributePaths = {"teacher", "createdBy"})
+    @Query("SELECT t FROM TodoTask t WHERE t.isCompleted = :completed AND t.deadline IS NOT NULL " +
+            "AND (t.deadline, t.id) > (:fromDeadline, :fromId) " +
+            "AND (t.deadline, t.id) < (:toDeadline, :toId) " +
+            "ORDER BY t.deadline, t.id")
+    List<TodoTask> findAllTasksByStatusAscending(@Param("completed") boolean completed,
+                                                 @Param("fromDeadline") LocalDateTime fromDeadline,
+                                                 @Param("fromId") Long fromId,
+                                                 @Param("toDeadline") LocalDateTime toDeadline,
+                                                 @Param("toId") Long toId,
+                                                 Pageable pageable);
+
+    /**
+     * То же, что findAllTasksByStatusAscending, по убыванию ключа
+     */
+    @EntityGraph(attributePaths = {"teacher", "createdBy"})
+    @Query("SELECT t FROM TodoTask t WHERE t.isCompleted = :completed AND t.deadline IS NOT NULL " +
+            "AND (t.deadline, t.id) > (:fromDeadline, :fromId) " +
+            "AND (t.deadline, t.id) < (:toDeadline, :toId) " +
+            "ORDER BY t.deadline DESC, t.id DESC")
+    List<TodoTask> findAllTasksByStatusDescending(@Param("completed") boolean completed,
+                                                  @Param("fromDeadline") LocalDateTime fromDeadline,
+                                                  @Param("fromId") Long fromId,
+                                                  @Param("toDeadline") LocalDateTime toDeadline,
+                                                  @Param("toId") Long toId,
+                                                  Pageable pageable);
+
+    /**
+     * Количество задач с фильтрами: дедлайн строго между границами
+     */
+    @Query("SELECT COUNT(t) FROM TodoTask t WHERE (:teacherId IS NULL OR t.teacher.id = :teacherId) " +
+            "AND t.isCompleted IN :statuses AND t.deadline > :fromDeadline AND t.deadline < :toDeadline")
+    long countTasks(@Param("teacherId") Long teacherId,
+                    @Param("statuses") Collection<Boolean> statuses,
+                    @Param("fromDeadline") LocalDateTime fromDeadline,
+                    @Param("toDeadline") LocalDateTime toDeadline);
 }
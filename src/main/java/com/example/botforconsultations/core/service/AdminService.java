@@ -1,20 +1,27 @@
 package com.example.botforconsultations.core.service;
 
 import com.example.botforconsultations.api.bot.service.NotificationService;
+import com.example.botforconsultations.api.bot.service.TeacherDirectory;
+import com.example.botforconsultations.api.bot.service.TelegramUserCache;
 import com.example.botforconsultations.api.dto.UserDto;
 import com.example.botforconsultations.core.exception.AuthenticationException;
 import com.example.botforconsultations.core.exception.BadRequestException;
 import com.example.botforconsultations.core.model.AdminUser;
+import com.example.botforconsultations.core.model.ArchivedConsultation;
 import com.example.botforconsultations.core.model.Role;
 import com.example.botforconsultations.core.model.TelegramUser;
 import com.example.botforconsultations.core.model.User;
+import com.example.botforconsultations.core.repository.ConsultationArchiveRepository;
+import com.example.botforconsultations.core.repository.ConsultationRepository;
 import com.example.botforconsultations.core.repository.TelegramUserRepository;
 import com.example.botforconsultations.core.repository.UserRepository;
 import com.example.botforconsultations.core.util.GetModelOrThrow;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
@@ -27,6 +34,10 @@ public class AdminService {
 
     private final UserRepository userRepository;
     private final TelegramUserRepository telegramUserRepository;
+    private final TelegramUserCache telegramUserCache;
+    private final TeacherDirectory teacherDirectory;
+    private final ConsultationRepository consultationRepository;
+    private final ConsultationArchiveRepository consultationArchiveRepository;
 
     private final GetModelOrThrow getModelOrThrow;
 
@@ -60,6 +71,10 @@ public class AdminService {
 
             telegramUser.setHasConfirmed(activate);
             userRepository.save(telegramUser);
+            telegramUserCache.invalidate(telegramUser.getTelegramId());
+            if (telegramUser.getRole() == Role.TEACHER) {
+                teacherDirectory.changed();
+            }
 
             if (activate) {
                 if (telegramUser.getRole() == Role.TEACHER) {
@@ -76,9 +91,18 @@ public class AdminService {
     /**
      * Удалить пользователя
      */
+    @Transactional
     public void deleteUser(Long id) {
         User user = getModelOrThrow.getUserById(id);
+        // Записи студента удаляются каскадно - освобождаем занятые им места
+        consultationRepository.releaseSeatsOfStudent(user.getId());
         userRepository.delete(user);
+        if (user instanceof TelegramUser telegramUser) {
+            telegramUserCache.invalidate(telegramUser.getTelegramId());
+        }
+        if (user.getRole() == Role.TEACHER) {
+            teacherDirectory.changed();
+        }
     }
 
     /**
@@ -96,6 +120,10 @@ public class AdminService {
             }
 
             userRepository.save(telegramUser);
+            telegramUserCache.invalidate(telegramUser.getTelegramId());
+            if (telegramUser.getRole() == Role.TEACHER) {
+                teacherDirectory.changed();
+            }
         } else {
             throw new BadRequestException("Пользователь не найден");
         }
@@ -126,4 +154,29 @@ public class AdminService {
             throw new BadRequestException("Пользователь не найден");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Получить страницу консультаций из архива (сначала последние)
+     */
+    public List<ArchivedConsultation> getArchivedConsultations(LocalDate from, LocalDate to, Long teacherId,
+                                                               int page, int size) {
+        validateArchiveQuery(from, to, page, size);
+        return consultationArchiveRepository.find(from, to, teacherId, page * size, size);
+    }
+
+    /**
+     * Количество консультаций в архиве по фильтру
+     */
+    public long countArchivedConsultations(LocalDate from, LocalDate to, Long teacherId) {
+        return consultationArchiveRepository.count(from, to, teacherId);
+    }
+
+    private void validateArchiveQuery(LocalDate from, LocalDate to, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new BadRequestException("Номер страницы должен быть неотрицательным, размер - от 1 до 100");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("Начало периода позже его конца");
+        }
+    }
+}
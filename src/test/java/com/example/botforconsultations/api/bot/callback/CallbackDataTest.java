@@ -0,0 +1,67 @@
+package com.example.botforconsultations.api.bot.callback;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Формат callback_data: разбор обратно в маршрут и аргументы, лимит Telegram в 64 байта и запрет разделителя в аргументах.
+ */
+class CallbackDataTest {
+
+    @Test
+    void encodedDataParsesBackToRouteAndArgs() {
+        String data = CallbackData.encode("pg", "c.f.42", 17L);
+
+        CallbackData parsed = CallbackData.parse(data);
+
+        assertThat(data).isEqualTo("pg:c.f.42:17");
+        assertThat(parsed.route()).isEqualTo("pg");
+        assertThat(parsed.args()).containsExactly("c.f.42", "17");
+        assertThat(parsed.longArg(1)).isEqualTo(17L);
+    }
+
+    @Test
+    void dataOfExactly64BytesIsAccepted() {
+        String data = CallbackData.encode("r", "x".repeat(62));
+
+        assertThat(data).hasSize(CallbackData.MAX_BYTES);
+    }
+
+    @Test
+    void dataLongerThan64BytesIsRejected() {
+        assertThatThrownBy(() -> CallbackData.encode("r", "x".repeat(63)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void limitCountsUtf8BytesNotCharacters() {
+        // 32 кириллических символа - 64 байта, вместе с маршрутом больше лимита
+        assertThatThrownBy(() -> CallbackData.encode("r", "я".repeat(32)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void argumentWithSeparatorIsRejected() {
+        assertThatThrownBy(() -> CallbackData.encode("pk", "c:1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parseKeepsEmptyArguments() {
+        CallbackData parsed = CallbackData.parse("pg:c:");
+
+        assertThat(parsed.args()).containsExactly("c", "");
+    }
+
+    @Test
+    void missingOrInvalidArgumentsAreNull() {
+        CallbackData parsed = CallbackData.parse("pk:c:abc");
+
+        assertThat(parsed.longArg(1)).isNull();
+        assertThat(parsed.arg(5)).isNull();
+        assertThat(CallbackData.parse("")).isNull();
+        assertThat(CallbackData.parse(null)).isNull();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.botforconsultations.api.bot.command;
+
+import com.example.botforconsultations.api.bot.utils.KeyboardConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск текстовой команды: реестр против прежнего switch по тексту кнопки.
+ * <p>
+ * Набор команд - команды деканата (самый длинный switch). Обработчики только считают вызовы,
+ * поэтому измеряется сама диспетчеризация. Запуск: main этого класса из IDE или
+ * {@code java -cp <test-classpath> org.openjdk.jmh.Main TextCommandDispatchBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextCommandDispatchBenchmark {
+
+    private static final List<String> COMMANDS = List.of(
+            KeyboardConstants.HELP,
+            KeyboardConstants.TEACHERS_MENU,
+            KeyboardConstants.ALL_TEACHERS,
+            KeyboardConstants.SEARCH_TEACHER,
+            KeyboardConstants.ALL_TASKS,
+            KeyboardConstants.CREATE_TASK,
+            KeyboardConstants.TEACHER_TASKS,
+            KeyboardConstants.TEACHER_CONSULTATIONS,
+            KeyboardConstants.STUDENT_LIST,
+            KeyboardConstants.MARK_COMPLETED,
+            KeyboardConstants.MARK_PENDING,
+            KeyboardConstants.EDIT_TASK,
+            KeyboardConstants.EDIT_TASK_TITLE,
+            KeyboardConstants.EDIT_TASK_DESCRIPTION,
+            KeyboardConstants.EDIT_TASK_DEADLINE,
+            KeyboardConstants.DELETE_TASK,
+            KeyboardConstants.CONFIRM_DELETE,
+            KeyboardConstants.MAIN_MENU,
+            KeyboardConstants.BACK_TO_TEACHERS,
+            KeyboardConstants.BACK_TO_LIST,
+            KeyboardConstants.BACK,
+            KeyboardConstants.FILTER_PAST,
+            KeyboardConstants.FILTER_ALL,
+            KeyboardConstants.FILTER_FUTURE,
+            KeyboardConstants.FILTER_TASK_INCOMPLETE,
+            KeyboardConstants.FILTER_TASK_ALL,
+            KeyboardConstants.FILTER_TASK_COMPLETED
+    );
+
+    /**
+     * Первая команда switch, последняя и произвольный текст (ввод при поиске преподавателя)
+     */
+    @Param({KeyboardConstants.HELP, KeyboardConstants.FILTER_TASK_COMPLETED, "Иванов"})
+    public String text;
+
+    private final Long chatId = 42L;
+    private final TextCommandRegistry registry = new TextCommandRegistry("deanery");
+    private long handled;
+
+    // Текст приходит в каждом сообщении новой строкой, хеш не закеширован
+    private char[] chars;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < COMMANDS.size(); i++) {
+            int command = i;
+            registry.register(COMMANDS.get(i), ignored -> handled += command);
+        }
+        chars = text.toCharArray();
+    }
+
+    @Benchmark
+    public long registry() {
+        String message = new String(chars);
+        if (!registry.dispatch(message, chatId)) {
+            handled--;
+        }
+        return handled;
+    }
+
+    @Benchmark
+    public long stringSwitch() {
+        String message = new String(chars);
+        switch (message) {
+            case KeyboardConstants.HELP -> handled += 0;
+            case KeyboardConstants.TEACHERS_MENU -> handled += 1;
+            case KeyboardConstants.ALL_TEACHERS -> handled += 2;
+            case KeyboardConstants.SEARCH_TEACHER -> handled += 3;
+            case KeyboardConstants.ALL_TASKS -> handled += 4;
+            case KeyboardConstants.CREATE_TASK -> handled += 5;
+            case KeyboardConstants.TEACHER_TASKS -> handled += 6;
+            case KeyboardConstants.TEACHER_CONSULTATIONS -> handled += 7;
+            case KeyboardConstants.STUDENT_LIST -> handled += 8;
+            case KeyboardConstants.MARK_COMPLETED -> handled += 9;
+            case KeyboardConstants.MARK_PENDING -> handled += 10;
+            case KeyboardConstants.EDIT_TASK -> handled += 11;
+            case KeyboardConstants.EDIT_TASK_TITLE -> handled += 12;
+            case KeyboardConstants.EDIT_TASK_DESCRIPTION -> handled += 13;
+            case KeyboardConstants.EDIT_TASK_DEADLINE -> handled += 14;
+            case KeyboardConstants.DELETE_TASK -> handled += 15;
+            case KeyboardConstants.CONFIRM_DELETE -> handled += 16;
+            case KeyboardConstants.MAIN_MENU -> handled += 17;
+            case KeyboardConstants.BACK_TO_TEACHERS -> handled += 18;
+            case KeyboardConstants.BACK_TO_LIST -> handled += 19;
+            case KeyboardConstants.BACK -> handled += 20;
+            case KeyboardConstants.FILTER_PAST -> handled += 21;
+            case KeyboardConstants.FILTER_ALL -> handled += 22;
+            case KeyboardConstants.FILTER_FUTURE -> handled += 23;
+            case KeyboardConstants.FILTER_TASK_INCOMPLETE -> handled += 24;
+            case KeyboardConstants.FILTER_TASK_ALL -> handled += 25;
+            case KeyboardConstants.FILTER_TASK_COMPLETED -> handled += 26;
+            default -> handled--;
+        }
+        return handled;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextCommandDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
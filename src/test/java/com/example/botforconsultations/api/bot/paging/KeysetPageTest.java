@@ -0,0 +1,65 @@
+package com.example.botforconsultations.api.bot.paging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Страницы списка в памяти: соседние страницы не пересекаются, даже если список изменился между переходами.
+ */
+class KeysetPageTest {
+
+    private static final Function<String, String> KEY = Function.identity();
+
+    @Test
+    void forwardAndBackwardPagesDoNotOverlap() {
+        List<String> all = List.of("a", "b", "c", "d", "e", "f", "g");
+
+        KeysetPage<String> first = KeysetPage.ofList(all, PageCursor.first(), 3, KEY);
+        KeysetPage<String> second = KeysetPage.ofList(all, first.next(), 3, KEY);
+        KeysetPage<String> back = KeysetPage.ofList(all, second.previous(), 3, KEY);
+
+        assertThat(first.items()).containsExactly("a", "b", "c");
+        assertThat(second.items()).containsExactly("d", "e", "f");
+        assertThat(back.items()).containsExactly("a", "b", "c");
+        assertThat(back.hasPrevious()).isFalse();
+    }
+
+    @Test
+    void previousPageStopsBeforeCursorWhenElementShiftedToStart() {
+        List<String> before = List.of("a", "b", "c", "d", "e", "f");
+        KeysetPage<String> second = KeysetPage.ofList(before, PageCursor.after("c"), 3, KEY);
+        assertThat(second.items()).containsExactly("d", "e", "f");
+
+        // Первые элементы удалены: элемент курсора "d" теперь на позиции 1 < размера страницы
+        List<String> after = List.of("c", "d", "e", "f");
+        KeysetPage<String> previous = KeysetPage.ofList(after, second.previous(), 3, KEY);
+
+        assertThat(previous.items()).containsExactly("c");
+        assertThat(previous.hasPrevious()).isFalse();
+        assertThat(previous.next()).isEqualTo(PageCursor.after("c"));
+    }
+
+    @Test
+    void previousPageOfFirstElementShowsFirstPage() {
+        List<String> all = List.of("d", "e", "f", "g");
+
+        KeysetPage<String> page = KeysetPage.ofList(all, PageCursor.before("d"), 3, KEY);
+
+        assertThat(page.items()).containsExactly("d", "e", "f");
+        assertThat(page.hasPrevious()).isFalse();
+    }
+
+    @Test
+    void missingCursorElementShowsFirstPage() {
+        List<String> all = List.of("a", "b", "c", "d");
+
+        KeysetPage<String> page = KeysetPage.ofList(all, PageCursor.after("x"), 3, KEY);
+
+        assertThat(page.items()).containsExactly("a", "b", "c");
+        assertThat(page.next()).isEqualTo(PageCursor.after("c"));
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.botforconsultations.api.bot.service;
+
+import com.example.botforconsultations.TestcontainersConfiguration;
+import com.example.botforconsultations.api.bot.utils.ConsultationCardCache;
+import com.example.botforconsultations.api.bot.utils.ConsultationMessageFormatter;
+import com.example.botforconsultations.api.bot.utils.MessageChunks;
+import com.example.botforconsultations.api.bot.utils.TeacherMessageFormatter;
+import com.example.botforconsultations.core.model.Consultation;
+import com.example.botforconsultations.core.model.ConsultationStatus;
+import com.example.botforconsultations.core.model.Role;
+import com.example.botforconsultations.core.model.StudentConsultation;
+import com.example.botforconsultations.core.model.Subscription;
+import com.example.botforconsultations.core.model.TelegramUser;
+import com.example.botforconsultations.core.repository.ConsultationRepository;
+import com.example.botforconsultations.core.repository.StudentConsultationRepository;
+import com.example.botforconsultations.core.repository.SubscriptionRepository;
+import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов на экранах с консультациями не зависит от количества строк (нет N+1).
+ * <p>
+ * Тест выполняется вне транзакции: сущности после вызова репозитория отсоединены,
+ * поэтому обращение к не загруженной ленивой связи при выводе упадёт с LazyInitializationException.
+ * Данные разного размера (SMALL и LARGE строк) должны стоить одинакового числа запросов.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, StudentServiceBot.class, ConsultationService.class,
+        NotificationOutboxService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ConsultationQueryCountTest {
+
+    private static final int SMALL = 3;
+    // Меньше @BatchSize у TelegramUser.reminderTimes: коллекции читаются одной пачкой
+    private static final int LARGE = 30;
+
+    private static final AtomicLong TELEGRAM_IDS = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ConsultationService consultationService;
+    @Autowired
+    private StudentServiceBot studentServiceBot;
+    @Autowired
+    private ConsultationRepository consultationRepository;
+    @Autowired
+    private StudentConsultationRepository studentConsultationRepository;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    @Autowired
+    private TelegramUserRepository telegramUserRepository;
+
+    private Statistics statistics;
+    private ConsultationMessageFormatter consultationFormatter;
+    private TeacherMessageFormatter teacherFormatter;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ConsultationCardCache cardCache = new ConsultationCardCache(100, Duration.ofMinutes(5));
+        consultationFormatter = new ConsultationMessageFormatter(cardCache);
+        teacherFormatter = new TeacherMessageFormatter(cardCache);
+    }
+
+    @Test
+    void consultationDetailsCostTheSameForAnyNumberOfRegistrations() {
+        Consultation small = consultationWithRegistrations(SMALL);
+        Consultation large = consultationWithRegistrations(LARGE);
+
+        long smallQueries = countQueries(() -> showDetails(small.getId()));
+        long largeQueries = countQueries(() -> showDetails(large.getId()));
+
+        assertThat(smallQueries).isLessThanOrEqualTo(2);
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void registeredStudentsListCostsTheSameForAnyNumberOfStudents() {
+        Consultation small = consultationWithRegistrations(SMALL);
+        Consultation large = consultationWithRegistrations(LARGE);
+
+        long smallQueries = countQueries(() -> showRegisteredStudents(small.getId(), SMALL));
+        long largeQueries = countQueries(() -> showRegisteredStudents(large.getId(), LARGE));
+
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void studentRegistrationsCostTheSameForAnyNumberOfConsultations() {
+        TelegramUser few = studentWithRegistrations(SMALL);
+        TelegramUser many = studentWithRegistrations(LARGE);
+
+        long smallQueries = countQueries(() -> showRegistrations(few, SMALL));
+        long largeQueries = countQueries(() -> showRegistrations(many, LARGE));
+
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void subscriberListCostsTheSameForAnyNumberOfSubscribers() {
+        TelegramUser small = teacherWithSubscribers(SMALL);
+        TelegramUser large = teacherWithSubscribers(LARGE);
+
+        long smallQueries = countQueries(() -> collectSubscriberChatIds(small, SMALL));
+        long largeQueries = countQueries(() -> collectSubscriberChatIds(large, LARGE));
+
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    // ========== Экраны ==========
+
+    private void showDetails(Long consultationId) {
+        Consultation consultation = consultationService.findById(consultationId);
+        String text = consultationFormatter.formatConsultationDetails(
+                consultation, consultation.getRegisteredCount(), null);
+        assertThat(text).contains(consultation.getTeacher().getFirstName());
+    }
+
+    private void showRegisteredStudents(Long consultationId, int expected) {
+        List<StudentConsultation> registrations =
+                studentConsultationRepository.findByConsultationIdWithStudent(consultationId);
+        assertThat(registrations).hasSize(expected);
+        assertThat(render(out -> teacherFormatter.writeRegisteredStudents(registrations, out))).isNotEmpty();
+    }
+
+    private void showRegistrations(TelegramUser student, int expected) {
+        List<StudentConsultation> registrations = studentServiceBot.getStudentRegistrations(student);
+        assertThat(registrations).hasSize(expected);
+        assertThat(render(out -> consultationFormatter.writeStudentRegistrations(registrations, out))).isNotEmpty();
+    }
+
+    private void collectSubscriberChatIds(TelegramUser teacher, int expected) {
+        // Как NotificationService при рассылке подписчикам
+        List<Long> chatIds = subscriptionRepository.findByTeacher(teacher).stream()
+                .map(subscription -> subscription.getStudent().getTelegramId())
+                .toList();
+        assertThat(chatIds).hasSize(expected).doesNotContainNull();
+    }
+
+    private List<String> render(Consumer<MessageChunks> writer) {
+        List<String> messages = new ArrayList<>();
+        MessageChunks chunks = new MessageChunks((text, last) -> messages.add(text));
+        writer.accept(chunks);
+        chunks.finish();
+        return messages;
+    }
+
+    private long countQueries(Runnable screen) {
+        statistics.clear();
+        screen.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // ========== Данные ==========
+
+    private Consultation consultationWithRegistrations(int students) {
+        Consultation consultation = saveConsultation(saveUser(Role.TEACHER));
+        for (int i = 0; i < students; i++) {
+            saveRegistration(saveUser(Role.STUDENT), consultation);
+        }
+        return consultation;
+    }
+
+    private TelegramUser studentWithRegistrations(int consultations) {
+        TelegramUser student = saveUser(Role.STUDENT);
+        for (int i = 0; i < consultations; i++) {
+            // У каждой консультации свой преподаватель - худший случай для загрузки преподавателей
+            saveRegistration(student, saveConsultation(saveUser(Role.TEACHER)));
+        }
+        return student;
+    }
+
+    private TelegramUser teacherWithSubscribers(int subscribers) {
+        TelegramUser teacher = saveUser(Role.TEACHER);
+        for (int i = 0; i < subscribers; i++) {
+            subscriptionRepository.save(Subscription.builder()
+                    .student(saveUser(Role.STUDENT))
+                    .teacher(teacher)
+                    .build());
+        }
+        return teacher;
+    }
+
+    private TelegramUser saveUser(Role role) {
+        TelegramUser user = TelegramUser.builder()
+                .telegramId(TELEGRAM_IDS.incrementAndGet())
+                .firstName("Имя")
+                .lastName("Фамилия")
+                .hasConfirmed(true)
+                .build();
+        user.setRole(role);
+        return telegramUserRepository.save(user);
+    }
+
+    private Consultation saveConsultation(TelegramUser teacher) {
+        return consultationRepository.save(Consultation.builder()
+                .title("Консультация")
+                .date(LocalDate.now().plusDays(7))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(11, 0))
+                .teacher(teacher)
+                .status(ConsultationStatus.OPEN)
+                .autoCloseOnCapacity(false)
+                .build());
+    }
+
+    private void saveRegistration(TelegramUser student, Consultation consultation) {
+        studentConsultationRepository.save(StudentConsultation.builder()
+                .student(student)
+                .consultation(consultation)
+                .message("Вопрос")
+                .build());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.botforconsultations.api.bot.service;
+
+import com.example.botforconsultations.TestcontainersConfiguration;
+import com.example.botforconsultations.api.bot.service.StudentServiceBot.RegistrationResult;
+import com.example.botforconsultations.core.model.Consultation;
+import com.example.botforconsultations.core.model.ConsultationStatus;
+import com.example.botforconsultations.core.model.Role;
+import com.example.botforconsultations.core.model.TelegramUser;
+import com.example.botforconsultations.core.repository.ConsultationRepository;
+import com.example.botforconsultations.core.repository.StudentConsultationRepository;
+import com.example.botforconsultations.core.repository.TelegramUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Параллельная запись на консультацию: вместимость не превышается, счётчик совпадает с числом записей.
+ * Каждая запись - отдельная транзакция, как при обработке обновлений из разных чатов.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TestcontainersConfiguration.class, StudentServiceBot.class, ConsultationService.class,
+        NotificationOutboxService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class StudentServiceBotConcurrencyTest {
+
+    private static final int STUDENTS = 40;
+    private static final int CAPACITY = 7;
+
+    private static final AtomicLong TELEGRAM_IDS = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    private StudentServiceBot studentServiceBot;
+    @Autowired
+    private ConsultationRepository consultationRepository;
+    @Autowired
+    private StudentConsultationRepository studentConsultationRepository;
+    @Autowired
+    private TelegramUserRepository telegramUserRepository;
+
+    @Test
+    void parallelRegistrationsTakeExactlyCapacitySeats() throws Exception {
+        Consultation consultation = saveConsultation(saveUser(Role.TEACHER), CAPACITY);
+        List<Callable<RegistrationResult>> registrations = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            TelegramUser student = saveUser(Role.STUDENT);
+            registrations.add(() -> studentServiceBot.register(student, consultation, "Вопрос"));
+        }
+
+        List<RegistrationResult> results = runInParallel(registrations);
+
+        assertThat(results).filteredOn(RegistrationResult::success).hasSize(CAPACITY);
+        Consultation reloaded = consultationRepository.findById(consultation.getId()).orElseThrow();
+        assertThat(reloaded.getRegisteredCount()).isEqualTo(CAPACITY);
+        assertThat(reloaded.getStatus()).isEqualTo(ConsultationStatus.CLOSED);
+        assertThat(studentConsultationRepository.findStudentIdsByConsultationId(consultation.getId()))
+                .hasSize(CAPACITY);
+    }
+
+    @Test
+    void parallelRepeatedRegistrationOfOneStudentTakesOneSeat() throws Exception {
+        // Вторая запись заполнила бы консультацию: откат занятого места должен вернуть и статус
+        Consultation consultation = saveConsultation(saveUser(Role.TEACHER), 2);
+        TelegramUser student = saveUser(Role.STUDENT);
+        List<Callable<RegistrationResult>> registrations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            registrations.add(() -> studentServiceBot.register(student, consultation, "Вопрос"));
+        }
+
+        List<RegistrationResult> results = runInParallel(registrations);
+
+        assertThat(results).filteredOn(RegistrationResult::success).hasSize(1);
+        assertThat(results).filteredOn(result -> !result.success()).allMatch(RegistrationResult::isRegistered);
+        Consultation reloaded = consultationRepository.findById(consultation.getId()).orElseThrow();
+        assertThat(reloaded.getRegisteredCount()).isEqualTo(1);
+        assertThat(reloaded.getStatus()).isEqualTo(ConsultationStatus.OPEN);
+        assertThat(studentConsultationRepository.findStudentIdsByConsultationId(consultation.getId()))
+                .containsExactly(student.getId());
+    }
+
+    private <T> List<T> runInParallel(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TelegramUser saveUser(Role role) {
+        TelegramUser user = TelegramUser.builder()
+                .telegramId(TELEGRAM_IDS.incrementAndGet())
+                .firstName("Имя")
+                .lastName("Фамилия")
+                .hasConfirmed(true)
+                .build();
+        user.setRole(role);
+        return telegramUserRepository.save(user);
+    }
+
+    private Consultation saveConsultation(TelegramUser teacher, int capacity) {
+        return consultationRepository.save(Consultation.builder()
+                .title("Консультация")
+                .date(LocalDate.now().plusDays(7))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(11, 0))
+                .teacher(teacher)
+                .status(ConsultationStatus.OPEN)
+                .capacity(capacity)
+                .autoCloseOnCapacity(true)
+                .build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import com.example.botforconsultations.api.bot.utils.ConsultationCardCache.View;
+import com.example.botforconsultations.core.model.Consultation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кеш карточек консультаций: промах после увеличения версии, карточки устаревшей версии не сохраняются.
+ */
+class ConsultationCardCacheTest {
+
+    private final ConsultationCardCache cache = new ConsultationCardCache(100, Duration.ofMinutes(5));
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void sameVersionIsRenderedOnce() {
+        Consultation consultation = consultation(1L, 3);
+
+        assertThat(cache.get(consultation, View.DETAILS, render("карточка"))).isEqualTo("карточка");
+        assertThat(cache.get(consultation, View.DETAILS, render("другая"))).isEqualTo("карточка");
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void versionBumpCausesMiss() {
+        cache.get(consultation(1L, 3), View.DETAILS, render("версия 3"));
+
+        assertThat(cache.get(consultation(1L, 4), View.DETAILS, render("версия 4"))).isEqualTo("версия 4");
+        assertThat(cache.get(consultation(1L, 4), View.DETAILS, render("снова"))).isEqualTo("версия 4");
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void olderVersionIsNotCached() {
+        cache.get(consultation(1L, 4), View.DETAILS, render("версия 4"));
+
+        // Консультация загружена до изменения: карточка строится, но не заменяет новую
+        assertThat(cache.get(consultation(1L, 3), View.DETAILS, render("версия 3"))).isEqualTo("версия 3");
+        assertThat(cache.get(consultation(1L, 3), View.DETAILS, render("версия 3"))).isEqualTo("версия 3");
+        assertThat(cache.get(consultation(1L, 4), View.DETAILS, render("снова"))).isEqualTo("версия 4");
+        assertThat(renders).hasValue(3);
+    }
+
+    @Test
+    void viewsAreCachedSeparately() {
+        Consultation consultation = consultation(1L, 3);
+
+        cache.get(consultation, View.DETAILS, render("студент"));
+        cache.get(consultation, View.TEACHER_DETAILS, render("преподаватель"));
+
+        assertThat(cache.get(consultation, View.DETAILS, render("снова"))).isEqualTo("студент");
+        assertThat(cache.get(consultation, View.TEACHER_DETAILS, render("снова"))).isEqualTo("преподаватель");
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void unsavedConsultationIsNotCached() {
+        Consultation consultation = consultation(null, 0);
+
+        cache.get(consultation, View.DETAILS, render("первая"));
+
+        assertThat(cache.get(consultation, View.DETAILS, render("вторая"))).isEqualTo("вторая");
+        assertThat(renders).hasValue(2);
+    }
+
+    private Supplier<String> render(String text) {
+        return () -> {
+            renders.incrementAndGet();
+            return text;
+        };
+    }
+
+    private static Consultation consultation(Long id, long version) {
+        return Consultation.builder()
+                .id(id)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Разбиение длинного текста на сообщения: по границам записей, без разрыва суррогатных пар.
+ */
+class MessageChunksTest {
+
+    private final List<String> messages = new ArrayList<>();
+    private final List<Boolean> lastFlags = new ArrayList<>();
+
+    @Test
+    void shortTextIsOneMessageMarkedLast() {
+        MessageChunks chunks = chunks(MessageChunks.MAX_LENGTH);
+
+        chunks.append("Заголовок\n\n").append("Запись 1\n");
+        chunks.finish();
+
+        assertThat(messages).containsExactly("Заголовок\n\nЗапись 1");
+        assertThat(lastFlags).containsExactly(true);
+    }
+
+    @Test
+    void entryThatDoesNotFitMovesWholeToNextMessage() {
+        MessageChunks chunks = chunks(20);
+
+        chunks.append("entry-one\n").append("entry-two\n").append("entry-three\n");
+        chunks.finish();
+
+        assertThat(messages).containsExactly("entry-one\nentry-two", "entry-three");
+        assertThat(lastFlags).containsExactly(false, true);
+    }
+
+    @Test
+    void oversizedEntryIsCutAtLineBreakThenAtSpace() {
+        MessageChunks chunks = chunks(12);
+
+        chunks.append("first line\nsecond part of text");
+        chunks.finish();
+
+        assertThat(messages).containsExactly("first line", "second part", "of text");
+        assertThat(messages).allMatch(message -> message.length() <= 12);
+    }
+
+    @Test
+    void cutNeverSplitsSurrogatePair() {
+        MessageChunks chunks = chunks(5);
+        String text = "abcd😀efgh😀ij";
+
+        chunks.append(text);
+        chunks.finish();
+
+        assertThat(String.join("", messages)).isEqualTo(text);
+        for (String message : messages) {
+            assertThat(message.length()).isLessThanOrEqualTo(5);
+            assertThat(Character.isHighSurrogate(message.charAt(message.length() - 1))).isFalse();
+            assertThat(Character.isLowSurrogate(message.charAt(0))).isFalse();
+        }
+    }
+
+    @Test
+    void blankTextSendsNothing() {
+        MessageChunks chunks = chunks(10);
+
+        chunks.append("   \n");
+        chunks.finish();
+
+        assertThat(messages).isEmpty();
+    }
+
+    private MessageChunks chunks(int maxLength) {
+        return new MessageChunks(maxLength, (text, last) -> {
+            messages.add(text);
+            lastFlags.add(last);
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подстановка аргументов в шаблон сообщения: MessageTemplate против String.format.
+ * <p>
+ * Шаблон - заголовок карточки задачи из TodoMessageFormatter.
+ * Время и выделение памяти на одну подстановку: запуск main этого класса (включает GC-профайлер)
+ * или {@code java -cp <test-classpath> org.openjdk.jmh.Main MessageTemplateBenchmark -prof gc},
+ * выделение - строка gc.alloc.rate.norm (байт на операцию).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+    private static final String PATTERN = "📋 Детали задачи\n\n№%d %s %s\n\n";
+    private static final MessageTemplate TEMPLATE = MessageTemplate.compile(PATTERN);
+
+    private Long id = 1234L;
+    private String statusEmoji = "⏳";
+    private String statusText = "Не выполнена";
+
+    private final StringBuilder message = new StringBuilder(1024);
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(PATTERN, id, statusEmoji, statusText);
+    }
+
+    @Benchmark
+    public String templateFormat() {
+        return MessageTemplate.format(PATTERN, id, statusEmoji, statusText);
+    }
+
+    @Benchmark
+    public String compiledTemplateRender() {
+        return TEMPLATE.render(id, statusEmoji, statusText);
+    }
+
+    /**
+     * Как в форматтерах списков: дописывание в общий буфер сообщения без промежуточной строки
+     */
+    @Benchmark
+    public int templateAppend() {
+        message.setLength(0);
+        return MessageTemplate.append(message, PATTERN, id, statusEmoji, statusText).length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageTemplateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
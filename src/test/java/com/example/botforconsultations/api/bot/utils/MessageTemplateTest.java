@@ -0,0 +1,57 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Шаблоны сообщений дают тот же текст, что и String.format, для поддерживаемых %s, %d и %%.
+ */
+class MessageTemplateTest {
+
+    @Test
+    void rendersLikeStringFormat() {
+        assertSameAsStringFormat("📋 Консультация №%d\n\n", 42L);
+        assertSameAsStringFormat("🕐 Время: %s - %s\n", "10:00", "11:30");
+        assertSameAsStringFormat("%d/%d", 3L, 10);
+        assertSameAsStringFormat("%d (без ограничений)", -7);
+        assertSameAsStringFormat("Готово на 100%%: %s%%", "да");
+        assertSameAsStringFormat("%s%s", "", "");
+        assertSameAsStringFormat("👨‍🏫 Преподаватель: %s %s\n", "Иван", null);
+        assertSameAsStringFormat("Без аргументов");
+        assertSameAsStringFormat("");
+    }
+
+    @Test
+    void appendWritesAfterExistingText() {
+        StringBuilder message = new StringBuilder("Начало. ");
+
+        MessageTemplate.append(message, "№%d %s", 5, "конец");
+
+        assertThat(message.toString()).isEqualTo("Начало. №5 конец");
+    }
+
+    @Test
+    void unsupportedSpecifiersAreRejected() {
+        assertThatThrownBy(() -> MessageTemplate.compile("%.2f")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MessageTemplate.compile("%5d")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MessageTemplate.compile("100%")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void wrongArgumentCountIsRejected() {
+        MessageTemplate template = MessageTemplate.compile("%s и %s");
+
+        assertThatThrownBy(() -> template.render("один")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> template.render("1", "2", "3")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertSameAsStringFormat(String pattern, Object... args) {
+        // Шаблон не применяет локаль, поэтому сравниваем с форматированием без локали
+        assertThat(MessageTemplate.format(pattern, args)).isEqualTo(String.format(Locale.ROOT, pattern, args));
+        assertThat(MessageTemplate.compile(pattern).render(args)).isEqualTo(String.format(Locale.ROOT, pattern, args));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.botforconsultations.api.bot.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardButton;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Готовая клавиатура уходит в Telegram тем же JSON, что и исходная ReplyKeyboardMarkup.
+ */
+class StaticKeyboardTest {
+
+    // Как в OkHttpTelegramClient: тело запроса - SendMessage, сериализованный ObjectMapper без настроек
+    private final ObjectMapper clientMapper = new ObjectMapper();
+
+    @Test
+    void sendMessageSerializesAsWithOriginalMarkup() throws Exception {
+        ReplyKeyboardMarkup markup = menu();
+
+        JsonNode original = serialize(message(markup));
+        JsonNode cached = serialize(message(StaticKeyboard.of(markup)));
+
+        assertThat(cached).isEqualTo(original);
+        assertThat(cached.get("reply_markup").get("keyboard")).hasSize(2);
+    }
+
+    @Test
+    void sameInstanceSerializesIdenticallyForDifferentMessages() throws Exception {
+        StaticKeyboard keyboard = StaticKeyboard.of(menu());
+
+        JsonNode first = serialize(message(keyboard)).get("reply_markup");
+        JsonNode second = serialize(SendMessage.builder()
+                .chatId(7L)
+                .text("Другой текст")
+                .replyMarkup(keyboard)
+                .build()).get("reply_markup");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(clientMapper.readTree(keyboard.json())).isEqualTo(first);
+    }
+
+    private JsonNode serialize(SendMessage message) throws Exception {
+        return clientMapper.readTree(clientMapper.writeValueAsString(message));
+    }
+
+    private static SendMessage message(ReplyKeyboard keyboard) {
+        return SendMessage.builder()
+                .chatId(42L)
+                .text("Главное меню")
+                .replyMarkup(keyboard)
+                .build();
+    }
+
+    private static ReplyKeyboardMarkup menu() {
+        KeyboardRow first = new KeyboardRow();
+        first.add(new KeyboardButton(KeyboardConstants.TEACHERS_MENU));
+        first.add(new KeyboardButton(KeyboardConstants.MY_REGISTRATIONS));
+        KeyboardRow second = new KeyboardRow();
+        second.add(new KeyboardButton(KeyboardConstants.HELP));
+        return ReplyKeyboardMarkup.builder()
+                .keyboard(List.of(first, second))
+                .resizeKeyboard(true)
+                .build();
+    }
+}
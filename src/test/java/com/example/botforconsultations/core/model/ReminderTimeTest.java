@@ -0,0 +1,44 @@
+package com.example.botforconsultations.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Биты напоминаний хранятся в todo_tasks.sent_reminders и не должны меняться.
+ */
+class ReminderTimeTest {
+
+    @Test
+    void bitsMatchStoredValues() {
+        assertThat(ReminderTime.MIN_15.getBit()).isEqualTo(1);
+        assertThat(ReminderTime.MIN_30.getBit()).isEqualTo(2);
+        assertThat(ReminderTime.HOUR_1.getBit()).isEqualTo(4);
+        assertThat(ReminderTime.DAY_1.getBit()).isEqualTo(8);
+    }
+
+    @Test
+    void bitsAreDistinctSingleBits() {
+        int all = 0;
+        for (ReminderTime time : ReminderTime.values()) {
+            assertThat(Integer.bitCount(time.getBit())).isEqualTo(1);
+            assertThat(all & time.getBit()).isZero();
+            all |= time.getBit();
+        }
+        assertThat(ReminderTime.mask(EnumSet.allOf(ReminderTime.class))).isEqualTo(all);
+    }
+
+    @Test
+    void taskTracksRemindersByBit() {
+        TodoTask task = TodoTask.builder().sentReminders(0).build();
+
+        task.markReminderSent(ReminderTime.HOUR_1);
+
+        assertThat(task.getSentReminders()).isEqualTo(ReminderTime.mask(List.of(ReminderTime.HOUR_1)));
+        assertThat(task.isReminderSent(ReminderTime.HOUR_1)).isTrue();
+        assertThat(task.isReminderSent(ReminderTime.MIN_15)).isFalse();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.botforconsultations.core.repository;
+
+import com.example.botforconsultations.TestcontainersConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Частые запросы репозиториев читают таблицы по индексам.
+ * <p>
+ * На пустых тестовых таблицах планировщик и так выбрал бы Seq Scan, поэтому он запрещается в транзакции теста:
+ * если Seq Scan всё равно остался в плане, подходящего индекса нет.
+ * SQL повторяет условия запросов репозиториев.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class HotQueryIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void disableSeqScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // TelegramUserRepository.findByTelegramId
+            "SELECT * FROM telegram_users WHERE telegram_id = 42",
+            // Загрузка reminderTimes пользователя
+            "SELECT * FROM user_reminder_times WHERE user_id = 1",
+            // Консультации преподавателя по статусу и дате
+            "SELECT * FROM consultation WHERE teacher_id = 1 AND status = 'OPEN' AND date >= DATE '2026-01-01'",
+            // Просроченные открытые консультации
+            "SELECT * FROM consultation WHERE status = 'OPEN' AND date < DATE '2026-01-01'",
+            // Очистка старых консультаций
+            "SELECT id FROM consultation WHERE date < DATE '2026-01-01' ORDER BY id LIMIT 100",
+            // Постраничный просмотр запросов консультаций
+            "SELECT * FROM consultation WHERE status = 'REQUEST' AND id < 100 ORDER BY id DESC LIMIT 6",
+            // Проверка записи студента на консультацию
+            "SELECT * FROM student_consultation WHERE consultation_id = 1 AND student_id = 2",
+            // Записи студента
+            "SELECT * FROM student_consultation WHERE student_id = 2",
+            // Подписчики преподавателя
+            "SELECT * FROM subscriptions WHERE teacher_id = 1",
+            // Задачи преподавателя по дедлайну
+            "SELECT * FROM todo_tasks WHERE teacher_id = 1 ORDER BY deadline",
+            // Просроченные и напоминания: активные задачи по дедлайну
+            "SELECT * FROM todo_tasks WHERE is_completed = false AND deadline < TIMESTAMP '2026-01-01 00:00'"
+    })
+    void hotQueryDoesNotScanWholeTable(String sql) {
+        assertThat(explain(sql)).doesNotContain("Seq Scan");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // TodoTaskRepository.findAllTasksAscending
+            "SELECT * FROM todo_tasks WHERE deadline IS NOT NULL "
+                    + "AND (deadline, id) > (TIMESTAMP '2026-01-01 00:00', 5) "
+                    + "AND (deadline, id) < (TIMESTAMP '9999-12-31 23:59', 9223372036854775807) "
+                    + "ORDER BY deadline, id LIMIT 11",
+            // TodoTaskRepository.findAllTasksByStatusDescending
+            "SELECT * FROM todo_tasks WHERE is_completed = true AND deadline IS NOT NULL "
+                    + "AND (deadline, id) > (TIMESTAMP '0001-01-01 00:00', 0) "
+                    + "AND (deadline, id) < (TIMESTAMP '2026-01-01 00:00', 5) "
+                    + "ORDER BY deadline DESC, id DESC LIMIT 11",
+            // TodoTaskRepository.findTeacherTasksAscending
+            "SELECT * FROM todo_tasks WHERE teacher_id = 1 AND is_completed IN (false) AND deadline IS NOT NULL "
+                    + "AND (deadline, id) > (TIMESTAMP '2026-01-01 00:00', 5) "
+                    + "AND (deadline, id) < (TIMESTAMP '9999-12-31 23:59', 9223372036854775807) "
+                    + "ORDER BY deadline, id LIMIT 11",
+            // ConsultationRepository.findTeacherConsultationsAscending
+            "SELECT * FROM consultation WHERE teacher_id = 1 AND status <> 'REQUEST' "
+                    + "AND (date, start_time, id) > (DATE '2026-01-01', TIME '10:00', 5) "
+                    + "AND (date, start_time, id) < (DATE '9999-12-31', TIME '23:59:59', 9223372036854775807) "
+                    + "ORDER BY date, start_time, id LIMIT 6"
+    })
+    void keysetBoundIsIndexCondition(String sql) {
+        String plan = explain(sql);
+
+        assertThat(plan).doesNotContain("Seq Scan");
+        // Граница курсора задаёт начало сканирования индекса, а не фильтрует строки после чтения
+        assertThat(plan).containsPattern("Index Cond: .*ROW\\(");
+    }
+
+    private String explain(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", plan);
+    }
+}